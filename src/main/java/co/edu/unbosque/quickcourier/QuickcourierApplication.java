@@ -2,8 +2,10 @@ package co.edu.unbosque.quickcourier;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class QuickcourierApplication {
 
     public static void main(String[] args) {
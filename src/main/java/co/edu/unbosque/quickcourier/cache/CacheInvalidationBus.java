@@ -0,0 +1,362 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bus de invalidación de cachés entre nodos
+ * Mantiene coherentes las cachés listadas en cache-coherence.caches cuando hay varias instancias
+ *
+ * - Cada evict/clear de una CoherentCaffeineCache se aplica localmente y se encola
+ * - Dentro de una transacción se acumula y solo se encola al confirmarla
+ * - Un flush periódico agrupa todo lo encolado en un solo mensaje (ráfagas de escrituras
+ *   producen un mensaje por intervalo); demasiadas claves de una caché se convierten en un clear
+ * - El flush corre en un hilo propio y no en el scheduler compartido de @Scheduled: cada 100 ms
+ *   no debe esperar a los demás jobs ni retrasarlos
+ * - Al recibir, se agrupan los mensajes de una misma lectura y se ignoran los propios
+ * - Tras una reconexión del transporte se vacían todas las cachés coherentes: pudieron perderse mensajes
+ *
+ * - Quien mantiene estado derivado fuera de las cachés (los índices de búsqueda) puede enterarse
+ *   con onRemoteClear de que otro nodo vació una caché
+ *
+ * Solo se propagan claves String, Long o Integer; cualquier otra clave invalida la caché completa en los demás nodos
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // NOTIFY admite payloads de hasta 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final CacheInvalidationTransport transport;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Set<String> coherentCaches;
+    private final int maxKeysPerCache;
+    private final long flushIntervalMs;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, CoherentCaffeineCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, List<Runnable>> remoteClearListeners = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private PendingInvalidations pending = new PendingInvalidations();
+    private ScheduledExecutorService flusher;
+
+    public CacheInvalidationBus(CacheInvalidationTransport transport,
+                                ObjectMapper objectMapper,
+                                @Value("${cache-coherence.enabled:true}") boolean enabled,
+                                @Value("${cache-coherence.caches:products,productsBySku,categories,shippingRules,shippingExtras,shippingExtrasByCode}") Set<String> coherentCaches,
+                                @Value("${cache-coherence.max-keys-per-cache:200}") int maxKeysPerCache,
+                                @Value("${cache-coherence.flush-interval-ms:100}") long flushIntervalMs) {
+        this.transport = transport;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.coherentCaches = Set.copyOf(coherentCaches);
+        this.maxKeysPerCache = maxKeysPerCache;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Indica si la caché debe construirse como CoherentCaffeineCache
+     */
+    public boolean isCoherent(String cacheName) {
+        return enabled && coherentCaches.contains(cacheName);
+    }
+
+    void register(CoherentCaffeineCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Acción a ejecutar cuando otro nodo vacía la caché, y tras una reconexión del transporte
+     * Corre en el hilo que recibe los mensajes: debe ser breve (encolar el trabajo, no hacerlo)
+     */
+    public void onRemoteClear(String cacheName, Runnable listener) {
+        remoteClearListeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Cache coherence disabled");
+            return;
+        }
+
+        transport.start(this::applyRemote, this::onReconnect);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+
+        logger.info("Cache coherence started as node {} for caches {}", nodeId, caches.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+        transport.stop();
+    }
+
+    void publishEvict(String cacheName, Object key) {
+        String encoded = encodeKey(key);
+        enqueue(batch -> {
+            if (encoded == null) {
+                batch.clear(cacheName);
+            } else {
+                batch.evict(cacheName, encoded, maxKeysPerCache);
+            }
+        });
+    }
+
+    void publishClear(String cacheName) {
+        enqueue(batch -> batch.clear(cacheName));
+    }
+
+    /**
+     * Una excepción cancelaría las ejecuciones siguientes del executor: se registra y se reintenta
+     * en el próximo intervalo (lo no enviado se pierde, igual que con @Scheduled)
+     */
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Cache invalidation flush failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Envía lo acumulado desde el último flush en un solo mensaje
+     */
+    public void flush() {
+        PendingInvalidations batch;
+
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new PendingInvalidations();
+        }
+
+        transport.publish(serialize(batch));
+    }
+
+    private void enqueue(Consumer<PendingInvalidations> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (pendingLock) {
+                change.accept(pending);
+            }
+            return;
+        }
+
+        PendingInvalidations transactional = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+
+        if (transactional == null) {
+            PendingInvalidations created = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (pendingLock) {
+                        pending.merge(created.clear, created.evict, maxKeysPerCache);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+                }
+            });
+            transactional = created;
+        }
+
+        change.accept(transactional);
+    }
+
+    private String serialize(PendingInvalidations batch) {
+        try {
+            String payload = objectMapper.writeValueAsString(
+                    new CacheInvalidationMessage(nodeId, batch.clear, batch.evict));
+
+            if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+                return payload;
+            }
+
+            // Demasiado grande para NOTIFY: vaciar las cachés afectadas
+            return objectMapper.writeValueAsString(
+                    new CacheInvalidationMessage(nodeId, batch.cacheNames(), Map.of()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el mensaje de invalidación", e);
+        }
+    }
+
+    private void applyRemote(List<String> payloads) {
+        PendingInvalidations merged = new PendingInvalidations();
+
+        for (String payload : payloads) {
+            CacheInvalidationMessage message;
+            try {
+                message = objectMapper.readValue(payload, CacheInvalidationMessage.class);
+            } catch (JsonProcessingException e) {
+                logger.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+                continue;
+            }
+
+            if (nodeId.equals(message.node())) {
+                continue;
+            }
+
+            merged.merge(message.clear(), message.evict(), Integer.MAX_VALUE);
+        }
+
+        for (String cacheName : merged.clear) {
+            CoherentCaffeineCache cache = caches.get(cacheName);
+            if (cache != null) {
+                cache.clearLocally();
+            }
+            notifyRemoteClear(cacheName);
+        }
+
+        merged.evict.forEach((cacheName, keys) -> {
+            CoherentCaffeineCache cache = caches.get(cacheName);
+            if (cache == null) {
+                return;
+            }
+            for (String encoded : keys) {
+                Object key = decodeKey(encoded);
+                if (key != null) {
+                    cache.evictLocally(key);
+                }
+            }
+        });
+
+        if (!merged.isEmpty()) {
+            logger.debug("Applied remote cache invalidations: clear={}, evict={}", merged.clear, merged.evict.keySet());
+        }
+    }
+
+    private void onReconnect() {
+        logger.warn("Cache invalidation channel reconnected, clearing coherent caches {}", caches.keySet());
+        caches.values().forEach(CoherentCaffeineCache::clearLocally);
+        remoteClearListeners.keySet().forEach(this::notifyRemoteClear);
+    }
+
+    private void notifyRemoteClear(String cacheName) {
+        for (Runnable listener : remoteClearListeners.getOrDefault(cacheName, List.of())) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Remote clear listener for cache {} failed: {}", cacheName, e.getMessage());
+            }
+        }
+    }
+
+    static String encodeKey(Object key) {
+        if (key instanceof String value) {
+            return "S:" + value;
+        }
+        if (key instanceof Long value) {
+            return "L:" + value;
+        }
+        if (key instanceof Integer value) {
+            return "I:" + value;
+        }
+        return null;
+    }
+
+    static Object decodeKey(String encoded) {
+        if (encoded == null || encoded.length() < 2 || encoded.charAt(1) != ':') {
+            return null;
+        }
+
+        String value = encoded.substring(2);
+
+        try {
+            return switch (encoded.charAt(0)) {
+                case 'S' -> value;
+                case 'L' -> Long.valueOf(value);
+                case 'I' -> Integer.valueOf(value);
+                default -> null;
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Invalidaciones acumuladas; un clear de una caché absorbe sus evict
+     */
+    private static final class PendingInvalidations {
+
+        private final Set<String> clear = new HashSet<>();
+        private final Map<String, Set<String>> evict = new HashMap<>();
+
+        void clear(String cacheName) {
+            clear.add(cacheName);
+            evict.remove(cacheName);
+        }
+
+        void evict(String cacheName, String key, int maxKeys) {
+            if (clear.contains(cacheName)) {
+                return;
+            }
+
+            Set<String> keys = evict.computeIfAbsent(cacheName, name -> new HashSet<>());
+            keys.add(key);
+
+            // Con demasiadas claves es más barato vaciar la caché en los demás nodos
+            if (keys.size() > maxKeys) {
+                clear(cacheName);
+            }
+        }
+
+        void merge(Set<String> clears, Map<String, Set<String>> evicts, int maxKeys) {
+            if (clears != null) {
+                clears.forEach(this::clear);
+            }
+            if (evicts != null) {
+                evicts.forEach((cacheName, keys) -> keys.forEach(key -> evict(cacheName, key, maxKeys)));
+            }
+        }
+
+        Set<String> cacheNames() {
+            Set<String> names = new HashSet<>(clear);
+            names.addAll(evict.keySet());
+            return names;
+        }
+
+        boolean isEmpty() {
+            return clear.isEmpty() && evict.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mensaje de invalidación intercambiado entre nodos (serializado como JSON)
+ *
+ * @param node Nodo emisor; cada nodo ignora sus propios mensajes
+ * @param clear Cachés a vaciar por completo
+ * @param evict Claves a invalidar por caché, codificadas con CacheInvalidationBus.encodeKey
+ */
+public record CacheInvalidationMessage(
+        String node,
+        Set<String> clear,
+        Map<String, Set<String>> evict
+) {
+}
@@ -0,0 +1,27 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Canal por el que los nodos intercambian invalidaciones de caché
+ * Implementaciones: PostgresCacheInvalidationTransport (NOTIFY/LISTEN) e
+ * InProcessCacheInvalidationTransport (un solo proceso, para pruebas locales)
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * Envía un mensaje a todos los nodos suscritos (incluido el emisor)
+     */
+    void publish(String payload);
+
+    /**
+     * Comienza a recibir mensajes
+     *
+     * @param onMessages Recibe juntos los mensajes que llegaron en la misma lectura
+     * @param onReconnect Se invoca cuando el canal se recupera tras una caída: pudieron perderse mensajes
+     */
+    void start(Consumer<List<String>> onMessages, Runnable onReconnect);
+
+    void stop();
+}
@@ -0,0 +1,126 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.stream.Collectors;
+
+/**
+ * Claves de caché compartidas entre las anotaciones (vía SpEL) y la invalidación dirigida
+ * Mantenerlas en un solo lugar evita que la clave que se guarda y la que se invalida diverjan
+ *
+ * Todas las claves son String estructurados (partes separadas por ':'), así el bus de
+ * coherencia puede propagarlas:
+ * - Un Pageable se escribe completo: página, tamaño y orden (p0s20 o p0s20o[name,ASC])
+ * - Las entradas de un usuario empiezan con u&lt;userId&gt;, para que lo cacheado para un
+ *   usuario nunca se sirva a otro
+ */
+public final class CacheKeys {
+
+    public static final String ORDERS = "orders";
+    public static final String ORDER_SUMMARIES = "orderSummaries";
+
+    private static final String SEPARATOR = ":";
+    private static final String NULL_PART = "-";
+
+    private CacheKeys() {
+    }
+
+    /**
+     * Clave de un pedido por id, visible solo para su dueño
+     */
+    public static String order(Long userId, Long orderId) {
+        return userScoped(userId, "id", orderId);
+    }
+
+    /**
+     * Clave de un pedido por número, visible solo para su dueño
+     */
+    public static String orderByNumber(Long userId, String orderNumber) {
+        return userScoped(userId, "number", orderNumber);
+    }
+
+    /**
+     * Clave de una página de la caché orderSummaries
+     */
+    public static String orderSummaryPage(Long userId, Pageable pageable) {
+        return userScoped(userId, "page", pageable);
+    }
+
+    /**
+     * Clave de una página de productos activos
+     */
+    public static String activeProductsPage(Pageable pageable) {
+        return of("active", pageable);
+    }
+
+    /**
+     * Clave de una página de productos de una categoría
+     */
+    public static String categoryProductsPage(Long categoryId, Pageable pageable) {
+        return of("category", categoryId, pageable);
+    }
+
+    /**
+     * Clave de una entrada propia de un usuario
+     */
+    public static String userScoped(Long userId, Object... parts) {
+        if (userId == null) {
+            throw new IllegalArgumentException("Una clave de usuario requiere el id del usuario");
+        }
+
+        Object[] scoped = new Object[parts.length + 1];
+        scoped[0] = "u" + userId;
+        System.arraycopy(parts, 0, scoped, 1, parts.length);
+        return of(scoped);
+    }
+
+    /**
+     * Clave estructurada con todas las partes; base de las demás y de StructuredKeyGenerator
+     */
+    public static String of(Object... parts) {
+        StringBuilder key = new StringBuilder();
+
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                key.append(SEPARATOR);
+            }
+            appendPart(key, parts[i]);
+        }
+
+        return key.toString();
+    }
+
+    private static void appendPart(StringBuilder key, Object part) {
+        if (part == null) {
+            key.append(NULL_PART);
+        } else if (part instanceof Pageable pageable) {
+            appendPage(key, pageable);
+        } else if (part instanceof Sort sort) {
+            appendSort(key, sort);
+        } else {
+            key.append(part);
+        }
+    }
+
+    private static void appendPage(StringBuilder key, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            key.append("unpaged");
+        } else {
+            key.append('p').append(pageable.getPageNumber())
+                    .append('s').append(pageable.getPageSize());
+        }
+
+        if (pageable.getSort().isSorted()) {
+            key.append('o');
+            appendSort(key, pageable.getSort());
+        }
+    }
+
+    private static void appendSort(StringBuilder key, Sort sort) {
+        key.append(sort.stream()
+                .map(order -> order.getProperty() + "," + order.getDirection()
+                        + (order.isIgnoreCase() ? ",ci" : ""))
+                .collect(Collectors.joining(";", "[", "]")));
+    }
+}
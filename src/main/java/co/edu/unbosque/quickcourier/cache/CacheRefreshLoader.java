@@ -0,0 +1,16 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+/**
+ * Cargador de una caché configurada con refresh-after-write
+ * Caffeine lo usa para recargar en segundo plano las entradas vencidas y para
+ * resolver los fallos de la caché, así que debe devolver lo mismo que el método anotado
+ */
+public interface CacheRefreshLoader extends CacheLoader<Object, Object> {
+
+    /**
+     * Nombre de la caché que carga
+     */
+    String cacheName();
+}
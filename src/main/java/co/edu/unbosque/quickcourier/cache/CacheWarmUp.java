@@ -0,0 +1,253 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.dto.response.CacheWarmUpResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.CacheWarmUpTaskResponseDTO;
+import co.edu.unbosque.quickcourier.repository.OrderItemRepository;
+import co.edu.unbosque.quickcourier.service.CategoryService;
+import co.edu.unbosque.quickcourier.service.ProductService;
+import co.edu.unbosque.quickcourier.service.ShippingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Precarga de cachés al arrancar
+ *
+ * - Llama a los servicios (a través de sus proxies) para poblar categories, shippingExtras,
+ *   shippingRules, las primeras páginas de productos activos y los productos más vendidos
+ * - Las tareas corren en paralelo en un pool propio de cache-warmup.parallelism hilos
+ * - Mientras corre, CacheWarmUpHealthIndicator mantiene la readiness en OUT_OF_SERVICE;
+ *   al terminar o al agotarse cache-warmup.budget se libera el tráfico igualmente
+ *   (las tareas pendientes quedan como UNFINISHED y esas claves se cargan bajo demanda)
+ * - Un fallo en una tarea no detiene las demás ni el arranque
+ */
+@Component
+public class CacheWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmUp.class);
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_BUDGET_EXCEEDED = "BUDGET_EXCEEDED";
+    public static final String STATUS_DISABLED = "DISABLED";
+
+    private static final String TASK_OK = "OK";
+    private static final String TASK_FAILED = "FAILED";
+    private static final String TASK_UNFINISHED = "UNFINISHED";
+
+    private final CategoryService categoryService;
+    private final ShippingService shippingService;
+    private final ProductService productService;
+    private final OrderItemRepository orderItemRepository;
+    private final boolean enabled;
+    private final Set<String> targets;
+    private final int productPages;
+    private final int productPageSize;
+    private final int topProducts;
+    private final int parallelism;
+    private final Duration budget;
+
+    private final AtomicReference<CacheWarmUpResponseDTO> report;
+
+    public CacheWarmUp(CategoryService categoryService,
+                       ShippingService shippingService,
+                       ProductService productService,
+                       OrderItemRepository orderItemRepository,
+                       @Value("${cache-warmup.enabled:true}") boolean enabled,
+                       @Value("${cache-warmup.targets:categories,shipping-extras,shipping-rules,product-pages,top-products}") Set<String> targets,
+                       @Value("${cache-warmup.product-pages:3}") int productPages,
+                       @Value("${cache-warmup.product-page-size:20}") int productPageSize,
+                       @Value("${cache-warmup.top-products:50}") int topProducts,
+                       @Value("${cache-warmup.parallelism:4}") int parallelism,
+                       @Value("${cache-warmup.budget:30s}") Duration budget) {
+        this.categoryService = categoryService;
+        this.shippingService = shippingService;
+        this.productService = productService;
+        this.orderItemRepository = orderItemRepository;
+        this.enabled = enabled;
+        this.targets = Set.copyOf(targets);
+        this.productPages = productPages;
+        this.productPageSize = productPageSize;
+        this.topProducts = topProducts;
+        this.parallelism = Math.max(1, parallelism);
+        this.budget = budget;
+        this.report = new AtomicReference<>(new CacheWarmUpResponseDTO(
+                enabled ? STATUS_PENDING : STATUS_DISABLED, null, null, budget.toMillis(), List.of()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Cache warm-up disabled");
+            return;
+        }
+
+        // Fuera del hilo de arranque: el evento debe terminar para que el contexto quede listo
+        Thread coordinator = new Thread(this::run, "cache-warmup");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    /**
+     * Último reporte; mientras corre solo trae estado e inicio
+     */
+    public CacheWarmUpResponseDTO getReport() {
+        return report.get();
+    }
+
+    /**
+     * Indica si la aplicación puede recibir tráfico desde el punto de vista de la precarga
+     */
+    public boolean isFinished() {
+        String status = report.get().status();
+        return !STATUS_PENDING.equals(status) && !STATUS_RUNNING.equals(status);
+    }
+
+    private void run() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        report.set(new CacheWarmUpResponseDTO(STATUS_RUNNING, startedAt, null, budget.toMillis(), List.of()));
+        logger.info("Cache warm-up started: targets={}, parallelism={}, budget={}", targets, parallelism, budget);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, warmUpThreadFactory());
+        Map<String, CacheWarmUpTaskResponseDTO> results = new ConcurrentHashMap<>();
+        List<String> taskNames = new ArrayList<>();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        try {
+            if (targets.contains("categories")) {
+                taskNames.add("categories");
+                futures.add(track("categories", results,
+                        () -> CompletableFuture.runAsync(categoryService::getAllActiveCategories, executor)));
+            }
+            if (targets.contains("shipping-extras")) {
+                taskNames.add("shipping-extras");
+                futures.add(track("shipping-extras", results,
+                        () -> CompletableFuture.runAsync(shippingService::getActiveShippingExtras, executor)));
+            }
+            if (targets.contains("shipping-rules")) {
+                taskNames.add("shipping-rules");
+                futures.add(track("shipping-rules", results,
+                        () -> CompletableFuture.runAsync(shippingService::getActiveShippingRules, executor)));
+            }
+            if (targets.contains("product-pages")) {
+                for (int page = 0; page < productPages; page++) {
+                    PageRequest pageRequest = PageRequest.of(page, productPageSize);
+                    String name = "product-page-" + page;
+                    taskNames.add(name);
+                    futures.add(track(name, results,
+                            () -> CompletableFuture.runAsync(() -> productService.getAllActiveProducts(pageRequest), executor)));
+                }
+            }
+            if (targets.contains("top-products") && topProducts > 0) {
+                taskNames.add("top-products");
+                futures.add(track("top-products", results, () -> warmTopProducts(executor)));
+            }
+
+            String status = awaitAll(futures);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            List<CacheWarmUpTaskResponseDTO> tasks = taskNames.stream()
+                    .map(name -> results.getOrDefault(name,
+                            new CacheWarmUpTaskResponseDTO(name, TASK_UNFINISHED, null, null)))
+                    .toList();
+
+            report.set(new CacheWarmUpResponseDTO(status, startedAt, durationMs, budget.toMillis(), tasks));
+            logger.info("Cache warm-up finished with status {} in {} ms", status, durationMs);
+        } catch (RuntimeException e) {
+            // Nunca dejar la readiness bloqueada por un error propio de la precarga
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            report.set(new CacheWarmUpResponseDTO(STATUS_COMPLETED, startedAt, durationMs, budget.toMillis(),
+                    List.copyOf(results.values())));
+            logger.error("Cache warm-up aborted after {} ms", durationMs, e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Consulta los más vendidos y carga cada producto como una tarea independiente del pool
+     */
+    private CompletableFuture<?> warmTopProducts(ExecutorService executor) {
+        return CompletableFuture
+                .supplyAsync(() -> orderItemRepository.findTopSellingProductIds(PageRequest.of(0, topProducts)), executor)
+                .thenCompose(ids -> CompletableFuture.allOf(ids.stream()
+                        .map(id -> CompletableFuture.runAsync(() -> warmProduct(id), executor))
+                        .toArray(CompletableFuture[]::new)));
+    }
+
+    private void warmProduct(Long id) {
+        try {
+            productService.getProductById(id);
+        } catch (RuntimeException e) {
+            // Producto eliminado o inactivo: no invalida el resto de la tarea
+            logger.debug("Skipping product {} during cache warm-up: {}", id, e.getMessage());
+        }
+    }
+
+    private CompletableFuture<?> track(String name, Map<String, CacheWarmUpTaskResponseDTO> results,
+                                       Supplier<CompletableFuture<?>> task) {
+        long startNanos = System.nanoTime();
+
+        return task.get().whenComplete((ignored, error) -> {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (error == null) {
+                results.put(name, new CacheWarmUpTaskResponseDTO(name, TASK_OK, durationMs, null));
+            } else {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                results.put(name, new CacheWarmUpTaskResponseDTO(name, TASK_FAILED, durationMs, cause.getMessage()));
+                logger.warn("Cache warm-up task {} failed: {}", name, cause.getMessage());
+            }
+        });
+    }
+
+    private String awaitAll(List<CompletableFuture<?>> futures) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+
+        try {
+            all.get(budget.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Cache warm-up exceeded its budget of {}, releasing readiness", budget);
+            return STATUS_BUDGET_EXCEEDED;
+        } catch (ExecutionException e) {
+            // Los fallos ya quedaron registrados por tarea
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return STATUS_BUDGET_EXCEEDED;
+        }
+
+        return STATUS_COMPLETED;
+    }
+
+    private static ThreadFactory warmUpThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
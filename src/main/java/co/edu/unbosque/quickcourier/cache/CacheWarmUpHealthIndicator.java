@@ -0,0 +1,35 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.dto.response.CacheWarmUpResponseDTO;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicador "cacheWarmUp" del grupo readiness
+ * OUT_OF_SERVICE mientras la precarga de cachés está pendiente o en curso
+ */
+@Component
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmUp cacheWarmUp;
+
+    public CacheWarmUpHealthIndicator(CacheWarmUp cacheWarmUp) {
+        this.cacheWarmUp = cacheWarmUp;
+    }
+
+    @Override
+    public Health health() {
+        CacheWarmUpResponseDTO report = cacheWarmUp.getReport();
+
+        Health.Builder builder = cacheWarmUp.isFinished() ? Health.up() : Health.outOfService();
+        builder.withDetail("status", report.status())
+                .withDetail("budgetMs", report.budgetMs());
+
+        if (report.durationMs() != null) {
+            builder.withDetail("durationMs", report.durationMs());
+        }
+
+        return builder.build();
+    }
+}
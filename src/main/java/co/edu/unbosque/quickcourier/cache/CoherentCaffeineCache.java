@@ -0,0 +1,57 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * CaffeineCache cuyas invalidaciones (evict, clear) se propagan a los demás nodos
+ * a través del CacheInvalidationBus
+ * Las invalidaciones recibidas de otros nodos se aplican solo localmente, sin volver a publicarlas
+ */
+public class CoherentCaffeineCache extends CaffeineCache {
+
+    private final CacheInvalidationBus invalidationBus;
+
+    public CoherentCaffeineCache(String name,
+                                 com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                 boolean allowNullValues,
+                                 CacheInvalidationBus invalidationBus) {
+        super(name, cache, allowNullValues);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.register(this);
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        invalidationBus.publishEvict(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        // Otro nodo puede tener la entrada aunque este no
+        invalidationBus.publishEvict(getName(), key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        invalidationBus.publishClear(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = super.invalidate();
+        invalidationBus.publishClear(getName());
+        return hadEntries;
+    }
+
+    void evictLocally(Object key) {
+        super.evict(key);
+    }
+
+    void clearLocally() {
+        super.clear();
+    }
+}
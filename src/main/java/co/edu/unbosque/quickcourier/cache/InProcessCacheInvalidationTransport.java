@@ -0,0 +1,33 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transporte en memoria: entrega cada mensaje a todos los buses iniciados sobre la misma instancia
+ * Sirve para un solo nodo sin PostgreSQL y para simular varios nodos en un mismo proceso
+ * (varios CacheInvalidationBus compartiendo esta instancia)
+ */
+public class InProcessCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<List<String>>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String payload) {
+        List<String> batch = List.of(payload);
+        for (Consumer<List<String>> subscriber : subscribers) {
+            subscriber.accept(batch);
+        }
+    }
+
+    @Override
+    public void start(Consumer<List<String>> onMessages, Runnable onReconnect) {
+        subscribers.add(onMessages);
+    }
+
+    @Override
+    public void stop() {
+        subscribers.clear();
+    }
+}
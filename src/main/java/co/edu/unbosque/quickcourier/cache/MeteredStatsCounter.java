@@ -0,0 +1,73 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatsCounter de Caffeine que además publica la latencia de cada carga como histograma
+ * (cache.load.latency, etiquetado por caché y resultado)
+ * Los contadores de aciertos, fallos y evicciones siguen en el snapshot de Caffeine,
+ * que es lo que leen CaffeineCacheMetrics y el endpoint de administración
+ *
+ * Solo hay cargas cuando el valor se resuelve a través de Caffeine: cachés con
+ * CacheRefreshLoader o métodos @Cacheable(sync = true)
+ */
+public class MeteredStatsCounter implements StatsCounter {
+
+    private final StatsCounter delegate = new ConcurrentStatsCounter();
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+
+    public MeteredStatsCounter(MeterRegistry meterRegistry, String cacheName) {
+        this.loadSuccess = loadTimer(meterRegistry, cacheName, "success");
+        this.loadFailure = loadTimer(meterRegistry, cacheName, "failure");
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String cacheName, String result) {
+        return Timer.builder("cache.load.latency")
+                .description("Tiempo de carga de entradas de la caché")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordHits(int count) {
+        delegate.recordHits(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        delegate.recordMisses(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        delegate.recordLoadSuccess(loadTime);
+        loadSuccess.record(loadTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        delegate.recordLoadFailure(loadTime);
+        loadFailure.record(loadTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        delegate.recordEviction(weight, cause);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return delegate.snapshot();
+    }
+}
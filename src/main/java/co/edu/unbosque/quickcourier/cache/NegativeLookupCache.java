@@ -0,0 +1,95 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché negativa de búsquedas por id/sku que no encontraron nada
+ * Evita que ids o skus inexistentes (scrapers, clientes con datos viejos) lleguen
+ * a la base de datos en cada petición a los endpoints públicos
+ *
+ * - Usa la caché negativeLookups (cache.negative-lookups.*): acotada y con ttl corto,
+ *   que es también el máximo tiempo que un recurso recién creado puede seguir "sin existir"
+ *   si se escapa una invalidación
+ * - Al crear el recurso se invalida su entrada: dentro de la transacción (se propaga a los
+ *   demás nodos al confirmar) y de nuevo localmente tras el commit, por si una lectura
+ *   concurrente la volvió a guardar antes de ver la fila
+ * - Métricas: cache.negative.lookups{kind, result=hit|stored}, además de las métricas de la caché
+ */
+@Component
+public class NegativeLookupCache {
+
+    public static final String CACHE_NAME = "negativeLookups";
+
+    public static final String PRODUCT_ID = "product-id";
+    public static final String PRODUCT_SKU = "product-sku";
+    public static final String CATEGORY_ID = "category-id";
+
+    private final Cache cache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public NegativeLookupCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        if (this.cache == null) {
+            throw new IllegalStateException("La caché " + CACHE_NAME + " no está configurada en cache.*");
+        }
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Lanza ResourceNotFoundException si el recurso ya se buscó hace poco y no existía
+     */
+    public void rejectIfKnownMissing(String kind, Object id, String message) {
+        if (cache.get(CacheKeys.of(kind, id)) != null) {
+            counter(kind, "hit").increment();
+            throw new ResourceNotFoundException(message);
+        }
+    }
+
+    /**
+     * Registra que el recurso no existe y devuelve la excepción a lanzar
+     */
+    public ResourceNotFoundException missing(String kind, Object id, String message) {
+        cache.put(CacheKeys.of(kind, id), Boolean.TRUE);
+        counter(kind, "stored").increment();
+        return new ResourceNotFoundException(message);
+    }
+
+    /**
+     * Olvida que el recurso no existía; se llama al crearlo
+     */
+    public void forget(String kind, Object id) {
+        String key = CacheKeys.of(kind, id);
+        cache.evict(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && cache instanceof CaffeineCache caffeineCache) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Directo sobre Caffeine: la invalidación entre nodos ya se encoló arriba
+                    caffeineCache.getNativeCache().invalidate(key);
+                }
+            });
+        }
+    }
+
+    private Counter counter(String kind, String result) {
+        return counters.computeIfAbsent(kind + ":" + result, name -> Counter.builder("cache.negative.lookups")
+                .description("Búsquedas resueltas por la caché negativa (hit) y no encontrados registrados (stored)")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,137 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.model.Order;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invalidación dirigida de las cachés de pedidos
+ * En lugar de vaciar orders y orderSummaries en cada escritura, invalida solo:
+ * - las claves del pedido modificado (id y número, del usuario dueño) en orders
+ * - las páginas de orderSummaries del usuario dueño del pedido
+ *
+ * Las páginas de cada usuario se registran en un índice userId → claves al guardarse.
+ * El índice vence igual que la caché de páginas; si Caffeine lo desaloja por tamaño,
+ * las páginas que referenciaba se invalidan también, para no perder la capacidad de invalidarlas
+ *
+ * La invalidación ocurre al confirmar la transacción, para que una lectura concurrente
+ * no vuelva a guardar el estado anterior a la escritura
+ */
+@Component
+public class OrderCacheEvictor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCacheEvictor.class);
+
+    private final CacheManager cacheManager;
+    private final Cache<Long, Set<Object>> summaryKeysByUser;
+
+    public OrderCacheEvictor(CacheManager cacheManager,
+                             StandaloneCacheRegistry cacheRegistry,
+                             @Value("${cache.order-summaries.ttl:2m}") Duration summaryTtl,
+                             @Value("${cache-index.order-summaries.max-users:50000}") long maxIndexedUsers) {
+        this.cacheManager = cacheManager;
+        this.summaryKeysByUser = cacheRegistry.register("orderSummaryKeyIndex", Caffeine.newBuilder()
+                .expireAfterWrite(summaryTtl)
+                .maximumSize(maxIndexedUsers)
+                .removalListener((Long userId, Set<Object> keys, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && keys != null) {
+                        evictKeys(CacheKeys.ORDER_SUMMARIES, keys);
+                    }
+                }));
+    }
+
+    /**
+     * Registra una página de orderSummaries del usuario para poder invalidarla después
+     * Se llama desde el método @Cacheable, es decir, solo cuando la página se va a guardar
+     */
+    public void trackSummaryPage(Long userId, Object key) {
+        // compute cuenta como escritura: renueva el vencimiento del índice del usuario
+        summaryKeysByUser.asMap().compute(userId, (id, keys) -> {
+            Set<Object> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            updated.add(key);
+            return updated;
+        });
+    }
+
+    /**
+     * Invalida, al confirmar la transacción, las entradas del pedido y las páginas de su usuario
+     */
+    public void evictOrderAfterCommit(Order order) {
+        Long orderId = order.getId();
+        String orderNumber = order.getOrderNumber();
+        Long userId = order.getUser().getId();
+
+        afterCommit(() -> {
+            evictKeys(CacheKeys.ORDERS, orderKeys(userId, orderId, orderNumber));
+            evictUserSummaries(userId);
+            logger.debug("Evicted cache entries for order {} (user {})", orderNumber, userId);
+        });
+    }
+
+    /**
+     * Invalida, al confirmar la transacción, solo las páginas de orderSummaries del usuario
+     * Útil al crear un pedido: aún no hay entradas en orders para él
+     */
+    public void evictUserSummariesAfterCommit(Long userId) {
+        afterCommit(() -> evictUserSummaries(userId));
+    }
+
+    private void evictUserSummaries(Long userId) {
+        Set<Object> keys = summaryKeysByUser.asMap().remove(userId);
+        if (keys != null) {
+            evictKeys(CacheKeys.ORDER_SUMMARIES, keys);
+        }
+    }
+
+    /**
+     * Las entradas de orders son por usuario; solo el dueño puede haberlas guardado
+     */
+    private static List<Object> orderKeys(Long userId, Long orderId, String orderNumber) {
+        List<Object> keys = new ArrayList<>(2);
+        if (orderId != null) {
+            keys.add(CacheKeys.order(userId, orderId));
+        }
+        if (orderNumber != null) {
+            keys.add(CacheKeys.orderByNumber(userId, orderNumber));
+        }
+        return keys;
+    }
+
+    private void evictKeys(String cacheName, Collection<?> keys) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        for (Object key : keys) {
+            cache.evict(key);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
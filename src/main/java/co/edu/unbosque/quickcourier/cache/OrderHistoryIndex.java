@@ -0,0 +1,96 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Índice en memoria de usuarios que ya tienen al menos un pedido
+ * Bitset paginado: cada página cubre 65.536 ids (8 KB) y solo se crea si contiene algún usuario
+ *
+ * - Un bit marcado es definitivo: el usuario ya compró (los pedidos no se borran)
+ * - Un bit sin marcar no es concluyente (índice aún cargando, pedido de otro nodo):
+ *   quien consulta debe confirmar contra la base de datos
+ * - Se carga al arrancar y se marca al confirmar la transacción que crea un pedido
+ */
+@Component
+public class OrderHistoryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderHistoryIndex.class);
+
+    private static final int PAGE_BITS = 16;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_BITS) / Long.SIZE;
+    private static final long OFFSET_MASK = (1L << PAGE_BITS) - 1;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> pages = new ConcurrentHashMap<>();
+    private final OrderRepository orderRepository;
+
+    public OrderHistoryIndex(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        List<Long> userIds = orderRepository.findAllUserIdsWithOrders();
+
+        userIds.forEach(this::markOrdered);
+
+        logger.info("Order history index loaded: {} users in {} pages ({} ms)",
+                userIds.size(), pages.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * true si se sabe con certeza que el usuario ya tiene pedidos
+     */
+    public boolean hasOrdered(long userId) {
+        AtomicLongArray page = pages.get(userId >>> PAGE_BITS);
+        if (page == null) {
+            return false;
+        }
+        int offset = (int) (userId & OFFSET_MASK);
+        return (page.get(offset >>> 6) & (1L << offset)) != 0;
+    }
+
+    public void markOrdered(long userId) {
+        AtomicLongArray page = pages.computeIfAbsent(userId >>> PAGE_BITS,
+                key -> new AtomicLongArray(WORDS_PER_PAGE));
+        int offset = (int) (userId & OFFSET_MASK);
+        int word = offset >>> 6;
+        long mask = 1L << offset;
+
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!page.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * Marca al usuario cuando la transacción actual confirme (no antes: un rollback
+     * dejaría al usuario marcado sin pedidos)
+     */
+    public void markOrderedAfterCommit(long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markOrdered(userId);
+                }
+            });
+        } else {
+            markOrdered(userId);
+        }
+    }
+}
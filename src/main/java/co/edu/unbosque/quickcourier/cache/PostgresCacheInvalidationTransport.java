@@ -0,0 +1,142 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Transporte de invalidaciones sobre PostgreSQL NOTIFY/LISTEN, usando el datasource de la aplicación
+ *
+ * - publish usa una conexión del pool en auto-commit (pg_notify), independiente de la
+ *   transacción en curso: un fallo al notificar nunca revierte la operación de negocio
+ * - Un hilo dedicado mantiene una conexión del pool con LISTEN y lee las notificaciones;
+ *   si la conexión se cae, reintenta con espera creciente y avisa la reconexión
+ *   (los mensajes enviados mientras tanto se perdieron)
+ */
+public class PostgresCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresCacheInvalidationTransport.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final DataSource dataSource;
+    private final String channel;
+    private final int pollTimeoutMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresCacheInvalidationTransport(DataSource dataSource, String channel, Duration pollTimeout) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Nombre de canal de invalidación inválido: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.pollTimeoutMs = (int) pollTimeout.toMillis();
+    }
+
+    @Override
+    public void publish(String payload) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            // Los demás nodos conservarán sus entradas hasta el TTL
+            logger.warn("Could not publish cache invalidation on channel {}: {}", channel, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void start(Consumer<List<String>> onMessages, Runnable onReconnect) {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(() -> listen(onMessages, onReconnect), "cache-coherence-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    private void listen(Consumer<List<String>> onMessages, Runnable onReconnect) {
+        boolean connectedBefore = false;
+        long backoffMs = 500;
+
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("Listening for cache invalidations on channel {}", channel);
+
+                if (connectedBefore) {
+                    onReconnect.run();
+                }
+                connectedBefore = true;
+                backoffMs = 500;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null || notifications.length == 0) {
+                        continue;
+                    }
+
+                    List<String> payloads = new ArrayList<>(notifications.length);
+                    for (PGNotification notification : notifications) {
+                        payloads.add(notification.getParameter());
+                    }
+                    onMessages.accept(payloads);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                // Aún sin conexión inicial también cuenta como reconexión: pudo haber escrituras mientras tanto
+                connectedBefore = true;
+                logger.warn("Cache invalidation listener disconnected ({}), retrying in {} ms",
+                        e.getMessage(), backoffMs);
+                if (!sleep(backoffMs)) {
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF.toMillis());
+            }
+        }
+
+        logger.info("Cache invalidation listener stopped");
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NullValue;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+
+/**
+ * Cargador por defecto de las cachés con refresh-after-write que no tienen un CacheRefreshLoader propio
+ *
+ * - Recarga las entradas con clave RefreshAheadKey volviendo a invocar el método cacheado
+ *   sobre el bean destino, en una transacción de solo lectura
+ * - Caffeine la ejecuta en segundo plano al primer acceso pasado refresh-after-write: mientras
+ *   tanto se sigue sirviendo el valor anterior y hay a lo sumo una recarga en curso por clave
+ * - Si la recarga falla, Caffeine conserva el valor anterior hasta el siguiente intento o el ttl
+ *
+ * Una caché con este cargador solo debe guardar claves RefreshAheadKey: cualquier otra clave
+ * no se sabe recalcular. Si aparece una, la recarga la elimina (la siguiente lectura vuelve a
+ * invocar el método) en lugar de devolver el valor anterior, que reiniciaría su vencimiento
+ * y la dejaría desactualizada indefinidamente mientras se siga leyendo
+ */
+@Component
+public class RefreshAheadCacheLoader implements CacheLoader<Object, Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadCacheLoader.class);
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RefreshAheadCacheLoader(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Solo se usa en lecturas sin sync
+     */
+    @Override
+    public Object load(Object key) {
+        return invoke(requireRefreshAheadKey(key));
+    }
+
+    /**
+     * null elimina la entrada: una clave que no se puede recalcular no debe renovarse con su valor anterior
+     */
+    @Override
+    public Object reload(Object key, Object oldValue) {
+        if (!(key instanceof RefreshAheadKey refreshKey)) {
+            logger.warn("Dropping cache entry {}: refresh-after-write needs a RefreshAheadKey", key);
+            return null;
+        }
+
+        logger.debug("Refreshing cache entry {}", refreshKey);
+        return invoke(refreshKey);
+    }
+
+    private static RefreshAheadKey requireRefreshAheadKey(Object key) {
+        if (key instanceof RefreshAheadKey refreshKey) {
+            return refreshKey;
+        }
+        throw new IllegalStateException("La clave " + key + " no es RefreshAheadKey: use keyGenerator = "
+                + "RefreshAheadKeyGenerator.NAME en las cachés con refresh-after-write");
+    }
+
+    private Object invoke(RefreshAheadKey key) {
+        Object result = transactionTemplate.execute(status -> {
+            try {
+                ReflectionUtils.makeAccessible(key.getMethod());
+                return key.getMethod().invoke(key.getTarget(), key.getParams());
+            } catch (InvocationTargetException e) {
+                ReflectionUtils.rethrowRuntimeException(e.getTargetException());
+                return null;
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("No se pudo invocar " + key, e);
+            }
+        });
+
+        // Mismo formato que guarda Spring: Optional desenvuelto y null como NullValue
+        if (result instanceof Optional<?> optional) {
+            result = optional.orElse(null);
+        }
+        return result != null ? result : NullValue.INSTANCE;
+    }
+}
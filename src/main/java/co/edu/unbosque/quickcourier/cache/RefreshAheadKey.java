@@ -0,0 +1,61 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Clave de una entrada con refresh-ahead: método cacheado más sus argumentos
+ * Además de identificar la entrada guarda el bean destino, para que RefreshAheadCacheLoader
+ * pueda volver a invocar el método al recargarla
+ *
+ * La igualdad solo considera método y argumentos (el destino es un singleton)
+ */
+public final class RefreshAheadKey {
+
+    private final Object target;
+    private final Method method;
+    private final Object[] params;
+    private final int hashCode;
+
+    RefreshAheadKey(Object target, Method method, Object[] params) {
+        this.target = target;
+        this.method = method;
+        this.params = params.clone();
+        this.hashCode = 31 * method.hashCode() + Arrays.deepHashCode(this.params);
+    }
+
+    Object getTarget() {
+        return target;
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    Object[] getParams() {
+        return params.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RefreshAheadKey that)) {
+            return false;
+        }
+        return method.equals(that.method) && Arrays.deepEquals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                + Arrays.stream(params).map(String::valueOf).collect(Collectors.joining(",", "(", ")"));
+    }
+}
@@ -0,0 +1,24 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Generador de claves para métodos @Cacheable con refresh-ahead
+ *
+ * Uso: @Cacheable(value = "...", keyGenerator = RefreshAheadKeyGenerator.NAME, sync = true)
+ * en una caché con cache.&lt;nombre&gt;.refresh-after-write. La clave lleva lo necesario
+ * para recargar la entrada en segundo plano (ver RefreshAheadCacheLoader)
+ */
+@Component(RefreshAheadKeyGenerator.NAME)
+public class RefreshAheadKeyGenerator implements KeyGenerator {
+
+    public static final String NAME = "refreshAheadKeyGenerator";
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        return new RefreshAheadKey(target, method, params);
+    }
+}
@@ -0,0 +1,154 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.model.ShippingExtra;
+import co.edu.unbosque.quickcourier.repository.ShippingExtraRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo en memoria de los extras de envío activos, indexados por código
+ *
+ * - Se carga con una sola consulta y se comparte entre pedidos y cotizaciones
+ * - Cambios hechos por JPA (ShippingExtraChangeListener) lo marcan como obsoleto al confirmar la transacción
+ * - Se recarga además al vencer el TTL, para cubrir cambios hechos directamente en la base de datos
+ *
+ * El catálogo se carga en su propia transacción de solo lectura (nunca en la del llamador), así que
+ * sus entidades quedan desacopladas de cualquier sesión. Además no se entregan: cada llamada
+ * recibe copias, que el llamador puede usar como referencia en OrderExtra (sin cascada)
+ * sin compartir instancias con otros hilos
+ */
+@Component
+public class ShippingExtraCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShippingExtraCatalog.class);
+
+    private final ShippingExtraRepository shippingExtraRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlNanos;
+
+    private final AtomicReference<Catalog> catalog = new AtomicReference<>();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public ShippingExtraCatalog(ShippingExtraRepository shippingExtraRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shipping.extras.catalog-ttl:5m}") Duration ttl) {
+        this.shippingExtraRepository = shippingExtraRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Extras activos para los códigos dados, en el orden solicitado y sin duplicados
+     * Los códigos desconocidos o inactivos se omiten; el llamador decide si es un error
+     * Los extras devueltos son copias desacopladas, propias de esta llamada
+     */
+    public Map<String, ShippingExtra> findActiveByCodes(Collection<String> codes) {
+        Map<String, ShippingExtra> active = currentCatalog().byCode();
+        Map<String, ShippingExtra> result = new LinkedHashMap<>();
+
+        for (String code : codes) {
+            ShippingExtra extra = active.get(code);
+            if (extra != null) {
+                result.computeIfAbsent(code, ignored -> detachedCopy(extra));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Marca el catálogo como obsoleto cuando la transacción actual confirme
+     * Fuera de una transacción lo marca de inmediato
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.set(true);
+                }
+            });
+        } else {
+            stale.set(true);
+        }
+    }
+
+    /**
+     * Catálogo vigente; solo un hilo recarga, el resto continúa con el anterior si ya existe
+     */
+    private Catalog currentCatalog() {
+        Catalog current = catalog.get();
+
+        if (current != null && !stale.get() && System.nanoTime() - current.loadedAt() < ttlNanos) {
+            return current;
+        }
+
+        if (current != null && !reloadLock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            reloadLock.lock();
+        }
+
+        try {
+            Catalog latest = catalog.get();
+            if (latest != null && latest != current) {
+                return latest;
+            }
+            return reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Catalog reload() {
+        // Limpiar la marca antes de leer: una invalidación concurrente fuerza otra recarga
+        stale.set(false);
+
+        // Transacción propia: las entidades no quedan en el contexto de persistencia del llamador
+        Map<String, ShippingExtra> byCode = transactionTemplate.execute(status ->
+                shippingExtraRepository.findAllActiveOrderedByDisplay().stream()
+                        .collect(Collectors.toUnmodifiableMap(ShippingExtra::getCode,
+                                ShippingExtraCatalog::detachedCopy)));
+
+        Catalog loaded = new Catalog(byCode, System.nanoTime());
+        catalog.set(loaded);
+
+        logger.debug("Shipping extra catalog loaded with {} active extras", byCode.size());
+        return loaded;
+    }
+
+    private static ShippingExtra detachedCopy(ShippingExtra source) {
+        ShippingExtra copy = new ShippingExtra(source.getCode(), source.getName(),
+                source.getBasePrice(), source.getPriceType());
+        copy.setId(source.getId());
+        copy.setDescription(source.getDescription());
+        copy.setPercentageValue(source.getPercentageValue());
+        copy.setIsActive(source.getIsActive());
+        copy.setDisplayOrder(source.getDisplayOrder());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+
+    private record Catalog(Map<String, ShippingExtra> byCode, long loadedAt) {
+    }
+}
@@ -0,0 +1,27 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.model.ShippingExtra;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Listener JPA que invalida el catálogo de extras cuando un ShippingExtra cambia
+ * Se resuelve el catálogo de forma diferida para no crear un ciclo con el EntityManagerFactory
+ */
+public class ShippingExtraChangeListener {
+
+    private final ObjectProvider<ShippingExtraCatalog> extraCatalog;
+
+    public ShippingExtraChangeListener(ObjectProvider<ShippingExtraCatalog> extraCatalog) {
+        this.extraCatalog = extraCatalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onExtraChanged(ShippingExtra extra) {
+        extraCatalog.ifAvailable(ShippingExtraCatalog::invalidateAfterCommit);
+    }
+}
@@ -0,0 +1,50 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registro de cachés Caffeine usadas directamente por componentes (fuera del CacheManager),
+ * como los contadores de RateLimitingFilter
+ * Las publica en Micrometer igual que las cachés del CacheManager y las expone al endpoint de administración
+ */
+@Component
+public class StandaloneCacheRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+    public StandaloneCacheRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Construye y registra una caché con estadísticas habilitadas
+     *
+     * @param name Nombre con el que se publica (etiqueta cache en las métricas)
+     * @param builder Builder ya configurado con tamaño y expiración
+     */
+    public <K, V> Cache<K, V> register(String name, Caffeine<? super K, ? super V> builder) {
+        Cache<K, V> cache = builder
+                .recordStats(() -> new MeteredStatsCounter(meterRegistry, name))
+                .build();
+
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalStateException("Ya existe una caché registrada con el nombre " + name);
+        }
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    public Map<String, Cache<?, ?>> getCaches() {
+        return Collections.unmodifiableMap(caches);
+    }
+}
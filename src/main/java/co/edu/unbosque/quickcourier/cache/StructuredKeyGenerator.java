@@ -0,0 +1,23 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+
+import java.lang.reflect.Method;
+
+/**
+ * Generador de claves por defecto de las anotaciones de caché sin key explícita
+ *
+ * Clave: Clase.método seguido de todos los argumentos en el formato de CacheKeys
+ * (Pageable completo con página, tamaño y orden). A diferencia de SimpleKeyGenerator
+ * produce un String, que el bus de coherencia puede propagar entre nodos
+ */
+public class StructuredKeyGenerator implements KeyGenerator {
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Object[] parts = new Object[params.length + 1];
+        parts[0] = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        System.arraycopy(params, 0, parts, 1, params.length);
+        return CacheKeys.of(parts);
+    }
+}
@@ -0,0 +1,36 @@
+package co.edu.unbosque.quickcourier.config;
+
+import co.edu.unbosque.quickcourier.cache.CacheInvalidationTransport;
+import co.edu.unbosque.quickcourier.cache.InProcessCacheInvalidationTransport;
+import co.edu.unbosque.quickcourier.cache.PostgresCacheInvalidationTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Transporte del bus de invalidación de cachés entre nodos
+ * - postgres (por defecto): NOTIFY/LISTEN sobre el datasource de la aplicación
+ * - in-process: sin base de datos, para un solo nodo o pruebas locales
+ */
+@Configuration
+public class CacheCoherenceConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "cache-coherence.transport", havingValue = "postgres", matchIfMissing = true)
+    public CacheInvalidationTransport postgresCacheInvalidationTransport(
+            DataSource dataSource,
+            @Value("${cache-coherence.channel:quickcourier_cache}") String channel,
+            @Value("${cache-coherence.poll-timeout:5s}") Duration pollTimeout) {
+        return new PostgresCacheInvalidationTransport(dataSource, channel, pollTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache-coherence.transport", havingValue = "in-process")
+    public CacheInvalidationTransport inProcessCacheInvalidationTransport() {
+        return new InProcessCacheInvalidationTransport();
+    }
+}
@@ -0,0 +1,124 @@
+package co.edu.unbosque.quickcourier.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estima en bytes el tamaño de una entrada de caché para las cachés con max-weight
+ * Recorre records (DTOs), colecciones, mapas y arreglos; el resultado es una aproximación,
+ * suficiente para que una página de resultados pese más que un DTO individual
+ */
+final class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    static final CacheEntryWeigher INSTANCE = new CacheEntryWeigher();
+
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int BIG_NUMBER = 48;
+    private static final int BOXED_VALUE = 16;
+    private static final int TEMPORAL = 24;
+    private static final int UNKNOWN_OBJECT = 64;
+    private static final int MAX_DEPTH = 8;
+
+    private static final ClassValue<Method[]> RECORD_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Method[] computeValue(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Method[] accessors = new Method[components.length];
+            for (int i = 0; i < components.length; i++) {
+                accessors[i] = components[i].getAccessor();
+            }
+            return accessors;
+        }
+    };
+
+    private CacheEntryWeigher() {
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long bytes = ENTRY_OVERHEAD + estimate(key, 0) + estimate(value, 0);
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null || value instanceof Enum<?>) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return STRING_OVERHEAD + 2L * string.length();
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return BIG_NUMBER;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return BOXED_VALUE;
+        }
+        if (value instanceof TemporalAccessor) {
+            return TEMPORAL;
+        }
+        if (depth >= MAX_DEPTH) {
+            return UNKNOWN_OBJECT;
+        }
+        if (value instanceof Collection<?> collection) {
+            long bytes = OBJECT_HEADER * 2L;
+            for (Object element : collection) {
+                bytes += REFERENCE + estimate(element, depth + 1);
+            }
+            return bytes;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long bytes = OBJECT_HEADER * 3L;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += OBJECT_HEADER * 2L + estimate(entry.getKey(), depth + 1)
+                        + estimate(entry.getValue(), depth + 1);
+            }
+            return bytes;
+        }
+        if (value.getClass().isArray()) {
+            return estimateArray(value, depth);
+        }
+        if (value.getClass().isRecord()) {
+            return estimateRecord(value, depth);
+        }
+        return UNKNOWN_OBJECT;
+    }
+
+    private static long estimateArray(Object array, int depth) {
+        int length = Array.getLength(array);
+
+        if (array.getClass().getComponentType().isPrimitive()) {
+            return OBJECT_HEADER + (long) length * REFERENCE;
+        }
+
+        long bytes = OBJECT_HEADER;
+        for (int i = 0; i < length; i++) {
+            bytes += REFERENCE + estimate(Array.get(array, i), depth + 1);
+        }
+        return bytes;
+    }
+
+    private static long estimateRecord(Object record, int depth) {
+        long bytes = OBJECT_HEADER;
+
+        for (Method accessor : RECORD_ACCESSORS.get(record.getClass())) {
+            try {
+                bytes += REFERENCE + estimate(accessor.invoke(record), depth + 1);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                bytes += UNKNOWN_OBJECT;
+            }
+        }
+
+        return bytes;
+    }
+}
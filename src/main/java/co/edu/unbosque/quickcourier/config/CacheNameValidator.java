@@ -0,0 +1,82 @@
+package co.edu.unbosque.quickcourier.config;
+
+import co.edu.unbosque.quickcourier.QuickcourierApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Verifica al arrancar que toda caché nombrada en @Cacheable, @CachePut, @CacheEvict,
+ * @Caching o @CacheConfig esté registrada en el CacheManager
+ * Sin esta verificación el error solo aparecería al invocar el método anotado
+ */
+@Component
+public class CacheNameValidator implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheNameValidator.class);
+    private static final String BASE_PACKAGE = QuickcourierApplication.class.getPackageName();
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final CacheManager cacheManager;
+
+    public CacheNameValidator(ConfigurableListableBeanFactory beanFactory, CacheManager cacheManager) {
+        this.beanFactory = beanFactory;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        AnnotationCacheOperationSource operationSource = new AnnotationCacheOperationSource();
+        Collection<String> registered = cacheManager.getCacheNames();
+        Map<String, Set<String>> unknownCaches = new TreeMap<>();
+
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+
+            Class<?> userClass = ClassUtils.getUserClass(beanType);
+            if (!userClass.getName().startsWith(BASE_PACKAGE)) {
+                continue;
+            }
+
+            ReflectionUtils.doWithMethods(userClass, method -> {
+                Collection<CacheOperation> operations = operationSource.getCacheOperations(method, userClass);
+                if (operations == null) {
+                    return;
+                }
+
+                for (CacheOperation operation : operations) {
+                    for (String cacheName : operation.getCacheNames()) {
+                        if (!registered.contains(cacheName)) {
+                            unknownCaches.computeIfAbsent(cacheName, name -> new TreeSet<>())
+                                    .add(userClass.getSimpleName() + "." + method.getName());
+                        }
+                    }
+                }
+            }, ReflectionUtils.USER_DECLARED_METHODS);
+        }
+
+        if (!unknownCaches.isEmpty()) {
+            throw new IllegalStateException(
+                    "Cachés usadas en anotaciones pero no configuradas en cache.*: " + unknownCaches);
+        }
+
+        logger.info("Cache annotations validated against {} configured caches: {}",
+                registered.size(), registered);
+    }
+}
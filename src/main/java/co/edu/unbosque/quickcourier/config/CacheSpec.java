@@ -0,0 +1,25 @@
+package co.edu.unbosque.quickcourier.config;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuración de una caché individual, enlazada desde cache.&lt;nombre&gt;.*
+ *
+ * @param ttl Expiración después de escritura
+ * @param expireAfterAccess Expiración si la entrada no se usa
+ * @param refreshAfterWrite Recarga en segundo plano (requiere un CacheRefreshLoader para la caché)
+ * @param initialCapacity Capacidad inicial
+ * @param maxSize Máximo de entradas
+ * @param maxWeight Máximo de bytes, estimados por CacheEntryWeigher
+ */
+public record CacheSpec(
+        Duration ttl,
+        Duration expireAfterAccess,
+        Duration refreshAfterWrite,
+        Integer initialCapacity,
+        Long maxSize,
+        DataSize maxWeight
+) {
+}
@@ -1,95 +1,197 @@
 package co.edu.unbosque.quickcourier.config;
 
+import co.edu.unbosque.quickcourier.cache.CacheInvalidationBus;
+import co.edu.unbosque.quickcourier.cache.CacheRefreshLoader;
+import co.edu.unbosque.quickcourier.cache.CoherentCaffeineCache;
+import co.edu.unbosque.quickcourier.cache.MeteredStatsCounter;
+import co.edu.unbosque.quickcourier.cache.RefreshAheadCacheLoader;
+import co.edu.unbosque.quickcourier.cache.StructuredKeyGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Configuración de Caffeine Cache (Nivel 1 - In-Memory)
  * Cache ultra-rápido en memoria para datos frecuentemente accedidos
+ *
+ * Cada caché declarada en cache.&lt;nombre&gt;.* tiene su propia instancia de Caffeine,
+ * con su tamaño (entradas o bytes estimados) y sus tiempos de expiración.
+ * El nombre en kebab-case se convierte a camelCase (shipping-rules → shippingRules).
+ * Las cachés no declaradas no existen: CacheNameValidator detiene el arranque si
+ * alguna anotación las usa
+ *
+ * Spring Boot publica las estadísticas de cada caché en Micrometer (cache.gets, cache.evictions,
+ * cache.size...); MeteredStatsCounter agrega el histograma de latencia de carga
+ *
+ * Las cachés listadas en cache-coherence.caches se construyen como CoherentCaffeineCache:
+ * sus invalidaciones se propagan a los demás nodos (ver CacheInvalidationBus)
+ *
+ * Refresh-ahead: con cache.&lt;nombre&gt;.refresh-after-write las entradas se recargan en segundo
+ * plano (pool cacheRefreshExecutor) mientras se sigue sirviendo el valor anterior. La recarga
+ * la hace el CacheRefreshLoader de la caché si existe, o RefreshAheadCacheLoader para los métodos
+ * anotados con keyGenerator = RefreshAheadKeyGenerator.NAME
+ *
+ * Las anotaciones sin key explícita usan StructuredKeyGenerator (todos los argumentos en la clave);
+ * CacheKeyValidatorTest verifica que las keys explícitas no omitan argumentos y que las de
+ * @CacheEvict coincidan con las que se guardan
  */
 @Configuration
 @EnableCaching
-public class CaffeineConfig {
+public class CaffeineConfig implements CachingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaffeineConfig.class);
+    private static final String CACHE_PROPERTIES_PREFIX = "cache";
 
     /**
-     * Cache Manager de Caffeine como caché primario (L1)
+     * Cache Manager de Caffeine (L1)
      * - Ultra rápido (microsegundos)
      * - Local al servidor
-     * - Ideal para datos que cambian poco
+     * - Registro estático: solo las cachés configuradas
      */
     @Bean
-    @Primary
-    public CacheManager caffeineCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                "products",
-                "productsBySku",
-                "categories",
+    public CacheManager caffeineCacheManager(Environment environment,
+                                             ObjectProvider<CacheRefreshLoader> refreshLoaders,
+                                             RefreshAheadCacheLoader refreshAheadLoader,
+                                             ExecutorService cacheRefreshExecutor,
+                                             MeterRegistry meterRegistry,
+                                             CacheInvalidationBus invalidationBus) {
+        Map<String, CacheSpec> specs = Binder.get(environment)
+                .bind(CACHE_PROPERTIES_PREFIX, Bindable.mapOf(String.class, CacheSpec.class))
+                .orElseGet(Map::of);
 
+        Map<String, CacheRefreshLoader> loadersByCache = refreshLoaders.orderedStream()
+                .collect(Collectors.toMap(CacheRefreshLoader::cacheName, Function.identity()));
 
-                "shippingRules",
-                "shippingExtras",
+        List<CaffeineCache> caches = new ArrayList<>(specs.size());
 
-                "orders",
-                "recentOrders",
-                "orderSummaries",
+        specs.forEach((key, spec) -> {
+            String name = toCacheName(key);
+            CacheLoader<Object, Object> loader = loadersByCache.containsKey(name)
+                    ? loadersByCache.get(name)
+                    : refreshAheadLoader;
+            Cache<Object, Object> nativeCache = buildCache(name, spec, loader, cacheRefreshExecutor, meterRegistry);
 
-                // 📦 Productos activos
-                "activeProducts"
-        );
+            if (invalidationBus.isCoherent(name)) {
+                caches.add(new CoherentCaffeineCache(name, nativeCache, true, invalidationBus));
+            } else {
+                caches.add(new CaffeineCache(name, nativeCache, true));
+            }
+            logger.info("Cache '{}' configured: {} (coherent: {})", name, spec, invalidationBus.isCoherent(name));
+        });
 
-        cacheManager.setCaffeine(caffeineCacheBuilder());
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
         return cacheManager;
     }
 
     /**
-     * Configuración de Caffeine con políticas de eviction
+     * Claves por defecto: String con todos los argumentos
      */
-    private Caffeine<Object, Object> caffeineCacheBuilder() {
-        return Caffeine.newBuilder()
-                // Tamaño máximo del cache
-                .maximumSize(1000)
-                // Expiración después de escritura
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                // Expiración después de acceso (refresh si no se usa)
-                .expireAfterAccess(30, TimeUnit.MINUTES)
-                // Habilitar estadísticas para monitoreo
-                .recordStats()
-                // Tamaño inicial
-                .initialCapacity(100);
+    @Override
+    public KeyGenerator keyGenerator() {
+        return new StructuredKeyGenerator();
     }
 
     /**
-     * Cache específico para productos con TTL más largo
-     * Los productos cambian menos frecuentemente
+     * Pool de las recargas en segundo plano (refresh-after-write)
+     * Acotado y separado del ForkJoinPool común, porque las recargas consultan la base de datos
      */
-    @Bean("productCacheManager")
-    public CacheManager productCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("products", "productsBySku");
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(500)
-                .expireAfterWrite(30, TimeUnit.MINUTES)
-                .recordStats());
-        return cacheManager;
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService cacheRefreshExecutor(@Value("${cache-refresh.pool-size:2}") int poolSize) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * Cache para reglas de envío con refresh automático
-     * Las reglas cambian frecuentemente según promociones
+     * Construye la instancia de Caffeine de una caché con sus políticas de eviction
      */
-    @Bean("shippingRuleCacheManager")
-    public CacheManager shippingRuleCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("shippingRules");
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(5, TimeUnit.MINUTES) // Refresh más frecuente
-                .recordStats());
-        return cacheManager;
+    private Cache<Object, Object> buildCache(String name, CacheSpec spec, CacheLoader<Object, Object> loader,
+                                             ExecutorService refreshExecutor, MeterRegistry meterRegistry) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                // Habilitar estadísticas para monitoreo
+                .recordStats(() -> new MeteredStatsCounter(meterRegistry, name));
+
+        if (spec.initialCapacity() != null) {
+            builder.initialCapacity(spec.initialCapacity());
+        }
+
+        if (spec.maxSize() != null && spec.maxWeight() != null) {
+            throw new IllegalStateException(
+                    "La caché " + name + " no puede definir max-size y max-weight a la vez");
+        }
+        if (spec.maxSize() != null) {
+            builder.maximumSize(spec.maxSize());
+        } else if (spec.maxWeight() != null) {
+            // Tamaño en bytes, estimado por entrada
+            builder.maximumWeight(spec.maxWeight().toBytes())
+                    .weigher(CacheEntryWeigher.INSTANCE);
+        } else {
+            throw new IllegalStateException(
+                    "La caché " + name + " debe definir max-size o max-weight");
+        }
+
+        if (spec.ttl() != null) {
+            builder.expireAfterWrite(spec.ttl());
+        }
+        if (spec.expireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.expireAfterAccess());
+        }
+
+        if (spec.refreshAfterWrite() != null) {
+            // Recarga en segundo plano: las lecturas siguen viendo el valor anterior mientras tanto
+            builder.refreshAfterWrite(spec.refreshAfterWrite())
+                    .executor(refreshExecutor);
+            return builder.build(loader);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * shipping-rules → shippingRules
+     */
+    private static String toCacheName(String propertyKey) {
+        StringBuilder name = new StringBuilder(propertyKey.length());
+        boolean upperNext = false;
+
+        for (char c : propertyKey.toCharArray()) {
+            if (c == '-') {
+                upperNext = true;
+            } else {
+                name.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+
+        return name.toString();
     }
 }
@@ -0,0 +1,24 @@
+package co.edu.unbosque.quickcourier.config;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Política de rate limiting de un grupo de rutas, enlazada desde rate-limit.policies.&lt;nombre&gt;.*
+ *
+ * @param paths Patrones Ant de las rutas (la política más específica que coincide gana)
+ * @param period Ventana en la que se permiten los límites (por defecto 1 minuto)
+ * @param anonymous Requests por periodo de un cliente anónimo, identificado por IP
+ * @param user Requests por periodo de un usuario autenticado con JWT (por defecto el de anonymous)
+ * @param apiKey Requests por periodo de un cliente con X-API-Key (por defecto el de anonymous)
+ * @param burst Requests seguidas que se aceptan sin espaciar (por defecto el mismo límite)
+ */
+public record RateLimitPolicySpec(
+        List<String> paths,
+        Duration period,
+        Integer anonymous,
+        Integer user,
+        Integer apiKey,
+        Integer burst
+) {
+}
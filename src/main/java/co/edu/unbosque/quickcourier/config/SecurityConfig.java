@@ -55,6 +55,7 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 "/swagger-ui.html"
                         ).permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
 
                         // Productos y categorías - lectura pública
                         .requestMatchers(HttpMethod.GET, "/api/products/**", "/api/categories/**").permitAll()
@@ -69,14 +70,15 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/categories/**").hasRole("ADMIN")
                         .requestMatchers("/api/users/**").hasRole("ADMIN")
                         .requestMatchers("/api/shipping/rules/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
 
                         // Todo lo demás requiere autenticación
                         .anyRequest().authenticated()
                 )
 
-                // Agregar filtros
-                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+                // Agregar filtros: rate limiting después de JWT para limitar por usuario autenticado
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
 
                 .build();
     }
@@ -111,7 +113,7 @@ public class SecurityConfig {
         ));
 
         configuration.setExposedHeaders(Arrays.asList(
-                "X-RateLimit-Limit", "X-RateLimit-Remaining", "X-Total-Count"
+                "X-RateLimit-Limit", "X-RateLimit-Remaining", "X-RateLimit-Reset", "Retry-After", "X-Total-Count"
         ));
 
         configuration.setAllowCredentials(true);
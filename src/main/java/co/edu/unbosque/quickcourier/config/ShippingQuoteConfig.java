@@ -0,0 +1,32 @@
+package co.edu.unbosque.quickcourier.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool acotado para cotizaciones de envío en lote
+ * Con la cola llena el hilo de la petición ejecuta el bloque (CallerRunsPolicy),
+ * así la carga se frena en lugar de rechazar cotizaciones o crecer sin límite
+ */
+@Configuration
+public class ShippingQuoteConfig {
+
+    @Bean(name = "shippingQuoteExecutor")
+    public ThreadPoolTaskExecutor shippingQuoteExecutor(
+            @Value("${shipping.quotes.pool-size:0}") int poolSize,
+            @Value("${shipping.quotes.queue-capacity:256}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("shipping-quote-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,73 @@
+package co.edu.unbosque.quickcourier.controller;
+
+import co.edu.unbosque.quickcourier.dto.response.CacheStatsResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.CacheWarmUpResponseDTO;
+import co.edu.unbosque.quickcourier.service.CacheAdminService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para observar las cachés
+ * Aciertos, fallos, evicciones, latencia de carga y tamaño estimado por caché
+ * Las mismas métricas se publican en Micrometer (/actuator/metrics/cache.*)
+ */
+@RestController
+@RequestMapping("/api/admin/caches")
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Cache Admin", description = "Estadísticas de las cachés en memoria (solo ADMIN)")
+public class CacheAdminController {
+
+    private final CacheAdminService cacheAdminService;
+
+    public CacheAdminController(CacheAdminService cacheAdminService) {
+        this.cacheAdminService = cacheAdminService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Listar estadísticas de cachés",
+            description = "Estadísticas de todas las cachés, incluidas las claves más usadas de products, orders y orderSummaries (solo ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de las cachés"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<List<CacheStatsResponseDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheAdminService.getCacheStats());
+    }
+
+    @GetMapping("/warm-up")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reporte de precarga de cachés",
+            description = "Estado, duración y resultado por tarea de la precarga hecha al arrancar (solo ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reporte de la precarga"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<CacheWarmUpResponseDTO> getWarmUpReport() {
+        return ResponseEntity.ok(cacheAdminService.getWarmUpReport());
+    }
+
+    @GetMapping("/{name}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Obtener estadísticas de una caché",
+            description = "Estadísticas de una caché por nombre (solo ADMIN)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas de la caché"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos"),
+            @ApiResponse(responseCode = "404", description = "Caché no encontrada")
+    })
+    public ResponseEntity<CacheStatsResponseDTO> getCacheStatsByName(
+            @Parameter(description = "Nombre de la caché", required = true, example = "products")
+            @PathVariable String name) {
+        return ResponseEntity.ok(cacheAdminService.getCacheStats(name));
+    }
+}
@@ -4,6 +4,7 @@ import co.edu.unbosque.quickcourier.dto.request.CreateProductRequestDTO;
 import co.edu.unbosque.quickcourier.dto.request.UpdateProductRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.MessageResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.ProductResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.ProductSuggestionResponseDTO;
 import co.edu.unbosque.quickcourier.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,6 +21,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Controlador REST para gestión de productos
  * Lectura pública, escritura solo ADMIN
@@ -108,6 +111,22 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/suggest")
+    @Operation(summary = "Autocompletar productos",
+            description = "Sugerencias por prefijo de nombre, palabra del nombre o SKU, las más vendidas primero. " +
+                    "Se resuelve en memoria, pensado para cada pulsación del buscador (público)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Sugerencias"),
+            @ApiResponse(responseCode = "400", description = "Límite fuera de rango")
+    })
+    public ResponseEntity<List<ProductSuggestionResponseDTO>> suggestProducts(
+            @Parameter(description = "Texto escrito hasta ahora", required = true, example = "harr")
+            @RequestParam String q,
+            @Parameter(description = "Número máximo de sugerencias", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
+    }
+
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -1,6 +1,8 @@
 package co.edu.unbosque.quickcourier.controller;
 
+import co.edu.unbosque.quickcourier.dto.request.ShippingQuoteRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingExtraResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.ShippingQuoteResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingRuleResponseDTO;
 import co.edu.unbosque.quickcourier.service.ShippingService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +11,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -85,4 +89,24 @@ public class ShippingController {
         ShippingRuleResponseDTO rule = shippingService.getShippingRuleByCode(code);
         return ResponseEntity.ok(rule);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/quotes")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(summary = "Cotizar envíos en lote",
+            description = "Cotiza muchos carritos hipotéticos (zona, peso, subtotal, usuario, extras) " +
+                    "contra una misma versión de las reglas de envío, sin crear pedidos. " +
+                    "Se cotiza para el usuario autenticado; solo ADMIN puede indicar otro userId")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cotizaciones calculadas"),
+            @ApiResponse(responseCode = "400", description = "Lote inválido, demasiado grande o con extras desconocidos"),
+            @ApiResponse(responseCode = "403", description = "Cotización a nombre de otro usuario sin ser ADMIN")
+    })
+    public ResponseEntity<ShippingQuoteResponseDTO> quoteShipping(
+            @Valid @RequestBody ShippingQuoteRequestDTO request,
+            HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        boolean admin = httpRequest.isUserInRole("ADMIN");
+        ShippingQuoteResponseDTO quotes = shippingService.quoteShipping(request, userId, admin);
+        return ResponseEntity.ok(quotes);
+    }
+}
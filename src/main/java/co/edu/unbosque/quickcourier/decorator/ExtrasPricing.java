@@ -0,0 +1,22 @@
+package co.edu.unbosque.quickcourier.decorator;
+
+import co.edu.unbosque.quickcourier.model.OrderExtra;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Resultado de valorar los extras de un pedido en una sola pasada
+ *
+ * @param extrasCost Suma de los precios de los extras aplicados
+ * @param description Descripción del pedido base seguida de la de cada extra
+ * @param appliedExtras Códigos de los extras aplicados, en el orden solicitado
+ * @param orderExtras Relaciones OrderExtra listas para agregar al pedido, con el precio ya calculado
+ */
+public record ExtrasPricing(
+        BigDecimal extrasCost,
+        String description,
+        List<String> appliedExtras,
+        List<OrderExtra> orderExtras
+) {
+}
@@ -44,17 +44,7 @@ public class InsuranceDecorator extends OrderDecorator {
      */
     public BigDecimal getCoverageAmount() {
         // El seguro cubre el subtotal completo del pedido
-        OrderComponent current = wrappedOrder;
-
-        while (current instanceof OrderDecorator) {
-            current = ((OrderDecorator) current).wrappedOrder;
-        }
-
-        if (current instanceof BaseOrder) {
-            return ((BaseOrder) current).getOrder().getSubtotal();
-        }
-
-        return BigDecimal.ZERO;
+        return getBaseSubtotal();
     }
 
     /**
@@ -9,11 +9,16 @@ import java.util.List;
 /**
  * Decorador Abstracto (Abstract Decorator)
  * Base para todos los decoradores de extras
+ *
+ * El subtotal base se resuelve una vez al construir el decorador (tomándolo del decorador envuelto)
+ * y el costo del extra se calcula una sola vez, así que ningún método recorre la cadena completa
  */
 public abstract class OrderDecorator implements OrderComponent {
 
     protected final OrderComponent wrappedOrder;
     protected final ShippingExtra shippingExtra;
+    private final BigDecimal baseSubtotal;
+    private BigDecimal extraCost;
 
     protected OrderDecorator(OrderComponent wrappedOrder, ShippingExtra shippingExtra) {
         if (wrappedOrder == null) {
@@ -29,6 +34,7 @@ public abstract class OrderDecorator implements OrderComponent {
 
         this.wrappedOrder = wrappedOrder;
         this.shippingExtra = shippingExtra;
+        this.baseSubtotal = resolveBaseSubtotal(wrappedOrder);
     }
 
     @Override
@@ -64,9 +70,11 @@ public abstract class OrderDecorator implements OrderComponent {
      * @return Costo del extra
      */
     protected BigDecimal getExtraCost() {
-        // Obtener el subtotal del pedido base para cálculo porcentual
-        BigDecimal baseSubtotal = getBaseSubtotal();
-        return shippingExtra.calculatePrice(baseSubtotal);
+        // El subtotal del pedido base se usa para el cálculo porcentual
+        if (extraCost == null) {
+            extraCost = shippingExtra.calculatePrice(baseSubtotal);
+        }
+        return extraCost;
     }
 
     /**
@@ -80,16 +88,20 @@ public abstract class OrderDecorator implements OrderComponent {
      * Obtiene el subtotal base del pedido (sin extras)
      * Útil para cálculos porcentuales
      */
-    private BigDecimal getBaseSubtotal() {
-        OrderComponent current = wrappedOrder;
+    protected BigDecimal getBaseSubtotal() {
+        return baseSubtotal;
+    }
 
-        // Desenrollar hasta encontrar BaseOrder
-        while (current instanceof OrderDecorator) {
-            current = ((OrderDecorator) current).wrappedOrder;
+    /**
+     * El decorador envuelto ya conoce el subtotal base: no hace falta desenrollar la cadena
+     */
+    private static BigDecimal resolveBaseSubtotal(OrderComponent wrappedOrder) {
+        if (wrappedOrder instanceof OrderDecorator decorator) {
+            return decorator.baseSubtotal;
         }
 
-        if (current instanceof BaseOrder) {
-            return ((BaseOrder) current).getOrder().getSubtotal();
+        if (wrappedOrder instanceof BaseOrder baseOrder) {
+            return baseOrder.getOrder().getSubtotal();
         }
 
         return BigDecimal.ZERO;
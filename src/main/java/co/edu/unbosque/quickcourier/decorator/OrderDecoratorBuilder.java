@@ -1,34 +1,40 @@
 package co.edu.unbosque.quickcourier.decorator;
 
+import co.edu.unbosque.quickcourier.cache.ShippingExtraCatalog;
 import co.edu.unbosque.quickcourier.model.Order;
+import co.edu.unbosque.quickcourier.model.OrderExtra;
 import co.edu.unbosque.quickcourier.model.ShippingExtra;
-import co.edu.unbosque.quickcourier.repository.ShippingExtraRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 
 /**
  * Builder para construir cadenas de decoradores de manera fluida
  * Facilita la adicion de muuuuultiples extras a un pedido
+ *
+ * Los extras se resuelven contra el ShippingExtraCatalog en memoria, sin consultar la base de datos
  */
 @Component
 public class OrderDecoratorBuilder {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderDecoratorBuilder.class);
 
-    private final ShippingExtraRepository shippingExtraRepository;
+    private final ShippingExtraCatalog extraCatalog;
 
     // Mapa de codigos de extra a funciones constructoras de los deocradores
     private final Map<String, BiFunction<OrderComponent, ShippingExtra, OrderDecorator>> decoratorFactories;
 
-    public OrderDecoratorBuilder(ShippingExtraRepository shippingExtraRepository) {
-        this.shippingExtraRepository = shippingExtraRepository;
-        this.decoratorFactories = new HashMap<>();
+    public OrderDecoratorBuilder(ShippingExtraCatalog extraCatalog) {
+        this.extraCatalog = extraCatalog;
+        this.decoratorFactories = new ConcurrentHashMap<>();
 
         //
         decoratorFactories.put("EXPRESS", ExpressDecorator::new);
@@ -64,13 +70,7 @@ public class OrderDecoratorBuilder {
         // Comenzar con el pedido base
         OrderComponent decoratedOrder = new BaseOrder(order);
 
-        // Obtener los extras de la base de datos
-        List<ShippingExtra> extras = shippingExtraRepository.findByCodesAndActive(extraCodes);
-
-        if (extras.size() != extraCodes.size()) {
-            logger.warn("Some extras not found or inactive. Requested: {}, Found: {}",
-                    extraCodes.size(), extras.size());
-        }
+        Collection<ShippingExtra> extras = resolveExtras(extraCodes);
 
         // Aplicar cada extra como un decorador
         for (ShippingExtra extra : extras) {
@@ -83,6 +83,66 @@ public class OrderDecoratorBuilder {
         return decoratedOrder;
     }
 
+    /**
+     * Valora los extras de un pedido en una sola pasada
+     * Cada decorador envuelve directamente al pedido base, así que costo y descripción
+     * de cada extra se obtienen en O(1); costo total, descripción, códigos aplicados
+     * y relaciones OrderExtra se construyen juntos
+     *
+     * @param order Pedido base (subtotal y costo de envío ya calculados)
+     * @param extraCodes Códigos de extras a aplicar
+     * @return Resultado con el costo de los extras y las relaciones OrderExtra a agregar al pedido
+     */
+    public ExtrasPricing priceExtras(Order order, List<String> extraCodes) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+
+        BaseOrder baseOrder = new BaseOrder(order);
+
+        if (extraCodes == null || extraCodes.isEmpty()) {
+            logger.debug("No extras to apply for order {}", order.getOrderNumber());
+            return new ExtrasPricing(BigDecimal.ZERO, baseOrder.getDescription(), List.of(), List.of());
+        }
+
+        Collection<ShippingExtra> extras = resolveExtras(extraCodes);
+
+        BigDecimal extrasCost = BigDecimal.ZERO;
+        StringBuilder description = new StringBuilder(baseOrder.getDescription());
+        List<String> appliedExtras = new ArrayList<>(extras.size());
+        List<OrderExtra> orderExtras = new ArrayList<>(extras.size());
+
+        for (ShippingExtra extra : extras) {
+            OrderDecorator decorator = applyDecorator(baseOrder, extra);
+            BigDecimal extraCost = decorator.getExtraCost();
+
+            extrasCost = extrasCost.add(extraCost);
+            description.append(" + ").append(decorator.getExtraDescription());
+            appliedExtras.add(extra.getCode());
+            orderExtras.add(new OrderExtra(order, extra, extraCost));
+        }
+
+        logger.info("Order {} priced with {} extras {}. Extras cost: ${}",
+                order.getOrderNumber(), appliedExtras.size(), appliedExtras, extrasCost);
+
+        return new ExtrasPricing(extrasCost, description.toString(),
+                List.copyOf(appliedExtras), List.copyOf(orderExtras));
+    }
+
+    /**
+     * Resuelve los extras activos en el orden solicitado, sin duplicados
+     */
+    private Collection<ShippingExtra> resolveExtras(List<String> extraCodes) {
+        Map<String, ShippingExtra> extras = extraCatalog.findActiveByCodes(extraCodes);
+
+        if (extras.size() != extraCodes.size()) {
+            logger.warn("Some extras not found or inactive. Requested: {}, Found: {}",
+                    extraCodes.size(), extras.size());
+        }
+
+        return extras.values();
+    }
+
     /**
      * Aplica un decorador específico basado en el código del extra
      */
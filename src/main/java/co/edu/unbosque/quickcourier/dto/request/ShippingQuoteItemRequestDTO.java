@@ -0,0 +1,28 @@
+package co.edu.unbosque.quickcourier.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ShippingQuoteItemRequestDTO(
+        String reference,
+
+        @NotBlank(message = "Zona es obligatoria")
+        String zone,
+
+        @NotNull(message = "Peso es obligatorio")
+        @DecimalMin(value = "0.0", message = "Peso no puede ser negativo")
+        BigDecimal weightKg,
+
+        @NotNull(message = "Subtotal es obligatorio")
+        @DecimalMin(value = "0.0", message = "Subtotal no puede ser negativo")
+        BigDecimal subtotal,
+
+        /** Solo ADMIN puede cotizar a nombre de otro usuario; si se omite se usa el autenticado */
+        Long userId,
+
+        List<@NotBlank(message = "Código de extra no puede ser vacío") String> extraCodes
+) {}
@@ -0,0 +1,11 @@
+package co.edu.unbosque.quickcourier.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record ShippingQuoteRequestDTO(
+        @NotEmpty(message = "Debe enviar al menos una cotización")
+        List<@Valid ShippingQuoteItemRequestDTO> quotes
+) {}
@@ -0,0 +1,29 @@
+package co.edu.unbosque.quickcourier.dto.response;
+
+import java.util.List;
+
+/**
+ * Estadísticas de una caché Caffeine
+ *
+ * @param maximum Máximo de entradas (o de bytes estimados si weighted es true); null si no tiene límite
+ * @param weightedSize Bytes estimados ocupados; null si la caché se limita por entradas
+ * @param topKeys Claves más usadas según la política de Caffeine (solo para las cachés configuradas)
+ */
+public record CacheStatsResponseDTO(
+        String name,
+        String source,
+        Long estimatedSize,
+        Boolean weighted,
+        Long maximum,
+        Long weightedSize,
+        Long requestCount,
+        Long hitCount,
+        Long missCount,
+        Double hitRate,
+        Long evictionCount,
+        Long evictionWeight,
+        Long loadSuccessCount,
+        Long loadFailureCount,
+        Double averageLoadPenaltyMs,
+        List<String> topKeys
+) {}
@@ -0,0 +1,17 @@
+package co.edu.unbosque.quickcourier.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reporte de la precarga de cachés al arrancar
+ *
+ * @param status PENDING, RUNNING, COMPLETED, BUDGET_EXCEEDED o DISABLED
+ */
+public record CacheWarmUpResponseDTO(
+        String status,
+        LocalDateTime startedAt,
+        Long durationMs,
+        Long budgetMs,
+        List<CacheWarmUpTaskResponseDTO> tasks
+) {}
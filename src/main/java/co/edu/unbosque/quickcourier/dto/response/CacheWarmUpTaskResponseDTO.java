@@ -0,0 +1,13 @@
+package co.edu.unbosque.quickcourier.dto.response;
+
+/**
+ * Resultado de una tarea de precarga de caché
+ *
+ * @param status OK, FAILED o UNFINISHED (no terminó dentro del presupuesto de tiempo)
+ */
+public record CacheWarmUpTaskResponseDTO(
+        String name,
+        String status,
+        Long durationMs,
+        String error
+) {}
@@ -0,0 +1,8 @@
+package co.edu.unbosque.quickcourier.dto.response;
+
+public record ProductSuggestionResponseDTO(
+        Long id,
+        String name,
+        String sku,
+        Long unitsSold
+) {}
@@ -0,0 +1,13 @@
+package co.edu.unbosque.quickcourier.dto.response;
+
+import java.math.BigDecimal;
+
+public record ShippingQuoteItemResponseDTO(
+        String reference,
+        BigDecimal shippingCost,
+        BigDecimal extrasCost,
+        BigDecimal totalShippingCost,
+        String appliedRuleCode,
+        String appliedRuleName,
+        String calculationDetails
+) {}
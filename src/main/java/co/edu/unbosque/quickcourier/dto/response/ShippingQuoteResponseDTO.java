@@ -0,0 +1,9 @@
+package co.edu.unbosque.quickcourier.dto.response;
+
+import java.util.List;
+
+public record ShippingQuoteResponseDTO(
+        long rulesVersion,
+        int count,
+        List<ShippingQuoteItemResponseDTO> quotes
+) {}
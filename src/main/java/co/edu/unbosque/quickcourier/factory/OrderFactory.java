@@ -4,8 +4,6 @@ import co.edu.unbosque.quickcourier.model.*;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -16,8 +14,11 @@ import java.util.List;
 @Component
 public class OrderFactory {
 
-    private static final String ORDER_NUMBER_PREFIX = "QC";
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private final OrderNumberGenerator orderNumberGenerator;
+
+    public OrderFactory(OrderNumberGenerator orderNumberGenerator) {
+        this.orderNumberGenerator = orderNumberGenerator;
+    }
 
     /**
      * Crea un pedido básico con validaciones iniciales
@@ -30,7 +31,7 @@ public class OrderFactory {
         validateUser(user);
         validateAddress(address, user);
 
-        String orderNumber = generateOrderNumber();
+        String orderNumber = orderNumberGenerator.nextOrderNumber();
         Order order = new Order(orderNumber, user, address);
 
         return order;
@@ -112,19 +113,6 @@ public class OrderFactory {
         return item;
     }
 
-    /**
-     * Genera un número único de orden con formato: QC-YYYYMMDD-HHMMSS-XXX
-     */
-    private String generateOrderNumber() {
-        LocalDateTime now = LocalDateTime.now();
-        String datePart = now.format(DATE_FORMAT);
-        String timePart = String.format("%02d%02d%02d",
-                now.getHour(), now.getMinute(), now.getSecond());
-        String randomPart = String.format("%03d", (int)(Math.random() * 1000));
-
-        return String.format("%s-%s-%s-%s", ORDER_NUMBER_PREFIX, datePart, timePart, randomPart);
-    }
-
     /**
      * Valida que el usuario esté activo y pueda realizar pedidos
      */
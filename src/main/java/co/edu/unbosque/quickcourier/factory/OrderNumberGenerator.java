@@ -0,0 +1,13 @@
+package co.edu.unbosque.quickcourier.factory;
+
+/**
+ * Estrategia de generación de números de pedido
+ * Las implementaciones deben ser thread-safe y no repetir números entre nodos
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * Genera el siguiente número de pedido con formato: QC-YYYYMMDD-XXXXXXXXXXXXX
+     */
+    String nextOrderNumber();
+}
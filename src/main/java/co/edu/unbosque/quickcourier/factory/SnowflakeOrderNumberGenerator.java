@@ -0,0 +1,149 @@
+package co.edu.unbosque.quickcourier.factory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de números de pedido tipo Snowflake
+ * Identificador de 63 bits: 41 bits de milisegundos desde EPOCH_MS | 10 bits de nodo | 12 bits de secuencia
+ *
+ * - Sin locks: el último (timestamp, secuencia) emitido vive en un AtomicLong y se avanza con CAS
+ * - Si se agotan las 4096 secuencias de un milisegundo, el acarreo toma prestado el siguiente milisegundo
+ * - Si el reloj retrocede se sigue avanzando sobre el último valor emitido, nunca se repite
+ * - Formato: QC-YYYYMMDD-XXXXXXXXXXXXX (id en base 36 con ancho fijo, ordenable lexicográficamente)
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeOrderNumberGenerator.class);
+
+    /** 2025-01-01T00:00:00Z */
+    static final long EPOCH_MS = 1735689600000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String ORDER_NUMBER_PREFIX = "QC-";
+    private static final int ID_WIDTH = 13;
+    private static final char[] BASE36 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private final Clock clock;
+    private final ZoneId zone;
+
+    /** (milisegundos desde EPOCH_MS << SEQUENCE_BITS) | secuencia del último id emitido */
+    private final AtomicLong lastState = new AtomicLong();
+
+    private volatile DayPrefix dayPrefix;
+
+    /**
+     * order-number.node-id es obligatorio y debe ser distinto en cada instancia:
+     * dos nodos con el mismo id pueden emitir el mismo número en el mismo milisegundo
+     */
+    @Autowired
+    public SnowflakeOrderNumberGenerator(@Value("${order-number.node-id:#{null}}") Long nodeId) {
+        this(requireNodeId(nodeId), Clock.systemDefaultZone());
+    }
+
+    public SnowflakeOrderNumberGenerator(long nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id debe estar entre 0 y " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.zone = clock.getZone();
+        logger.info("Order number generator initialized with node id {}", nodeId);
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        long id = nextId();
+        long epochMs = (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+
+        String prefix = prefixFor(epochMs);
+        StringBuilder sb = new StringBuilder(prefix.length() + ID_WIDTH).append(prefix);
+        appendBase36(sb, id);
+
+        return sb.toString();
+    }
+
+    /**
+     * Reserva el siguiente id con un bucle CAS
+     */
+    long nextId() {
+        while (true) {
+            long now = clock.millis() - EPOCH_MS;
+            long previous = lastState.get();
+            long next = (previous >>> SEQUENCE_BITS) < now
+                    ? now << SEQUENCE_BITS
+                    : previous + 1;
+
+            if (lastState.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    /**
+     * Prefijo QC-YYYYMMDD- cacheado para el día en curso
+     */
+    private String prefixFor(long epochMs) {
+        DayPrefix current = dayPrefix;
+        if (current != null && epochMs >= current.startMs() && epochMs < current.endMs()) {
+            return current.prefix();
+        }
+
+        LocalDate day = Instant.ofEpochMilli(epochMs).atZone(zone).toLocalDate();
+        long startMs = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        long endMs = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        StringBuilder sb = new StringBuilder(12).append(ORDER_NUMBER_PREFIX).append(day.getYear());
+        appendTwoDigits(sb, day.getMonthValue());
+        appendTwoDigits(sb, day.getDayOfMonth());
+        sb.append('-');
+
+        DayPrefix updated = new DayPrefix(startMs, endMs, sb.toString());
+        dayPrefix = updated;
+        return updated.prefix();
+    }
+
+    private static void appendTwoDigits(StringBuilder sb, int value) {
+        if (value < 10) {
+            sb.append('0');
+        }
+        sb.append(value);
+    }
+
+    private static void appendBase36(StringBuilder sb, long value) {
+        char[] digits = new char[ID_WIDTH];
+        for (int i = ID_WIDTH - 1; i >= 0; i--) {
+            digits[i] = BASE36[(int) (value % 36)];
+            value /= 36;
+        }
+        sb.append(digits);
+    }
+
+    private static long requireNodeId(Long nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException(
+                    "order-number.node-id es obligatorio: asigne un id único (0-" + MAX_NODE_ID + ") a cada instancia");
+        }
+        return nodeId;
+    }
+
+    private record DayPrefix(long startMs, long endMs, String prefix) {
+    }
+}
@@ -1,11 +1,14 @@
 package co.edu.unbosque.quickcourier.model;
 
+import co.edu.unbosque.quickcourier.pricing.Money;
+import co.edu.unbosque.quickcourier.pricing.Weight;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,10 +24,13 @@ import java.util.List;
         @Index(name = "idx_order_payment_status", columnList = "payment_status"),
         @Index(name = "idx_order_created_at", columnList = "created_at"),
         @Index(name = "idx_order_user_created", columnList = "user_id, created_at"),
-        @Index(name = "idx_order_status_created", columnList = "status, created_at")
+        @Index(name = "idx_order_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_order_status_hold_expires", columnList = "status, hold_expires_at")
 })
 public class Order {
 
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -97,6 +103,9 @@ public class Order {
     @Column(name = "cancelled_at")
     private LocalDateTime cancelledAt;
 
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -280,6 +289,14 @@ public class Order {
         this.cancelledAt = cancelledAt;
     }
 
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
@@ -326,13 +343,66 @@ public class Order {
         extra.setOrder(null);
     }
 
+    /**
+     * Calcula subtotal, peso, extras, impuestos y total
+     * Trabaja en centavos/gramos (long) cuando todos los valores son exactos en esas unidades;
+     * si alguno no lo es usa BigDecimal. Ambos caminos dan el mismo resultado, escala incluida
+     */
     public void calculateTotals() {
+        if (!calculateTotalsInMinorUnits()) {
+            calculateTotalsWithBigDecimal();
+        }
+    }
+
+    private boolean calculateTotalsInMinorUnits() {
+        if (!Money.isCentExact(shippingCost) || !Money.isCentExact(taxRate)) {
+            return false;
+        }
+
+        // Las escalas replican las de sumar BigDecimal desde BigDecimal.ZERO (la mayor de los sumandos)
+        long subtotalCents = 0;
+        long weightGrams = 0;
+        int subtotalScale = 0;
+        int weightScale = 0;
+        for (OrderItem item : items) {
+            if (!Money.isCentExact(item.getSubtotal()) || !Weight.isGramExact(item.getWeightKg())) {
+                return false;
+            }
+            subtotalCents += Money.toCents(item.getSubtotal());
+            weightGrams += Weight.toGrams(item.getWeightKg()) * item.getQuantity();
+            subtotalScale = Math.max(subtotalScale, item.getSubtotal().scale());
+            weightScale = Math.max(weightScale, item.getWeightKg().scale());
+        }
+
+        long extrasCents = 0;
+        int extrasScale = 0;
+        for (OrderExtra extra : extras) {
+            if (!Money.isCentExact(extra.getAppliedPrice())) {
+                return false;
+            }
+            extrasCents += Money.toCents(extra.getAppliedPrice());
+            extrasScale = Math.max(extrasScale, extra.getAppliedPrice().scale());
+        }
+
+        long baseForTaxCents = subtotalCents + Money.toCents(shippingCost) + extrasCents;
+        int baseForTaxScale = Math.max(Math.max(subtotalScale, shippingCost.scale()), extrasScale);
+        long taxCents = Money.percentOf(baseForTaxCents, Money.toBasisPoints(taxRate));
+
+        this.subtotal = Money.fromCents(subtotalCents, subtotalScale);
+        this.totalWeightKg = Weight.fromGrams(weightGrams, weightScale);
+        this.extrasCost = Money.fromCents(extrasCents, extrasScale);
+        this.taxAmount = Money.fromCents(taxCents);
+        this.totalAmount = Money.fromCents(baseForTaxCents + taxCents, Math.max(baseForTaxScale, Money.SCALE));
+        return true;
+    }
+
+    private void calculateTotalsWithBigDecimal() {
         this.subtotal = items.stream()
                 .map(OrderItem::getSubtotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         this.totalWeightKg = items.stream()
-                .map(item -> item.getWeightKg().multiply(new BigDecimal(item.getQuantity())))
+                .map(item -> item.getWeightKg().multiply(BigDecimal.valueOf(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         this.extrasCost = extras.stream()
@@ -340,7 +410,7 @@ public class Order {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         BigDecimal baseForTax = subtotal.add(shippingCost).add(extrasCost);
-        this.taxAmount = baseForTax.multiply(taxRate).divide(new BigDecimal("100"), 2, java.math.RoundingMode.HALF_UP);
+        this.taxAmount = baseForTax.multiply(taxRate).divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP);
 
         this.totalAmount = baseForTax.add(taxAmount);
     }
@@ -349,12 +419,17 @@ public class Order {
         return status == OrderStatus.PENDING || status == OrderStatus.CONFIRMED;
     }
 
+    public boolean isHoldExpired(LocalDateTime now) {
+        return status == OrderStatus.PENDING && holdExpiresAt != null && holdExpiresAt.isBefore(now);
+    }
+
     public void confirm() {
         if (status != OrderStatus.PENDING) {
             throw new IllegalStateException("Solo se pueden confirmar pedidos en estado PENDING");
         }
         this.status = OrderStatus.CONFIRMED;
         this.confirmedAt = LocalDateTime.now();
+        this.holdExpiresAt = null;
     }
 
     public void cancel() {
@@ -363,6 +438,7 @@ public class Order {
         }
         this.status = OrderStatus.CANCELLED;
         this.cancelledAt = LocalDateTime.now();
+        this.holdExpiresAt = null;
     }
 
     @Override
@@ -147,7 +147,7 @@ public class OrderItem {
 
     public void calculateSubtotal() {
         if (unitPrice != null && quantity != null) {
-            this.subtotal = unitPrice.multiply(new BigDecimal(quantity));
+            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
         }
     }
 
@@ -0,0 +1,113 @@
+package co.edu.unbosque.quickcourier.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contador compartido entre nodos de las requests concedidas a una clave en una ventana de rate limiting
+ * Los nodos no lo incrementan por request: reservan lotes de cupo (ver ClusterRateLimiter)
+ */
+@Entity
+@Table(name = "rate_limit_counter",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rate_limit_counter_key_window",
+                columnNames = {"limit_key", "window_start"}),
+        indexes = @Index(name = "idx_rate_limit_counter_window_start", columnList = "window_start"))
+public class RateLimitCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Clave es obligatoria")
+    @Size(max = 255)
+    @Column(name = "limit_key", nullable = false, length = 255)
+    private String limitKey;
+
+    @NotNull(message = "Inicio de ventana es obligatorio")
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @NotNull
+    @Column(nullable = false)
+    private Integer consumed = 0;
+
+    @NotNull
+    @Column(name = "last_grant", nullable = false)
+    private Integer lastGrant = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public RateLimitCounter() {
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters y Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLimitKey() {
+        return limitKey;
+    }
+
+    public void setLimitKey(String limitKey) {
+        this.limitKey = limitKey;
+    }
+
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(LocalDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public Integer getConsumed() {
+        return consumed;
+    }
+
+    public void setConsumed(Integer consumed) {
+        this.consumed = consumed;
+    }
+
+    public Integer getLastGrant() {
+        return lastGrant;
+    }
+
+    public void setLastGrant(Integer lastGrant) {
+        this.lastGrant = lastGrant;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitCounter{" +
+                "id=" + id +
+                ", limitKey='" + limitKey + '\'' +
+                ", windowStart=" + windowStart +
+                ", consumed=" + consumed +
+                '}';
+    }
+}
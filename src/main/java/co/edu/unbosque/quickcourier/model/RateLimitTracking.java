@@ -15,8 +15,10 @@ import java.time.LocalDateTime;
 @Table(name = "rate_limit_tracking", indexes = {
         @Index(name = "idx_rate_limit_user_window", columnList = "user_id, window_start, window_end"),
         @Index(name = "idx_rate_limit_window_end", columnList = "window_end"),
-        @Index(name = "idx_rate_limit_endpoint", columnList = "endpoint"),
-        @Index(name = "idx_rate_limit_user_endpoint", columnList = "user_id, endpoint, window_start")
+        @Index(name = "idx_rate_limit_endpoint", columnList = "endpoint")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rate_limit_user_endpoint_window",
+                columnNames = {"user_id", "endpoint", "window_start"})
 })
 public class RateLimitTracking {
 
@@ -1,5 +1,7 @@
 package co.edu.unbosque.quickcourier.model;
 
+import co.edu.unbosque.quickcourier.cache.ShippingExtraChangeListener;
+import co.edu.unbosque.quickcourier.pricing.Money;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -7,6 +9,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 /**
@@ -17,8 +20,11 @@ import java.time.LocalDateTime;
 @Table(name = "shipping_extra", indexes = {
         @Index(name = "idx_shipping_extra_code", columnList = "code")
 })
+@EntityListeners(ShippingExtraChangeListener.class)
 public class ShippingExtra {
 
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -165,8 +171,12 @@ public class ShippingExtra {
                 if (percentageValue == null) {
                     yield BigDecimal.ZERO;
                 }
+                if (Money.isCentExact(orderSubtotal) && Money.isCentExact(percentageValue)) {
+                    yield Money.fromCents(Money.percentOf(
+                            Money.toCents(orderSubtotal), Money.toBasisPoints(percentageValue)));
+                }
                 yield orderSubtotal.multiply(percentageValue)
-                        .divide(new BigDecimal("100"), 2, java.math.RoundingMode.HALF_UP);
+                        .divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP);
             }
         };
     }
@@ -1,5 +1,6 @@
 package co.edu.unbosque.quickcourier.model;
 
+import co.edu.unbosque.quickcourier.strategy.ShippingRuleChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -21,6 +22,7 @@ import java.util.Map;
         @Index(name = "idx_shipping_rule_priority", columnList = "priority"),
         @Index(name = "idx_shipping_rule_validity", columnList = "valid_from, valid_until")
 })
+@EntityListeners(ShippingRuleChangeListener.class)
 public class ShippingRule {
 
     @Id
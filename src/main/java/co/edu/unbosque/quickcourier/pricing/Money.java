@@ -0,0 +1,80 @@
+package co.edu.unbosque.quickcourier.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética de dinero en punto fijo sobre long (centavos)
+ * Se usa internamente en los cálculos de precios; los BigDecimal solo aparecen al leer
+ * y escribir entidades/DTOs (Money.toCents / Money.fromCents)
+ *
+ * Las divisiones redondean HALF_UP, igual que BigDecimal.divide(..., 2, RoundingMode.HALF_UP),
+ * de modo que los resultados coinciden exactamente con el cálculo en BigDecimal
+ * cuando todas las entradas son exactas en centavos
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    /** 100% expresado en puntos básicos (centésimas de punto porcentual) */
+    public static final long ONE_HUNDRED_PERCENT_BP = 10_000L;
+
+    private Money() {
+    }
+
+    /**
+     * true si el valor se puede representar sin pérdida en centavos
+     */
+    public static boolean isCentExact(BigDecimal value) {
+        return value != null && (value.scale() <= SCALE || value.stripTrailingZeros().scale() <= SCALE);
+    }
+
+    /**
+     * @throws ArithmeticException si el valor no es exacto en centavos o no cabe en un long
+     */
+    public static long toCents(BigDecimal value) {
+        return value.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Igual que fromCents(cents) pero con la escala indicada, para conservar la escala
+     * que habría dado el cálculo equivalente en BigDecimal
+     *
+     * @throws ArithmeticException si la escala pide descartar dígitos distintos de cero
+     */
+    public static BigDecimal fromCents(long cents, int scale) {
+        return BigDecimal.valueOf(cents, SCALE).setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Porcentaje (19.00 = 19%) a puntos básicos (1900)
+     */
+    public static long toBasisPoints(BigDecimal percentage) {
+        return toCents(percentage);
+    }
+
+    /**
+     * cents * porcentaje / 100, redondeado HALF_UP a centavos
+     */
+    public static long percentOf(long cents, long basisPoints) {
+        return divideHalfUp(Math.multiplyExact(cents, basisPoints), ONE_HUNDRED_PERCENT_BP);
+    }
+
+    /**
+     * División entera con redondeo HALF_UP (la mitad se aleja de cero)
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+
+        return quotient;
+    }
+}
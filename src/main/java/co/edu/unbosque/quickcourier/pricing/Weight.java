@@ -0,0 +1,60 @@
+package co.edu.unbosque.quickcourier.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Pesos en punto fijo sobre long (gramos)
+ * Las columnas de peso usan escala 3 en kilogramos, por lo que un gramo es la unidad mínima
+ */
+public final class Weight {
+
+    public static final int SCALE = 3;
+
+    private static final long GRAMS_PER_KG = 1_000L;
+
+    private Weight() {
+    }
+
+    /**
+     * true si el peso se puede representar sin pérdida en gramos
+     */
+    public static boolean isGramExact(BigDecimal kilograms) {
+        return kilograms != null && (kilograms.scale() <= SCALE || kilograms.stripTrailingZeros().scale() <= SCALE);
+    }
+
+    /**
+     * @throws ArithmeticException si el peso no es exacto en gramos o no cabe en un long
+     */
+    public static long toGrams(BigDecimal kilograms) {
+        return kilograms.movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * Menor cantidad de gramos mayor o igual al peso indicado
+     * Sirve para comparar umbrales: grams >= ceilGrams(t) equivale a kg >= t
+     */
+    public static long ceilGrams(BigDecimal kilograms) {
+        return kilograms.movePointRight(SCALE).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    public static BigDecimal fromGrams(long grams) {
+        return BigDecimal.valueOf(grams, SCALE);
+    }
+
+    /**
+     * Igual que fromGrams(grams) pero con la escala indicada
+     *
+     * @throws ArithmeticException si la escala pide descartar dígitos distintos de cero
+     */
+    public static BigDecimal fromGrams(long grams, int scale) {
+        return BigDecimal.valueOf(grams, SCALE).setScale(scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Costo de transportar grams a una tarifa por kilogramo, redondeado HALF_UP a centavos
+     */
+    public static long costOf(long grams, long centsPerKg) {
+        return Money.divideHalfUp(Math.multiplyExact(grams, centsPerKg), GRAMS_PER_KG);
+    }
+}
@@ -0,0 +1,217 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import co.edu.unbosque.quickcourier.cache.StandaloneCacheRegistry;
+import co.edu.unbosque.quickcourier.repository.RateLimitCounterRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite global entre todos los nodos, sobre la tabla rate_limit_counter
+ *
+ * - Ventanas fijas de rule.period() alineadas al epoch en UTC (los nodos deben tener el reloj
+ *   sincronizado): en cada ventana una clave puede recibir a lo sumo rule.limit() requests en total
+ * - Cada nodo reserva lotes de cupo (leases) con un INSERT ... ON CONFLICT DO UPDATE ... RETURNING
+ *   y los consume en memoria: la base de datos ve una sentencia por lote, no por request
+ * - Nunca se concede más que el límite; el error es por defecto: a lo sumo un lote por nodo queda
+ *   reservado sin usar al cerrar la ventana
+ * - El lote sale de la cota de error: limit * max-error-fraction / expected-nodes, así con
+ *   expected-nodes nodos se pierde a lo sumo max-error-fraction del límite por ventana y cada clave
+ *   hace a lo sumo expected-nodes / max-error-fraction reservas por ventana, sin importar el tráfico
+ *   (con límites menores que ese cociente el lote es 1 y las reservas se acotan por el límite)
+ * - Si la base de datos falla se concede un lote local (falla abierto, sigue aplicando el límite
+ *   local de GcraRateLimiter) para no reintentar la consulta en cada request
+ *
+ * Sin estado estático: varios contextos en la misma JVM con el mismo datasource se comportan
+ * como nodos distintos
+ */
+@Component
+public class ClusterRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRateLimiter.class);
+
+    private final RateLimitCounterRepository counterRepository;
+    private final RateLimitPolicies policies;
+    private final boolean enabled;
+    private final int expectedNodes;
+    private final double maxErrorFraction;
+    private final Cache<String, Lease> leases;
+
+    private final Counter grantedLeases;
+    private final Counter exhaustedLeases;
+    private final Counter failedLeases;
+
+    public ClusterRateLimiter(RateLimitCounterRepository counterRepository,
+                              RateLimitPolicies policies,
+                              StandaloneCacheRegistry cacheRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${rate-limit.cluster.enabled:false}") boolean enabled,
+                              @Value("${rate-limit.cluster.expected-nodes:2}") int expectedNodes,
+                              @Value("${rate-limit.cluster.max-error-fraction:0.2}") double maxErrorFraction,
+                              @Value("${rate-limit.max-keys:100000}") long maxKeys) {
+        if (expectedNodes < 1) {
+            throw new IllegalArgumentException("rate-limit.cluster.expected-nodes debe ser al menos 1");
+        }
+        if (maxErrorFraction <= 0 || maxErrorFraction >= 1) {
+            throw new IllegalArgumentException("rate-limit.cluster.max-error-fraction debe estar entre 0 y 1 (exclusivo)");
+        }
+
+        this.counterRepository = counterRepository;
+        this.policies = policies;
+        this.enabled = enabled;
+        this.expectedNodes = expectedNodes;
+        this.maxErrorFraction = maxErrorFraction;
+        this.leases = cacheRegistry.register("rateLimitLeases", Caffeine.newBuilder()
+                .expireAfterAccess(policies.longestPeriod())
+                .maximumSize(maxKeys));
+
+        this.grantedLeases = leaseCounter(meterRegistry, "granted");
+        this.exhaustedLeases = leaseCounter(meterRegistry, "exhausted");
+        this.failedLeases = leaseCounter(meterRegistry, "error");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consume una request del cupo global de la clave en la ventana actual
+     */
+    public boolean tryAcquire(String key, RateLimitRule rule) {
+        long windowStart = windowStart(rule, System.currentTimeMillis());
+        String limitKey = rule.policy() + "|" + key;
+
+        Lease lease = leases.asMap().compute(limitKey,
+                (k, current) -> current != null && current.windowStart == windowStart ? current : new Lease(windowStart));
+
+        if (lease.tryTake()) {
+            return true;
+        }
+        if (lease.exhausted) {
+            return false;
+        }
+
+        // Una sola reserva por clave a la vez; las demás requests esperan el lote
+        lease.refillLock.lock();
+        try {
+            if (lease.tryTake()) {
+                return true;
+            }
+            if (lease.exhausted) {
+                return false;
+            }
+
+            int batch = leaseSize(rule);
+            int granted;
+            try {
+                granted = counterRepository.leaseTokens(limitKey, toDatabaseTime(windowStart), batch, rule.limit());
+            } catch (RuntimeException e) {
+                failedLeases.increment();
+                logger.warn("Could not lease rate limit tokens for {}: {}", limitKey, e.getMessage());
+                granted = batch;
+            }
+
+            if (granted <= 0) {
+                lease.exhausted = true;
+                exhaustedLeases.increment();
+                return false;
+            }
+
+            grantedLeases.increment();
+            lease.tokens.addAndGet(granted - 1);
+            return true;
+        } finally {
+            lease.refillLock.unlock();
+        }
+    }
+
+    /**
+     * Tiempo hasta que empieza la siguiente ventana de la regla
+     */
+    public long nanosUntilNextWindow(RateLimitRule rule) {
+        long now = System.currentTimeMillis();
+        long windowEnd = windowStart(rule, now) + rule.period().toMillis();
+        return TimeUnit.MILLISECONDS.toNanos(windowEnd - now);
+    }
+
+    /**
+     * Borra los contadores de ventanas que ya terminaron en todas las políticas
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.cluster.purge-interval-ms:300000}",
+            initialDelayString = "${rate-limit.cluster.purge-interval-ms:300000}")
+    public void purgeFinishedWindows() {
+        if (!enabled) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - 2 * policies.longestPeriod().toMillis();
+        try {
+            int deleted = counterRepository.deleteWindowsBefore(toDatabaseTime(cutoff));
+            if (deleted > 0) {
+                logger.debug("Rate limit counter purge deleted {} windows", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge rate limit counters: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cupo que reserva cada lote: lo que puede quedar sin usar en un nodo al cerrar la ventana
+     */
+    int leaseSize(RateLimitRule rule) {
+        return Math.max(1, (int) (rule.limit() * maxErrorFraction / expectedNodes));
+    }
+
+    private static long windowStart(RateLimitRule rule, long epochMillis) {
+        long period = rule.period().toMillis();
+        return epochMillis - Math.floorMod(epochMillis, period);
+    }
+
+    private static LocalDateTime toDatabaseTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private static Counter leaseCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("rate.limit.cluster.leases")
+                .description("Reservas de cupo global por resultado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Lease {
+
+        private final long windowStart;
+        private final AtomicInteger tokens = new AtomicInteger();
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private volatile boolean exhausted;
+
+        private Lease(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        private boolean tryTake() {
+            while (true) {
+                int current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
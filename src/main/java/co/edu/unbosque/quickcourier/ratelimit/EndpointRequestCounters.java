@@ -0,0 +1,123 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Contadores en memoria de requests por usuario y endpoint en ventanas fijas
+ * Solo cuentan, no limitan: el límite lo aplica RateLimitingFilter
+ *
+ * - record() no toca la base de datos: un compute sobre el mapa y un incremento atómico
+ * - flush() entrega en un solo lote lo contado desde la última escritura; lo llama
+ *   RateLimitTrackingFlusher para mantener rate_limit_tracking con fines de auditoría
+ * - Las ventanas vencidas se escriben una última vez y se descartan; si esa escritura falla
+ *   se pierden (son solo estadísticas), las ventanas activas se reintentan en el siguiente flush
+ */
+@Component
+public class EndpointRequestCounters {
+
+    private final Map<WindowKey, Window> windows = new ConcurrentHashMap<>();
+    private final Queue<Window> closed = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Cuenta la request en la ventana actual del usuario en el endpoint
+     */
+    public void record(Long userId, String endpoint, Duration windowSize) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Window window = windows.compute(new WindowKey(userId, endpoint), (key, current) -> {
+            if (current != null && !current.isExpired(now)) {
+                return current;
+            }
+            if (current != null) {
+                closed.add(current);
+            }
+            return new Window(key, now, now.plus(windowSize));
+        });
+
+        window.count.incrementAndGet();
+    }
+
+    /**
+     * Escribe con writer lo contado desde el último flush
+     * Si writer falla no se marca nada como escrito: las ventanas activas se reintentan
+     *
+     * @return cantidad de ventanas escritas
+     */
+    public synchronized int flush(Consumer<List<RateLimitTrackingDelta>> writer) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Ventanas vencidas que ninguna request reemplazó todavía
+        windows.forEach((key, window) -> {
+            if (window.isExpired(now) && windows.remove(key, window)) {
+                closed.add(window);
+            }
+        });
+
+        List<Window> candidates = new ArrayList<>(windows.values());
+        Window finished;
+        while ((finished = closed.poll()) != null) {
+            candidates.add(finished);
+        }
+
+        List<Window> pending = new ArrayList<>();
+        List<Integer> counted = new ArrayList<>();
+        List<RateLimitTrackingDelta> deltas = new ArrayList<>();
+
+        for (Window window : candidates) {
+            int count = window.count.get();
+            int delta = count - window.flushed;
+            if (delta > 0) {
+                pending.add(window);
+                counted.add(count);
+                deltas.add(new RateLimitTrackingDelta(window.key.userId(), window.key.endpoint(),
+                        window.start, window.end, delta));
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        writer.accept(deltas);
+
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).flushed = counted.get(i);
+        }
+
+        return deltas.size();
+    }
+
+    private record WindowKey(Long userId, String endpoint) {}
+
+    private static final class Window {
+
+        private final WindowKey key;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final AtomicInteger count = new AtomicInteger();
+
+        // Solo lo modifica flush(), que es synchronized
+        private int flushed;
+
+        private Window(WindowKey key, LocalDateTime start, LocalDateTime end) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+        }
+
+        private boolean isExpired(LocalDateTime now) {
+            return !now.isBefore(end);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import co.edu.unbosque.quickcourier.cache.StandaloneCacheRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador GCRA (Generic Cell Rate Algorithm), equivalente a un token bucket
+ *
+ * - El estado de cada clave es un único AtomicLong con el "theoretical arrival time" (TAT);
+ *   aceptar una request es un compareAndSet, sin locks ni contadores por ventana
+ * - La ventana es deslizante de verdad: el cupo se recupera de a una request cada
+ *   period/limit, no de golpe al final de un minuto fijo
+ * - Las claves inactivas más de RateLimitPolicies.longestBurstWindow() se descartan
+ *   (su estado ya es el de un cliente nuevo); rate-limit.max-keys acota la memoria
+ */
+@Component
+public class GcraRateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    // Los TAT se miden desde aquí para que nunca sean negativos (nanoTime puede serlo)
+    private final long origin = System.nanoTime();
+
+    public GcraRateLimiter(StandaloneCacheRegistry cacheRegistry,
+                           RateLimitPolicies policies,
+                           @Value("${rate-limit.max-keys:100000}") long maxKeys) {
+        this.buckets = cacheRegistry.register("rateLimitBuckets", Caffeine.newBuilder()
+                .expireAfterAccess(policies.longestBurstWindow())
+                .maximumSize(maxKeys));
+    }
+
+    /**
+     * Consume una request del cupo de la clave bajo la regla indicada
+     */
+    public RateLimitDecision tryAcquire(String key, RateLimitRule rule) {
+        AtomicLong tat = buckets.get(rule.policy() + "|" + key, k -> new AtomicLong());
+        long interval = rule.emissionIntervalNanos();
+        long capacity = rule.burstNanos();
+
+        while (true) {
+            long now = System.nanoTime() - origin;
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long next = base + interval;
+            long allowAt = next - capacity;
+
+            if (allowAt > now) {
+                return new RateLimitDecision(false, rule, 0, allowAt - now, base - now);
+            }
+
+            if (tat.compareAndSet(current, next)) {
+                int remaining = (int) ((now + capacity - next) / interval);
+                return new RateLimitDecision(true, rule, remaining, 0, next - now);
+            }
+        }
+    }
+
+    /**
+     * Descarta el estado de todas las claves
+     */
+    public void clear() {
+        buckets.invalidateAll();
+    }
+
+    public long getTrackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
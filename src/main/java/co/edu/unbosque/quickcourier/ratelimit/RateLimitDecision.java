@@ -0,0 +1,30 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultado de pedir permiso al limitador
+ *
+ * @param retryAfterNanos Espera hasta que se acepte la siguiente request (0 si se aceptó)
+ * @param resetNanos Espera hasta que el cliente recupere la ráfaga completa
+ */
+public record RateLimitDecision(
+        boolean allowed,
+        RateLimitRule rule,
+        int remaining,
+        long retryAfterNanos,
+        long resetNanos
+) {
+
+    public long retryAfterSeconds() {
+        return toSecondsCeil(retryAfterNanos);
+    }
+
+    public long resetSeconds() {
+        return toSecondsCeil(resetNanos);
+    }
+
+    private static long toSecondsCeil(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
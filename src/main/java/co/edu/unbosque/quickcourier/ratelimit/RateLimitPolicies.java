@@ -0,0 +1,131 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import co.edu.unbosque.quickcourier.config.RateLimitPolicySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Políticas de rate limiting por ruta, leídas de rate-limit.policies.&lt;nombre&gt;.*
+ *
+ * - Cada política cubre uno o más patrones Ant y define un límite por nivel de cliente
+ * - Si una ruta coincide con varias políticas se usa el patrón más específico
+ * - Si no se configura la política default (/**), se crea con rate-limit.requests-per-minute
+ *   para todos los niveles
+ */
+@Component
+public class RateLimitPolicies {
+
+    private static final String POLICIES_PREFIX = "rate-limit.policies";
+    private static final String DEFAULT_POLICY = "default";
+    private static final String MATCH_ALL = "/**";
+    private static final Duration DEFAULT_PERIOD = Duration.ofMinutes(1);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<RoutePolicy> routes = new ArrayList<>();
+    private final long longestBurstNanos;
+    private final Duration longestPeriod;
+
+    public RateLimitPolicies(Environment environment,
+                             @Value("${rate-limit.requests-per-minute:100}") int requestsPerMinute) {
+        Map<String, RateLimitPolicySpec> specs = Binder.get(environment)
+                .bind(POLICIES_PREFIX, Bindable.mapOf(String.class, RateLimitPolicySpec.class))
+                .orElseGet(Map::of);
+
+        specs.forEach((name, spec) -> {
+            List<String> paths = spec.paths() == null || spec.paths().isEmpty()
+                    ? (DEFAULT_POLICY.equals(name) ? List.of(MATCH_ALL) : List.of())
+                    : spec.paths();
+            if (paths.isEmpty()) {
+                throw new IllegalStateException("La política de rate limiting " + name + " no define rutas");
+            }
+
+            Map<RateLimitTier, RateLimitRule> rules = toRules(name, spec);
+            paths.forEach(path -> routes.add(new RoutePolicy(path, rules)));
+        });
+
+        if (!specs.containsKey(DEFAULT_POLICY)) {
+            RateLimitPolicySpec fallback = new RateLimitPolicySpec(
+                    List.of(MATCH_ALL), DEFAULT_PERIOD, requestsPerMinute, null, null, null);
+            routes.add(new RoutePolicy(MATCH_ALL, toRules(DEFAULT_POLICY, fallback)));
+        }
+
+        this.longestBurstNanos = routes.stream()
+                .flatMap(route -> route.rules().values().stream())
+                .mapToLong(RateLimitRule::burstNanos)
+                .max()
+                .orElse(DEFAULT_PERIOD.toNanos());
+        this.longestPeriod = routes.stream()
+                .flatMap(route -> route.rules().values().stream())
+                .map(RateLimitRule::period)
+                .max(Comparator.naturalOrder())
+                .orElse(DEFAULT_PERIOD);
+    }
+
+    /**
+     * Regla que aplica a la ruta para el nivel de cliente
+     */
+    public RateLimitRule resolve(String path, RateLimitTier tier) {
+        Comparator<String> specificity = pathMatcher.getPatternComparator(path);
+        RoutePolicy best = null;
+
+        for (RoutePolicy route : routes) {
+            if (pathMatcher.match(route.pattern(), path)
+                    && (best == null || specificity.compare(route.pattern(), best.pattern()) < 0)) {
+                best = route;
+            }
+        }
+
+        // Siempre existe default (/**), salvo que se haya configurado con otras rutas
+        if (best == null) {
+            throw new IllegalStateException("Ninguna política de rate limiting cubre la ruta " + path);
+        }
+        return best.rules().get(tier);
+    }
+
+    /**
+     * Mayor tiempo que tarda un cliente inactivo en recuperar su ráfaga
+     * Pasado ese tiempo su estado es igual al de un cliente nuevo y se puede descartar
+     */
+    public Duration longestBurstWindow() {
+        return Duration.ofNanos(longestBurstNanos);
+    }
+
+    /**
+     * Periodo más largo entre todas las políticas
+     */
+    public Duration longestPeriod() {
+        return longestPeriod;
+    }
+
+    private static Map<RateLimitTier, RateLimitRule> toRules(String name, RateLimitPolicySpec spec) {
+        if (spec.anonymous() == null) {
+            throw new IllegalStateException("La política de rate limiting " + name + " no define anonymous");
+        }
+
+        Duration period = spec.period() != null ? spec.period() : DEFAULT_PERIOD;
+        Map<RateLimitTier, RateLimitRule> rules = new EnumMap<>(RateLimitTier.class);
+        rules.put(RateLimitTier.ANONYMOUS, rule(name, RateLimitTier.ANONYMOUS, spec.anonymous(), spec.burst(), period));
+        rules.put(RateLimitTier.USER, rule(name, RateLimitTier.USER,
+                spec.user() != null ? spec.user() : spec.anonymous(), spec.burst(), period));
+        rules.put(RateLimitTier.API_KEY, rule(name, RateLimitTier.API_KEY,
+                spec.apiKey() != null ? spec.apiKey() : spec.anonymous(), spec.burst(), period));
+        return Map.copyOf(rules);
+    }
+
+    private static RateLimitRule rule(String name, RateLimitTier tier, int limit, Integer burst, Duration period) {
+        return new RateLimitRule(name, tier, limit, burst != null ? burst : limit, period);
+    }
+
+    private record RoutePolicy(String pattern, Map<RateLimitTier, RateLimitRule> rules) {}
+}
@@ -0,0 +1,38 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Límite efectivo de una política para un nivel de cliente
+ * En GCRA equivale a una request cada emissionInterval, con ráfagas de hasta burst requests
+ */
+public record RateLimitRule(
+        String policy,
+        RateLimitTier tier,
+        int limit,
+        int burst,
+        Duration period
+) {
+
+    public RateLimitRule {
+        if (limit <= 0 || burst <= 0) {
+            throw new IllegalArgumentException(
+                    "La política de rate limiting " + policy + " requiere límite y ráfaga mayores que cero");
+        }
+        if (period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException(
+                    "La política de rate limiting " + policy + " requiere un periodo positivo");
+        }
+    }
+
+    public long emissionIntervalNanos() {
+        return Math.max(1, period.toNanos() / limit);
+    }
+
+    /**
+     * Tiempo que tarda un cliente inactivo en recuperar la ráfaga completa
+     */
+    public long burstNanos() {
+        return emissionIntervalNanos() * burst;
+    }
+}
@@ -0,0 +1,10 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+/**
+ * Nivel del cliente, que define qué límite de la política se le aplica
+ */
+public enum RateLimitTier {
+    ANONYMOUS,
+    USER,
+    API_KEY
+}
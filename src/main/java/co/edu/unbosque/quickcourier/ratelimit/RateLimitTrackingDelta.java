@@ -0,0 +1,16 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Requests contadas en memoria para una ventana de rate_limit_tracking desde la última escritura
+ * La fila se identifica por (userId, endpoint, windowStart)
+ */
+public record RateLimitTrackingDelta(
+        Long userId,
+        String endpoint,
+        LocalDateTime windowStart,
+        LocalDateTime windowEnd,
+        int requests
+) {
+}
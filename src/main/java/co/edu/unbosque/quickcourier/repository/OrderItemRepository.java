@@ -1,6 +1,7 @@
 package co.edu.unbosque.quickcourier.repository;
 
 import co.edu.unbosque.quickcourier.model.OrderItem;
+import co.edu.unbosque.quickcourier.search.ProductSales;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -21,4 +22,21 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     @Query("SELECT COUNT(oi) FROM OrderItem oi WHERE oi.product.id = :productId")
     long countByProductId(@Param("productId") Long productId);
+
+    /**
+     * IDs de los productos más vendidos (unidades en pedidos no cancelados)
+     */
+    @Query("SELECT oi.product.id FROM OrderItem oi " +
+            "WHERE oi.order.status <> co.edu.unbosque.quickcourier.model.OrderStatus.CANCELLED " +
+            "GROUP BY oi.product.id ORDER BY SUM(oi.quantity) DESC")
+    List<Long> findTopSellingProductIds(Pageable pageable);
+
+    /**
+     * Unidades vendidas por producto en pedidos no cancelados
+     */
+    @Query("SELECT new co.edu.unbosque.quickcourier.search.ProductSales(oi.product.id, SUM(oi.quantity)) " +
+            "FROM OrderItem oi " +
+            "WHERE oi.order.status <> co.edu.unbosque.quickcourier.model.OrderStatus.CANCELLED " +
+            "GROUP BY oi.product.id")
+    List<ProductSales> sumUnitsSoldByProduct();
 }
\ No newline at end of file
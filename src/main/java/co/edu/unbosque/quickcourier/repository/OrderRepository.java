@@ -3,14 +3,17 @@ package co.edu.unbosque.quickcourier.repository;
 import co.edu.unbosque.quickcourier.model.Order;
 import co.edu.unbosque.quickcourier.model.OrderStatus;
 import co.edu.unbosque.quickcourier.model.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,6 +55,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             "FROM Order o WHERE o.user.id = :userId")
     boolean hasOrders(@Param("userId") Long userId);
 
+    @Query("SELECT DISTINCT o.user.id FROM Order o")
+    List<Long> findAllUserIdsWithOrders();
+
+    @Query("SELECT DISTINCT o.user.id FROM Order o WHERE o.user.id IN :userIds")
+    List<Long> findUserIdsWithOrders(@Param("userIds") Collection<Long> userIds);
+
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE " +
             "o.status = 'DELIVERED' AND o.paymentStatus = 'PAID' " +
             "AND o.createdAt BETWEEN :startDate AND :endDate")
@@ -62,4 +71,54 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT o FROM Order o WHERE o.status IN :statuses ORDER BY o.createdAt DESC")
     Page<Order> findByStatusIn(@Param("statuses") List<OrderStatus> statuses, Pageable pageable);
-}
\ No newline at end of file
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Bloquea un lote de pedidos PENDING con la reserva vencida
+     * SKIP LOCKED permite que varios nodos barran en paralelo sin esperarse entre sí
+     */
+    @Query(value = "SELECT * FROM customer_order " +
+            "WHERE status = 'PENDING' AND hold_expires_at < :now " +
+            "ORDER BY hold_expires_at " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Order> lockExpiredHolds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Unidades retenidas por pedidos PENDING y comprometidas por pedidos confirmados aún no entregados
+     * Una sola fila agregada, para las métricas de inventario
+     */
+    @Query("SELECT " +
+            "COALESCE(SUM(CASE WHEN o.status = 'PENDING' THEN i.quantity ELSE 0 END), 0) AS heldUnits, " +
+            "COALESCE(SUM(CASE WHEN o.status IN ('CONFIRMED', 'IN_TRANSIT') THEN i.quantity ELSE 0 END), 0) AS committedUnits " +
+            "FROM OrderItem i JOIN i.order o " +
+            "WHERE o.status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT')")
+    StockUnits sumStockUnits();
+
+    /**
+     * Unidades retenidas y comprometidas por producto, los que más unidades tienen abiertas primero
+     * El Pageable acota cuántos productos se publican como métricas
+     */
+    @Query("SELECT i.product.id AS productId, i.product.sku AS sku, " +
+            "SUM(CASE WHEN o.status = 'PENDING' THEN i.quantity ELSE 0 END) AS heldUnits, " +
+            "SUM(CASE WHEN o.status IN ('CONFIRMED', 'IN_TRANSIT') THEN i.quantity ELSE 0 END) AS committedUnits " +
+            "FROM OrderItem i JOIN i.order o " +
+            "WHERE o.status IN ('PENDING', 'CONFIRMED', 'IN_TRANSIT') " +
+            "GROUP BY i.product.id, i.product.sku " +
+            "ORDER BY SUM(i.quantity) DESC, i.product.id")
+    List<ProductStockUnits> sumStockUnitsByProduct(Pageable pageable);
+
+    interface StockUnits {
+        Long getHeldUnits();
+
+        Long getCommittedUnits();
+    }
+
+    interface ProductStockUnits extends StockUnits {
+        Long getProductId();
+
+        String getSku();
+    }
+}
@@ -1,13 +1,20 @@
 package co.edu.unbosque.quickcourier.repository;
 
 import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.search.ProductSearchDocument;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,6 +22,49 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findBySku(String sku);
 
+    /**
+     * Carga en una sola consulta todos los productos de un pedido bloqueando sus filas
+     * El orden por id evita deadlocks entre pedidos concurrentes con productos en común
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Descuenta el stock de todas las líneas de un pedido en un solo UPDATE
+     * Cada fila solo se actualiza si tiene unidades suficientes (UPDATE condicional atómico)
+     *
+     * @param ids        ids de producto sin repetidos
+     * @param quantities cantidad a descontar de cada producto, en el mismo orden que ids
+     * @return número de productos actualizados; menor que ids.length si alguno no alcanzó
+     *
+     * No limpia el contexto de persistencia: StockReservationService ajusta los productos ya cargados
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        UPDATE product p
+        SET stock_quantity = p.stock_quantity - v.quantity, updated_at = :now
+        FROM unnest(CAST(:ids AS bigint[]), CAST(:quantities AS integer[])) AS v(id, quantity)
+        WHERE p.id = v.id AND p.stock_quantity >= v.quantity
+        """, nativeQuery = true)
+    int decreaseStockIfAvailable(@Param("ids") Long[] ids,
+                                 @Param("quantities") Integer[] quantities,
+                                 @Param("now") LocalDateTime now);
+
+    /**
+     * Devuelve al inventario el stock de varios productos en un solo UPDATE
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        UPDATE product p
+        SET stock_quantity = p.stock_quantity + v.quantity, updated_at = :now
+        FROM unnest(CAST(:ids AS bigint[]), CAST(:quantities AS integer[])) AS v(id, quantity)
+        WHERE p.id = v.id
+        """, nativeQuery = true)
+    int increaseStock(@Param("ids") Long[] ids,
+                      @Param("quantities") Integer[] quantities,
+                      @Param("now") LocalDateTime now);
+
     @Query("SELECT p FROM Product p WHERE p.isActive = true ORDER BY p.name")
     Page<Product> findAllActive(Pageable pageable);
 
@@ -55,4 +105,33 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         """)
     Page<Product> findByCategoryAndActive(@Param("categoryId") Long categoryId, Pageable pageable);
 
+    /**
+     * Campos indexables de todos los productos activos, para construir el índice de búsqueda
+     */
+    @Query("""
+        SELECT new co.edu.unbosque.quickcourier.search.ProductSearchDocument(
+            p.id, p.name, p.sku, c.name, p.description)
+        FROM Product p LEFT JOIN p.category c
+        WHERE p.isActive = true
+        """)
+    List<ProductSearchDocument> findAllActiveSearchDocuments();
+
+    /**
+     * Campos indexables de los productos activos modificados desde el instante dado
+     * Para llevar al índice los cambios hechos en otros nodos o fuera de la aplicación
+     */
+    @Query("""
+        SELECT new co.edu.unbosque.quickcourier.search.ProductSearchDocument(
+            p.id, p.name, p.sku, c.name, p.description)
+        FROM Product p LEFT JOIN p.category c
+        WHERE p.isActive = true AND p.updatedAt > :since
+        """)
+    List<ProductSearchDocument> findActiveSearchDocumentsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Ids de los productos desactivados desde el instante dado
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.isActive = false AND p.updatedAt > :since")
+    List<Long> findInactiveIdsUpdatedSince(@Param("since") LocalDateTime since);
+
 }
\ No newline at end of file
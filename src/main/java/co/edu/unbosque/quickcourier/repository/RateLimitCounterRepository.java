@@ -0,0 +1,38 @@
+package co.edu.unbosque.quickcourier.repository;
+
+import co.edu.unbosque.quickcourier.model.RateLimitCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RateLimitCounterRepository extends JpaRepository<RateLimitCounter, Long> {
+
+    /**
+     * Reserva hasta batch requests del cupo de la ventana en una sola sentencia atómica
+     * En el UPDATE las columnas del lado derecho tienen el valor anterior, así last_grant
+     * queda con lo concedido a esta llamada (0 si la ventana ya se agotó)
+     */
+    @Transactional
+    @Query(value = "INSERT INTO rate_limit_counter (limit_key, window_start, consumed, last_grant, updated_at) " +
+            "VALUES (:limitKey, :windowStart, LEAST(:batch, :maxTokens), LEAST(:batch, :maxTokens), now()) " +
+            "ON CONFLICT (limit_key, window_start) DO UPDATE SET " +
+            "last_grant = LEAST(:batch, GREATEST(:maxTokens - rate_limit_counter.consumed, 0)), " +
+            "consumed = rate_limit_counter.consumed + LEAST(:batch, GREATEST(:maxTokens - rate_limit_counter.consumed, 0)), " +
+            "updated_at = now() " +
+            "RETURNING last_grant", nativeQuery = true)
+    int leaseTokens(@Param("limitKey") String limitKey,
+                    @Param("windowStart") LocalDateTime windowStart,
+                    @Param("batch") int batch,
+                    @Param("maxTokens") int maxTokens);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RateLimitCounter rlc WHERE rlc.windowStart < :date")
+    int deleteWindowsBefore(@Param("date") LocalDateTime date);
+}
@@ -26,7 +26,33 @@ public interface RateLimitTrackingRepository extends JpaRepository<RateLimitTrac
 
     @Modifying
     @Query("DELETE FROM RateLimitTracking rlt WHERE rlt.windowEnd < :date")
-    void deleteOldRecords(@Param("date") LocalDateTime date);
+    int deleteOldRecords(@Param("date") LocalDateTime date);
+
+    /**
+     * Suma las requests de varias ventanas en un solo INSERT ... ON CONFLICT sobre
+     * (user_id, endpoint, window_start): crea las ventanas nuevas (o purgadas mientras tanto)
+     * y acumula en las existentes. El GROUP BY une las filas repetidas del lote,
+     * que ON CONFLICT no admite en una misma sentencia
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO rate_limit_tracking
+            (user_id, endpoint, window_start, window_end, request_count, created_at, updated_at)
+        SELECT v.user_id, v.endpoint, v.window_start, MAX(v.window_end), SUM(v.requests), :now, :now
+        FROM unnest(CAST(:userIds AS bigint[]), CAST(:endpoints AS varchar[]),
+                    CAST(:windowStarts AS timestamp[]), CAST(:windowEnds AS timestamp[]),
+                    CAST(:requests AS integer[])) AS v(user_id, endpoint, window_start, window_end, requests)
+        GROUP BY v.user_id, v.endpoint, v.window_start
+        ON CONFLICT (user_id, endpoint, window_start) DO UPDATE
+        SET request_count = rate_limit_tracking.request_count + EXCLUDED.request_count,
+            updated_at = EXCLUDED.updated_at
+        """, nativeQuery = true)
+    int addRequests(@Param("userIds") Long[] userIds,
+                    @Param("endpoints") String[] endpoints,
+                    @Param("windowStarts") LocalDateTime[] windowStarts,
+                    @Param("windowEnds") LocalDateTime[] windowEnds,
+                    @Param("requests") Integer[] requests,
+                    @Param("now") LocalDateTime now);
 
     @Query("SELECT rlt FROM RateLimitTracking rlt WHERE rlt.user.id = :userId ORDER BY rlt.windowStart DESC")
     Page<RateLimitTracking> findByUserId(@Param("userId") Long userId, Pageable pageable);
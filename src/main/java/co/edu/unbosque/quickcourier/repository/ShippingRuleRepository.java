@@ -30,4 +30,7 @@ public interface ShippingRuleRepository extends JpaRepository<ShippingRule, Long
     Page<ShippingRule> findAllOrderByPriority(Pageable pageable);
 
     boolean existsByCode(String code);
+
+    @Query("SELECT MAX(sr.updatedAt) FROM ShippingRule sr")
+    Optional<LocalDateTime> findLastUpdatedAt();
 }
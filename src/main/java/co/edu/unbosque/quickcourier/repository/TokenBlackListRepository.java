@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -26,6 +27,12 @@ public interface TokenBlackListRepository extends JpaRepository<TokenBlackList,
     @Query("DELETE FROM TokenBlackList tb WHERE tb.expiresAt < :date")
     void deleteExpiredTokens(@Param("date") LocalDateTime date);
 
+    @Query("SELECT tb.jti FROM TokenBlackList tb WHERE tb.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    @Query("SELECT tb.jti FROM TokenBlackList tb WHERE tb.revokedAt >= :since AND tb.expiresAt > :now")
+    List<String> findJtisRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
     @Query("SELECT tb FROM TokenBlackList tb WHERE tb.user.id = :userId ORDER BY tb.revokedAt DESC")
     Page<TokenBlackList> findByUserId(@Param("userId") Long userId, Pageable pageable);
 }
\ No newline at end of file
@@ -26,4 +26,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = 'CUSTOMER'")
     long countCustomers();
+
+    /**
+     * Bloquea la fila del usuario hasta el fin de la transacción
+     * Serializa decisiones por usuario como la elegibilidad de primera compra
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package co.edu.unbosque.quickcourier.scheduler;
+
+import co.edu.unbosque.quickcourier.ratelimit.EndpointRequestCounters;
+import co.edu.unbosque.quickcourier.service.RateLimitTrackingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Tareas periódicas de rate_limit_tracking
+ * Escribe en lote los contadores en memoria de RateLimitInterceptor y purga las ventanas viejas
+ */
+@Component
+public class RateLimitTrackingFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitTrackingFlusher.class);
+
+    private final EndpointRequestCounters counters;
+    private final RateLimitTrackingService trackingService;
+    private final Duration retention;
+
+    public RateLimitTrackingFlusher(EndpointRequestCounters counters,
+                                    RateLimitTrackingService trackingService,
+                                    @Value("${rate-limit.tracking.retention:7d}") Duration retention) {
+        this.counters = counters;
+        this.trackingService = trackingService;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.tracking.flush-interval-ms:10000}",
+            initialDelayString = "${rate-limit.tracking.flush-interval-ms:10000}")
+    public void flush() {
+        try {
+            int written = counters.flush(trackingService::recordRequests);
+            if (written > 0) {
+                logger.debug("Rate limit tracking flushed {} windows", written);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not flush rate limit tracking: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.tracking.purge-interval-ms:3600000}",
+            initialDelayString = "${rate-limit.tracking.purge-interval-ms:3600000}")
+    public void purgeOldRecords() {
+        int deleted = trackingService.purgeOlderThan(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Rate limit tracking purge deleted {} windows", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
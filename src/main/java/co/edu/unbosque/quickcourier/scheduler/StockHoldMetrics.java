@@ -0,0 +1,94 @@
+package co.edu.unbosque.quickcourier.scheduler;
+
+import co.edu.unbosque.quickcourier.repository.OrderRepository;
+import co.edu.unbosque.quickcourier.service.StockHoldService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas de inventario: unidades retenidas por pedidos PENDING (inventory.units.held)
+ * frente a unidades comprometidas por pedidos confirmados sin entregar (inventory.units.committed)
+ *
+ * Por producto se publican inventory.product.units.held/committed (tags product_id y sku)
+ * solo para los N productos con más unidades abiertas: la cardinalidad queda acotada
+ * y un producto que sale del top deja de exportarse en el siguiente refresco
+ *
+ * Los gauges leen valores en memoria; dos consultas agregadas los refrescan periódicamente,
+ * así un scrape de /actuator/prometheus nunca recorre los pedidos
+ */
+@Component
+public class StockHoldMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldMetrics.class);
+
+    private final StockHoldService stockHoldService;
+    private final AtomicLong heldUnits = new AtomicLong();
+    private final AtomicLong committedUnits = new AtomicLong();
+    private final int topProducts;
+    private final MultiGauge productHeldUnits;
+    private final MultiGauge productCommittedUnits;
+
+    public StockHoldMetrics(StockHoldService stockHoldService,
+                            MeterRegistry meterRegistry,
+                            @Value("${inventory.hold.metrics-top-products:20}") int topProducts) {
+        if (topProducts < 0) {
+            throw new IllegalArgumentException("inventory.hold.metrics-top-products no puede ser negativo");
+        }
+        this.stockHoldService = stockHoldService;
+        this.topProducts = topProducts;
+
+        Gauge.builder("inventory.units.held", heldUnits, AtomicLong::get)
+                .description("Unidades retenidas por pedidos PENDING con reserva vigente")
+                .baseUnit("units")
+                .register(meterRegistry);
+        Gauge.builder("inventory.units.committed", committedUnits, AtomicLong::get)
+                .description("Unidades comprometidas por pedidos confirmados aún no entregados")
+                .baseUnit("units")
+                .register(meterRegistry);
+
+        this.productHeldUnits = MultiGauge.builder("inventory.product.units.held")
+                .description("Unidades retenidas por pedidos PENDING, por producto (top N)")
+                .baseUnit("units")
+                .register(meterRegistry);
+        this.productCommittedUnits = MultiGauge.builder("inventory.product.units.committed")
+                .description("Unidades comprometidas por pedidos sin entregar, por producto (top N)")
+                .baseUnit("units")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hold.metrics-refresh-ms:30000}",
+            initialDelayString = "${inventory.hold.metrics-refresh-ms:30000}")
+    public void refresh() {
+        OrderRepository.StockUnits units = stockHoldService.countStockUnits();
+        heldUnits.set(units.getHeldUnits());
+        committedUnits.set(units.getCommittedUnits());
+
+        List<OrderRepository.ProductStockUnits> byProduct = topProducts > 0
+                ? stockHoldService.countStockUnitsByProduct(topProducts)
+                : List.of();
+        // overwrite = true: los productos que ya no están en el top se dan de baja
+        productHeldUnits.register(byProduct.stream()
+                .map(product -> MultiGauge.Row.of(tags(product), product.getHeldUnits()))
+                .toList(), true);
+        productCommittedUnits.register(byProduct.stream()
+                .map(product -> MultiGauge.Row.of(tags(product), product.getCommittedUnits()))
+                .toList(), true);
+
+        logger.debug("Stock units refreshed: held={}, committed={}, products={}",
+                units.getHeldUnits(), units.getCommittedUnits(), byProduct.size());
+    }
+
+    private static Tags tags(OrderRepository.ProductStockUnits product) {
+        return Tags.of("product_id", String.valueOf(product.getProductId()), "sku", product.getSku());
+    }
+}
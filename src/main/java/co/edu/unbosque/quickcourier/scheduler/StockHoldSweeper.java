@@ -0,0 +1,49 @@
+package co.edu.unbosque.quickcourier.scheduler;
+
+import co.edu.unbosque.quickcourier.service.StockHoldService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tarea periódica que libera el stock de pedidos PENDING con la reserva vencida
+ * Procesa lotes acotados hasta vaciar la cola o alcanzar el máximo de lotes por ejecución
+ */
+@Component
+public class StockHoldSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldSweeper.class);
+
+    private final StockHoldService stockHoldService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public StockHoldSweeper(StockHoldService stockHoldService,
+                            @Value("${inventory.hold.sweep-batch-size:100}") int batchSize,
+                            @Value("${inventory.hold.sweep-max-batches:20}") int maxBatchesPerRun) {
+        this.stockHoldService = stockHoldService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hold.sweep-interval-ms:60000}",
+            initialDelayString = "${inventory.hold.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        int released = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int count = stockHoldService.releaseExpiredHolds(batchSize);
+            released += count;
+
+            if (count < batchSize) {
+                break;
+            }
+        }
+
+        if (released > 0) {
+            logger.info("Stock hold sweep released {} expired orders", released);
+        }
+    }
+}
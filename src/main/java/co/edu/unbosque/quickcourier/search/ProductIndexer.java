@@ -0,0 +1,237 @@
+package co.edu.unbosque.quickcourier.search;
+
+import co.edu.unbosque.quickcourier.cache.CacheInvalidationBus;
+import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.repository.OrderItemRepository;
+import co.edu.unbosque.quickcourier.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene al día los índices en memoria de productos (ProductSearchIndex y ProductSuggestIndex)
+ * - Los construye al arrancar con una sola lectura de los productos activos
+ * - Aplica altas, cambios y bajas de productos al confirmar la transacción
+ * - Reconstruye el de búsqueda desde la base de datos cuando cambia el nombre de una categoría,
+ *   en este nodo o en otro (clear remoto de la caché categories)
+ * - Cada search.products.delta-sync-ms aplica los productos con updated_at posterior a la última
+ *   sincronización: así llegan los cambios hechos en otros nodos o fuera de la aplicación
+ * - Compacta la capa de cambios de cada índice cuando supera search.products.compaction-threshold
+ * - Recarga periódicamente las unidades vendidas que ordenan las sugerencias
+ *
+ * La sincronización relee un margen (search.products.delta-sync-overlap) antes de la anterior:
+ * updated_at lo pone el reloj de cada nodo y una transacción larga confirma después de fijarlo.
+ * Reaplicar un producto sin cambios en su texto no modifica los índices
+ */
+@Component
+public class ProductIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexer.class);
+
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final boolean enabled;
+    private final int compactionThreshold;
+    private final Duration deltaSyncOverlap;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private volatile LocalDateTime lastSync;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductIndexer(ProductSearchIndex searchIndex,
+                          ProductSuggestIndex suggestIndex,
+                          ProductRepository productRepository,
+                          OrderItemRepository orderItemRepository,
+                          CacheInvalidationBus cacheInvalidationBus,
+                          @Value("${search.products.enabled:true}") boolean enabled,
+                          @Value("${search.products.compaction-threshold:2000}") int compactionThreshold,
+                          @Value("${search.products.delta-sync-overlap:1m}") Duration deltaSyncOverlap) {
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.enabled = enabled;
+        this.compactionThreshold = compactionThreshold;
+        this.deltaSyncOverlap = deltaSyncOverlap;
+
+        if (enabled) {
+            cacheInvalidationBus.onRemoteClear("categories", this::rebuildInBackground);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!enabled) {
+            logger.info("Product search index disabled, searches use the database");
+            return;
+        }
+
+        refreshPopularity();
+        lastSync = LocalDateTime.now();
+        searchIndex.rebuildFrom(() -> suggestIndex.load(productRepository::findAllActiveSearchDocuments));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Reconstruye el índice de búsqueda desde la base de datos
+     */
+    public void rebuild() {
+        searchIndex.rebuildFrom(productRepository::findAllActiveSearchDocuments);
+    }
+
+    /**
+     * Refleja en los índices el estado del producto cuando la transacción confirme
+     * El documento se arma ya, mientras la categoría todavía se puede cargar
+     */
+    public void indexAfterCommit(Product product) {
+        if (!enabled) {
+            return;
+        }
+
+        Long productId = product.getId();
+        ProductSearchDocument document = Boolean.TRUE.equals(product.getIsActive())
+                ? new ProductSearchDocument(
+                        productId,
+                        product.getName(),
+                        product.getSku(),
+                        product.getCategory() != null ? product.getCategory().getName() : null,
+                        product.getDescription())
+                : null;
+
+        afterCommit(() -> {
+            if (document != null) {
+                searchIndex.upsert(document);
+                suggestIndex.upsert(document);
+            } else {
+                searchIndex.remove(productId);
+                suggestIndex.remove(productId);
+            }
+        });
+    }
+
+    /**
+     * Reconstruye el índice en segundo plano cuando la transacción confirme
+     * Para cambios que afectan a muchos productos (renombrar una categoría)
+     */
+    public void rebuildAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(this::rebuildInBackground);
+    }
+
+    /**
+     * Aplica a los índices los productos modificados desde la última sincronización
+     */
+    @Scheduled(fixedDelayString = "${search.products.delta-sync-ms:30000}",
+            initialDelayString = "${search.products.delta-sync-ms:30000}")
+    public void syncChanges() {
+        if (!enabled || !searchIndex.isReady()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync.minus(deltaSyncOverlap);
+
+        List<ProductSearchDocument> changed = productRepository.findActiveSearchDocumentsUpdatedSince(since);
+        List<Long> deactivated = productRepository.findInactiveIdsUpdatedSince(since);
+
+        for (ProductSearchDocument document : changed) {
+            searchIndex.upsert(document);
+            suggestIndex.upsert(document);
+        }
+        for (Long productId : deactivated) {
+            searchIndex.remove(productId);
+            suggestIndex.remove(productId);
+        }
+
+        lastSync = now;
+        logger.debug("Product index delta sync since {}: {} changed, {} deactivated",
+                since, changed.size(), deactivated.size());
+    }
+
+    /**
+     * Varias solicitudes mientras una reconstrucción espera en cola se resuelven con esa misma
+     */
+    private void rebuildInBackground() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.error("Product search index rebuild failed", e);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${search.products.compaction-check-ms:60000}",
+            initialDelayString = "${search.products.compaction-check-ms:60000}")
+    public void compactIfNeeded() {
+        if (!enabled) {
+            return;
+        }
+
+        int pending = searchIndex.pendingChanges();
+        if (searchIndex.isReady() && pending >= compactionThreshold) {
+            logger.debug("Compacting product search index ({} pending changes)", pending);
+            searchIndex.compact();
+        }
+
+        int pendingSuggestions = suggestIndex.pendingChanges();
+        if (suggestIndex.isReady() && pendingSuggestions >= compactionThreshold) {
+            logger.debug("Compacting product suggest index ({} pending changes)", pendingSuggestions);
+            suggestIndex.compact();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.popularity-refresh-ms:300000}",
+            initialDelayString = "${search.suggest.popularity-refresh-ms:300000}")
+    public void refreshPopularity() {
+        if (!enabled) {
+            return;
+        }
+
+        suggestIndex.updatePopularity(orderItemRepository.sumUnitsSoldByProduct().stream()
+                .collect(Collectors.toMap(ProductSales::productId, ProductSales::unitsSold)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
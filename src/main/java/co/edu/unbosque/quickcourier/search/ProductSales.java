@@ -0,0 +1,9 @@
+package co.edu.unbosque.quickcourier.search;
+
+/**
+ * Unidades vendidas de un producto (pedidos no cancelados), para ordenar sugerencias
+ */
+public record ProductSales(
+        Long productId,
+        Long unitsSold
+) {}
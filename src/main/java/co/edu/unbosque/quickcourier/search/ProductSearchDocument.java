@@ -0,0 +1,13 @@
+package co.edu.unbosque.quickcourier.search;
+
+/**
+ * Campos de un producto activo que entran al índice de búsqueda
+ * Se arma con una proyección JPQL para no cargar entidades completas al reconstruir
+ */
+public record ProductSearchDocument(
+        Long id,
+        String name,
+        String sku,
+        String categoryName,
+        String description
+) {}
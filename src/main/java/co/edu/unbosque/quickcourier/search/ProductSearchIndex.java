@@ -0,0 +1,632 @@
+package co.edu.unbosque.quickcourier.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Índice invertido en memoria de los productos activos, para la búsqueda por texto
+ *
+ * - Nombre, SKU y nombre de categoría se indexan por trigramas: un término coincide si es
+ *   subcadena de alguno de sus tokens (como el LIKE '%term%' anterior, pero sin tildes)
+ * - La descripción se indexa por palabra completa, para no multiplicar la memoria
+ * - Con varios términos deben coincidir todos (en cualquier campo)
+ * - Los resultados salen ordenados por nombre: el segmento se construye en ese orden y
+ *   sus listas de ocurrencias son arreglos de ordinales ordenados, así que una página se
+ *   resuelve intersecando arreglos, sin ordenar
+ *
+ * Los cambios posteriores a la construcción van a una capa pequeña (productos nuevos o
+ * modificados, más los ordinales del segmento que quedaron obsoletos) que se recorre
+ * completa en cada búsqueda; compact() la absorbe reconstruyendo el segmento fuera del lock.
+ *
+ * Términos de menos de 3 caracteres no usan el índice: si ningún término llega a 3,
+ * search devuelve vacío y quien llama debe resolver la búsqueda en la base de datos
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int[] NO_MATCHES = new int[0];
+    private static final Comparator<Doc> NAME_ORDER =
+            Comparator.comparing((Doc doc) -> doc.sortName).thenComparingLong(doc -> doc.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Protegidos por lock
+    private Segment segment = Segment.build(List.of());
+    private final Map<Long, Doc> overlay = new HashMap<>();
+    private final BitSet superseded = new BitSet();
+    private List<Change> changeLog;
+
+    private volatile boolean ready;
+
+    /**
+     * true cuando ya se construyó al menos una vez
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Cambios acumulados fuera del segmento; compact() los absorbe
+     */
+    public int pendingChanges() {
+        lock.readLock().lock();
+        try {
+            return overlay.size() + superseded.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un producto activo
+     */
+    public void upsert(ProductSearchDocument document) {
+        Doc doc = Doc.of(document);
+        write(doc.id, doc);
+    }
+
+    /**
+     * Quita un producto (desactivado o eliminado)
+     */
+    public void remove(Long productId) {
+        write(productId, null);
+    }
+
+    /**
+     * Reconstruye el índice completo con los documentos del cargador (normalmente la base de datos)
+     * Los cambios recibidos mientras tanto se reaplican sobre el nuevo segmento
+     */
+    public void rebuildFrom(Supplier<? extends Collection<ProductSearchDocument>> loader) {
+        rebuildLock.lock();
+        try {
+            startChangeLog();
+            try {
+                long start = System.currentTimeMillis();
+                List<Doc> docs = loader.get().stream().map(Doc::of).toList();
+                install(Segment.build(docs), start);
+            } finally {
+                stopChangeLog();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Reconstruye el segmento con los productos en memoria, absorbiendo la capa de cambios
+     */
+    public void compact() {
+        rebuildLock.lock();
+        try {
+            List<Doc> live;
+
+            lock.writeLock().lock();
+            try {
+                changeLog = new ArrayList<>();
+                live = liveDocsLocked();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            try {
+                long start = System.currentTimeMillis();
+                install(Segment.build(live), start);
+            } finally {
+                stopChangeLog();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Busca productos activos cuyo texto contenga todos los términos
+     *
+     * @return vacío si el índice no puede responder (aún no construido o sin términos de 3+ caracteres)
+     */
+    public Optional<ProductSearchResult> search(String query, long offset, int limit) {
+        if (!ready || limit <= 0) {
+            return Optional.empty();
+        }
+
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchText.tokens(query)));
+        List<String> indexedTerms = terms.stream()
+                .filter(term -> term.length() >= SearchText.GRAM)
+                .toList();
+
+        if (indexedTerms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Un término de exactamente 3 caracteres es un trigrama: sus ocurrencias ya son exactas
+        List<String> unverified = terms.stream()
+                .filter(term -> term.length() != SearchText.GRAM)
+                .toList();
+
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+
+            int[] candidates = null;
+            for (String term : indexedTerms) {
+                int[] termMatches = current.candidates(term);
+                candidates = candidates == null ? termMatches : intersect(candidates, termMatches);
+                if (candidates.length == 0) {
+                    break;
+                }
+            }
+
+            TermCheck[] checks = new TermCheck[unverified.size()];
+            for (int i = 0; i < checks.length; i++) {
+                checks[i] = new TermCheck(current, unverified.get(i));
+            }
+
+            int[] hits = new int[candidates.length];
+            int hitCount = 0;
+            for (int ordinal : candidates) {
+                if (superseded.get(ordinal) || !matchesAll(checks, ordinal)) {
+                    continue;
+                }
+                hits[hitCount++] = ordinal;
+            }
+
+            List<Doc> recent = new ArrayList<>();
+            for (Doc doc : overlay.values()) {
+                if (doc.matches(terms)) {
+                    recent.add(doc);
+                }
+            }
+            recent.sort(NAME_ORDER);
+
+            List<Long> page = page(current, hits, hitCount, recent, offset, limit);
+            return Optional.of(new ProductSearchResult(page, (long) hitCount + recent.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean matchesAll(TermCheck[] checks, int ordinal) {
+        for (TermCheck check : checks) {
+            if (!check.matches(ordinal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mezcla las coincidencias del segmento (ya en orden de nombre) con las de la capa de cambios
+     */
+    private static List<Long> page(Segment current, int[] hits, int hitCount, List<Doc> recent,
+                                   long offset, int limit) {
+        List<Long> page = new ArrayList<>(Math.min(limit, hitCount + recent.size()));
+
+        if (recent.isEmpty()) {
+            for (long i = offset; i < hitCount && page.size() < limit; i++) {
+                page.add(current.docs[hits[(int) i]].id);
+            }
+            return page;
+        }
+
+        int i = 0;
+        int j = 0;
+        long position = 0;
+
+        while (page.size() < limit && (i < hitCount || j < recent.size())) {
+            Doc next;
+            if (j >= recent.size()
+                    || (i < hitCount && NAME_ORDER.compare(current.docs[hits[i]], recent.get(j)) <= 0)) {
+                next = current.docs[hits[i++]];
+            } else {
+                next = recent.get(j++);
+            }
+
+            if (position++ >= offset) {
+                page.add(next.id);
+            }
+        }
+
+        return page;
+    }
+
+    private void write(long productId, Doc doc) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(productId, doc);
+            if (changeLog != null) {
+                changeLog.add(new Change(productId, doc));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(long productId, Doc doc) {
+        Integer ordinal = segment.ordinalById.get(productId);
+
+        if (ordinal != null) {
+            if (doc != null && segment.docs[ordinal].sameContent(doc)) {
+                // Sin cambios en el texto (p. ej. solo cambió el stock): el segmento sigue vigente
+                superseded.clear(ordinal);
+                overlay.remove(productId);
+                return;
+            }
+            superseded.set(ordinal);
+        }
+
+        if (doc == null) {
+            overlay.remove(productId);
+        } else {
+            overlay.put(productId, doc);
+        }
+    }
+
+    private List<Doc> liveDocsLocked() {
+        List<Doc> live = new ArrayList<>(segment.docs.length + overlay.size());
+        for (int ordinal = 0; ordinal < segment.docs.length; ordinal++) {
+            if (!superseded.get(ordinal)) {
+                live.add(segment.docs[ordinal]);
+            }
+        }
+        live.addAll(overlay.values());
+        return live;
+    }
+
+    private void install(Segment built, long start) {
+        int replayed;
+
+        lock.writeLock().lock();
+        try {
+            segment = built;
+            overlay.clear();
+            superseded.clear();
+
+            replayed = changeLog != null ? changeLog.size() : 0;
+            if (changeLog != null) {
+                for (Change change : changeLog) {
+                    applyLocked(change.productId, change.doc);
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Product search index built: {} products, {} trigrams, {} changes replayed ({} ms)",
+                built.docs.length, built.trigrams.size(), replayed, System.currentTimeMillis() - start);
+    }
+
+    private void startChangeLog() {
+        lock.writeLock().lock();
+        try {
+            changeLog = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void stopChangeLog() {
+        lock.writeLock().lock();
+        try {
+            changeLog = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) {
+            int[] swap = a;
+            a = b;
+            b = swap;
+        }
+
+        int[] result = new int[a.length];
+        int count = 0;
+
+        if ((long) a.length * 16 < b.length) {
+            // Listas muy desiguales: búsqueda binaria de la corta en la larga
+            int from = 0;
+            for (int value : a) {
+                int found = Arrays.binarySearch(b, from, b.length, value);
+                if (found >= 0) {
+                    result[count++] = value;
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+                if (from >= b.length) {
+                    break;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] == b[j]) {
+                    result[count++] = a[i];
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            result[count++] = next;
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    private record Change(long productId, Doc doc) {}
+
+    /**
+     * Comprobación de un término sobre los candidatos de una búsqueda, que llegan en orden de ordinal
+     * Primero la lista de ocurrencias de la palabra en la descripción (exacta, recorrida con un
+     * cursor), y si no está, la subcadena en el texto contiguo del segmento: no toca los Doc
+     */
+    private static final class TermCheck {
+
+        private final Segment segment;
+        private final String term;
+        private final int[] wordOrdinals;
+        private int cursor;
+
+        TermCheck(Segment segment, String term) {
+            this.segment = segment;
+            this.term = term;
+            this.wordOrdinals = segment.words.getOrDefault(term, NO_MATCHES);
+        }
+
+        boolean matches(int ordinal) {
+            return inWordOrdinals(ordinal) || segment.textContains(ordinal, term);
+        }
+
+        /**
+         * Búsqueda exponencial desde el cursor: lineal si los candidatos son densos, logarítmica si no
+         */
+        private boolean inWordOrdinals(int ordinal) {
+            int length = wordOrdinals.length;
+            if (cursor >= length) {
+                return false;
+            }
+
+            int low = cursor;
+            int step = 1;
+            while (low + step < length && wordOrdinals[low + step] < ordinal) {
+                low += step;
+                step <<= 1;
+            }
+
+            int found = Arrays.binarySearch(wordOrdinals, low, Math.min(low + step + 1, length), ordinal);
+            cursor = found >= 0 ? found : -found - 1;
+            return found >= 0;
+        }
+    }
+
+    /**
+     * Producto normalizado
+     * text: tokens de nombre, SKU y categoría separados por espacio (se busca por subcadena)
+     * words: palabras de la descripción, ordenadas y sin repetir (se busca por palabra exacta)
+     */
+    private static final class Doc {
+
+        private final long id;
+        private final String sortName;
+        private final String text;
+        private final String[] words;
+
+        private Doc(long id, String sortName, String text, String[] words) {
+            this.id = id;
+            this.sortName = sortName;
+            this.text = text;
+            this.words = words;
+        }
+
+        static Doc of(ProductSearchDocument document) {
+            List<String> textTokens = new ArrayList<>(SearchText.tokens(document.name()));
+            textTokens.addAll(SearchText.tokens(document.sku()));
+            textTokens.addAll(SearchText.tokens(document.categoryName()));
+
+            String[] words = SearchText.tokens(document.description()).stream()
+                    .distinct()
+                    .sorted()
+                    .toArray(String[]::new);
+
+            return new Doc(document.id(), SearchText.fold(document.name()), String.join(" ", textTokens), words);
+        }
+
+        boolean matches(List<String> terms) {
+            for (String term : terms) {
+                if (!text.contains(term) && Arrays.binarySearch(words, term) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean sameContent(Doc other) {
+            return sortName.equals(other.sortName) && text.equals(other.text) && Arrays.equals(words, other.words);
+        }
+    }
+
+    /**
+     * Segmento inmutable: documentos en orden de nombre y listas de ocurrencias por ordinal
+     * Los textos de todos los documentos van además en un solo arreglo (text, desde textStart[ordinal]):
+     * verificar miles de candidatos en orden de ordinal recorre memoria contigua
+     */
+    private static final class Segment {
+
+        private final Doc[] docs;
+        private final Map<Long, Integer> ordinalById;
+        private final Map<Long, int[]> trigrams;
+        private final Map<String, int[]> words;
+        private final char[] text;
+        private final int[] textStart;
+
+        private Segment(Doc[] docs, Map<Long, Integer> ordinalById,
+                        Map<Long, int[]> trigrams, Map<String, int[]> words) {
+            this.docs = docs;
+            this.ordinalById = ordinalById;
+            this.trigrams = trigrams;
+            this.words = words;
+
+            this.textStart = new int[docs.length + 1];
+            int length = 0;
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                textStart[ordinal] = length;
+                length += docs[ordinal].text.length();
+            }
+            textStart[docs.length] = length;
+
+            this.text = new char[length];
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                String docText = docs[ordinal].text;
+                docText.getChars(0, docText.length(), text, textStart[ordinal]);
+            }
+        }
+
+        /**
+         * Equivale a docs[ordinal].text.contains(term)
+         */
+        boolean textContains(int ordinal, String term) {
+            int last = textStart[ordinal + 1] - term.length();
+            char first = term.charAt(0);
+
+            next:
+            for (int i = textStart[ordinal]; i <= last; i++) {
+                if (text[i] != first) {
+                    continue;
+                }
+                for (int k = 1; k < term.length(); k++) {
+                    if (text[i + k] != term.charAt(k)) {
+                        continue next;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+
+        static Segment build(List<Doc> source) {
+            Doc[] docs = source.toArray(new Doc[0]);
+            Arrays.sort(docs, NAME_ORDER);
+
+            Map<Long, Integer> ordinalById = new HashMap<>(docs.length * 2);
+            Map<Long, IntList> trigramPostings = new HashMap<>();
+            Map<String, IntList> wordPostings = new HashMap<>();
+            Set<Long> seen = new HashSet<>();
+
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                Doc doc = docs[ordinal];
+                ordinalById.put(doc.id, ordinal);
+
+                seen.clear();
+                for (String token : doc.text.split(" ")) {
+                    for (int start = 0; start + SearchText.GRAM <= token.length(); start++) {
+                        long code = SearchText.trigram(token, start);
+                        if (seen.add(code)) {
+                            trigramPostings.computeIfAbsent(code, key -> new IntList()).add(ordinal);
+                        }
+                    }
+                }
+
+                for (String word : doc.words) {
+                    wordPostings.computeIfAbsent(word, key -> new IntList()).add(ordinal);
+                }
+            }
+
+            Map<Long, int[]> trigrams = new HashMap<>(trigramPostings.size() * 2);
+            trigramPostings.forEach((code, postings) -> trigrams.put(code, postings.toArray()));
+
+            Map<String, int[]> words = new HashMap<>(wordPostings.size() * 2);
+            wordPostings.forEach((word, postings) -> words.put(word, postings.toArray()));
+
+            return new Segment(docs, ordinalById, trigrams, words);
+        }
+
+        /**
+         * Ordinales que pueden contener el término: todos sus trigramas en el texto, o la palabra en la descripción
+         */
+        int[] candidates(String term) {
+            List<int[]> postings = new ArrayList<>(term.length());
+            for (int start = 0; start + SearchText.GRAM <= term.length(); start++) {
+                postings.add(trigrams.getOrDefault(SearchText.trigram(term, start), NO_MATCHES));
+            }
+            postings.sort(Comparator.comparingInt(list -> list.length));
+
+            int[] textMatches = postings.get(0);
+            for (int i = 1; i < postings.size() && textMatches.length > 0; i++) {
+                textMatches = intersect(textMatches, postings.get(i));
+            }
+
+            return union(textMatches, words.getOrDefault(term, NO_MATCHES));
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package co.edu.unbosque.quickcourier.search;
+
+import java.util.List;
+
+/**
+ * Página de resultados del índice: ids en orden de nombre y total de coincidencias
+ */
+public record ProductSearchResult(
+        List<Long> productIds,
+        long total
+) {}
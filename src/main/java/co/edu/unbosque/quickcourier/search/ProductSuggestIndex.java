@@ -0,0 +1,715 @@
+package co.edu.unbosque.quickcourier.search;
+
+import co.edu.unbosque.quickcourier.dto.response.ProductSuggestionResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Índice de prefijos para el autocompletado de productos
+ *
+ * - Claves normalizadas por producto: nombre completo, cada palabra del nombre desde la segunda y el SKU.
+ *   Un prefijo es un rango contiguo de las claves ordenadas
+ * - Las claves se guardan en un solo arreglo de caracteres con codificación por prefijo compartido
+ *   (front coding) en bloques de 16, como un diccionario de términos: el rango de un prefijo
+ *   se ubica con dos búsquedas binarias sobre las cabezas de bloque
+ * - Los productos se numeran por ranking (unidades vendidas, nombre, id) y un árbol de mínimos sobre
+ *   el rango de claves entrega los mejores en orden sin recorrer el rango: el trabajo por consulta
+ *   depende de limit y no de cuántos productos empiecen por el prefijo (tope de
+ *   MAX_VISITS_PER_RESULT claves visitadas por sugerencia)
+ * - Altas, cambios y bajas van a una capa pequeña que se recorre completa en cada consulta;
+ *   compact() y cada cambio de popularidad la absorben reconstruyendo el segmento fuera del lock
+ * - Las respuestas por prefijo (las search.suggest.max-limit mejores) se guardan en la caché
+ *   productSuggestions; un cambio de producto invalida solo los prefijos de sus claves
+ * - Lecturas sin lock sobre un estado inmutable; las escrituras se serializan
+ * - search.suggest.latency es el tiempo de cada cálculo (fallos de caché), con el presupuesto
+ *   search.suggest.latency-budget como objetivo del histograma
+ *
+ * No consulta la base de datos: ProductIndexer lo carga y lo mantiene
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    public static final String CACHE_NAME = "productSuggestions";
+
+    private static final Comparator<ProductSuggestionResponseDTO> RANKING =
+            Comparator.comparing(ProductSuggestionResponseDTO::unitsSold, Comparator.reverseOrder())
+                    .thenComparing(ProductSuggestionResponseDTO::name, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(ProductSuggestionResponseDTO::id);
+
+    // Un producto aparece en el rango una vez por clave que empieza por el prefijo
+    private static final int MAX_VISITS_PER_RESULT = 8;
+
+    private final Cache results;
+    private final int maxLimit;
+    private final Timer latency;
+
+    private final Object writeLock = new Object();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile State state = new State(Segment.build(List.of(), Map.of()), Map.of(), Set.of());
+    private volatile Map<Long, Long> unitsSold = Map.of();
+    private volatile boolean ready;
+
+    // Protegido por writeLock
+    private List<Change> changeLog;
+
+    public ProductSuggestIndex(CacheManager cacheManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${search.suggest.max-limit:20}") int maxLimit,
+                               @Value("${search.suggest.latency-budget:2ms}") Duration latencyBudget) {
+        this.results = cacheManager.getCache(CACHE_NAME);
+        if (this.results == null) {
+            throw new IllegalStateException("La caché " + CACHE_NAME + " no está configurada en cache.*");
+        }
+        this.maxLimit = maxLimit;
+        this.latency = Timer.builder("search.suggest.latency")
+                .description("Tiempo de cálculo de sugerencias de autocompletado (fallos de caché)")
+                .serviceLevelObjectives(latencyBudget)
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Cambios acumulados fuera del segmento; compact() los absorbe
+     */
+    public int pendingChanges() {
+        State current = state;
+        return current.overlay.size() + current.superseded.size();
+    }
+
+    /**
+     * Carga todos los productos activos del proveedor
+     * Los productos que cambian durante la carga conservan la versión recibida por upsert/remove,
+     * que es más reciente que la leída de la base de datos
+     *
+     * @return los mismos documentos, para reutilizar la lectura en otros índices
+     */
+    public <T extends Collection<ProductSearchDocument>> T load(Supplier<T> loader) {
+        rebuildLock.lock();
+        try {
+            startChangeLog();
+            try {
+                T documents = loader.get();
+                rebuild(documents.stream().map(Entry::of).toList(), unitsSold);
+                ready = true;
+                return documents;
+            } finally {
+                stopChangeLog();
+            }
+        } finally {
+            rebuildLock.unlock();
+            results.clear();
+        }
+    }
+
+    /**
+     * Reconstruye el segmento con los productos en memoria, absorbiendo la capa de cambios
+     */
+    public void compact() {
+        rebuildLock.lock();
+        try {
+            List<Entry> live;
+            synchronized (writeLock) {
+                changeLog = new ArrayList<>();
+                live = state.liveEntries();
+            }
+            try {
+                rebuild(live, unitsSold);
+            } finally {
+                stopChangeLog();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void upsert(ProductSearchDocument document) {
+        Entry entry = Entry.of(document);
+        Entry previous;
+
+        synchronized (writeLock) {
+            if (changeLog != null) {
+                changeLog.add(new Change(entry.id(), entry));
+            }
+            previous = state.visible(entry.id());
+            if (previous != null && previous.sameContent(entry)) {
+                // Sin cambios en nombre ni SKU (p. ej. solo cambió el stock)
+                return;
+            }
+            state = state.with(entry.id(), entry);
+        }
+
+        evictPrefixes(previous);
+        evictPrefixes(entry);
+    }
+
+    public void remove(Long productId) {
+        Entry previous;
+
+        synchronized (writeLock) {
+            if (changeLog != null) {
+                changeLog.add(new Change(productId, null));
+            }
+            previous = state.visible(productId);
+            if (previous == null) {
+                return;
+            }
+            state = state.with(productId, null);
+        }
+
+        evictPrefixes(previous);
+    }
+
+    /**
+     * Reemplaza las unidades vendidas por producto usadas para ordenar
+     * El orden es parte del segmento: se reconstruye con la nueva popularidad
+     */
+    public void updatePopularity(Map<Long, Long> unitsSoldByProduct) {
+        rebuildLock.lock();
+        try {
+            unitsSold = Map.copyOf(unitsSoldByProduct);
+            if (ready) {
+                List<Entry> live;
+                synchronized (writeLock) {
+                    changeLog = new ArrayList<>();
+                    live = state.liveEntries();
+                }
+                try {
+                    rebuild(live, unitsSold);
+                } finally {
+                    stopChangeLog();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+            results.clear();
+        }
+    }
+
+    /**
+     * Productos cuyo nombre, alguna palabra del nombre o SKU empieza por la consulta,
+     * los más vendidos primero
+     */
+    public List<ProductSuggestionResponseDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (!ready || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (limit > maxLimit) {
+            return latency.record(() -> lookup(prefix, limit));
+        }
+
+        List<ProductSuggestionResponseDTO> top = results.get(prefix, () -> latency.record(() -> lookup(prefix, maxLimit)));
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    private List<ProductSuggestionResponseDTO> lookup(String prefix, int limit) {
+        State current = state;
+        Segment segment = current.segment;
+
+        List<ProductSuggestionResponseDTO> ranked = new ArrayList<>(limit);
+        for (int ordinal : segment.top(prefix, limit, current.superseded)) {
+            ranked.add(segment.suggestion(ordinal));
+        }
+
+        if (!current.overlay.isEmpty()) {
+            for (Entry entry : current.overlay.values()) {
+                if (entry.matches(prefix)) {
+                    ranked.add(new ProductSuggestionResponseDTO(entry.id(), entry.name(), entry.sku(),
+                            segment.unitsSold.getOrDefault(entry.id(), 0L)));
+                }
+            }
+            ranked.sort(RANKING);
+        }
+
+        return List.copyOf(ranked.size() <= limit ? ranked : ranked.subList(0, limit));
+    }
+
+    /**
+     * Solo pueden cambiar las respuestas de los prefijos de las claves del producto
+     */
+    private void evictPrefixes(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys()) {
+            for (int length = 1; length <= key.length(); length++) {
+                results.evict(key.substring(0, length));
+            }
+        }
+    }
+
+    /**
+     * Construye el segmento fuera del lock y lo instala reaplicando los cambios recibidos mientras tanto
+     */
+    private void rebuild(List<Entry> entries, Map<Long, Long> sales) {
+        long start = System.currentTimeMillis();
+        Segment built = Segment.build(entries, sales);
+        int replayed;
+
+        synchronized (writeLock) {
+            State installed = new State(built, Map.of(), Set.of());
+            replayed = changeLog != null ? changeLog.size() : 0;
+            if (changeLog != null) {
+                for (Change change : changeLog) {
+                    installed = installed.with(change.productId(), change.entry());
+                }
+            }
+            state = installed;
+        }
+
+        logger.info("Product suggest index built: {} products, {} keys, ~{} KB, {} changes replayed ({} ms)",
+                built.ids.length, built.keyCount, built.approximateBytes() / 1024, replayed,
+                System.currentTimeMillis() - start);
+    }
+
+    private void startChangeLog() {
+        synchronized (writeLock) {
+            changeLog = new ArrayList<>();
+        }
+    }
+
+    private void stopChangeLog() {
+        synchronized (writeLock) {
+            changeLog = null;
+        }
+    }
+
+    private static List<String> keysOf(String name, String sku) {
+        List<String> nameTokens = SearchText.tokens(name);
+        Set<String> keys = new HashSet<>();
+
+        if (!nameTokens.isEmpty()) {
+            keys.add(String.join(" ", nameTokens));
+            // La primera palabra ya es prefijo del nombre completo
+            for (int i = 1; i < nameTokens.size(); i++) {
+                keys.add(String.join(" ", nameTokens.subList(i, nameTokens.size())));
+            }
+        }
+
+        String normalizedSku = normalize(sku);
+        if (!normalizedSku.isEmpty()) {
+            keys.add(normalizedSku);
+        }
+
+        return List.copyOf(keys);
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", SearchText.tokens(text));
+    }
+
+    private record Change(Long productId, Entry entry) {}
+
+    /**
+     * Producto de la capa de cambios (o leído para construir un segmento) con sus claves
+     */
+    private record Entry(Long id, String name, String sku, List<String> keys) {
+
+        static Entry of(ProductSearchDocument document) {
+            return of(document.id(), document.name(), document.sku());
+        }
+
+        static Entry of(Long id, String name, String sku) {
+            return new Entry(id, name, sku, keysOf(name, sku));
+        }
+
+        boolean matches(String prefix) {
+            for (String key : keys) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean sameContent(Entry other) {
+            return Objects.equals(name, other.name) && Objects.equals(sku, other.sku);
+        }
+    }
+
+    /**
+     * Estado inmutable que leen las consultas: segmento, productos nuevos o modificados
+     * y productos del segmento cuya versión ya no vale (modificados o dados de baja)
+     */
+    private record State(Segment segment, Map<Long, Entry> overlay, Set<Long> superseded) {
+
+        Entry visible(Long productId) {
+            Entry changed = overlay.get(productId);
+            if (changed != null) {
+                return changed;
+            }
+            Integer ordinal = segment.ordinalById.get(productId);
+            return ordinal != null && !superseded.contains(productId) ? segment.entry(ordinal) : null;
+        }
+
+        State with(Long productId, Entry entry) {
+            Map<Long, Entry> nextOverlay = new HashMap<>(overlay);
+            Set<Long> nextSuperseded = new HashSet<>(superseded);
+            Integer ordinal = segment.ordinalById.get(productId);
+
+            if (ordinal != null && entry != null && segment.entry(ordinal).sameContent(entry)) {
+                // Volvió a la versión del segmento
+                nextOverlay.remove(productId);
+                nextSuperseded.remove(productId);
+            } else {
+                if (ordinal != null) {
+                    nextSuperseded.add(productId);
+                }
+                if (entry == null) {
+                    nextOverlay.remove(productId);
+                } else {
+                    nextOverlay.put(productId, entry);
+                }
+            }
+
+            return new State(segment, Map.copyOf(nextOverlay), Set.copyOf(nextSuperseded));
+        }
+
+        List<Entry> liveEntries() {
+            List<Entry> live = new ArrayList<>(segment.ids.length + overlay.size());
+            for (int ordinal = 0; ordinal < segment.ids.length; ordinal++) {
+                if (superseded.isEmpty() || !superseded.contains(segment.ids[ordinal])) {
+                    live.add(segment.entry(ordinal));
+                }
+            }
+            live.addAll(overlay.values());
+            return live;
+        }
+    }
+
+    /**
+     * Segmento inmutable
+     * - Productos numerados por ranking: el ordinal 0 es el más vendido
+     * - Claves ordenadas, codificadas por bloques en keyData; entryDoc[i] es el ordinal del producto de la clave i
+     * - tree: árbol de mínimos de entryDoc (hojas desde leafBase); el mínimo de un rango es su mejor producto
+     */
+    private static final class Segment {
+
+        private static final int BLOCK = 16;
+
+        private final long[] ids;
+        private final String[] names;
+        private final String[] skus;
+        private final long[] sold;
+        private final Map<Long, Integer> ordinalById;
+        private final Map<Long, Long> unitsSold;
+
+        private final int keyCount;
+        private final char[] keyData;
+        private final int[] blockOffset;
+        private final int maxKeyLength;
+        private final int[] entryDoc;
+        private final int[] tree;
+        private final int leafBase;
+
+        private Segment(long[] ids, String[] names, String[] skus, long[] sold, Map<Long, Integer> ordinalById,
+                        Map<Long, Long> unitsSold, int keyCount, char[] keyData, int[] blockOffset,
+                        int maxKeyLength, int[] entryDoc) {
+            this.ids = ids;
+            this.names = names;
+            this.skus = skus;
+            this.sold = sold;
+            this.ordinalById = ordinalById;
+            this.unitsSold = unitsSold;
+            this.keyCount = keyCount;
+            this.keyData = keyData;
+            this.blockOffset = blockOffset;
+            this.maxKeyLength = maxKeyLength;
+            this.entryDoc = entryDoc;
+
+            int base = 1;
+            while (base < Math.max(keyCount, 1)) {
+                base <<= 1;
+            }
+            this.leafBase = base;
+            this.tree = new int[2 * base];
+            Arrays.fill(tree, Integer.MAX_VALUE);
+            System.arraycopy(entryDoc, 0, tree, base, keyCount);
+            for (int node = base - 1; node > 0; node--) {
+                tree[node] = Math.min(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Segment build(List<Entry> source, Map<Long, Long> unitsSold) {
+            Entry[] docs = source.toArray(new Entry[0]);
+            Arrays.sort(docs, Comparator
+                    .comparing((Entry entry) -> unitsSold.getOrDefault(entry.id(), 0L), Comparator.reverseOrder())
+                    .thenComparing(entry -> Objects.toString(entry.name(), ""), String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(Entry::id));
+
+            long[] ids = new long[docs.length];
+            String[] names = new String[docs.length];
+            String[] skus = new String[docs.length];
+            long[] sold = new long[docs.length];
+            Map<Long, Integer> ordinalById = new HashMap<>(docs.length * 2);
+            List<KeyRef> refs = new ArrayList<>(docs.length * 4);
+
+            for (int ordinal = 0; ordinal < docs.length; ordinal++) {
+                Entry doc = docs[ordinal];
+                ids[ordinal] = doc.id();
+                names[ordinal] = doc.name();
+                skus[ordinal] = doc.sku();
+                sold[ordinal] = unitsSold.getOrDefault(doc.id(), 0L);
+                ordinalById.put(doc.id(), ordinal);
+                for (String key : doc.keys()) {
+                    refs.add(new KeyRef(key, ordinal));
+                }
+            }
+
+            refs.sort(Comparator.comparing(KeyRef::key).thenComparingInt(KeyRef::doc));
+
+            int keyCount = refs.size();
+            int[] entryDoc = new int[keyCount];
+            int[] blockOffset = new int[(keyCount + BLOCK - 1) / BLOCK];
+            StringBuilder data = new StringBuilder();
+            int maxKeyLength = 0;
+            String previous = "";
+
+            for (int i = 0; i < keyCount; i++) {
+                String key = refs.get(i).key();
+                entryDoc[i] = refs.get(i).doc();
+                maxKeyLength = Math.max(maxKeyLength, key.length());
+
+                if (i % BLOCK == 0) {
+                    // Cabeza de bloque completa: [largo][caracteres]
+                    blockOffset[i / BLOCK] = data.length();
+                    data.append((char) key.length()).append(key);
+                } else {
+                    // [compartidos con la anterior][largo del resto][resto]
+                    int shared = sharedPrefix(previous, key);
+                    data.append((char) shared).append((char) (key.length() - shared)).append(key, shared, key.length());
+                }
+                previous = key;
+            }
+
+            char[] keyData = new char[data.length()];
+            data.getChars(0, data.length(), keyData, 0);
+
+            return new Segment(ids, names, skus, sold, ordinalById, unitsSold, keyCount, keyData, blockOffset,
+                    maxKeyLength, entryDoc);
+        }
+
+        /**
+         * Ordinales de los mejores productos con alguna clave que empieza por el prefijo, en orden de ranking
+         */
+        int[] top(String prefix, int limit, Set<Long> superseded) {
+            int from = bound(prefix, false);
+            int to = bound(prefix, true);
+            if (from >= to) {
+                return new int[0];
+            }
+
+            // Nodos del árbol que cubren [from, to); se abren de menor a mayor mínimo
+            LongHeap heap = new LongHeap();
+            for (int left = from + leafBase, right = to + leafBase; left < right; left >>= 1, right >>= 1) {
+                if ((left & 1) == 1) {
+                    heap.add(node(left++));
+                }
+                if ((right & 1) == 1) {
+                    heap.add(node(--right));
+                }
+            }
+
+            int[] found = new int[limit];
+            int count = 0;
+            int visits = 0;
+            int maxVisits = limit * MAX_VISITS_PER_RESULT;
+            int last = -1;
+
+            while (count < limit && visits < maxVisits && !heap.isEmpty()) {
+                int node = (int) heap.poll();
+
+                if (node < leafBase) {
+                    for (int child = 2 * node; child <= 2 * node + 1; child++) {
+                        if (tree[child] != Integer.MAX_VALUE) {
+                            heap.add(node(child));
+                        }
+                    }
+                    continue;
+                }
+
+                visits++;
+                int ordinal = tree[node];
+                // Las claves de un mismo producto salen seguidas: comparten el valor mínimo
+                if (ordinal == last || (!superseded.isEmpty() && superseded.contains(ids[ordinal]))) {
+                    continue;
+                }
+                last = ordinal;
+                found[count++] = ordinal;
+            }
+
+            return count == limit ? found : Arrays.copyOf(found, count);
+        }
+
+        ProductSuggestionResponseDTO suggestion(int ordinal) {
+            return new ProductSuggestionResponseDTO(ids[ordinal], names[ordinal], skus[ordinal], sold[ordinal]);
+        }
+
+        Entry entry(int ordinal) {
+            return Entry.of(ids[ordinal], names[ordinal], skus[ordinal]);
+        }
+
+        long approximateBytes() {
+            return keyData.length * 2L + (entryDoc.length + tree.length + blockOffset.length) * 4L
+                    + (ids.length + sold.length) * 8L;
+        }
+
+        private long node(int node) {
+            return ((long) tree[node] << 32) | node;
+        }
+
+        /**
+         * Primera clave que empieza por el prefijo o es mayor (after = false),
+         * o primera clave mayor que todas las que empiezan por él (after = true)
+         */
+        private int bound(String prefix, boolean after) {
+            int low = 0;
+            int high = blockOffset.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int offset = blockOffset[mid];
+                if (passes(compare(keyData, offset + 1, keyData[offset], prefix), after)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+
+            if (low == 0) {
+                return 0;
+            }
+
+            // La frontera está dentro del bloque anterior (o es la cabeza del siguiente)
+            int block = low - 1;
+            int offset = blockOffset[block];
+            int end = Math.min((block + 1) * BLOCK, keyCount);
+            char[] key = new char[maxKeyLength];
+            int length = 0;
+
+            for (int index = block * BLOCK; index < end; index++) {
+                if (index % BLOCK == 0) {
+                    length = keyData[offset++];
+                    System.arraycopy(keyData, offset, key, 0, length);
+                    offset += length;
+                } else {
+                    int shared = keyData[offset++];
+                    int rest = keyData[offset++];
+                    System.arraycopy(keyData, offset, key, shared, rest);
+                    offset += rest;
+                    length = shared + rest;
+                }
+                if (passes(compare(key, 0, length, prefix), after)) {
+                    return index;
+                }
+            }
+            return end;
+        }
+
+        private static boolean passes(int comparison, boolean after) {
+            return after ? comparison > 0 : comparison >= 0;
+        }
+
+        /**
+         * 0 si la clave empieza por el prefijo; si no, su orden respecto de él
+         */
+        private static int compare(char[] data, int offset, int length, String prefix) {
+            int common = Math.min(length, prefix.length());
+            for (int i = 0; i < common; i++) {
+                char c = data[offset + i];
+                char p = prefix.charAt(i);
+                if (c != p) {
+                    return c < p ? -1 : 1;
+                }
+            }
+            return length < prefix.length() ? -1 : 0;
+        }
+
+        private static int sharedPrefix(String a, String b) {
+            int max = Math.min(Math.min(a.length(), b.length()), Character.MAX_VALUE);
+            int i = 0;
+            while (i < max && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private record KeyRef(String key, int doc) {}
+
+    /**
+     * Montículo de mínimos de long sin boxing (valor del nodo en los 32 bits altos, nodo en los bajos)
+     */
+    private static final class LongHeap {
+
+        private long[] values = new long[32];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (values[parent] <= value) {
+                    break;
+                }
+                values[i] = values[parent];
+                i = parent;
+            }
+            values[i] = value;
+        }
+
+        long poll() {
+            long top = values[0];
+            long last = values[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && values[child + 1] < values[child]) {
+                    child++;
+                }
+                if (last <= values[child]) {
+                    break;
+                }
+                values[i] = values[child];
+                i = child;
+            }
+            values[i] = last;
+            return top;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package co.edu.unbosque.quickcourier.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para el índice de búsqueda
+ * - Minúsculas y sin tildes ni diéresis (camión → camion, pingüino → pinguino, ñ → n)
+ * - Tokens: secuencias de letras y dígitos; todo lo demás separa
+ * - Trigramas de cada token codificados en un long (3 caracteres de 16 bits)
+ */
+final class SearchText {
+
+    static final int GRAM = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchText() {
+    }
+
+    static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokens(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+
+    static long trigram(String token, int start) {
+        return ((long) token.charAt(start) << 32)
+                | ((long) token.charAt(start + 1) << 16)
+                | token.charAt(start + 2);
+    }
+}
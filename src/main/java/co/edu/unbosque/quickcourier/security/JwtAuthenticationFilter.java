@@ -1,6 +1,5 @@
 package co.edu.unbosque.quickcourier.security;
 
-import co.edu.unbosque.quickcourier.repository.TokenBlackListRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,10 +16,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 /**
  * Filtro de autenticación JWT
  * Intercepta cada request y valida el token Bearer
+ * El token se verifica una sola vez por request (o ninguna, si ya está en la caché de verificados)
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -28,12 +29,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final TokenBlackListRepository tokenBlacklistRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                   TokenBlackListRepository tokenBlacklistRepository) {
+                                   TokenRevocationRegistry tokenRevocationRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Override
@@ -43,20 +45,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String token = extractToken(request);
+            Optional<JwtPrincipal> verified = token != null ? jwtTokenProvider.verify(token) : Optional.empty();
 
-            if (token != null && jwtTokenProvider.isTokenValid(token)) {
+            if (verified.isPresent()) {
+                JwtPrincipal principal = verified.get();
 
                 // Verificar que no esté en la blacklist
-                if (isTokenBlacklisted(token)) {
+                if (isTokenBlacklisted(principal)) {
                     logger.warn("Attempted to use blacklisted token");
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                // Extraer información del token
-                String email = jwtTokenProvider.extractEmail(token);
-                Long userId = jwtTokenProvider.extractUserId(token);
-                String role = jwtTokenProvider.extractRole(token);
+                // Información del token
+                String email = principal.email();
+                Long userId = principal.userId();
+                String role = principal.role();
 
                 // Crear autenticación
                 UsernamePasswordAuthenticationToken authentication =
@@ -66,7 +70,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
                         );
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(detailsSource.buildDetails(request));
 
                 // Establecer en el contexto de seguridad
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -98,14 +102,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     /**
      * Verifica si el token está en la blacklist
+     * Solo los posibles positivos del filtro en memoria consultan la base de datos
      */
-    private boolean isTokenBlacklisted(String token) {
+    private boolean isTokenBlacklisted(JwtPrincipal principal) {
         try {
-            String email = jwtTokenProvider.extractEmail(token);
-            return tokenBlacklistRepository.existsByJtiAndUserId(
-                    token.substring(0, Math.min(token.length(), 50)), // Simulación de JTI
-                    jwtTokenProvider.extractUserId(token)
-            );
+            return tokenRevocationRegistry.isRevoked(principal.jti());
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,22 @@
+package co.edu.unbosque.quickcourier.security;
+
+import java.time.Instant;
+
+/**
+ * Claims de un token JWT ya verificado (firma y expiración)
+ * Inmutable: se comparte entre requests desde la caché de tokens verificados
+ * jti es null en tokens emitidos antes de agregar el claim
+ */
+public record JwtPrincipal(
+        String email,
+        Long userId,
+        String role,
+        String type,
+        String jti,
+        Instant expiresAt
+) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
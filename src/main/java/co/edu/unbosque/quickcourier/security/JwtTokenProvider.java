@@ -1,6 +1,12 @@
 package co.edu.unbosque.quickcourier.security;
 
+import co.edu.unbosque.quickcourier.cache.StandaloneCacheRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -11,16 +17,27 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Utilidad para generar y validar tokens JWT
  * Mantiene la simplicidad (KISS)
+ *
+ * El parser se construye una sola vez (es inmutable y thread-safe). verify() guarda los tokens
+ * ya verificados en una caché acotada, con clave SHA-256 del token y vencimiento en su exp:
+ * las requests siguientes con el mismo token no repiten la verificación HMAC
  */
 @Component
 public class JwtTokenProvider {
@@ -28,17 +45,27 @@ public class JwtTokenProvider {
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
     private final SecretKey secretKey;
+    private final JwtParser parser;
     private final long accessTokenExpiration;
     private final long refreshTokenExpiration;
+    private final Cache<String, JwtPrincipal> verifiedTokens;
 
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access-token-expiration:900000}") long accessTokenExpiration,  // 15 min
-            @Value("${jwt.refresh-token-expiration:2592000000}") long refreshTokenExpiration  // 30 días
+            @Value("${jwt.refresh-token-expiration:2592000000}") long refreshTokenExpiration,  // 30 días
+            @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize,
+            StandaloneCacheRegistry cacheRegistry
     ) {
         this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
         this.accessTokenExpiration = accessTokenExpiration;
         this.refreshTokenExpiration = refreshTokenExpiration;
+        this.verifiedTokens = cacheRegistry.register("verifiedTokens", Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new ExpireAtTokenExpiration()));
     }
 
     /**
@@ -52,6 +79,7 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
@@ -69,6 +97,7 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
@@ -76,6 +105,43 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Verifica el token una sola vez y devuelve sus claims
+     * Vacío si la firma no es válida, está mal formado o expiró
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        String digest = digest(token);
+        Instant now = Instant.now();
+
+        JwtPrincipal cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached.isExpired(now) ? Optional.empty() : Optional.of(cached);
+        }
+
+        JwtPrincipal principal;
+        try {
+            Claims claims = extractAllClaims(token);
+            principal = new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get("userId", Long.class),
+                    claims.get("role", String.class),
+                    claims.get("type", String.class),
+                    claims.getId(),
+                    claims.getExpiration().toInstant()
+            );
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("Token validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        if (principal.isExpired(now)) {
+            return Optional.empty();
+        }
+
+        verifiedTokens.put(digest, principal);
+        return Optional.of(principal);
+    }
+
     /**
      * Extrae el email del token
      */
@@ -150,10 +216,36 @@ public class JwtTokenProvider {
      * Extrae todos los claims del token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Cada token verificado sale de la caché en su exp
+     */
+    private static final class ExpireAtTokenExpiration implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
\ No newline at end of file
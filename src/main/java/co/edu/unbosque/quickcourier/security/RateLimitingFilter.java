@@ -1,7 +1,11 @@
 package co.edu.unbosque.quickcourier.security;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import co.edu.unbosque.quickcourier.ratelimit.ClusterRateLimiter;
+import co.edu.unbosque.quickcourier.ratelimit.GcraRateLimiter;
+import co.edu.unbosque.quickcourier.ratelimit.RateLimitDecision;
+import co.edu.unbosque.quickcourier.ratelimit.RateLimitPolicies;
+import co.edu.unbosque.quickcourier.ratelimit.RateLimitRule;
+import co.edu.unbosque.quickcourier.ratelimit.RateLimitTier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,36 +13,66 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
- * Filtro de Rate Limiting usando Caffeine Cache
- * Limita el número de requests por IP o usuario en una ventana de tiempo
+ * Filtro de Rate Limiting con GCRA (ver GcraRateLimiter)
+ * Limita el número de requests por IP, usuario o API key según la política de la ruta
  *
- * KISS: Simple sliding window con Caffeine
+ * Con rate-limit.cluster.enabled, además del límite local de cada nodo se exige el límite
+ * global de ClusterRateLimiter (compartido entre todos los nodos)
+ *
+ * Corre después de JwtAuthenticationFilter para que el userId ya esté en el request.
+ * X-API-Key solo da el nivel API_KEY si su SHA-256 está en rate-limit.api-keys: una clave
+ * desconocida cuenta contra la IP, para que rotar claves inventadas no abra un cupo nuevo
+ * en cada request
+ *
+ * X-Forwarded-For y X-Real-IP solo se leen si la conexión viene de rate-limit.trusted-proxies;
+ * si no, cada cliente podría inventar una IP (y una clave de rate limiting) por request
  */
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitingFilter.class);
 
-    // Cache: Key = identifier (IP o userId), Value = contador de requests
-    private final Cache<String, AtomicInteger> requestCounts;
-
-    @Value("${rate-limit.requests-per-minute:100}")
-    private int maxRequestsPerMinute;
-
-    public RateLimitingFilter() {
-        // Cache que expira entradas después de 1 minuto
-        this.requestCounts = Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(1))
-                .maximumSize(10000)
-                .build();
+    private final GcraRateLimiter rateLimiter;
+    private final ClusterRateLimiter clusterRateLimiter;
+    private final RateLimitPolicies policies;
+    private final Set<String> apiKeyHashes;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public RateLimitingFilter(GcraRateLimiter rateLimiter,
+                              ClusterRateLimiter clusterRateLimiter,
+                              RateLimitPolicies policies,
+                              @Value("${rate-limit.api-keys:}") String[] apiKeyHashes,
+                              @Value("${rate-limit.trusted-proxies:}") String[] trustedProxies) {
+        this.rateLimiter = rateLimiter;
+        this.clusterRateLimiter = clusterRateLimiter;
+        this.policies = policies;
+        this.apiKeyHashes = Arrays.stream(apiKeyHashes)
+                .map(hash -> hash.trim().toLowerCase(Locale.ROOT))
+                .filter(hash -> !hash.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
     }
 
     @Override
@@ -46,30 +80,36 @@ public class RateLimitingFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        // Obtener identificador (IP o userId)
-        String identifier = getIdentifier(request);
-
-        // Obtener o crear contador
-        AtomicInteger count = requestCounts.get(identifier, k -> new AtomicInteger(0));
+        // Obtener identificador y nivel (usuario, API key o IP)
+        Client client = identify(request);
+        RateLimitRule rule = policies.resolve(getPath(request), client.tier());
+        RateLimitDecision decision = rateLimiter.tryAcquire(client.identifier(), rule);
 
-        int currentCount = count.incrementAndGet();
+        // Límite global: solo se consulta si el nodo aceptó la request
+        if (decision.allowed() && clusterRateLimiter.isEnabled()
+                && !clusterRateLimiter.tryAcquire(client.identifier(), rule)) {
+            long untilNextWindow = clusterRateLimiter.nanosUntilNextWindow(rule);
+            decision = new RateLimitDecision(false, rule, 0, untilNextWindow, untilNextWindow);
+        }
 
         // Agregar headers de rate limit
-        response.setHeader("X-RateLimit-Limit", String.valueOf(maxRequestsPerMinute));
-        response.setHeader("X-RateLimit-Remaining",
-                String.valueOf(Math.max(0, maxRequestsPerMinute - currentCount)));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(rule.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(decision.resetSeconds()));
 
         // Verificar si excede el límite
-        if (currentCount > maxRequestsPerMinute) {
-            logger.warn("Rate limit exceeded for identifier: {} (count: {})",
-                    identifier, currentCount);
+        if (!decision.allowed()) {
+            logger.warn("Rate limit exceeded for identifier: {} (policy: {}, tier: {})",
+                    client.identifier(), rule.policy(), rule.tier());
 
-            response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json");
             response.getWriter().write(
                     "{\"error\":\"Too Many Requests\"," +
                             "\"message\":\"Rate limit exceeded. Try again later.\"," +
-                            "\"limit\":" + maxRequestsPerMinute + "}"
+                            "\"limit\":" + rule.limit() + "," +
+                            "\"retryAfterSeconds\":" + decision.retryAfterSeconds() + "}"
             );
             return;
         }
@@ -78,56 +118,96 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Obtiene el identificador para rate limiting
+     * Obtiene el identificador y el nivel para rate limiting
      * Prioridad: userId > API Key > IP
      */
-    private String getIdentifier(HttpServletRequest request) {
+    private Client identify(HttpServletRequest request) {
         // Si hay userId autenticado, usar ese
         Object userId = request.getAttribute("userId");
         if (userId != null) {
-            return "user:" + userId;
+            return new Client(RateLimitTier.USER, "user:" + userId);
         }
 
-        // Si hay API Key, usar ese
+        // Si hay una API Key registrada, usar su hash (nunca la clave en memoria ni en logs)
         String apiKey = request.getHeader("X-API-Key");
-        if (apiKey != null && !apiKey.isEmpty()) {
-            return "apikey:" + apiKey.substring(0, Math.min(10, apiKey.length()));
+        if (apiKey != null && !apiKey.isEmpty() && !apiKeyHashes.isEmpty()) {
+            String hash = sha256Hex(apiKey);
+            if (apiKeyHashes.contains(hash)) {
+                return new Client(RateLimitTier.API_KEY, "apikey:" + hash.substring(0, 24));
+            }
         }
 
-        // Fallback a IP
+        // Fallback a IP (también para claves no registradas)
         String ip = getClientIP(request);
-        return "ip:" + ip;
+        return new Client(RateLimitTier.ANONYMOUS, "ip:" + ip);
     }
 
     /**
      * Obtiene la IP real del cliente considerando proxies
+     * Detrás de proxies propios el cliente es la última dirección de X-Forwarded-For que no es
+     * uno de ellos: las anteriores las escribió el cliente y no son confiables
      */
     private String getClientIP(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+            String[] hops = xForwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && !isTrustedProxy(hop)) {
+                    return hop;
+                }
+            }
         }
 
         String xRealIp = request.getHeader("X-Real-IP");
         if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+            return xRealIp.trim();
         }
 
-        return request.getRemoteAddr();
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        try {
+            return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+        } catch (IllegalArgumentException e) {
+            // No es una IP (un nombre o basura en el header): nunca es un proxy propio
+            return false;
+        }
+    }
+
+    private static String getPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String sha256Hex(String apiKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 
     /**
-     * Método para limpiar el cache manualmente si es necesario
+     * Método para limpiar el estado manualmente si es necesario
      */
     public void clearCache() {
-        requestCounts.invalidateAll();
+        rateLimiter.clear();
         logger.info("Rate limit cache cleared");
     }
 
     /**
-     * Obtiene estadísticas del cache
+     * Obtiene la cantidad de clientes con estado
      */
     public long getCacheSize() {
-        return requestCounts.estimatedSize();
+        return rateLimiter.getTrackedKeys();
     }
-}
\ No newline at end of file
+
+    private record Client(RateLimitTier tier, String identifier) {}
+}
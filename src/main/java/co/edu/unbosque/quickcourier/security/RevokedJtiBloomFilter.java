@@ -0,0 +1,88 @@
+package co.edu.unbosque.quickcourier.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de JTIs revocados
+ * mightContain() nunca da falsos negativos: false garantiza que el JTI no fue revocado
+ * put() y mightContain() son seguros entre hilos sin locks
+ */
+final class RevokedJtiBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicInteger insertions = new AtomicInteger();
+
+    /**
+     * @param expectedInsertions        JTIs que se espera guardar sin superar la probabilidad indicada
+     * @param falsePositiveProbability probabilidad de falso positivo con expectedInsertions entradas
+     */
+    RevokedJtiBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        bits = Math.min(MAX_BITS, Math.max(Long.SIZE, bits));
+
+        this.words = new AtomicLongArray((int) ((bits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * LN2));
+    }
+
+    void put(String jti) {
+        long h1 = hash(jti);
+        long h2 = mix(h1) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            words.accumulateAndGet((int) (bit >>> 6), mask, (current, m) -> current | m);
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String jti) {
+        long h1 = hash(jti);
+        long h2 = mix(h1) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * Probabilidad de falso positivo estimada con las inserciones actuales
+     */
+    double expectedFalsePositiveProbability() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres del JTI
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Finalizador de SplitMix64
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,201 @@
+package co.edu.unbosque.quickcourier.security;
+
+import co.edu.unbosque.quickcourier.repository.TokenBlackListRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Revocación de tokens por JTI con un filtro de Bloom en memoria delante de token_blacklist
+ *
+ * - Si el filtro dice que el JTI no está, el token no fue revocado y no se consulta la base de datos;
+ *   solo los posibles positivos (revocados reales o falsos positivos) llegan a token_blacklist
+ * - El logout marca el JTI en el filtro local al momento; los demás nodos lo leen de la tabla
+ *   cada security.revocation.sync-interval-ms (mayor ventana en que otro nodo acepta el token)
+ * - Cada security.revocation.rebuild-interval-ms se borran las filas vencidas y se reconstruye el
+ *   filtro solo con las vigentes: así se "eliminan" del filtro los tokens que ya expiraron
+ * - Mientras el filtro no está cargado todas las consultas van a la base de datos
+ * - Tokens sin claim jti (emitidos antes de existir) no se pueden revocar y vencen solos
+ *
+ * Métricas: security.revocation.checks{result=negative|revoked|false_positive} y
+ * security.revocation.false.positive.rate (falsos positivos / tokens no revocados consultados)
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private final TokenBlackListRepository tokenBlacklistRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveProbability;
+    private final Duration syncOverlap;
+
+    private final Counter negativeChecks;
+    private final Counter revokedChecks;
+    private final Counter falsePositiveChecks;
+
+    private final Object lock = new Object();
+    private final Set<String> revokedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    private volatile RevokedJtiBloomFilter filter;
+    private LocalDateTime lastSync;
+
+    public TokenRevocationRegistry(TokenBlackListRepository tokenBlacklistRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${security.revocation.expected-revocations:100000}") long expectedRevocations,
+                                   @Value("${security.revocation.false-positive-probability:0.001}") double falsePositiveProbability,
+                                   @Value("${security.revocation.sync-overlap:30s}") Duration syncOverlap) {
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException(
+                    "security.revocation.false-positive-probability debe estar entre 0 y 1 (exclusivo)");
+        }
+
+        this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.syncOverlap = syncOverlap;
+
+        this.negativeChecks = checkCounter(meterRegistry, "negative");
+        this.revokedChecks = checkCounter(meterRegistry, "revoked");
+        this.falsePositiveChecks = checkCounter(meterRegistry, "false_positive");
+
+        Gauge.builder("security.revocation.false.positive.rate", this, TokenRevocationRegistry::falsePositiveRate)
+                .description("Fracción de tokens no revocados que el filtro envió a la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("security.revocation.filter.entries", this,
+                        registry -> registry.filter != null ? registry.filter.insertions() : 0)
+                .description("JTIs cargados en el filtro de revocación")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica si el token con ese JTI fue revocado
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+
+        RevokedJtiBloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            negativeChecks.increment();
+            return false;
+        }
+
+        boolean revoked = tokenBlacklistRepository.existsByJti(jti);
+        if (current != null) {
+            (revoked ? revokedChecks : falsePositiveChecks).increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Marca el JTI como revocado en este nodo; la fila en token_blacklist la guarda quien llama
+     * Se puede llamar antes del commit: un JTI marcado de más solo cuesta una consulta
+     */
+    public void markRevoked(String jti) {
+        synchronized (lock) {
+            if (rebuilding || filter == null) {
+                revokedDuringRebuild.add(jti);
+            }
+            if (filter != null) {
+                filter.put(jti);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Borra las revocaciones vencidas y reconstruye el filtro con las vigentes
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.rebuild-interval-ms:600000}",
+            initialDelayString = "${security.revocation.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        synchronized (lock) {
+            rebuilding = true;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> tokenBlacklistRepository.deleteExpiredTokens(now));
+
+            List<String> jtis = tokenBlacklistRepository.findActiveJtis(now);
+            RevokedJtiBloomFilter rebuilt = new RevokedJtiBloomFilter(
+                    Math.max(expectedRevocations, 2L * jtis.size()), falsePositiveProbability);
+            jtis.forEach(rebuilt::put);
+
+            synchronized (lock) {
+                revokedDuringRebuild.forEach(rebuilt::put);
+                revokedDuringRebuild.clear();
+                filter = rebuilt;
+            }
+            lastSync = now;
+
+            logger.info("Token revocation filter rebuilt with {} active revocations", jtis.size());
+        } catch (RuntimeException e) {
+            logger.warn("Could not rebuild token revocation filter: {}", e.getMessage());
+        } finally {
+            synchronized (lock) {
+                rebuilding = false;
+            }
+        }
+    }
+
+    /**
+     * Agrega al filtro las revocaciones hechas en otros nodos desde la última sincronización
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:5000}",
+            initialDelayString = "${security.revocation.sync-interval-ms:5000}")
+    public synchronized void syncFromDatabase() {
+        RevokedJtiBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // El solape cubre relojes desfasados entre nodos y commits tardíos; reinsertar no tiene efecto
+            List<String> jtis = tokenBlacklistRepository.findJtisRevokedSince(lastSync.minus(syncOverlap), now);
+            jtis.forEach(current::put);
+            lastSync = now;
+        } catch (RuntimeException e) {
+            logger.warn("Could not sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    private double falsePositiveRate() {
+        double falsePositives = falsePositiveChecks.count();
+        double notRevoked = falsePositives + negativeChecks.count();
+        return notRevoked == 0 ? 0 : falsePositives / notRevoked;
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("security.revocation.checks")
+                .description("Verificaciones de revocación por resultado del filtro")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
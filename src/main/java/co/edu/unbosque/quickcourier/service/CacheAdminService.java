@@ -0,0 +1,15 @@
+package co.edu.unbosque.quickcourier.service;
+
+import co.edu.unbosque.quickcourier.dto.response.CacheStatsResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.CacheWarmUpResponseDTO;
+
+import java.util.List;
+
+public interface CacheAdminService {
+
+    List<CacheStatsResponseDTO> getCacheStats();
+
+    CacheStatsResponseDTO getCacheStats(String name);
+
+    CacheWarmUpResponseDTO getWarmUpReport();
+}
@@ -3,9 +3,12 @@ package co.edu.unbosque.quickcourier.service;
 import co.edu.unbosque.quickcourier.dto.request.CreateProductRequestDTO;
 import co.edu.unbosque.quickcourier.dto.request.UpdateProductRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.ProductResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.ProductSuggestionResponseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface ProductService {
     ProductResponseDTO createProduct(CreateProductRequestDTO request);
     ProductResponseDTO updateProduct(Long id, UpdateProductRequestDTO request);
@@ -15,5 +18,6 @@ public interface ProductService {
     Page<ProductResponseDTO> getAllActiveProducts(Pageable pageable);
     Page<ProductResponseDTO> getProductsByCategory(Long categoryId, Pageable pageable);
     Page<ProductResponseDTO> searchProducts(String searchTerm, Pageable pageable);
+    List<ProductSuggestionResponseDTO> suggestProducts(String query, int limit);
     Page<ProductResponseDTO> getLowStockProducts(Integer threshold, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package co.edu.unbosque.quickcourier.service;
+
+import co.edu.unbosque.quickcourier.ratelimit.RateLimitTrackingDelta;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Persistencia de las ventanas de rate limiting contadas en memoria (auditoría y analítica)
+ */
+public interface RateLimitTrackingService {
+
+    /**
+     * Crea la fila de cada ventana nueva y suma las requests a las existentes, en una sola sentencia
+     * @return cantidad de filas insertadas o actualizadas
+     */
+    int recordRequests(List<RateLimitTrackingDelta> deltas);
+
+    /**
+     * Borra las ventanas que terminaron antes de la fecha
+     * @return cantidad de filas borradas
+     */
+    int purgeOlderThan(LocalDateTime cutoff);
+}
@@ -1,7 +1,9 @@
 package co.edu.unbosque.quickcourier.service;
 
+import co.edu.unbosque.quickcourier.dto.request.ShippingQuoteRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingCalculationResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingExtraResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.ShippingQuoteResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingRuleResponseDTO;
 import co.edu.unbosque.quickcourier.model.Order;
 
@@ -40,5 +42,13 @@ public interface ShippingService {
     ShippingExtraResponseDTO getShippingExtraByCode(String code);
     List<ShippingExtraResponseDTO> getActiveShippingExtras();
 
+    /**
+     * Cotiza un lote de envíos hipotéticos (zona, peso, subtotal, usuario, extras)
+     * contra un mismo snapshot de reglas, sin crear entidades JPA
+     *
+     * @param userId Usuario autenticado; las cotizaciones se hacen a su nombre
+     * @param admin  Si el usuario es ADMIN, puede cotizar a nombre de otro usuario (userId de cada item)
+     */
+    ShippingQuoteResponseDTO quoteShipping(ShippingQuoteRequestDTO request, Long userId, boolean admin);
 
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package co.edu.unbosque.quickcourier.service;
+
+import co.edu.unbosque.quickcourier.repository.OrderRepository;
+
+import java.util.List;
+
+/**
+ * Servicio de reservas temporales de stock
+ * Los pedidos PENDING retienen stock hasta que se confirman o vence su reserva
+ */
+public interface StockHoldService {
+
+    /**
+     * Cancela un lote de pedidos con la reserva vencida y libera su stock
+     * @return cantidad de pedidos liberados en el lote
+     */
+    int releaseExpiredHolds(int batchSize);
+
+    /**
+     * Totales de unidades retenidas (PENDING) y comprometidas (confirmadas sin entregar)
+     */
+    OrderRepository.StockUnits countStockUnits();
+
+    /**
+     * Unidades retenidas y comprometidas de los productos con más unidades abiertas
+     * @param limit cantidad máxima de productos
+     */
+    List<OrderRepository.ProductStockUnits> countStockUnitsByProduct(int limit);
+}
@@ -0,0 +1,23 @@
+package co.edu.unbosque.quickcourier.service;
+
+import co.edu.unbosque.quickcourier.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * Servicio de reserva de inventario
+ * Descuenta y restaura stock con operaciones atómicas en base de datos
+ */
+public interface StockReservationService {
+
+    /**
+     * Reserva el stock de todos los items (todo o nada)
+     * Debe ejecutarse dentro de la transacción del pedido
+     */
+    void reserve(List<OrderItem> items);
+
+    /**
+     * Devuelve al inventario el stock de los items
+     */
+    void release(List<OrderItem> items);
+}
@@ -14,7 +14,9 @@ import co.edu.unbosque.quickcourier.model.UserRole;
 import co.edu.unbosque.quickcourier.repository.RefreshTokenRepository;
 import co.edu.unbosque.quickcourier.repository.TokenBlackListRepository;
 import co.edu.unbosque.quickcourier.repository.UserRepository;
+import co.edu.unbosque.quickcourier.security.JwtPrincipal;
 import co.edu.unbosque.quickcourier.security.JwtTokenProvider;
+import co.edu.unbosque.quickcourier.security.TokenRevocationRegistry;
 import co.edu.unbosque.quickcourier.service.AuthService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,17 +43,20 @@ public class AuthServiceImpl implements AuthService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final TokenBlackListRepository tokenBlacklistRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
     private final PasswordEncoder passwordEncoder;
 
     public AuthServiceImpl(UserRepository userRepository,
                            RefreshTokenRepository refreshTokenRepository,
                            TokenBlackListRepository tokenBlacklistRepository,
                            JwtTokenProvider jwtTokenProvider,
+                           TokenRevocationRegistry tokenRevocationRegistry,
                            PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.refreshTokenRepository = refreshTokenRepository;
         this.tokenBlacklistRepository = tokenBlacklistRepository;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -245,24 +250,33 @@ public class AuthServiceImpl implements AuthService {
     public void logout(String token) {
         logger.info("Logout request");
 
-        if (token == null || !jwtTokenProvider.isTokenValid(token)) {
+        if (token == null) {
             throw new BadRequestException("Token inválido");
         }
 
-        Long userId = jwtTokenProvider.extractUserId(token);
+        JwtPrincipal principal = jwtTokenProvider.verify(token)
+                .orElseThrow(() -> new BadRequestException("Token inválido"));
 
-        // Agregar a blacklist
-        TokenBlackList blacklistedToken = new TokenBlackList();
-        blacklistedToken.setJti(String.valueOf(token.hashCode()));
+        Long userId = principal.userId();
         // CORRECCIÓN: Usar el usuario correctamente
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-        blacklistedToken.setUser(user);
-        blacklistedToken.setExpiresAt(jwtTokenProvider.getExpirationDateAsLocalDateTime(token));
-        blacklistedToken.setRevokedAt(LocalDateTime.now());
-        blacklistedToken.setReason("LOGOUT");
 
-        tokenBlacklistRepository.save(blacklistedToken);
+        // Agregar a blacklist
+        String jti = principal.jti();
+        if (jti == null) {
+            logger.warn("Token without jti cannot be blacklisted, it stays valid until it expires");
+        } else if (!tokenBlacklistRepository.existsByJti(jti)) {
+            TokenBlackList blacklistedToken = new TokenBlackList();
+            blacklistedToken.setJti(jti);
+            blacklistedToken.setUser(user);
+            blacklistedToken.setExpiresAt(LocalDateTime.ofInstant(principal.expiresAt(), ZoneId.systemDefault()));
+            blacklistedToken.setRevokedAt(LocalDateTime.now());
+            blacklistedToken.setReason("LOGOUT");
+
+            tokenBlacklistRepository.save(blacklistedToken);
+            tokenRevocationRegistry.markRevoked(jti);
+        }
 
         // Revocar todos los refresh tokens del usuario
         revokeAllUserTokens(userId);
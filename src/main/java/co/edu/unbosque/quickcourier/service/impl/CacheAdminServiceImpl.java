@@ -0,0 +1,129 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.cache.CacheWarmUp;
+import co.edu.unbosque.quickcourier.cache.StandaloneCacheRegistry;
+import co.edu.unbosque.quickcourier.dto.response.CacheStatsResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.CacheWarmUpResponseDTO;
+import co.edu.unbosque.quickcourier.exception.ResourceNotFoundException;
+import co.edu.unbosque.quickcourier.service.CacheAdminService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lectura de las estadísticas de Caffeine para dimensionar las cachés
+ * Las claves más usadas salen de la política de eviction de Caffeine (su propio muestreo
+ * de frecuencias), sin contadores adicionales en el camino de lectura
+ */
+@Service
+public class CacheAdminServiceImpl implements CacheAdminService {
+
+    private static final String CACHE_MANAGER_SOURCE = "cacheManager";
+    private static final String STANDALONE_SOURCE = "standalone";
+
+    private final CacheManager cacheManager;
+    private final StandaloneCacheRegistry standaloneCacheRegistry;
+    private final CacheWarmUp cacheWarmUp;
+    private final Set<String> topKeyCaches;
+    private final int topKeysLimit;
+
+    public CacheAdminServiceImpl(CacheManager cacheManager,
+                                 StandaloneCacheRegistry standaloneCacheRegistry,
+                                 CacheWarmUp cacheWarmUp,
+                                 @Value("${cache-metrics.top-keys.caches:products,orders,orderSummaries}") Set<String> topKeyCaches,
+                                 @Value("${cache-metrics.top-keys.limit:20}") int topKeysLimit) {
+        this.cacheManager = cacheManager;
+        this.standaloneCacheRegistry = standaloneCacheRegistry;
+        this.cacheWarmUp = cacheWarmUp;
+        this.topKeyCaches = topKeyCaches;
+        this.topKeysLimit = topKeysLimit;
+    }
+
+    @Override
+    public List<CacheStatsResponseDTO> getCacheStats() {
+        List<CacheStatsResponseDTO> stats = new ArrayList<>();
+
+        for (String name : cacheManager.getCacheNames()) {
+            nativeCache(name).ifPresent(cache -> stats.add(toStats(name, CACHE_MANAGER_SOURCE, cache)));
+        }
+
+        standaloneCacheRegistry.getCaches()
+                .forEach((name, cache) -> stats.add(toStats(name, STANDALONE_SOURCE, cache)));
+
+        return stats;
+    }
+
+    @Override
+    public CacheStatsResponseDTO getCacheStats(String name) {
+        Optional<Cache<Object, Object>> managed = nativeCache(name);
+        if (managed.isPresent()) {
+            return toStats(name, CACHE_MANAGER_SOURCE, managed.get());
+        }
+
+        Cache<?, ?> standalone = standaloneCacheRegistry.getCaches().get(name);
+        if (standalone == null) {
+            throw new ResourceNotFoundException("Caché no encontrada: " + name);
+        }
+
+        return toStats(name, STANDALONE_SOURCE, standalone);
+    }
+
+    @Override
+    public CacheWarmUpResponseDTO getWarmUpReport() {
+        return cacheWarmUp.getReport();
+    }
+
+    private Optional<Cache<Object, Object>> nativeCache(String name) {
+        return Optional.ofNullable(cacheManager.getCache(name))
+                .filter(CaffeineCache.class::isInstance)
+                .map(cache -> ((CaffeineCache) cache).getNativeCache());
+    }
+
+    private CacheStatsResponseDTO toStats(String name, String source, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Optional<? extends Policy.Eviction<?, ?>> eviction = cache.policy().eviction();
+
+        boolean weighted = eviction.map(Policy.Eviction::isWeighted).orElse(false);
+        Long maximum = eviction.map(e -> (Long) e.getMaximum()).orElse(null);
+        Long weightedSize = weighted
+                ? eviction.get().weightedSize().orElse(0L)
+                : null;
+
+        return new CacheStatsResponseDTO(
+                name,
+                source,
+                cache.estimatedSize(),
+                weighted,
+                maximum,
+                weightedSize,
+                stats.requestCount(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.evictionWeight(),
+                stats.loadSuccessCount(),
+                stats.loadFailureCount(),
+                stats.averageLoadPenalty() / 1_000_000.0,
+                topKeyCaches.contains(name) ? topKeys(eviction) : List.of()
+        );
+    }
+
+    private List<String> topKeys(Optional<? extends Policy.Eviction<?, ?>> eviction) {
+        return eviction
+                .map(e -> e.hottest(topKeysLimit).keySet().stream()
+                        .map(Object::toString)
+                        .collect(Collectors.toList()))
+                .orElse(List.of());
+    }
+}
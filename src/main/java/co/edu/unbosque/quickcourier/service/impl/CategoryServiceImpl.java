@@ -1,5 +1,6 @@
 package co.edu.unbosque.quickcourier.service.impl;
 
+import co.edu.unbosque.quickcourier.cache.NegativeLookupCache;
 import co.edu.unbosque.quickcourier.dto.request.CreateCategoryRequestDTO;
 import co.edu.unbosque.quickcourier.dto.request.UpdateCategoryRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.CategoryResponseDTO;
@@ -8,6 +9,7 @@ import co.edu.unbosque.quickcourier.exception.ResourceNotFoundException;
 import co.edu.unbosque.quickcourier.mapper.DataMapper;
 import co.edu.unbosque.quickcourier.model.Category;
 import co.edu.unbosque.quickcourier.repository.CategoryRepository;
+import co.edu.unbosque.quickcourier.search.ProductIndexer;
 import co.edu.unbosque.quickcourier.service.CategoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,10 +35,15 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final DataMapper dataMapper;
+    private final NegativeLookupCache negativeLookups;
+    private final ProductIndexer productIndexer;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, DataMapper dataMapper) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, DataMapper dataMapper,
+                               NegativeLookupCache negativeLookups, ProductIndexer productIndexer) {
         this.categoryRepository = categoryRepository;
         this.dataMapper = dataMapper;
+        this.negativeLookups = negativeLookups;
+        this.productIndexer = productIndexer;
     }
 
     @Override
@@ -55,6 +62,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setCreatedAt(LocalDateTime.now());
 
         Category savedCategory = categoryRepository.save(category);
+        negativeLookups.forget(NegativeLookupCache.CATEGORY_ID, savedCategory.getId());
 
         logger.info("Category created: {}", savedCategory.getName());
 
@@ -74,6 +82,10 @@ public class CategoryServiceImpl implements CategoryService {
                     categoryRepository.existsByName(request.name())) {
                 throw new BadRequestException("Ya existe una categoría con ese nombre");
             }
+            if (!request.name().equals(category.getName())) {
+                // El nombre de la categoría es parte del texto indexado de sus productos
+                productIndexer.rebuildAfterCommit();
+            }
             category.setName(request.name());
         }
 
@@ -112,8 +124,10 @@ public class CategoryServiceImpl implements CategoryService {
     public CategoryResponseDTO getCategoryById(Long id) {
         logger.debug("Fetching category: {}", id);
 
+        negativeLookups.rejectIfKnownMissing(NegativeLookupCache.CATEGORY_ID, id, "Categoría no encontrada");
+
         Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Categoría no encontrada"));
+                .orElseThrow(() -> negativeLookups.missing(NegativeLookupCache.CATEGORY_ID, id, "Categoría no encontrada"));
 
         return dataMapper.toCategoryResponseDTO(category);
     }
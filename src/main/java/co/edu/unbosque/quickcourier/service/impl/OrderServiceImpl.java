@@ -1,9 +1,13 @@
 package co.edu.unbosque.quickcourier.service.impl;
 
-import co.edu.unbosque.quickcourier.decorator.OrderComponent;
+import co.edu.unbosque.quickcourier.cache.CacheKeys;
+import co.edu.unbosque.quickcourier.cache.OrderCacheEvictor;
+import co.edu.unbosque.quickcourier.cache.OrderHistoryIndex;
+import co.edu.unbosque.quickcourier.decorator.ExtrasPricing;
 import co.edu.unbosque.quickcourier.decorator.OrderDecoratorBuilder;
 import co.edu.unbosque.quickcourier.mapper.DataMapper;
 import co.edu.unbosque.quickcourier.dto.request.CreateOrderRequestDTO;
+import co.edu.unbosque.quickcourier.dto.request.OrderItemRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.OrderResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.OrderSummaryResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.PageResponseDTO;
@@ -14,10 +18,11 @@ import co.edu.unbosque.quickcourier.factory.OrderFactory;
 import co.edu.unbosque.quickcourier.model.*;
 import co.edu.unbosque.quickcourier.repository.*;
 import co.edu.unbosque.quickcourier.service.OrderService;
+import co.edu.unbosque.quickcourier.service.StockReservationService;
 import co.edu.unbosque.quickcourier.strategy.ShippingStrategyFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,7 +30,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,35 +49,42 @@ public class OrderServiceImpl implements OrderService {
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final ProductRepository productRepository;
-    private final ShippingExtraRepository shippingExtraRepository;
+    private final StockReservationService stockReservationService;
     private final OrderFactory orderFactory;
     private final ShippingStrategyFactory shippingStrategyFactory;
     private final OrderDecoratorBuilder decoratorBuilder;
     private final DataMapper dataMapper;
-
+    private final OrderHistoryIndex orderHistoryIndex;
+    private final OrderCacheEvictor orderCacheEvictor;
+    private final Duration stockHoldTtl;
 
     public OrderServiceImpl(OrderRepository orderRepository,
                             UserRepository userRepository,
                             AddressRepository addressRepository,
                             ProductRepository productRepository,
-                            ShippingExtraRepository shippingExtraRepository,
+                            StockReservationService stockReservationService,
                             OrderFactory orderFactory,
                             ShippingStrategyFactory shippingStrategyFactory,
                             OrderDecoratorBuilder decoratorBuilder,
-                            DataMapper dataMapper) {
+                            DataMapper dataMapper,
+                            OrderHistoryIndex orderHistoryIndex,
+                            OrderCacheEvictor orderCacheEvictor,
+                            @Value("${inventory.hold.ttl:15m}") Duration stockHoldTtl) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.addressRepository = addressRepository;
         this.productRepository = productRepository;
-        this.shippingExtraRepository = shippingExtraRepository;
+        this.stockReservationService = stockReservationService;
         this.orderFactory = orderFactory;
         this.shippingStrategyFactory = shippingStrategyFactory;
         this.decoratorBuilder = decoratorBuilder;
         this.dataMapper = dataMapper;
+        this.orderHistoryIndex = orderHistoryIndex;
+        this.orderCacheEvictor = orderCacheEvictor;
+        this.stockHoldTtl = stockHoldTtl;
     }
 
     @Override
-    @CacheEvict(value = {"recentOrders", "orderSummaries"}, allEntries = true)
     public OrderResponseDTO createOrder(CreateOrderRequestDTO request, Long userId) {
         logger.info("Creating order for user {} with {} items", userId, request.items().size());
 
@@ -81,14 +99,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         // FACTORY PATTERN: Crear pedido base con items
-        List<OrderFactory.ProductQuantity> productQuantities = request.items().stream()
-                .map(item -> {
-                    Product product = productRepository.findById(item.productId())
-                            .orElseThrow(() -> new ResourceNotFoundException(
-                                    "Producto no encontrado: " + item.productId()));
-                    return new OrderFactory.ProductQuantity(product, item.quantity());
-                })
-                .collect(Collectors.toList());
+        List<OrderFactory.ProductQuantity> productQuantities = resolveProductQuantities(request.items());
 
         Order order = orderFactory.createOrderWithItems(user, address, productQuantities);
 
@@ -96,7 +107,7 @@ public class OrderServiceImpl implements OrderService {
                 order.getSubtotal(), order.getTotalWeightKg());
 
         // STRATEGY PATTERN: Calcular costo de envio
-        var shippingResult = shippingStrategyFactory.calculateShipping(order);
+        var shippingResult = shippingStrategyFactory.calculateShippingForNewOrder(order);
         order.setShippingCost(shippingResult.shippingCost());
         order.setAppliedShippingRuleCode(shippingResult.appliedRuleCode());
 
@@ -115,15 +126,16 @@ public class OrderServiceImpl implements OrderService {
                 order.getSubtotal(), order.getShippingCost(), order.getExtrasCost(),
                 order.getTaxAmount(), order.getTotalAmount());
 
+        // Reservar stock de forma atómica (todo o nada) antes de guardar el pedido
+        // La reserva vence si el pedido no se confirma a tiempo (ver StockHoldSweeper)
+        stockReservationService.reserve(order.getItems());
+        order.setHoldExpiresAt(LocalDateTime.now().plus(stockHoldTtl));
+
         // Guardar pedido
         Order savedOrder = orderRepository.save(order);
-
-        // Decrementar stock de productos
-        savedOrder.getItems().forEach(item -> {
-            Product product = item.getProduct();
-            product.decreaseStock(item.getQuantity());
-            productRepository.save(product);
-        });
+        orderHistoryIndex.markOrderedAfterCommit(userId);
+        // Solo las páginas de pedidos de este usuario quedan desactualizadas
+        orderCacheEvictor.evictUserSummariesAfterCommit(userId);
 
         logger.info("Order {} created successfully. Total: ${}",
                 savedOrder.getOrderNumber(), savedOrder.getTotalAmount());
@@ -132,7 +144,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = "orders", key = "#id")
+    @Cacheable(value = CacheKeys.ORDERS,
+            key = "T(co.edu.unbosque.quickcourier.cache.CacheKeys).order(#userId, #id)")
     public OrderResponseDTO getOrderById(Long id, Long userId) {
         logger.debug("Fetching order by id: {}", id);
 
@@ -145,7 +158,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = "orders", key = "#orderNumber")
+    @Cacheable(value = CacheKeys.ORDERS,
+            key = "T(co.edu.unbosque.quickcourier.cache.CacheKeys).orderByNumber(#userId, #orderNumber)")
     public OrderResponseDTO getOrderByNumber(String orderNumber, Long userId) {
         logger.debug("Fetching order by number: {}", orderNumber);
 
@@ -158,10 +172,14 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Cacheable(value = "orderSummaries", key = "#userId + '_' + #pageable.pageNumber")
+    @Cacheable(value = CacheKeys.ORDER_SUMMARIES,
+            key = "T(co.edu.unbosque.quickcourier.cache.CacheKeys).orderSummaryPage(#userId, #pageable)")
     public PageResponseDTO<OrderSummaryResponseDTO> getUserOrders(Long userId, Pageable pageable) {
         logger.debug("Fetching orders for user: {}", userId);
 
+        // La página se va a guardar en caché: registrarla para invalidarla cuando cambien los pedidos del usuario
+        orderCacheEvictor.trackSummaryPage(userId, CacheKeys.orderSummaryPage(userId, pageable));
+
         Page<Order> orders = orderRepository.findByUserId(userId, pageable);
         return dataMapper.toOrderSummaryPageResponseDTO(orders);
     }
@@ -180,17 +198,23 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @CacheEvict(value = {"orders", "orderSummaries"}, allEntries = true)
     public OrderResponseDTO confirmOrder(Long id, Long userId) {
         logger.info("Confirming order: {}", id);
 
-        Order order = orderRepository.findById(id)
+        // Bloqueo de fila: el barrido de reservas vencidas no puede cancelarlo en paralelo
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado"));
 
         validateOrderOwnership(order, userId);
 
+        if (order.isHoldExpired(LocalDateTime.now())) {
+            throw new BadRequestException("La reserva de stock del pedido expiró");
+        }
+
+        // El stock retenido pasa a comprometido
         order.confirm();
         Order savedOrder = orderRepository.save(order);
+        orderCacheEvictor.evictOrderAfterCommit(savedOrder);
 
         logger.info("Order {} confirmed", savedOrder.getOrderNumber());
 
@@ -198,24 +222,20 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @CacheEvict(value = {"orders", "orderSummaries"}, allEntries = true)
     public OrderResponseDTO cancelOrder(Long id, Long userId) {
         logger.info("Cancelling order: {}", id);
 
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado"));
 
         validateOrderOwnership(order, userId);
 
         order.cancel();
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        orderCacheEvictor.evictOrderAfterCommit(savedOrder);
 
         // Restaurar stock
-        savedOrder.getItems().forEach(item -> {
-            Product product = item.getProduct();
-            product.increaseStock(item.getQuantity());
-            productRepository.save(product);
-        });
+        stockReservationService.release(savedOrder.getItems());
 
         logger.info("Order {} cancelled and stock restored", savedOrder.getOrderNumber());
 
@@ -223,7 +243,6 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @CacheEvict(value = {"orders", "orderSummaries"}, allEntries = true)
     public OrderResponseDTO recalculateOrderWithExtras(Long orderId, List<String> newExtraCodes, Long userId) {
         logger.info("Recalculating order {} with new extras", orderId);
 
@@ -249,6 +268,7 @@ public class OrderServiceImpl implements OrderService {
         order.calculateTotals();
 
         Order savedOrder = orderRepository.save(order);
+        orderCacheEvictor.evictOrderAfterCommit(savedOrder);
 
         logger.info("Order {} recalculated. New total: ${}",
                 savedOrder.getOrderNumber(), savedOrder.getTotalAmount());
@@ -256,29 +276,46 @@ public class OrderServiceImpl implements OrderService {
         return dataMapper.toOrderResponseDTO(savedOrder);
     }
 
+    /**
+     * Resuelve todos los productos del pedido con una sola consulta (SELECT ... FOR UPDATE por id)
+     * Reporta juntos todos los IDs inexistentes en lugar de fallar en el primero
+     * Con las filas bloqueadas, el stock leído es exacto hasta que la reserva lo descuente
+     */
+    private List<OrderFactory.ProductQuantity> resolveProductQuantities(List<OrderItemRequestDTO> items) {
+        Set<Long> productIds = items.stream()
+                .map(OrderItemRequestDTO::productId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, Product> productsById = productRepository.findAllByIdForUpdate(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Long> missingIds = productIds.stream()
+                .filter(id -> !productsById.containsKey(id))
+                .collect(Collectors.toList());
+
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException("Productos no encontrados: " + missingIds);
+        }
+
+        return items.stream()
+                .map(item -> new OrderFactory.ProductQuantity(
+                        productsById.get(item.productId()), item.quantity()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Aplica extras al pedido usando Decorator Pattern
+     * Costo y relaciones OrderExtra salen de la misma pasada sobre el catálogo de extras
      */
     private void applyOrderExtras(Order order, List<String> extraCodes) {
-        OrderComponent decoratedOrder = decoratorBuilder.buildWithExtras(order, extraCodes);
+        ExtrasPricing pricing = decoratorBuilder.priceExtras(order, extraCodes);
 
-        BigDecimal baseOrderCost = order.getSubtotal().add(order.getShippingCost());
-        BigDecimal decoratedCost = decoratedOrder.getCost();
-        BigDecimal extrasCost = decoratedCost.subtract(baseOrderCost);
-
-        order.setExtrasCost(extrasCost);
+        order.setExtrasCost(pricing.extrasCost());
 
         logger.debug("Extras applied: {}. Total extras cost: ${}",
-                decoratedOrder.getAppliedExtras(), extrasCost);
-
-        // Crear relaciones OrderExtra
-        List<ShippingExtra> extras = shippingExtraRepository.findByCodesAndActive(extraCodes);
+                pricing.appliedExtras(), pricing.extrasCost());
 
-        for (ShippingExtra extra : extras) {
-            BigDecimal appliedPrice = extra.calculatePrice(order.getSubtotal());
-            OrderExtra orderExtra = new OrderExtra(order, extra, appliedPrice);
-            order.addExtra(orderExtra);
-        }
+        pricing.orderExtras().forEach(order::addExtra);
     }
 
     /**
@@ -1,5 +1,6 @@
 package co.edu.unbosque.quickcourier.service.impl;
 
+import co.edu.unbosque.quickcourier.cache.OrderCacheEvictor;
 import co.edu.unbosque.quickcourier.dto.request.CreatePaymentRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.PaymentResponseDTO;
 import co.edu.unbosque.quickcourier.exception.BadRequestException;
@@ -35,13 +36,16 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final DataMapper dataMapper;
+    private final OrderCacheEvictor orderCacheEvictor;
 
     public PaymentServiceImpl(PaymentRepository paymentRepository,
                               OrderRepository orderRepository,
-                              DataMapper dataMapper) {
+                              DataMapper dataMapper,
+                              OrderCacheEvictor orderCacheEvictor) {
         this.paymentRepository = paymentRepository;
         this.orderRepository = orderRepository;
         this.dataMapper = dataMapper;
+        this.orderCacheEvictor = orderCacheEvictor;
     }
 
     @Override
@@ -141,6 +145,7 @@ public class PaymentServiceImpl implements PaymentService {
             Order order = payment.getOrder();
             order.setPaymentStatus(co.edu.unbosque.quickcourier.model.PaymentStatus.PAID);
             orderRepository.save(order);
+            orderCacheEvictor.evictOrderAfterCommit(order);
 
             logger.info("Payment {} completed successfully", payment.getTransactionId());
         } else {
@@ -171,6 +176,7 @@ public class PaymentServiceImpl implements PaymentService {
         Order order = payment.getOrder();
         order.setPaymentStatus(co.edu.unbosque.quickcourier.model.PaymentStatus.REFUNDED);
         orderRepository.save(order);
+        orderCacheEvictor.evictOrderAfterCommit(order);
 
         Payment refundedPayment = paymentRepository.save(payment);
 
@@ -1,8 +1,10 @@
 package co.edu.unbosque.quickcourier.service.impl;
 
+import co.edu.unbosque.quickcourier.cache.NegativeLookupCache;
 import co.edu.unbosque.quickcourier.dto.request.CreateProductRequestDTO;
 import co.edu.unbosque.quickcourier.dto.request.UpdateProductRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.ProductResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.ProductSuggestionResponseDTO;
 import co.edu.unbosque.quickcourier.exception.BadRequestException;
 import co.edu.unbosque.quickcourier.exception.ResourceNotFoundException;
 import co.edu.unbosque.quickcourier.mapper.DataMapper;
@@ -10,17 +12,31 @@ import co.edu.unbosque.quickcourier.model.Category;
 import co.edu.unbosque.quickcourier.model.Product;
 import co.edu.unbosque.quickcourier.repository.CategoryRepository;
 import co.edu.unbosque.quickcourier.repository.ProductRepository;
+import co.edu.unbosque.quickcourier.search.ProductIndexer;
+import co.edu.unbosque.quickcourier.search.ProductSearchIndex;
+import co.edu.unbosque.quickcourier.search.ProductSearchResult;
+import co.edu.unbosque.quickcourier.search.ProductSuggestIndex;
 import co.edu.unbosque.quickcourier.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de productos con caché para performance
@@ -31,16 +47,36 @@ public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    private static final String PRODUCTS_BY_SKU = "productsBySku";
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final DataMapper dataMapper;
+    private final NegativeLookupCache negativeLookups;
+    private final CacheManager cacheManager;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductIndexer productIndexer;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final int maxSuggestions;
 
     public ProductServiceImpl(ProductRepository productRepository,
                               CategoryRepository categoryRepository,
-                              DataMapper dataMapper) {
+                              DataMapper dataMapper,
+                              NegativeLookupCache negativeLookups,
+                              CacheManager cacheManager,
+                              ProductSearchIndex productSearchIndex,
+                              ProductIndexer productIndexer,
+                              ProductSuggestIndex productSuggestIndex,
+                              @Value("${search.suggest.max-limit:20}") int maxSuggestions) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.dataMapper = dataMapper;
+        this.negativeLookups = negativeLookups;
+        this.cacheManager = cacheManager;
+        this.productSearchIndex = productSearchIndex;
+        this.productIndexer = productIndexer;
+        this.productSuggestIndex = productSuggestIndex;
+        this.maxSuggestions = maxSuggestions;
     }
 
     @Override
@@ -76,6 +112,11 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
 
+        // Pudo haberse buscado antes de existir
+        negativeLookups.forget(NegativeLookupCache.PRODUCT_SKU, savedProduct.getSku());
+        negativeLookups.forget(NegativeLookupCache.PRODUCT_ID, savedProduct.getId());
+        productIndexer.indexAfterCommit(savedProduct);
+
         logger.info("Product created: {} (SKU: {})", savedProduct.getName(), savedProduct.getSku());
 
         return dataMapper.toProductResponseDTO(savedProduct);
@@ -83,7 +124,7 @@ public class ProductServiceImpl implements ProductService {
 
 
     @Override
-    @CacheEvict(value = {"products", "productsBySku"}, key = "#id")
+    @CacheEvict(value = "products", key = "#id")
     public ProductResponseDTO updateProduct(Long id, UpdateProductRequestDTO request) {
         logger.info("Updating product: {}", id);
 
@@ -120,6 +161,8 @@ public class ProductServiceImpl implements ProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         Product updatedProduct = productRepository.save(product);
+        productIndexer.indexAfterCommit(updatedProduct);
+        evictBySku(updatedProduct.getSku());
 
         logger.info("Product {} updated", id);
 
@@ -127,7 +170,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @CacheEvict(value = {"products", "productsBySku"}, key = "#id")
+    @CacheEvict(value = "products", key = "#id")
     public void deleteProduct(Long id) {
         logger.info("Deleting product: {}", id);
 
@@ -138,34 +181,53 @@ public class ProductServiceImpl implements ProductService {
         product.setIsActive(false);
         product.setUpdatedAt(LocalDateTime.now());
         productRepository.save(product);
+        productIndexer.indexAfterCommit(product);
+        evictBySku(product.getSku());
 
         logger.info("Product {} deactivated", id);
     }
 
+    /**
+     * productsBySku se indexa por SKU, no por id: la clave solo se conoce tras cargar el producto,
+     * así que se invalida aquí en lugar de en la anotación. El bus de coherencia la propaga
+     * a los demás nodos al confirmar la transacción
+     */
+    private void evictBySku(String sku) {
+        Cache cache = cacheManager.getCache(PRODUCTS_BY_SKU);
+        if (cache != null) {
+            cache.evict(sku);
+        }
+    }
+
     @Override
     @Cacheable(value = "products", key = "#id")
     public ProductResponseDTO getProductById(Long id) {
         logger.debug("Fetching product by id: {}", id);
 
+        negativeLookups.rejectIfKnownMissing(NegativeLookupCache.PRODUCT_ID, id, "Producto no encontrado");
+
         Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado"));
+                .orElseThrow(() -> negativeLookups.missing(NegativeLookupCache.PRODUCT_ID, id, "Producto no encontrado"));
 
         return dataMapper.toProductResponseDTO(product);
     }
 
     @Override
-    @Cacheable(value = "productsBySku", key = "#sku")
+    @Cacheable(value = PRODUCTS_BY_SKU, key = "#sku")
     public ProductResponseDTO getProductBySku(String sku) {
         logger.debug("Fetching product by sku: {}", sku);
 
+        negativeLookups.rejectIfKnownMissing(NegativeLookupCache.PRODUCT_SKU, sku, "Producto no encontrado");
+
         Product product = productRepository.findBySku(sku)
-                .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado"));
+                .orElseThrow(() -> negativeLookups.missing(NegativeLookupCache.PRODUCT_SKU, sku, "Producto no encontrado"));
 
         return dataMapper.toProductResponseDTO(product);
     }
 
     @Override
-    @Cacheable(value = "products", key = "'active_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "products",
+            key = "T(co.edu.unbosque.quickcourier.cache.CacheKeys).activeProductsPage(#pageable)")
     public Page<ProductResponseDTO> getAllActiveProducts(Pageable pageable) {
         logger.debug("Fetching active products - page: {}, size: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
@@ -176,7 +238,8 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    @Cacheable(value = "products", key = "'category_' + #categoryId + '_' + #pageable.pageNumber")
+    @Cacheable(value = "products",
+            key = "T(co.edu.unbosque.quickcourier.cache.CacheKeys).categoryProductsPage(#categoryId, #pageable)")
     public Page<ProductResponseDTO> getProductsByCategory(Long categoryId, Pageable pageable) {
         logger.debug("Fetching products by category: {}", categoryId);
 
@@ -190,13 +253,51 @@ public class ProductServiceImpl implements ProductService {
         return products.map(dataMapper::toProductResponseDTO);
     }
 
+    /**
+     * Búsqueda por texto sobre el índice en memoria (ordenada por nombre)
+     * Solo la página resultante se carga de la base de datos, por id
+     * Si el índice no puede responder (aún cargando, términos de menos de 3 caracteres)
+     * se usa la consulta LIKE
+     */
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductResponseDTO> searchProducts(String searchTerm, Pageable pageable) {
         logger.debug("Searching products with term: {}", searchTerm);
 
-        Page<Product> products = productRepository.searchProducts(searchTerm, pageable);
+        Optional<ProductSearchResult> indexed = pageable.isPaged()
+                ? productSearchIndex.search(searchTerm, pageable.getOffset(), pageable.getPageSize())
+                : Optional.empty();
 
-        return products.map(dataMapper::toProductResponseDTO);
+        if (indexed.isEmpty()) {
+            Page<Product> products = productRepository.searchProducts(searchTerm, pageable);
+            return products.map(dataMapper::toProductResponseDTO);
+        }
+
+        ProductSearchResult result = indexed.get();
+        Map<Long, Product> productsById = productRepository.findAllById(result.productIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // El índice puede ir unos segundos detrás de otro nodo: no mostrar productos ya desactivados
+        List<ProductResponseDTO> content = result.productIds().stream()
+                .map(productsById::get)
+                .filter(product -> product != null && Boolean.TRUE.equals(product.getIsActive()))
+                .map(dataMapper::toProductResponseDTO)
+                .toList();
+
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    /**
+     * Autocompletado: solo memoria, sin transacción ni consultas
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductSuggestionResponseDTO> suggestProducts(String query, int limit) {
+        if (limit < 1 || limit > maxSuggestions) {
+            throw new BadRequestException("El límite de sugerencias debe estar entre 1 y " + maxSuggestions);
+        }
+
+        return productSuggestIndex.suggest(query, limit);
     }
 
     @Override
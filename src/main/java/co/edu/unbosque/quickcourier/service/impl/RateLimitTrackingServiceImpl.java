@@ -0,0 +1,60 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.ratelimit.RateLimitTrackingDelta;
+import co.edu.unbosque.quickcourier.repository.RateLimitTrackingRepository;
+import co.edu.unbosque.quickcourier.service.RateLimitTrackingService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Todo el lote va en un único upsert (unnest + ON CONFLICT), sin leer filas
+ * ni una sentencia por ventana
+ */
+@Service
+@Transactional
+public class RateLimitTrackingServiceImpl implements RateLimitTrackingService {
+
+    private static final int MAX_ENDPOINT_LENGTH = 255;
+
+    private final RateLimitTrackingRepository rateLimitRepository;
+
+    public RateLimitTrackingServiceImpl(RateLimitTrackingRepository rateLimitRepository) {
+        this.rateLimitRepository = rateLimitRepository;
+    }
+
+    @Override
+    public int recordRequests(List<RateLimitTrackingDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        int size = deltas.size();
+        Long[] userIds = new Long[size];
+        String[] endpoints = new String[size];
+        LocalDateTime[] windowStarts = new LocalDateTime[size];
+        LocalDateTime[] windowEnds = new LocalDateTime[size];
+        Integer[] requests = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            RateLimitTrackingDelta delta = deltas.get(i);
+            userIds[i] = delta.userId();
+            endpoints[i] = delta.endpoint().length() > MAX_ENDPOINT_LENGTH
+                    ? delta.endpoint().substring(0, MAX_ENDPOINT_LENGTH)
+                    : delta.endpoint();
+            windowStarts[i] = delta.windowStart();
+            windowEnds[i] = delta.windowEnd();
+            requests[i] = delta.requests();
+        }
+
+        return rateLimitRepository.addRequests(userIds, endpoints, windowStarts, windowEnds, requests,
+                LocalDateTime.now());
+    }
+
+    @Override
+    public int purgeOlderThan(LocalDateTime cutoff) {
+        return rateLimitRepository.deleteOldRecords(cutoff);
+    }
+}
@@ -1,24 +1,51 @@
 package co.edu.unbosque.quickcourier.service.impl;
 
+import co.edu.unbosque.quickcourier.cache.OrderHistoryIndex;
+import co.edu.unbosque.quickcourier.cache.RefreshAheadKeyGenerator;
+import co.edu.unbosque.quickcourier.cache.ShippingExtraCatalog;
+import co.edu.unbosque.quickcourier.dto.request.ShippingQuoteItemRequestDTO;
+import co.edu.unbosque.quickcourier.dto.request.ShippingQuoteRequestDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingCalculationResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingExtraResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.ShippingQuoteItemResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.ShippingQuoteResponseDTO;
 import co.edu.unbosque.quickcourier.dto.response.ShippingRuleResponseDTO;
+import co.edu.unbosque.quickcourier.exception.BadRequestException;
 import co.edu.unbosque.quickcourier.exception.ResourceNotFoundException;
+import co.edu.unbosque.quickcourier.exception.UnauthorizedException;
 import co.edu.unbosque.quickcourier.mapper.DataMapper;
 import co.edu.unbosque.quickcourier.model.Order;
 import co.edu.unbosque.quickcourier.model.ShippingExtra;
 import co.edu.unbosque.quickcourier.model.ShippingRule;
+import co.edu.unbosque.quickcourier.repository.OrderRepository;
 import co.edu.unbosque.quickcourier.repository.ShippingExtraRepository;
 import co.edu.unbosque.quickcourier.repository.ShippingRuleRepository;
 import co.edu.unbosque.quickcourier.service.ShippingService;
+import co.edu.unbosque.quickcourier.strategy.ShippingContext;
+import co.edu.unbosque.quickcourier.strategy.ShippingRuleEngine;
+import co.edu.unbosque.quickcourier.strategy.ShippingRuleSnapshot;
 import co.edu.unbosque.quickcourier.strategy.ShippingStrategyFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -32,18 +59,39 @@ public class ShippingServiceImpl implements ShippingService {
     private static final Logger logger = LoggerFactory.getLogger(ShippingServiceImpl.class);
 
     private final ShippingStrategyFactory shippingStrategyFactory;
+    private final ShippingRuleEngine shippingRuleEngine;
     private final ShippingRuleRepository shippingRuleRepository;
     private final ShippingExtraRepository shippingExtraRepository;
+    private final OrderRepository orderRepository;
     private final DataMapper dataMapper;
+    private final OrderHistoryIndex orderHistoryIndex;
+    private final ShippingExtraCatalog extraCatalog;
+    private final Executor shippingQuoteExecutor;
+    private final int maxQuoteBatchSize;
+    private final int quoteChunkSize;
 
     public ShippingServiceImpl(ShippingStrategyFactory shippingStrategyFactory,
+                               ShippingRuleEngine shippingRuleEngine,
                                ShippingRuleRepository shippingRuleRepository,
                                ShippingExtraRepository shippingExtraRepository,
-                               DataMapper dataMapper) {
+                               OrderRepository orderRepository,
+                               DataMapper dataMapper,
+                               OrderHistoryIndex orderHistoryIndex,
+                               ShippingExtraCatalog extraCatalog,
+                               @Qualifier("shippingQuoteExecutor") Executor shippingQuoteExecutor,
+                               @Value("${shipping.quotes.max-batch-size:5000}") int maxQuoteBatchSize,
+                               @Value("${shipping.quotes.chunk-size:250}") int quoteChunkSize) {
         this.shippingStrategyFactory = shippingStrategyFactory;
+        this.shippingRuleEngine = shippingRuleEngine;
         this.shippingRuleRepository = shippingRuleRepository;
         this.shippingExtraRepository = shippingExtraRepository;
+        this.orderRepository = orderRepository;
         this.dataMapper = dataMapper;
+        this.orderHistoryIndex = orderHistoryIndex;
+        this.extraCatalog = extraCatalog;
+        this.shippingQuoteExecutor = shippingQuoteExecutor;
+        this.maxQuoteBatchSize = maxQuoteBatchSize;
+        this.quoteChunkSize = quoteChunkSize;
     }
 
     /**
@@ -81,9 +129,10 @@ public class ShippingServiceImpl implements ShippingService {
     /**
      * Obtiene todas las reglas de envío activas
      * Cache de 5 minutos porque estas reglas cambian frecuentemente
+     * Refresh-ahead: se recarga en segundo plano antes de vencer (cache.shipping-rules.refresh-after-write)
      */
     @Override
-    @Cacheable(value = "shippingRules", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "shippingRules", keyGenerator = RefreshAheadKeyGenerator.NAME, sync = true)
     public List<ShippingRuleResponseDTO> getActiveShippingRules() {
         logger.debug("Fetching active shipping rules");
 
@@ -125,9 +174,10 @@ public class ShippingServiceImpl implements ShippingService {
 
     /**
      * Obtiene un extra de envío por código
+     * Caché propia sin refresh-after-write: shippingExtras solo admite claves RefreshAheadKey
      */
     @Override
-    @Cacheable(value = "shippingExtras", key = "#code")
+    @Cacheable(value = "shippingExtrasByCode", key = "#code")
     public ShippingExtraResponseDTO getShippingExtraByCode(String code) {
         logger.debug("Fetching shipping extra: {}", code);
 
@@ -140,9 +190,10 @@ public class ShippingServiceImpl implements ShippingService {
 
     /**
      * Obtiene todos los extras de envío activos
+     * Refresh-ahead: se recarga en segundo plano antes de vencer (cache.shipping-extras.refresh-after-write)
      */
     @Override
-    @Cacheable(value = "shippingExtras", key = "'all'")
+    @Cacheable(value = "shippingExtras", keyGenerator = RefreshAheadKeyGenerator.NAME, sync = true)
     public List<ShippingExtraResponseDTO> getActiveShippingExtras() {
         logger.debug("Fetching all active shipping extras");
 
@@ -152,4 +203,181 @@ public class ShippingServiceImpl implements ShippingService {
                 .map(dataMapper::toShippingExtraResponseDTO)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Cotiza un lote de envíos hipotéticos
+     *
+     * - Todo el lote usa el mismo snapshot de reglas (versión incluida en la respuesta)
+     * - Extras y "primera compra" se resuelven con una consulta cada uno antes de cotizar;
+     *   los hilos de cálculo no tocan la base de datos
+     * - Sin transacción: no se abre contexto de persistencia durante el cálculo
+     * - Lotes grandes se dividen en bloques que se procesan en paralelo en un pool acotado
+     * - "Primera compra" se evalúa para el usuario autenticado: cotizar a nombre de otro
+     *   revelaría si ya compró, por eso solo ADMIN puede indicar otro userId
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ShippingQuoteResponseDTO quoteShipping(ShippingQuoteRequestDTO request, Long userId, boolean admin) {
+        List<ShippingQuoteItemRequestDTO> items = request.quotes();
+
+        if (items.size() > maxQuoteBatchSize) {
+            throw new BadRequestException(
+                    "Máximo " + maxQuoteBatchSize + " cotizaciones por solicitud, recibidas: " + items.size());
+        }
+
+        logger.debug("Quoting {} shipments", items.size());
+
+        Long[] userIds = resolveQuoteUserIds(items, userId, admin);
+        ShippingRuleSnapshot snapshot = shippingRuleEngine.currentSnapshot();
+        Map<String, ShippingExtra> extrasByCode = resolveQuoteExtras(items);
+        Set<Long> usersWithOrders = resolveUsersWithOrders(userIds);
+        LocalDateTime now = LocalDateTime.now();
+
+        ShippingQuoteItemResponseDTO[] results = new ShippingQuoteItemResponseDTO[items.size()];
+
+        if (items.size() <= quoteChunkSize) {
+            quoteRange(items, userIds, 0, items.size(), results, snapshot, extrasByCode, usersWithOrders, now);
+        } else {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int from = 0; from < items.size(); from += quoteChunkSize) {
+                int start = from;
+                int end = Math.min(from + quoteChunkSize, items.size());
+                chunks.add(CompletableFuture.runAsync(
+                        () -> quoteRange(items, userIds, start, end, results, snapshot, extrasByCode, usersWithOrders, now),
+                        shippingQuoteExecutor));
+            }
+
+            try {
+                CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        return new ShippingQuoteResponseDTO(snapshot.getVersion(), results.length, Arrays.asList(results));
+    }
+
+    private void quoteRange(List<ShippingQuoteItemRequestDTO> items, Long[] userIds, int from, int to,
+                            ShippingQuoteItemResponseDTO[] results,
+                            ShippingRuleSnapshot snapshot,
+                            Map<String, ShippingExtra> extrasByCode,
+                            Set<Long> usersWithOrders,
+                            LocalDateTime now) {
+        for (int i = from; i < to; i++) {
+            ShippingQuoteItemRequestDTO item = items.get(i);
+            Long quoteUserId = userIds[i];
+
+            ShippingContext context = new ShippingContext(
+                    item.reference(),
+                    item.zone(),
+                    item.weightKg(),
+                    item.subtotal(),
+                    quoteUserId,
+                    quoteUserId != null ? !usersWithOrders.contains(quoteUserId) : Boolean.FALSE,
+                    now,
+                    false
+            );
+
+            var result = shippingStrategyFactory.calculateShipping(context, snapshot);
+
+            BigDecimal extrasCost = BigDecimal.ZERO;
+            if (item.extraCodes() != null) {
+                for (String code : item.extraCodes()) {
+                    extrasCost = extrasCost.add(extrasByCode.get(code).calculatePrice(item.subtotal()));
+                }
+            }
+
+            results[i] = new ShippingQuoteItemResponseDTO(
+                    item.reference(),
+                    result.shippingCost(),
+                    extrasCost,
+                    result.shippingCost().add(extrasCost),
+                    result.appliedRuleCode(),
+                    result.appliedRuleName(),
+                    result.calculationDetails()
+            );
+        }
+    }
+
+    /**
+     * Usuario de cada cotización: el autenticado, salvo que un ADMIN indique otro
+     */
+    private Long[] resolveQuoteUserIds(List<ShippingQuoteItemRequestDTO> items, Long userId, boolean admin) {
+        Long[] userIds = new Long[items.size()];
+
+        for (int i = 0; i < userIds.length; i++) {
+            Long requested = items.get(i).userId();
+
+            if (requested == null || requested.equals(userId)) {
+                userIds[i] = userId;
+            } else if (admin) {
+                userIds[i] = requested;
+            } else {
+                throw new UnauthorizedException("Solo un administrador puede cotizar a nombre de otro usuario");
+            }
+        }
+
+        return userIds;
+    }
+
+    /**
+     * Resuelve contra el catálogo en memoria los extras usados por el lote y rechaza códigos desconocidos
+     */
+    private Map<String, ShippingExtra> resolveQuoteExtras(List<ShippingQuoteItemRequestDTO> items) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (ShippingQuoteItemRequestDTO item : items) {
+            if (item.extraCodes() == null) {
+                continue;
+            }
+            for (String code : item.extraCodes()) {
+                if (code == null) {
+                    throw new BadRequestException("Código de extra no puede ser vacío");
+                }
+                codes.add(code);
+            }
+        }
+
+        if (codes.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, ShippingExtra> extrasByCode = extraCatalog.findActiveByCodes(codes);
+
+        List<String> unknown = codes.stream()
+                .filter(code -> !extrasByCode.containsKey(code))
+                .collect(Collectors.toList());
+
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Extras de envío no encontrados o inactivos: " + unknown);
+        }
+
+        return extrasByCode;
+    }
+
+    /**
+     * Usuarios del lote que ya tienen pedidos (para la regla de primera compra)
+     * OrderHistoryIndex resuelve a los que ya compraron; solo el resto se consulta en la BD
+     */
+    private Set<Long> resolveUsersWithOrders(Long[] userIds) {
+        Set<Long> withOrders = new HashSet<>();
+        Set<Long> unknown = new HashSet<>();
+
+        for (Long userId : userIds) {
+            if (userId != null) {
+                (orderHistoryIndex.hasOrdered(userId) ? withOrders : unknown).add(userId);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            for (Long userId : orderRepository.findUserIdsWithOrders(unknown)) {
+                orderHistoryIndex.markOrdered(userId);
+                withOrders.add(userId);
+            }
+        }
+
+        return withOrders;
+    }
+}
@@ -0,0 +1,74 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.cache.OrderCacheEvictor;
+import co.edu.unbosque.quickcourier.model.Order;
+import co.edu.unbosque.quickcourier.model.OrderItem;
+import co.edu.unbosque.quickcourier.repository.OrderRepository;
+import co.edu.unbosque.quickcourier.service.StockHoldService;
+import co.edu.unbosque.quickcourier.service.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cada lote corre en su propia transacción: los pedidos quedan bloqueados
+ * (FOR UPDATE SKIP LOCKED) solo mientras se cancelan y se devuelve su stock
+ */
+@Service
+@Transactional
+public class StockHoldServiceImpl implements StockHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldServiceImpl.class);
+
+    private final OrderRepository orderRepository;
+    private final StockReservationService stockReservationService;
+    private final OrderCacheEvictor orderCacheEvictor;
+
+    public StockHoldServiceImpl(OrderRepository orderRepository,
+                                StockReservationService stockReservationService,
+                                OrderCacheEvictor orderCacheEvictor) {
+        this.orderRepository = orderRepository;
+        this.stockReservationService = stockReservationService;
+        this.orderCacheEvictor = orderCacheEvictor;
+    }
+
+    @Override
+    public int releaseExpiredHolds(int batchSize) {
+        List<Order> expired = orderRepository.lockExpiredHolds(LocalDateTime.now(), batchSize);
+
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<OrderItem> heldItems = new ArrayList<>();
+        for (Order order : expired) {
+            order.cancel();
+            heldItems.addAll(order.getItems());
+            orderCacheEvictor.evictOrderAfterCommit(order);
+            logger.info("Stock hold expired for order {}, order cancelled", order.getOrderNumber());
+        }
+
+        // Un solo UPDATE para todo el lote; antes hace flush de las cancelaciones
+        stockReservationService.release(heldItems);
+
+        return expired.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderRepository.StockUnits countStockUnits() {
+        return orderRepository.sumStockUnits();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderRepository.ProductStockUnits> countStockUnitsByProduct(int limit) {
+        return orderRepository.sumStockUnitsByProduct(PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,132 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.exception.ConflictException;
+import co.edu.unbosque.quickcourier.model.OrderItem;
+import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.repository.ProductRepository;
+import co.edu.unbosque.quickcourier.service.StockReservationService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementación de reservas de stock con un único UPDATE condicional por pedido
+ * (SET stock = stock - q WHERE id = v.id AND stock >= q, con las líneas en unnest)
+ *
+ * - Sin lectura-modificación-escritura en memoria: no hay sobreventa entre pedidos concurrentes
+ * - Un solo statement sin importar cuántas líneas tenga el pedido
+ * - Si algún producto no alcanza, la excepción revierte toda la transacción del pedido
+ *
+ * Los UPDATE hacen flush antes pero no limpian el contexto de persistencia (el pedido, el usuario
+ * y las relaciones lazy siguen utilizables). Los productos ya cargados reciben el stock nuevo
+ * en memoria y quedan de solo lectura, para que Hibernate no vuelva a escribir la fila;
+ * los proxies sin inicializar no se tocan y leen el valor actualizado al cargarse
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+
+    public StockReservationServiceImpl(ProductRepository productRepository, EntityManager entityManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void reserve(List<OrderItem> items) {
+        ProductLines lines = groupByProduct(items);
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        int updated = productRepository.decreaseStockIfAvailable(
+                lines.ids(), lines.quantities(), LocalDateTime.now());
+
+        if (updated != lines.size()) {
+            // Con las filas ya bloqueadas por OrderServiceImpl no debería pasar; el UPDATE es la garantía final
+            logger.warn("Stock reservation failed: {} of {} products updated", updated, lines.size());
+            throw new ConflictException("Stock insuficiente para uno o más productos del pedido");
+        }
+
+        syncLoadedProducts(items, -1);
+
+        logger.debug("Stock reserved for {} order items ({} products)", items.size(), lines.size());
+    }
+
+    @Override
+    public void release(List<OrderItem> items) {
+        ProductLines lines = groupByProduct(items);
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        productRepository.increaseStock(lines.ids(), lines.quantities(), LocalDateTime.now());
+        syncLoadedProducts(items, 1);
+
+        logger.debug("Stock released for {} order items ({} products)", items.size(), lines.size());
+    }
+
+    /**
+     * Aplica a los productos cargados el mismo cambio que hizo el UPDATE
+     * Sus filas están bloqueadas por esta transacción (FOR UPDATE o el propio UPDATE),
+     * así que el valor en memoria más la diferencia es el valor de la fila
+     */
+    private void syncLoadedProducts(List<OrderItem> items, int sign) {
+        Session session = entityManager.unwrap(Session.class);
+        Map<Product, Integer> quantities = new IdentityHashMap<>();
+
+        for (OrderItem item : items) {
+            Product product = item.getProduct();
+            if (Hibernate.isInitialized(product) && session.contains(product)) {
+                quantities.merge(product, item.getQuantity(), Integer::sum);
+            }
+        }
+
+        quantities.forEach((product, quantity) -> {
+            session.setReadOnly(product, true);
+            product.setStockQuantity(product.getStockQuantity() + sign * quantity);
+        });
+    }
+
+    /**
+     * Agrupa cantidades por producto (un mismo producto puede venir en varias líneas)
+     * Ordenadas por id, igual que el bloqueo de OrderServiceImpl, para evitar deadlocks
+     */
+    private ProductLines groupByProduct(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+
+        for (OrderItem item : items) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+
+        return new ProductLines(
+                quantities.keySet().toArray(Long[]::new),
+                quantities.values().toArray(Integer[]::new));
+    }
+
+    private record ProductLines(Long[] ids, Integer[] quantities) {
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean isEmpty() {
+            return ids.length == 0;
+        }
+    }
+}
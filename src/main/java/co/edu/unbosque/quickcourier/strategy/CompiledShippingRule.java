@@ -0,0 +1,33 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import java.time.LocalDateTime;
+
+/**
+ * Regla de envío precompilada e inmutable
+ * La configuración JSONB ya viene convertida al objeto tipado de su estrategia,
+ * por lo que evaluarla no requiere acceso a base de datos ni conversiones de tipos
+ *
+ * @param config Configuración tipada producida por {@link ShippingStrategy#compile}
+ */
+public record CompiledShippingRule(
+        Long id,
+        String code,
+        String name,
+        String ruleType,
+        int priority,
+        LocalDateTime validFrom,
+        LocalDateTime validUntil,
+        ShippingStrategy strategy,
+        Object config
+) {
+
+    /**
+     * Misma semántica que ShippingRule.isValidAt para una regla activa
+     */
+    public boolean isValidAt(LocalDateTime dateTime) {
+        if (validFrom != null && dateTime.isBefore(validFrom)) {
+            return false;
+        }
+        return validUntil == null || !dateTime.isAfter(validUntil);
+    }
+}
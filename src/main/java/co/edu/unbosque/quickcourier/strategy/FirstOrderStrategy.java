@@ -1,12 +1,14 @@
 package co.edu.unbosque.quickcourier.strategy;
 
 
-import co.edu.unbosque.quickcourier.model.Order;
+import co.edu.unbosque.quickcourier.cache.OrderHistoryIndex;
 import co.edu.unbosque.quickcourier.model.ShippingRule;
 import co.edu.unbosque.quickcourier.repository.OrderRepository;
+import co.edu.unbosque.quickcourier.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.Map;
@@ -15,6 +17,11 @@ import java.util.Map;
  * Estrategia de envío gratis para primera compra
  * Si es el primer pedido del usuario, el envío es gratuito
  *
+ * La elegibilidad se resuelve con OrderHistoryIndex en O(1) para usuarios que ya compraron;
+ * solo si el índice no lo sabe se consulta la BD. Al crear un pedido (context.placingOrder())
+ * además se bloquea la fila del usuario para que dos pedidos simultáneos del mismo usuario
+ * no obtengan ambos el envío gratis; las cotizaciones y consultas no bloquean
+ *
  * Configuración esperada en ShippingRule:
  * {
  *   "conditions": {
@@ -27,59 +34,76 @@ public class FirstOrderStrategy implements ShippingStrategy {
 
     private static final Logger logger = LoggerFactory.getLogger(FirstOrderStrategy.class);
     private static final String STRATEGY_TYPE = "FIRST_ORDER";
+    private static final String DESCRIPTION = "¡Envío GRATIS por primera compra! Bienvenido a QuickCourier";
 
     private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final OrderHistoryIndex orderHistoryIndex;
 
-    public FirstOrderStrategy(OrderRepository orderRepository) {
+    public FirstOrderStrategy(OrderRepository orderRepository,
+                              UserRepository userRepository,
+                              OrderHistoryIndex orderHistoryIndex) {
         this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.orderHistoryIndex = orderHistoryIndex;
     }
 
     @Override
-    public BigDecimal calculateShippingCost(Order order, ShippingRule rule) {
+    public Config compile(ShippingRule rule) {
+        Object conditionsObj = rule.getConfiguration().get("conditions");
+
+        if (!(conditionsObj instanceof Map<?, ?> conditions)) {
+            logger.warn("No conditions found in rule {} configuration", rule.getCode());
+            return new Config(false);
+        }
+
+        Object isFirstOrder = conditions.get("is_first_order");
+        return new Config(isFirstOrder != null && Boolean.parseBoolean(isFirstOrder.toString()));
+    }
+
+    @Override
+    public BigDecimal calculateShippingCost(ShippingContext context, CompiledShippingRule rule) {
         // Primera compra = Envío gratis
-        logger.info("First order shipping cost: FREE for user {}", order.getUser().getEmail());
+        logger.debug("First order shipping cost: FREE for user {}", context.userId());
         return BigDecimal.ZERO;
     }
 
     @Override
-    public boolean isApplicable(Order order, ShippingRule rule) {
-        // Verificar que la regla esté activa
-        if (!rule.isCurrentlyValid()) {
-            logger.debug("Rule {} is not currently valid", rule.getCode());
+    public boolean isApplicable(ShippingContext context, CompiledShippingRule rule) {
+        Config config = (Config) rule.config();
+
+        if (!config.firstOrderRequired()) {
+            logger.debug("First order condition not enabled");
             return false;
         }
 
-        // Verificar condición de configuración
-        @SuppressWarnings("unchecked")
-        Map<String, Object> conditions =
-                (Map<String, Object>) rule.getConfiguration().get("conditions");
-
-        if (conditions == null) {
-            logger.warn("No conditions found in rule configuration");
+        if (context.userId() == null) {
             return false;
         }
 
-        Boolean isFirstOrderRequired = (Boolean) conditions.get("is_first_order");
-        if (isFirstOrderRequired == null || !isFirstOrderRequired) {
-            logger.debug("First order condition not enabled");
+        // Si quien invoca ya resolvió el dato (p. ej. cotizaciones en lote) no se consulta nada
+        if (context.firstOrder() != null) {
+            return context.firstOrder();
+        }
+
+        if (orderHistoryIndex.hasOrdered(context.userId())) {
             return false;
         }
 
-        // Verificar si es el primer pedido del usuario
-        Long userId = order.getUser().getId();
-        long orderCount = orderRepository.countByUserId(userId);
+        // Posible primera compra al crear un pedido: confirmar contra la BD con la fila del usuario
+        // bloqueada. Un segundo pedido concurrente espera aquí y luego ve el primero ya guardado
+        if (context.placingOrder() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            userRepository.lockById(context.userId());
+        }
 
-        // Es el primer pedido si el conteo es 0 (este pedido aún no se ha guardado)
-        boolean isFirstOrder = orderCount == 0;
+        boolean isFirstOrder = !orderRepository.hasOrders(context.userId());
 
-        if (isFirstOrder) {
-            logger.info("First order detected for user {} - Free shipping applies",
-                    order.getUser().getEmail());
-        } else {
-            logger.debug("User {} already has {} orders",
-                    order.getUser().getEmail(), orderCount);
+        if (!isFirstOrder) {
+            orderHistoryIndex.markOrdered(context.userId());
         }
 
+        logger.debug("First order for user {}: {}", context.userId(), isFirstOrder);
+
         return isFirstOrder;
     }
 
@@ -89,7 +113,13 @@ public class FirstOrderStrategy implements ShippingStrategy {
     }
 
     @Override
-    public String getCalculationDescription(Order order, ShippingRule rule) {
-        return "¡Envío GRATIS por primera compra! Bienvenido a QuickCourier";
+    public String getCalculationDescription(ShippingContext context, CompiledShippingRule rule) {
+        return DESCRIPTION;
+    }
+
+    /**
+     * Configuración compilada de la regla
+     */
+    public record Config(boolean firstOrderRequired) {
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package co.edu.unbosque.quickcourier.strategy;
 
 
-import co.edu.unbosque.quickcourier.model.Order;
 import co.edu.unbosque.quickcourier.model.ShippingRule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,56 +26,53 @@ public class FlatRateZoneStrategy implements ShippingStrategy {
     private static final BigDecimal DEFAULT_FLAT_RATE = new BigDecimal("8000.00");
 
     @Override
-    public BigDecimal calculateShippingCost(Order order, ShippingRule rule) {
-        // Obtener tarifa plana de la configuración
+    public Config compile(ShippingRule rule) {
+        String zone = rule.getConfigValue("zone", String.class);
         Object flatRateObj = rule.getConfiguration().get("flat_rate");
 
-        if (flatRateObj == null) {
-            logger.debug("No flat_rate configured, using default: {}", DEFAULT_FLAT_RATE);
-            return DEFAULT_FLAT_RATE;
+        if (zone == null || zone.isBlank()) {
+            logger.warn("No zone configured in rule {}", rule.getCode());
         }
 
-        // Convertir a BigDecimal
         BigDecimal flatRate;
-        if (flatRateObj instanceof Number) {
-            flatRate = BigDecimal.valueOf(((Number) flatRateObj).doubleValue());
+        if (flatRateObj == null) {
+            logger.debug("No flat_rate configured in rule {}, using default: {}", rule.getCode(), DEFAULT_FLAT_RATE);
+            flatRate = DEFAULT_FLAT_RATE;
+        } else if (flatRateObj instanceof Number number) {
+            flatRate = BigDecimal.valueOf(number.doubleValue());
         } else {
             flatRate = new BigDecimal(flatRateObj.toString());
         }
 
-        logger.debug("Flat rate for zone {}: {}", order.getAddress().getZone(), flatRate);
-        return flatRate;
+        String description = String.format("Tarifa plana para zona %s: $%s",
+                zone != null ? zone : "N/A",
+                flatRateObj != null ? flatRateObj.toString() : "0");
+
+        return new Config(ZoneScopedConfig.normalize(zone), flatRate, description);
     }
 
     @Override
-    public boolean isApplicable(Order order, ShippingRule rule) {
-        // Verificar que la regla esté activa
-        if (!rule.isCurrentlyValid()) {
-            logger.debug("Rule {} is not currently valid", rule.getCode());
-            return false;
-        }
+    public BigDecimal calculateShippingCost(ShippingContext context, CompiledShippingRule rule) {
+        Config config = (Config) rule.config();
+
+        logger.debug("Flat rate for zone {}: {}", context.zone(), config.flatRate());
+        return config.flatRate();
+    }
 
-        // Obtener zona configurada en la regla
-        String configuredZone = rule.getConfigValue("zone", String.class);
+    @Override
+    public boolean isApplicable(ShippingContext context, CompiledShippingRule rule) {
+        Config config = (Config) rule.config();
 
-        if (configuredZone == null || configuredZone.isBlank()) {
-            logger.warn("No zone configured in rule {}", rule.getCode());
+        if (config.zoneKey() == null) {
             return false;
         }
 
-        // Obtener zona del pedido
-        String orderZone = order.getAddress().getZone();
+        // Verificar coincidencia de zona normalizada (el snapshot ya preselecciona por zona)
+        String orderZone = context.zone();
+        boolean matches = config.zoneKey().equals(ZoneScopedConfig.normalize(orderZone));
 
-        // Verificar coincidencia de zona (case-insensitive)
-        boolean matches = configuredZone.equalsIgnoreCase(orderZone);
-
-        if (matches) {
-            logger.debug("Flat rate zone matches: configured={}, order={}",
-                    configuredZone, orderZone);
-        } else {
-            logger.debug("Flat rate zone does not match: configured={}, order={}",
-                    configuredZone, orderZone);
-        }
+        logger.debug("Flat rate zone {}: configured={}, order={}",
+                matches ? "matches" : "does not match", config.zoneKey(), orderZone);
 
         return matches;
     }
@@ -87,12 +83,15 @@ public class FlatRateZoneStrategy implements ShippingStrategy {
     }
 
     @Override
-    public String getCalculationDescription(Order order, ShippingRule rule) {
-        String zone = rule.getConfigValue("zone", String.class);
-        Object flatRate = rule.getConfiguration().get("flat_rate");
+    public String getCalculationDescription(ShippingContext context, CompiledShippingRule rule) {
+        return ((Config) rule.config()).description();
+    }
 
-        return String.format("Tarifa plana para zona %s: $%s",
-                zone != null ? zone : "N/A",
-                flatRate != null ? flatRate.toString() : "0");
+    /**
+     * Configuración compilada de la regla
+     *
+     * @param zoneKey Zona configurada normalizada, null si la regla no tiene zona (nunca aplica)
+     */
+    public record Config(String zoneKey, BigDecimal flatRate, String description) implements ZoneScopedConfig {
     }
-}
\ No newline at end of file
+}
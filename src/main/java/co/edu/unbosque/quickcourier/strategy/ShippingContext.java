@@ -0,0 +1,54 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import co.edu.unbosque.quickcourier.model.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Datos mínimos que necesitan las estrategias para cotizar un envío
+ * Permite cotizar tanto pedidos reales como carritos hipotéticos sin construir entidades JPA
+ *
+ * @param reference Identificador para logs (número de pedido o referencia de la cotización)
+ * @param firstOrder Si ya se sabe que es la primera compra del usuario; null si debe consultarse
+ * @param placingOrder Si se está creando el pedido (no una cotización): solo entonces la
+ *                     elegibilidad de primera compra bloquea la fila del usuario
+ */
+public record ShippingContext(
+        String reference,
+        String zone,
+        BigDecimal totalWeightKg,
+        BigDecimal subtotal,
+        Long userId,
+        Boolean firstOrder,
+        LocalDateTime evaluatedAt,
+        boolean placingOrder
+) {
+
+    /**
+     * Contexto de solo lectura para un pedido existente o en preparación
+     */
+    public static ShippingContext fromOrder(Order order) {
+        return fromOrder(order, false);
+    }
+
+    /**
+     * Contexto del pedido que se está creando, dentro de su transacción
+     */
+    public static ShippingContext forNewOrder(Order order) {
+        return fromOrder(order, true);
+    }
+
+    private static ShippingContext fromOrder(Order order, boolean placingOrder) {
+        return new ShippingContext(
+                order.getOrderNumber(),
+                order.getAddress().getZone(),
+                order.getTotalWeightKg(),
+                order.getSubtotal(),
+                order.getUser().getId(),
+                null,
+                LocalDateTime.now(),
+                placingOrder
+        );
+    }
+}
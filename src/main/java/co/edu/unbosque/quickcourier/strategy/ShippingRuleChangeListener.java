@@ -0,0 +1,28 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import co.edu.unbosque.quickcourier.model.ShippingRule;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Listener JPA que invalida el snapshot de reglas cuando una ShippingRule cambia
+ * Hibernate lo instancia a través del contenedor de beans de Spring (inyección por constructor)
+ * Se resuelve el motor de forma diferida para no crear un ciclo con el EntityManagerFactory
+ */
+public class ShippingRuleChangeListener {
+
+    private final ObjectProvider<ShippingRuleEngine> ruleEngine;
+
+    public ShippingRuleChangeListener(ObjectProvider<ShippingRuleEngine> ruleEngine) {
+        this.ruleEngine = ruleEngine;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRuleChanged(ShippingRule rule) {
+        ruleEngine.ifAvailable(ShippingRuleEngine::invalidateAfterCommit);
+    }
+}
@@ -0,0 +1,217 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import co.edu.unbosque.quickcourier.model.ShippingRule;
+import co.edu.unbosque.quickcourier.repository.ShippingRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de reglas de envío en memoria
+ * Mantiene un ShippingRuleSnapshot inmutable con todas las reglas activas ya compiladas
+ *
+ * - Carga inicial al arrancar la aplicación
+ * - Cambios hechos por JPA (ShippingRuleChangeListener) marcan el snapshot como obsoleto al confirmar la transacción
+ * - Una verificación periódica (conteo + último updated_at) detecta cambios hechos fuera de la aplicación
+ * - La recarga construye un snapshot nuevo y lo publica con un solo set atómico;
+ *   mientras tanto los demás hilos siguen evaluando con el anterior
+ */
+@Component
+public class ShippingRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShippingRuleEngine.class);
+
+    private final Map<String, ShippingStrategy> strategies;
+    private final ShippingRuleRepository shippingRuleRepository;
+
+    private final AtomicReference<ShippingRuleSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile RuleSetFingerprint fingerprint;
+
+    /**
+     * Spring inyecta automáticamente todas las implementaciones de ShippingStrategy
+     */
+    public ShippingRuleEngine(List<ShippingStrategy> strategyList,
+                              ShippingRuleRepository shippingRuleRepository) {
+        this.strategies = strategyList.stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        ShippingStrategy::getStrategyType,
+                        Function.identity()
+                ));
+        this.shippingRuleRepository = shippingRuleRepository;
+
+        logger.info("ShippingRuleEngine initialized with {} strategies: {}",
+                strategies.size(), strategies.keySet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Snapshot vigente; si está marcado como obsoleto lo recarga primero
+     * Solo un hilo recarga, el resto continúa con el snapshot anterior si ya existe
+     */
+    public ShippingRuleSnapshot currentSnapshot() {
+        ShippingRuleSnapshot current = snapshot.get();
+
+        if (stale.get()) {
+            if (current == null) {
+                return reload();
+            }
+            if (reloadLock.tryLock()) {
+                try {
+                    if (stale.get()) {
+                        return doReload();
+                    }
+                } finally {
+                    reloadLock.unlock();
+                }
+            }
+            return snapshot.get();
+        }
+
+        return current;
+    }
+
+    /**
+     * Recarga y compila todas las reglas activas
+     */
+    public ShippingRuleSnapshot reload() {
+        reloadLock.lock();
+        try {
+            return doReload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Marca el snapshot como obsoleto cuando la transacción actual confirme
+     * Si no hay transacción activa se marca de inmediato
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.set(true);
+                }
+            });
+        } else {
+            stale.set(true);
+        }
+    }
+
+    /**
+     * Red de seguridad para cambios hechos directamente en la base de datos
+     * Compara conteo y último updated_at; solo recarga si cambiaron
+     */
+    @Scheduled(fixedDelayString = "${shipping.rules.refresh-interval-ms:60000}",
+            initialDelayString = "${shipping.rules.refresh-interval-ms:60000}")
+    public void refreshIfChanged() {
+        RuleSetFingerprint latest = readFingerprint();
+
+        if (!latest.equals(fingerprint)) {
+            logger.info("Shipping rules changed in database, reloading snapshot");
+            stale.set(true);
+            currentSnapshot();
+        }
+    }
+
+    public Map<String, ShippingStrategy> getStrategies() {
+        return strategies;
+    }
+
+    private ShippingRuleSnapshot doReload() {
+        // Se limpia antes de leer: un cambio confirmado durante la carga vuelve a marcarlo
+        stale.set(false);
+
+        RuleSetFingerprint loadedFingerprint = readFingerprint();
+        List<ShippingRule> rules = shippingRuleRepository.findAllActiveOrderByPriority();
+        List<CompiledShippingRule> compiled = new ArrayList<>(rules.size());
+
+        for (ShippingRule rule : rules) {
+            CompiledShippingRule compiledRule = compile(rule);
+            if (compiledRule != null) {
+                compiled.add(compiledRule);
+            }
+        }
+
+        compiled.sort(Comparator.comparingInt(CompiledShippingRule::priority)
+                .thenComparing(CompiledShippingRule::id, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        ShippingRuleSnapshot loaded = new ShippingRuleSnapshot(
+                versionSequence.incrementAndGet(), LocalDateTime.now(), compiled);
+
+        snapshot.set(loaded);
+        fingerprint = loadedFingerprint;
+
+        logger.info("Shipping rule snapshot v{} loaded: {} of {} active rules compiled, {} zones indexed",
+                loaded.getVersion(), loaded.size(), rules.size(), loaded.zoneCount());
+
+        return loaded;
+    }
+
+    private CompiledShippingRule compile(ShippingRule rule) {
+        ShippingStrategy strategy = strategies.get(rule.getRuleType());
+
+        if (strategy == null) {
+            logger.warn("No strategy found for rule type: {} (rule: {})",
+                    rule.getRuleType(), rule.getCode());
+            return null;
+        }
+
+        try {
+            Object config = strategy.compile(rule);
+
+            return new CompiledShippingRule(
+                    rule.getId(),
+                    rule.getCode(),
+                    rule.getName(),
+                    rule.getRuleType(),
+                    Objects.requireNonNullElse(rule.getPriority(), 0),
+                    rule.getValidFrom(),
+                    rule.getValidUntil(),
+                    strategy,
+                    config
+            );
+        } catch (RuntimeException e) {
+            logger.error("Invalid configuration for shipping rule {}, rule skipped: {}",
+                    rule.getCode(), e.getMessage());
+            return null;
+        }
+    }
+
+    private RuleSetFingerprint readFingerprint() {
+        return new RuleSetFingerprint(
+                shippingRuleRepository.count(),
+                shippingRuleRepository.findLastUpdatedAt().orElse(null)
+        );
+    }
+
+    private record RuleSetFingerprint(long count, LocalDateTime lastUpdatedAt) {
+    }
+}
@@ -0,0 +1,99 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto inmutable de reglas activas compiladas, ordenadas por prioridad
+ * Se reemplaza completo en cada recarga, nunca se modifica en sitio
+ *
+ * Las reglas con configuración {@link ZoneScopedConfig} se indexan por zona normalizada:
+ * cada zona tiene su lista de candidatas ya mezclada con las reglas sin zona,
+ * conservando el orden global de prioridad
+ */
+public final class ShippingRuleSnapshot {
+
+    private final long version;
+    private final LocalDateTime loadedAt;
+    private final CompiledShippingRule[] rules;
+    private final Map<String, CompiledShippingRule> rulesByCode;
+    private final CompiledShippingRule[] unscopedRules;
+    private final Map<String, CompiledShippingRule[]> rulesByZone;
+
+    ShippingRuleSnapshot(long version, LocalDateTime loadedAt, List<CompiledShippingRule> rules) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.rules = rules.toArray(new CompiledShippingRule[0]);
+
+        Map<String, CompiledShippingRule> byCode = new LinkedHashMap<>();
+        for (CompiledShippingRule rule : this.rules) {
+            byCode.put(rule.code(), rule);
+        }
+        this.rulesByCode = Collections.unmodifiableMap(byCode);
+
+        List<CompiledShippingRule> unscoped = new ArrayList<>();
+        Map<String, List<CompiledShippingRule>> byZone = new HashMap<>();
+
+        // Un solo recorrido en orden global: cada lista de zona recibe sus reglas y las
+        // reglas sin zona en el mismo orden relativo en que aparecen
+        for (CompiledShippingRule rule : this.rules) {
+            if (rule.config() instanceof ZoneScopedConfig scoped) {
+                if (scoped.zoneKey() != null) {
+                    byZone.computeIfAbsent(scoped.zoneKey(), key -> new ArrayList<>(unscoped)).add(rule);
+                }
+            } else {
+                unscoped.add(rule);
+                byZone.values().forEach(zoneRules -> zoneRules.add(rule));
+            }
+        }
+
+        this.unscopedRules = unscoped.toArray(new CompiledShippingRule[0]);
+        this.rulesByZone = new HashMap<>(byZone.size() * 2);
+        byZone.forEach((zone, zoneRules) ->
+                rulesByZone.put(zone, zoneRules.toArray(new CompiledShippingRule[0])));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Reglas candidatas para una zona de entrega, en orden de evaluación
+     * Para zonas sin reglas propias retorna solo las reglas sin zona
+     * Se expone el arreglo interno para iterar sin copias: no debe modificarse
+     */
+    CompiledShippingRule[] rulesForZone(String zone) {
+        String key = ZoneScopedConfig.normalize(zone);
+        if (key == null) {
+            return unscopedRules;
+        }
+        CompiledShippingRule[] zoneRules = rulesByZone.get(key);
+        return zoneRules != null ? zoneRules : unscopedRules;
+    }
+
+    public int zoneCount() {
+        return rulesByZone.size();
+    }
+
+    public List<CompiledShippingRule> getRules() {
+        return Collections.unmodifiableList(Arrays.asList(rules));
+    }
+
+    public CompiledShippingRule findByCode(String code) {
+        return rulesByCode.get(code);
+    }
+
+    public int size() {
+        return rules.length;
+    }
+}
@@ -1,7 +1,6 @@
 package co.edu.unbosque.quickcourier.strategy;
 
 
-import co.edu.unbosque.quickcourier.model.Order;
 import co.edu.unbosque.quickcourier.model.ShippingRule;
 
 import java.math.BigDecimal;
@@ -9,26 +8,40 @@ import java.math.BigDecimal;
 /**
  * Interface Strategy para cálculo de costo de envío
  * Permite implementar diferentes algoritmos de cálculo de manera intercambiable
+ *
+ * Cada estrategia compila una vez la configuración JSONB de la regla a un objeto tipado
+ * (ver ShippingRuleEngine) y luego evalúa pedidos sobre esa versión compilada
  */
 public interface ShippingStrategy {
 
     /**
-     * Calcula el costo de envío para un pedido
+     * Convierte la configuración de la regla a la configuración tipada de esta estrategia
+     * Se invoca solo al recargar el snapshot de reglas, nunca por pedido
      *
-     * @param order Pedido para calcular el envío
-     * @param rule Regla de envío con configuración específica
+     * @param rule Regla de envío con configuración JSONB
+     * @return Configuración tipada (queda disponible en CompiledShippingRule.config())
+     * @throws RuntimeException si la configuración es inválida; la regla se descarta
+     */
+    Object compile(ShippingRule rule);
+
+    /**
+     * Calcula el costo de envío para un pedido o cotización
+     *
+     * @param context Datos del envío a cotizar
+     * @param rule Regla compilada con configuración específica
      * @return Costo de envío calculado
      */
-    BigDecimal calculateShippingCost(Order order, ShippingRule rule);
+    BigDecimal calculateShippingCost(ShippingContext context, CompiledShippingRule rule);
 
     /**
      * Verifica si esta estrategia es aplicable al pedido
+     * La vigencia de la regla ya fue verificada por quien invoca
      *
-     * @param order Pedido a verificar
-     * @param rule Regla de envío
+     * @param context Datos del envío a verificar
+     * @param rule Regla compilada
      * @return true si la estrategia puede aplicarse
      */
-    boolean isApplicable(Order order, ShippingRule rule);
+    boolean isApplicable(ShippingContext context, CompiledShippingRule rule);
 
     /**
      * Retorna el tipo de estrategia que maneja
@@ -41,11 +54,11 @@ public interface ShippingStrategy {
     /**
      * Proporciona descripción del cálculo realizado
      *
-     * @param order Pedido
+     * @param context Datos del envío
      * @param rule Regla aplicada
      * @return Descripción del cálculo
      */
-    default String getCalculationDescription(Order order, ShippingRule rule) {
-        return "Cálculo de envío aplicando: " + rule.getName();
+    default String getCalculationDescription(ShippingContext context, CompiledShippingRule rule) {
+        return "Cálculo de envío aplicando: " + rule.name();
     }
-}
\ No newline at end of file
+}
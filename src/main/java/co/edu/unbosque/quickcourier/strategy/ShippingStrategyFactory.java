@@ -12,20 +12,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * Factory para seleccionar y aplicar la estrategia de envío apropiada
  * Implementa el patrón Strategy con selección dinámica basada en reglas de negocio
  *
  * Flujo de selección:
- * 1. Obtiene reglas activas ordenadas por prioridad
- * 2. Para cada regla, obtiene la estrategia correspondiente
- * 3. Verifica si la estrategia es aplicable al pedido
+ * 1. Toma del snapshot vigente (ShippingRuleEngine) las reglas candidatas para la zona del pedido,
+ *    ya ordenadas por prioridad
+ * 2. Descarta las reglas fuera de su ventana de vigencia
+ * 3. Verifica si la estrategia de la regla es aplicable al pedido
  * 4. Aplica la primera estrategia que cumpla las condiciones
  * 5. Si ninguna aplica, usa costo por defecto
+ *
+ * La evaluación se hace en memoria, sin consultar shipping_rule en cada pedido
  */
 @Component
 public class ShippingStrategyFactory {
@@ -33,26 +33,24 @@ public class ShippingStrategyFactory {
     private static final Logger logger = LoggerFactory.getLogger(ShippingStrategyFactory.class);
     private static final BigDecimal DEFAULT_SHIPPING_COST = new BigDecimal("10000.00");
 
-    private final Map<String, ShippingStrategy> strategies;
-    private final ShippingRuleRepository shippingRuleRepository;
-
     /**
-     * Constructor que auto-registra todas las estrategias disponibles
-     * Spring inyecta automáticamente todas las implementaciones de ShippingStrategy
+     * Costo de envío por defecto si ninguna regla aplica
      */
-    public ShippingStrategyFactory(List<ShippingStrategy> strategyList,
-                                   ShippingRuleRepository shippingRuleRepository) {
-        // Crear mapa de estrategias indexado por tipo
-        this.strategies = strategyList.stream()
-                .collect(Collectors.toMap(
-                        ShippingStrategy::getStrategyType,
-                        Function.identity()
-                ));
+    private static final ShippingCalculationResult DEFAULT_RESULT = new ShippingCalculationResult(
+            DEFAULT_SHIPPING_COST,
+            "DEFAULT",
+            "Tarifa estándar",
+            "Costo de envío estándar - Ninguna regla especial aplicable",
+            false
+    );
+
+    private final ShippingRuleEngine ruleEngine;
+    private final ShippingRuleRepository shippingRuleRepository;
 
+    public ShippingStrategyFactory(ShippingRuleEngine ruleEngine,
+                                   ShippingRuleRepository shippingRuleRepository) {
+        this.ruleEngine = ruleEngine;
         this.shippingRuleRepository = shippingRuleRepository;
-
-        logger.info("ShippingStrategyFactory initialized with {} strategies: {}",
-                strategies.size(), strategies.keySet());
     }
 
     /**
@@ -62,50 +60,70 @@ public class ShippingStrategyFactory {
      * @return Resultado del cálculo con detalles
      */
     public ShippingCalculationResult calculateShipping(Order order) {
-        logger.debug("Calculating shipping cost for order: {}", order.getOrderNumber());
+        return calculateShipping(order, ShippingContext.fromOrder(order));
+    }
 
-        // Obtener reglas activas ordenadas por prioridad (menor = mayor prioridad)
-        List<ShippingRule> activeRules = shippingRuleRepository
-                .findActiveAndValidRules(LocalDateTime.now());
+    /**
+     * Calcula el costo de envío del pedido que se está creando
+     * Igual que calculateShipping(Order), pero la regla FIRST_ORDER bloquea la fila del usuario
+     * para que dos pedidos simultáneos no obtengan ambos el envío gratis
+     * Debe invocarse dentro de la transacción que guarda el pedido
+     *
+     * @param order Pedido en creación
+     * @return Resultado del cálculo con detalles
+     */
+    public ShippingCalculationResult calculateShippingForNewOrder(Order order) {
+        return calculateShipping(order, ShippingContext.forNewOrder(order));
+    }
 
-        logger.debug("Found {} active shipping rules for order {}",
-                activeRules.size(), order.getOrderNumber());
+    private ShippingCalculationResult calculateShipping(Order order, ShippingContext context) {
+        ShippingCalculationResult result = calculateShipping(context, ruleEngine.currentSnapshot());
 
-        // Iterar por prioridad y aplicar la primera regla aplicable
-        for (ShippingRule rule : activeRules) {
-            ShippingStrategy strategy = strategies.get(rule.getRuleType());
+        if (result.ruleApplied()) {
+            logger.info("✓ Applied shipping rule '{}' to order {}. Cost: {}",
+                    result.appliedRuleCode(), order.getOrderNumber(), result.shippingCost());
+        } else {
+            logger.warn("✗ No applicable shipping rule found for order {}. Using default cost: {}",
+                    order.getOrderNumber(), result.shippingCost());
+        }
 
-            if (strategy == null) {
-                logger.warn("No strategy found for rule type: {} (rule: {})",
-                        rule.getRuleType(), rule.getCode());
-                continue;
-            }
+        return result;
+    }
 
-            logger.debug("Checking strategy {} with rule {}",
-                    strategy.getStrategyType(), rule.getCode());
+    /**
+     * Cotiza un envío contra un snapshot concreto de reglas
+     * No accede a la base de datos salvo que la estrategia FIRST_ORDER deba resolver
+     * context.firstOrder(); las cotizaciones en lote lo envían ya resuelto
+     *
+     * @param context Datos del envío
+     * @param snapshot Snapshot de reglas (permite cotizar un lote completo con la misma versión)
+     * @return Resultado del cálculo con detalles
+     */
+    public ShippingCalculationResult calculateShipping(ShippingContext context, ShippingRuleSnapshot snapshot) {
+        // Solo las reglas de la zona más las reglas sin zona, en orden de prioridad
+        CompiledShippingRule[] candidates = snapshot.rulesForZone(context.zone());
 
-            if (strategy.isApplicable(order, rule)) {
-                BigDecimal shippingCost = strategy.calculateShippingCost(order, rule);
-                String description = strategy.getCalculationDescription(order, rule);
+        // Iterar por prioridad y aplicar la primera regla vigente y aplicable
+        for (CompiledShippingRule rule : candidates) {
+            if (!rule.isValidAt(context.evaluatedAt())) {
+                continue;
+            }
 
-                logger.info("✓ Applied shipping rule '{}' (type: {}) to order {}. Cost: {}",
-                        rule.getCode(), rule.getRuleType(), order.getOrderNumber(), shippingCost);
+            ShippingStrategy strategy = rule.strategy();
 
+            if (strategy.isApplicable(context, rule)) {
                 return new ShippingCalculationResult(
-                        shippingCost,
-                        rule.getCode(),
-                        rule.getName(),
-                        description,
+                        strategy.calculateShippingCost(context, rule),
+                        rule.code(),
+                        rule.name(),
+                        strategy.getCalculationDescription(context, rule),
                         true
                 );
             }
         }
 
         // Si ninguna regla aplica, usar costo por defecto
-        logger.warn("✗ No applicable shipping rule found for order {}. Using default cost: {}",
-                order.getOrderNumber(), DEFAULT_SHIPPING_COST);
-
-        return getDefaultShippingCost(order);
+        return DEFAULT_RESULT;
     }
 
     /**
@@ -121,45 +139,52 @@ public class ShippingStrategyFactory {
     public ShippingCalculationResult calculateWithRule(Order order, String ruleCode) {
         logger.debug("Calculating shipping with specific rule: {}", ruleCode);
 
-        Optional<ShippingRule> ruleOpt = shippingRuleRepository.findByCode(ruleCode);
+        ShippingContext context = ShippingContext.fromOrder(order);
 
-        if (ruleOpt.isEmpty()) {
-            logger.error("Shipping rule not found: {}", ruleCode);
-            throw new IllegalArgumentException("Regla de envío no encontrada: " + ruleCode);
-        }
+        CompiledShippingRule rule = ruleEngine.currentSnapshot().findByCode(ruleCode);
 
-        ShippingRule rule = ruleOpt.get();
+        if (rule == null) {
+            // El snapshot solo contiene reglas activas y compilables: distinguir el motivo
+            ShippingRule stored = shippingRuleRepository.findByCode(ruleCode)
+                    .orElseThrow(() -> {
+                        logger.error("Shipping rule not found: {}", ruleCode);
+                        return new IllegalArgumentException("Regla de envío no encontrada: " + ruleCode);
+                    });
+
+            if (!Boolean.TRUE.equals(stored.getIsActive())) {
+                logger.error("Shipping rule is not active or valid: {}", ruleCode);
+                throw new IllegalStateException("Regla de envío no está activa: " + ruleCode);
+            }
+
+            logger.error("No strategy or invalid configuration for rule type: {} (rule: {})",
+                    stored.getRuleType(), ruleCode);
+            throw new IllegalStateException(
+                    "Estrategia no encontrada para tipo: " + stored.getRuleType());
+        }
 
-        if (!rule.isCurrentlyValid()) {
+        if (!rule.isValidAt(context.evaluatedAt())) {
             logger.error("Shipping rule is not active or valid: {}", ruleCode);
             throw new IllegalStateException("Regla de envío no está activa: " + ruleCode);
         }
 
-        ShippingStrategy strategy = strategies.get(rule.getRuleType());
+        ShippingStrategy strategy = rule.strategy();
 
-        if (strategy == null) {
-            logger.error("No strategy found for rule type: {} (rule: {})",
-                    rule.getRuleType(), ruleCode);
-            throw new IllegalStateException(
-                    "Estrategia no encontrada para tipo: " + rule.getRuleType());
-        }
-
-        if (!strategy.isApplicable(order, rule)) {
+        if (!strategy.isApplicable(context, rule)) {
             logger.warn("Strategy {} is not applicable for order {} with rule {}",
                     strategy.getStrategyType(), order.getOrderNumber(), ruleCode);
             throw new IllegalStateException("La regla no es aplicable a este pedido");
         }
 
-        BigDecimal shippingCost = strategy.calculateShippingCost(order, rule);
-        String description = strategy.getCalculationDescription(order, rule);
+        BigDecimal shippingCost = strategy.calculateShippingCost(context, rule);
+        String description = strategy.getCalculationDescription(context, rule);
 
         logger.info("Applied forced rule '{}' to order {}. Cost: {}",
                 ruleCode, order.getOrderNumber(), shippingCost);
 
         return new ShippingCalculationResult(
                 shippingCost,
-                rule.getCode(),
-                rule.getName(),
+                rule.code(),
+                rule.name(),
                 description,
                 true
         );
@@ -170,7 +195,7 @@ public class ShippingStrategyFactory {
      * Útil para debugging o monitoring
      */
     public Map<String, ShippingStrategy> getAvailableStrategies() {
-        return Map.copyOf(strategies);
+        return ruleEngine.getStrategies();
     }
 
     /**
@@ -180,19 +205,6 @@ public class ShippingStrategyFactory {
         return shippingRuleRepository.findActiveAndValidRules(LocalDateTime.now());
     }
 
-    /**
-     * Costo de envío por defecto si ninguna regla aplica
-     */
-    private ShippingCalculationResult getDefaultShippingCost(Order order) {
-        return new ShippingCalculationResult(
-                DEFAULT_SHIPPING_COST,
-                "DEFAULT",
-                "Tarifa estándar",
-                "Costo de envío estándar - Ninguna regla especial aplicable",
-                false
-        );
-    }
-
     /**
      * Record para encapsular el resultado del cálculo de envío
      * Proporciona toda la información necesaria para el pedido y para auditoría
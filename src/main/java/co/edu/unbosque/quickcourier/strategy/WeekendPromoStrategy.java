@@ -1,7 +1,8 @@
 package co.edu.unbosque.quickcourier.strategy;
 
-import co.edu.unbosque.quickcourier.model.Order;
 import co.edu.unbosque.quickcourier.model.ShippingRule;
+import co.edu.unbosque.quickcourier.pricing.Money;
+import co.edu.unbosque.quickcourier.pricing.Weight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -9,8 +10,11 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.DayOfWeek;
-import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Estrategia de descuento para fines de semana
@@ -29,58 +33,89 @@ public class WeekendPromoStrategy implements ShippingStrategy {
     private static final String STRATEGY_TYPE = "WEEKEND_PROMO";
     private static final BigDecimal BASE_SHIPPING_COST = new BigDecimal("10000.00");
     private static final BigDecimal RATE_PER_KG = new BigDecimal("2000.00");
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final long BASE_SHIPPING_COST_CENTS = Money.toCents(BASE_SHIPPING_COST);
+    private static final long RATE_PER_KG_CENTS = Money.toCents(RATE_PER_KG);
+    private static final double DEFAULT_DISCOUNT_PERCENTAGE = 20.0;
 
     @Override
-    public BigDecimal calculateShippingCost(Order order, ShippingRule rule) {
-        // Obtener descuento de la configuración
+    public Config compile(ShippingRule rule) {
         Double discountPercentage = rule.getConfigValue("discount_percentage", Double.class);
         if (discountPercentage == null) {
-            discountPercentage = 20.0; // Default 20%
+            discountPercentage = DEFAULT_DISCOUNT_PERCENTAGE;
+        }
+
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (rule.getConfiguration().get("applicable_days") instanceof List<?> applicableDays) {
+            for (Object day : applicableDays) {
+                try {
+                    days.add(DayOfWeek.valueOf(day.toString().trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ignoring invalid day '{}' in rule {}", day, rule.getCode());
+                }
+            }
+        }
+        if (days.isEmpty()) {
+            days = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        }
+
+        String description = String.format("Promo fin de semana - Descuento del %d%% aplicado",
+                discountPercentage.intValue());
+
+        BigDecimal discount = BigDecimal.valueOf(discountPercentage);
+        boolean minorUnits = Money.isCentExact(discount);
+
+        return new Config(
+                discount,
+                minorUnits,
+                minorUnits ? Money.toBasisPoints(discount) : 0,
+                Collections.unmodifiableSet(days),
+                description
+        );
+    }
+
+    @Override
+    public BigDecimal calculateShippingCost(ShippingContext context, CompiledShippingRule rule) {
+        Config config = (Config) rule.config();
+        BigDecimal weight = context.totalWeightKg();
+
+        if (config.minorUnits() && Weight.isGramExact(weight)) {
+            // Costo base según peso y descuento redondeado HALF_UP, en centavos
+            long baseCents = BASE_SHIPPING_COST_CENTS + Weight.costOf(Weight.toGrams(weight), RATE_PER_KG_CENTS);
+            long discountCents = Money.percentOf(baseCents, config.discountBasisPoints());
+            long finalCents = baseCents - discountCents;
+            if (finalCents < 0) {
+                return BigDecimal.ZERO;
+            }
+            // Misma escala que baseCost - discount en BigDecimal (la del peso por la tarifa, mínimo 2)
+            int scale = Math.max(BASE_SHIPPING_COST.scale(), weight.scale() + RATE_PER_KG.scale());
+            return Money.fromCents(finalCents, scale);
         }
 
         // Calcular costo base según peso
-        BigDecimal baseCost = calculateBaseCostByWeight(order);
+        BigDecimal baseCost = calculateBaseCostByWeight(context.totalWeightKg());
 
         // Aplicar descuento
-        BigDecimal discount = baseCost.multiply(BigDecimal.valueOf(discountPercentage))
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        BigDecimal discount = baseCost.multiply(config.discountPercentage())
+                .divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP);
 
         BigDecimal finalCost = baseCost.subtract(discount);
 
         logger.debug("Weekend promo applied: base={}, discount={}%, final={}",
-                baseCost, discountPercentage, finalCost);
+                baseCost, config.discountPercentage(), finalCost);
 
         return finalCost.max(BigDecimal.ZERO);
     }
 
     @Override
-    public boolean isApplicable(Order order, ShippingRule rule) {
-        // Verificar que la regla esté activa
-        if (!rule.isCurrentlyValid()) {
-            logger.debug("Rule {} is not currently valid", rule.getCode());
-            return false;
-        }
+    public boolean isApplicable(ShippingContext context, CompiledShippingRule rule) {
+        Config config = (Config) rule.config();
 
-        // Obtener días aplicables de la configuración
-        @SuppressWarnings("unchecked")
-        List<String> applicableDays = (List<String>) rule.getConfiguration().get("applicable_days");
+        // Verificar si el día de la evaluación es aplicable
+        DayOfWeek currentDay = context.evaluatedAt().getDayOfWeek();
+        boolean isApplicable = config.applicableDays().contains(currentDay);
 
-        if (applicableDays == null || applicableDays.isEmpty()) {
-            applicableDays = List.of("SATURDAY", "SUNDAY");
-        }
-
-        // Verificar si hoy es un día aplicable
-        LocalDateTime now = LocalDateTime.now();
-        DayOfWeek currentDay = now.getDayOfWeek();
-
-        boolean isApplicable = applicableDays.stream()
-                .anyMatch(day -> day.equalsIgnoreCase(currentDay.name()));
-
-        if (isApplicable) {
-            logger.debug("Weekend promo is applicable for day: {}", currentDay);
-        } else {
-            logger.debug("Weekend promo not applicable for day: {}", currentDay);
-        }
+        logger.debug("Weekend promo {} for day: {}", isApplicable ? "is applicable" : "not applicable", currentDay);
 
         return isApplicable;
     }
@@ -91,17 +126,28 @@ public class WeekendPromoStrategy implements ShippingStrategy {
     }
 
     @Override
-    public String getCalculationDescription(Order order, ShippingRule rule) {
-        Double discountPercentage = rule.getConfigValue("discount_percentage", Double.class);
-        return String.format("Promo fin de semana - Descuento del %d%% aplicado",
-                discountPercentage != null ? discountPercentage.intValue() : 20);
+    public String getCalculationDescription(ShippingContext context, CompiledShippingRule rule) {
+        return ((Config) rule.config()).description();
     }
 
     /**
      * Calcula costo base según peso del pedido
      */
-    private BigDecimal calculateBaseCostByWeight(Order order) {
-        BigDecimal weight = order.getTotalWeightKg();
+    private BigDecimal calculateBaseCostByWeight(BigDecimal weight) {
         return BASE_SHIPPING_COST.add(weight.multiply(RATE_PER_KG));
     }
-}
\ No newline at end of file
+
+    /**
+     * Configuración compilada de la regla
+     *
+     * @param minorUnits true si el porcentaje es exacto en puntos básicos (habilita el cálculo en long)
+     */
+    public record Config(
+            BigDecimal discountPercentage,
+            boolean minorUnits,
+            long discountBasisPoints,
+            Set<DayOfWeek> applicableDays,
+            String description
+    ) {
+    }
+}
@@ -1,8 +1,9 @@
 package co.edu.unbosque.quickcourier.strategy;
 
 
-import co.edu.unbosque.quickcourier.model.Order;
 import co.edu.unbosque.quickcourier.model.ShippingRule;
+import co.edu.unbosque.quickcourier.pricing.Money;
+import co.edu.unbosque.quickcourier.pricing.Weight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -21,6 +22,9 @@ import java.math.RoundingMode;
  *   "rate_per_kg": 2000,
  *   "free_shipping_threshold_kg": 10
  * }
+ *
+ * Si las tarifas son exactas en centavos y el peso en gramos el cálculo se hace en long;
+ * si no, en BigDecimal con el mismo redondeo
  */
 @Component
 public class WeightBasedStrategy implements ShippingStrategy {
@@ -32,55 +36,79 @@ public class WeightBasedStrategy implements ShippingStrategy {
     private static final BigDecimal DEFAULT_FREE_THRESHOLD = new BigDecimal("10.0");
 
     @Override
-    public BigDecimal calculateShippingCost(Order order, ShippingRule rule) {
-        BigDecimal totalWeight = order.getTotalWeightKg();
-
-        // Obtener configuración
+    public Config compile(ShippingRule rule) {
         Double baseRate = rule.getConfigValue("base_rate", Double.class);
         Double ratePerKg = rule.getConfigValue("rate_per_kg", Double.class);
         Double freeShippingThreshold = rule.getConfigValue("free_shipping_threshold_kg", Double.class);
 
         // Aplicar defaults si no están configurados
-        BigDecimal baseRateValue = baseRate != null
-                ? BigDecimal.valueOf(baseRate)
-                : DEFAULT_BASE_RATE;
-
-        BigDecimal ratePerKgValue = ratePerKg != null
-                ? BigDecimal.valueOf(ratePerKg)
-                : DEFAULT_RATE_PER_KG;
-
+        BigDecimal baseRateValue = baseRate != null ? BigDecimal.valueOf(baseRate) : DEFAULT_BASE_RATE;
+        BigDecimal ratePerKgValue = ratePerKg != null ? BigDecimal.valueOf(ratePerKg) : DEFAULT_RATE_PER_KG;
         BigDecimal freeShippingThresholdValue = freeShippingThreshold != null
                 ? BigDecimal.valueOf(freeShippingThreshold)
                 : DEFAULT_FREE_THRESHOLD;
 
+        // Sin umbral configurado el envío igual es gratis desde el umbral por defecto,
+        // pero la descripción sigue siendo la del cálculo por peso
+        String freeDescription = freeShippingThreshold != null
+                ? String.format("¡Envío GRATIS! Peso supera %.2f kg", freeShippingThreshold)
+                : null;
+        String ratePrefix = String.format("Cálculo por peso: Base $%.0f + $%.0f por kg (Total: ",
+                baseRateValue.doubleValue(), ratePerKgValue.doubleValue());
+
+        boolean minorUnits = Money.isCentExact(baseRateValue) && Money.isCentExact(ratePerKgValue);
+
+        return new Config(
+                baseRateValue,
+                ratePerKgValue,
+                freeShippingThresholdValue,
+                minorUnits,
+                minorUnits ? Money.toCents(baseRateValue) : 0,
+                minorUnits ? Money.toCents(ratePerKgValue) : 0,
+                Weight.ceilGrams(freeShippingThresholdValue),
+                freeDescription,
+                ratePrefix
+        );
+    }
+
+    @Override
+    public BigDecimal calculateShippingCost(ShippingContext context, CompiledShippingRule rule) {
+        Config config = (Config) rule.config();
+        BigDecimal totalWeight = context.totalWeightKg();
+
+        if (config.minorUnits() && Weight.isGramExact(totalWeight)) {
+            long grams = Weight.toGrams(totalWeight);
+
+            // Si supera el umbral, envío gratis
+            if (grams >= config.freeShippingThresholdGrams()) {
+                return BigDecimal.ZERO;
+            }
+
+            // base_rate + (peso * rate_per_kg), redondeado HALF_UP a centavos
+            return Money.fromCents(config.baseRateCents() + Weight.costOf(grams, config.ratePerKgCents()));
+        }
+
         // Si supera el umbral, envío gratis
-        if (totalWeight.compareTo(freeShippingThresholdValue) >= 0) {
-            logger.info("Weight {} kg exceeds free shipping threshold {} kg - FREE SHIPPING",
-                    totalWeight, freeShippingThresholdValue);
+        if (totalWeight.compareTo(config.freeShippingThresholdKg()) >= 0) {
+            logger.debug("Weight {} kg exceeds free shipping threshold {} kg - FREE SHIPPING",
+                    totalWeight, config.freeShippingThresholdKg());
             return BigDecimal.ZERO;
         }
 
         // Calcular: base_rate + (peso * rate_per_kg)
-        BigDecimal weightCost = totalWeight.multiply(ratePerKgValue);
-        BigDecimal totalCost = baseRateValue.add(weightCost);
+        BigDecimal weightCost = totalWeight.multiply(config.ratePerKg());
+        BigDecimal totalCost = config.baseRate().add(weightCost);
 
         logger.debug("Weight-based calculation: base={}, weight={}kg, rate_per_kg={}, total={}",
-                baseRateValue, totalWeight, ratePerKgValue, totalCost);
+                config.baseRate(), totalWeight, config.ratePerKg(), totalCost);
 
         return totalCost.setScale(2, RoundingMode.HALF_UP);
     }
 
     @Override
-    public boolean isApplicable(Order order, ShippingRule rule) {
-        // Verificar que la regla esté activa
-        if (!rule.isCurrentlyValid()) {
-            logger.debug("Rule {} is not currently valid", rule.getCode());
-            return false;
-        }
-
+    public boolean isApplicable(ShippingContext context, CompiledShippingRule rule) {
         // Esta estrategia siempre es aplicable si está activa
         // Es la estrategia "por defecto" con menor prioridad
-        logger.debug("Weight-based strategy is applicable (default fallback)");
         return true;
     }
 
@@ -90,21 +118,33 @@ public class WeightBasedStrategy implements ShippingStrategy {
     }
 
     @Override
-    public String getCalculationDescription(Order order, ShippingRule rule) {
-        BigDecimal totalWeight = order.getTotalWeightKg();
-        Double freeShippingThreshold = rule.getConfigValue("free_shipping_threshold_kg", Double.class);
+    public String getCalculationDescription(ShippingContext context, CompiledShippingRule rule) {
+        Config config = (Config) rule.config();
+        BigDecimal totalWeight = context.totalWeightKg();
 
-        if (freeShippingThreshold != null &&
-                totalWeight.compareTo(BigDecimal.valueOf(freeShippingThreshold)) >= 0) {
-            return String.format("¡Envío GRATIS! Peso supera %.2f kg", freeShippingThreshold);
+        if (config.freeDescription() != null && totalWeight.compareTo(config.freeShippingThresholdKg()) >= 0) {
+            return config.freeDescription();
         }
 
-        Double baseRate = rule.getConfigValue("base_rate", Double.class);
-        Double ratePerKg = rule.getConfigValue("rate_per_kg", Double.class);
+        return config.rateDescriptionPrefix() + String.format("%.2f kg)", totalWeight.doubleValue());
+    }
 
-        return String.format("Cálculo por peso: Base $%.0f + $%.0f por kg (Total: %.2f kg)",
-                baseRate != null ? baseRate : DEFAULT_BASE_RATE.doubleValue(),
-                ratePerKg != null ? ratePerKg : DEFAULT_RATE_PER_KG.doubleValue(),
-                totalWeight.doubleValue());
+    /**
+     * Configuración compilada de la regla, con los textos de descripción ya formateados
+     *
+     * @param minorUnits true si las tarifas son exactas en centavos (habilita el cálculo en long)
+     * @param freeDescription Descripción del envío gratis; null si la regla no configura umbral
+     */
+    public record Config(
+            BigDecimal baseRate,
+            BigDecimal ratePerKg,
+            BigDecimal freeShippingThresholdKg,
+            boolean minorUnits,
+            long baseRateCents,
+            long ratePerKgCents,
+            long freeShippingThresholdGrams,
+            String freeDescription,
+            String rateDescriptionPrefix
+    ) {
     }
-}
\ No newline at end of file
+}
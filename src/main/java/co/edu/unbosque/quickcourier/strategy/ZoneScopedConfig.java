@@ -0,0 +1,23 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import java.util.Locale;
+
+/**
+ * Configuración compilada de una regla que solo aplica a una zona de entrega
+ * ShippingRuleSnapshot la usa para indexar la regla por zona en lugar de evaluarla en todos los pedidos
+ */
+public interface ZoneScopedConfig {
+
+    /**
+     * Zona normalizada (ver {@link #normalize}); null si la regla no tiene zona y nunca aplica
+     */
+    String zoneKey();
+
+    static String normalize(String zone) {
+        if (zone == null) {
+            return null;
+        }
+        String trimmed = zone.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
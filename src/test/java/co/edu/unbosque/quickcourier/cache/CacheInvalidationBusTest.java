@@ -0,0 +1,230 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos nodos simulados: dos buses con sus cachés sobre el mismo InProcessCacheInvalidationTransport
+ * El flush periódico queda fuera de juego (intervalo de una hora): cada prueba llama a flush()
+ */
+class CacheInvalidationBusTest {
+
+    private static final String CACHE = "products";
+    private static final int MAX_KEYS = 3;
+
+    private final RecordingTransport transport = new RecordingTransport();
+
+    private CacheInvalidationBus busA;
+    private CacheInvalidationBus busB;
+    private CoherentCaffeineCache cacheA;
+    private CoherentCaffeineCache cacheB;
+
+    @BeforeEach
+    void startNodes() {
+        busA = bus();
+        busB = bus();
+        cacheA = cache(busA);
+        cacheB = cache(busB);
+        busA.start();
+        busB.start();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        busA.stop();
+        busB.stop();
+    }
+
+    @Test
+    void evictReachesTheOtherNodeOnFlush() {
+        cacheA.put(1L, "A");
+        cacheB.put(1L, "B");
+
+        cacheA.evict(1L);
+        assertThat(cacheA.get(1L)).isNull();
+        assertThat(cacheB.get(1L)).isNotNull();
+
+        busA.flush();
+
+        assertThat(cacheB.get(1L)).isNull();
+    }
+
+    @Test
+    void nodeIgnoresItsOwnMessages() {
+        cacheA.evict(1L);
+        // Recargado antes del flush: el mensaje propio no debe volver a invalidarlo
+        cacheA.put(1L, "A");
+
+        busA.flush();
+
+        assertThat(cacheA.get(1L)).isNotNull();
+    }
+
+    @Test
+    void burstIsCoalescedIntoOneMessagePerFlush() {
+        for (long id = 1; id <= MAX_KEYS; id++) {
+            cacheB.put(id, "B");
+            cacheA.evict(id);
+        }
+        cacheA.evict(1L);
+
+        busA.flush();
+        busA.flush();
+
+        assertThat(transport.published).hasSize(1);
+        for (long id = 1; id <= MAX_KEYS; id++) {
+            assertThat(cacheB.get(id)).isNull();
+        }
+    }
+
+    @Test
+    void tooManyKeysBecomeAClear() {
+        cacheB.put(99L, "B");
+
+        for (long id = 1; id <= MAX_KEYS + 1; id++) {
+            cacheA.evict(id);
+        }
+        busA.flush();
+
+        assertThat(transport.published).singleElement().asString().contains("\"clear\":[\"" + CACHE + "\"]");
+        assertThat(cacheB.get(99L)).isNull();
+    }
+
+    @Test
+    void transactionalEvictIsSentOnlyAfterCommit() {
+        cacheB.put(1L, "B");
+
+        inTransaction(true, () -> {
+            cacheA.evict(1L);
+            busA.flush();
+            assertThat(transport.published).isEmpty();
+        });
+        busA.flush();
+
+        assertThat(transport.published).hasSize(1);
+        assertThat(cacheB.get(1L)).isNull();
+    }
+
+    @Test
+    void rolledBackEvictIsNeverSent() {
+        cacheB.put(1L, "B");
+
+        inTransaction(false, () -> cacheA.evict(1L));
+        busA.flush();
+
+        assertThat(transport.published).isEmpty();
+        assertThat(cacheB.get(1L)).isNotNull();
+        assertThat(TransactionSynchronizationManager.hasResource(busA)).isFalse();
+    }
+
+    @Test
+    void reconnectClearsCoherentCachesAndNotifiesListeners() {
+        AtomicInteger notified = new AtomicInteger();
+        busB.onRemoteClear(CACHE, notified::incrementAndGet);
+        cacheB.put(1L, "B");
+
+        transport.reconnect(1);
+
+        assertThat(cacheB.get(1L)).isNull();
+        assertThat(notified).hasValue(1);
+    }
+
+    @Test
+    void unsupportedKeyClearsTheCacheOnOtherNodes() {
+        cacheB.put(99L, "B");
+
+        cacheA.evict(new SimpleKey("sku", 7));
+        busA.flush();
+
+        assertThat(cacheB.get(99L)).isNull();
+    }
+
+    @Test
+    void remoteClearNotifiesListenersOnlyOnOtherNodes() {
+        AtomicInteger notifiedA = new AtomicInteger();
+        AtomicInteger notifiedB = new AtomicInteger();
+        busA.onRemoteClear(CACHE, notifiedA::incrementAndGet);
+        busB.onRemoteClear(CACHE, notifiedB::incrementAndGet);
+
+        cacheA.clear();
+        busA.flush();
+
+        assertThat(notifiedA).hasValue(0);
+        assertThat(notifiedB).hasValue(1);
+    }
+
+    @Test
+    void keysRoundTrip() {
+        for (Object key : List.of("sku-1", 42L, 7)) {
+            assertThat(CacheInvalidationBus.decodeKey(CacheInvalidationBus.encodeKey(key))).isEqualTo(key);
+        }
+        assertThat(CacheInvalidationBus.encodeKey(new SimpleKey("a", 1))).isNull();
+        assertThat(CacheInvalidationBus.decodeKey("L:no-es-numero")).isNull();
+    }
+
+    private CacheInvalidationBus bus() {
+        return new CacheInvalidationBus(transport, new ObjectMapper(), true, Set.of(CACHE), MAX_KEYS, 3_600_000L);
+    }
+
+    private static CoherentCaffeineCache cache(CacheInvalidationBus bus) {
+        return new CoherentCaffeineCache(CACHE, Caffeine.newBuilder().build(), true, bus);
+    }
+
+    /**
+     * Simula el ciclo de una transacción: confirmada (afterCommit y afterCompletion) o revertida
+     */
+    private static void inTransaction(boolean commit, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Transporte en memoria que además registra lo publicado y permite simular una reconexión
+     */
+    private static final class RecordingTransport extends InProcessCacheInvalidationTransport {
+
+        private final List<String> published = new ArrayList<>();
+        private final List<Runnable> reconnectHandlers = new ArrayList<>();
+
+        @Override
+        public void publish(String payload) {
+            published.add(payload);
+            super.publish(payload);
+        }
+
+        @Override
+        public void start(Consumer<List<String>> onMessages, Runnable onReconnect) {
+            reconnectHandlers.add(onReconnect);
+            super.start(onMessages, onReconnect);
+        }
+
+        void reconnect(int node) {
+            reconnectHandlers.get(node).run();
+        }
+    }
+}
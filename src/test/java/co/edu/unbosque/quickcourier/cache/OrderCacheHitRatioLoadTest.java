@@ -0,0 +1,147 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.dto.request.CreateOrderRequestDTO;
+import co.edu.unbosque.quickcourier.dto.request.OrderItemRequestDTO;
+import co.edu.unbosque.quickcourier.model.Address;
+import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.model.User;
+import co.edu.unbosque.quickcourier.service.OrderService;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import co.edu.unbosque.quickcourier.support.TestData;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga mixta de lectura/escritura sobre las cachés de pedidos (90% lecturas, 10% pedidos nuevos)
+ *
+ * Compara el hit ratio de orders + orderSummaries con la invalidación dirigida de OrderCacheEvictor
+ * contra el comportamiento anterior (allEntries = true), simulado vaciando ambas cachés en cada escritura
+ */
+class OrderCacheHitRatioLoadTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCacheHitRatioLoadTest.class);
+
+    private static final int USERS = 40;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 500;
+    private static final int WRITE_PERCENT = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TestData testData;
+
+    private final List<Customer> customers = new ArrayList<>();
+
+    @BeforeEach
+    void createCustomers() {
+        Product product = testData.product(1_000_000);
+        for (int i = 0; i < USERS; i++) {
+            User user = testData.user();
+            Address address = testData.address(user);
+            CreateOrderRequestDTO request = new CreateOrderRequestDTO(
+                    address.getId(), List.of(new OrderItemRequestDTO(product.getId(), 1)), null);
+            Long orderId = orderService.createOrder(request, user.getId()).id();
+            customers.add(new Customer(user.getId(), orderId, request));
+        }
+    }
+
+    @Test
+    void targetedEvictionKeepsOtherUsersEntriesCached() throws Exception {
+        double wipeAll = runWorkload(this::clearOrderCaches);
+        double targeted = runWorkload(() -> { });
+
+        logger.info("Order cache hit ratio: allEntries={}, targeted={}",
+                String.format("%.3f", wipeAll), String.format("%.3f", targeted));
+
+        assertThat(targeted).isGreaterThan(0.75);
+        assertThat(targeted).isGreaterThan(wipeAll + 0.3);
+    }
+
+    /**
+     * Ejecuta la carga con cachés vacías y devuelve el hit ratio combinado de orders y orderSummaries
+     *
+     * @param afterWrite Acción extra tras cada pedido nuevo (vaciar todo simula la invalidación anterior)
+     */
+    private double runWorkload(Runnable afterWrite) throws Exception {
+        clearOrderCaches();
+        CacheStats ordersBefore = stats(CacheKeys.ORDERS);
+        CacheStats summariesBefore = stats(CacheKeys.ORDER_SUMMARIES);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                SplittableRandom random = new SplittableRandom(t);
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        Customer customer = customers.get(random.nextInt(customers.size()));
+                        int roll = random.nextInt(100);
+                        if (roll < WRITE_PERCENT) {
+                            orderService.createOrder(customer.request(), customer.userId());
+                            afterWrite.run();
+                        } else if (roll % 2 == 0) {
+                            orderService.getUserOrders(customer.userId(), PageRequest.of(0, 10));
+                        } else {
+                            orderService.getOrderById(customer.orderId(), customer.userId());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CacheStats orders = stats(CacheKeys.ORDERS).minus(ordersBefore);
+        CacheStats summaries = stats(CacheKeys.ORDER_SUMMARIES).minus(summariesBefore);
+        return orders.plus(summaries).hitRate();
+    }
+
+    private void clearOrderCaches() {
+        cache(CacheKeys.ORDERS).clear();
+        cache(CacheKeys.ORDER_SUMMARIES).clear();
+    }
+
+    private CacheStats stats(String cacheName) {
+        Object nativeCache = cache(cacheName).getNativeCache();
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).stats();
+    }
+
+    private Cache cache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        assertThat(cache).as("cache %s", cacheName).isNotNull();
+        return cache;
+    }
+
+    private record Customer(Long userId, Long orderId, CreateOrderRequestDTO request) {
+    }
+}
@@ -0,0 +1,43 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Claves que no son RefreshAheadKey en una caché con refresh-after-write
+ */
+class RefreshAheadCacheLoaderTest {
+
+    private final RefreshAheadCacheLoader loader = new RefreshAheadCacheLoader(null);
+
+    @Test
+    void refreshDropsEntriesItCannotRecompute() {
+        AtomicLong nanos = new AtomicLong();
+        LoadingCache<Object, Object> cache = Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofMinutes(5))
+                .executor(Runnable::run)
+                .ticker(nanos::get)
+                .build(loader);
+
+        cache.put("EXPRESS", "stale");
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        // La lectura dispara la recarga: el valor viejo se sirve una vez y la entrada desaparece
+        assertThat(cache.getIfPresent("EXPRESS")).isEqualTo("stale");
+        assertThat(cache.getIfPresent("EXPRESS")).isNull();
+    }
+
+    @Test
+    void loadRejectsPlainKeys() {
+        assertThatThrownBy(() -> loader.load("EXPRESS"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("RefreshAheadKey");
+    }
+}
@@ -0,0 +1,74 @@
+package co.edu.unbosque.quickcourier.cache;
+
+import co.edu.unbosque.quickcourier.model.PriceType;
+import co.edu.unbosque.quickcourier.model.ShippingExtra;
+import co.edu.unbosque.quickcourier.repository.ShippingExtraRepository;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El catálogo no debe dejar entidades administradas en la transacción del llamador
+ * ni compartir instancias entre llamadas (y por lo tanto entre hilos)
+ */
+class ShippingExtraCatalogTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ShippingExtraCatalog catalog;
+
+    @Autowired
+    private ShippingExtraRepository shippingExtraRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private ShippingExtra extra;
+
+    @BeforeEach
+    void createExtra() {
+        String code = "TEST_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        extra = shippingExtraRepository.save(
+                new ShippingExtra(code, "Extra de prueba", new BigDecimal("1500.00"), PriceType.FIXED));
+    }
+
+    @AfterEach
+    void deleteExtra() {
+        shippingExtraRepository.deleteById(extra.getId());
+    }
+
+    @Test
+    void loadsOutsideTheCallerTransaction() {
+        ShippingExtra resolved = transactionTemplate.execute(status -> {
+            ShippingExtra found = catalog.findActiveByCodes(List.of(extra.getCode())).get(extra.getCode());
+            assertThat(entityManager.contains(found)).isFalse();
+            return found;
+        });
+
+        assertThat(resolved.getId()).isEqualTo(extra.getId());
+        assertThat(resolved.getBasePrice()).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    void eachCallGetsItsOwnCopy() {
+        ShippingExtra first = catalog.findActiveByCodes(List.of(extra.getCode())).get(extra.getCode());
+        first.setBasePrice(BigDecimal.ZERO);
+
+        ShippingExtra second = catalog.findActiveByCodes(List.of(extra.getCode())).get(extra.getCode());
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getBasePrice()).isEqualByComparingTo("1500.00");
+    }
+}
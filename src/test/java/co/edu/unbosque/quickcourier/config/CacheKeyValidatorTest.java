@@ -0,0 +1,241 @@
+package co.edu.unbosque.quickcourier.config;
+
+import co.edu.unbosque.quickcourier.QuickcourierApplication;
+import co.edu.unbosque.quickcourier.cache.RefreshAheadKeyGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.interceptor.CacheEvictOperation;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.cache.interceptor.CachePutOperation;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica las claves explícitas de las anotaciones de caché de los componentes de la aplicación
+ *
+ * - @Cacheable y @CachePut deben usar todos los argumentos del método: una clave que omite uno
+ *   (o solo usa una propiedad, como #pageable.pageNumber) hace que llamadas distintas compartan
+ *   entrada. Un argumento cuenta como usado si la clave lo referencia completo: #nombre, #p0,
+ *   #a0 o #root.args. Sin key o con keyGenerator se consideran completas
+ * - @CacheEvict (sin allEntries) debe construir una clave con la misma forma que alguna de las
+ *   que guarda esa caché: misma expresión con argumentos del mismo tipo. Evictar productsBySku
+ *   con #id (Long) cuando se guarda con #sku (String) nunca encuentra la entrada
+ * - En cachés con refresh-after-write solo se admite keyGenerator = RefreshAheadKeyGenerator.NAME
+ *   (RefreshAheadCacheLoader no sabe recargar otras claves)
+ */
+class CacheKeyValidatorTest {
+
+    private static final String BASE_PACKAGE = QuickcourierApplication.class.getPackageName();
+
+    // Referencia completa: no seguida de un identificador, acceso a propiedad o índice
+    private static final String WHOLE_REFERENCE = "(?![\\w.\\[?])";
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private static final List<AnnotatedOperation> OPERATIONS = new ArrayList<>();
+
+    @BeforeAll
+    static void collectOperations() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(true);
+        AnnotationCacheOperationSource operationSource = new AnnotationCacheOperationSource();
+
+        for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            Class<?> type = ClassUtils.forName(candidate.getBeanClassName(), CacheKeyValidatorTest.class.getClassLoader());
+
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type, ReflectionUtils.USER_DECLARED_METHODS)) {
+                Collection<CacheOperation> operations = operationSource.getCacheOperations(method, type);
+                if (operations != null) {
+                    operations.forEach(operation -> OPERATIONS.add(new AnnotatedOperation(type, method, operation)));
+                }
+            }
+        }
+
+        assertThat(OPERATIONS).as("operaciones de caché encontradas").isNotEmpty();
+    }
+
+    @Test
+    void cacheableKeysUseEveryArgument() {
+        List<String> incompleteKeys = new ArrayList<>();
+
+        for (AnnotatedOperation annotated : OPERATIONS) {
+            CacheOperation operation = annotated.operation();
+            if (!(operation instanceof CacheableOperation) && !(operation instanceof CachePutOperation)) {
+                continue;
+            }
+
+            List<String> missing = missingArguments(annotated.method(), operation);
+            if (!missing.isEmpty()) {
+                incompleteKeys.add(annotated + " (sin " + missing + ")");
+            }
+        }
+
+        assertThat(incompleteKeys).as("claves que no usan todos los argumentos del método").isEmpty();
+    }
+
+    @Test
+    void evictKeysMatchStoredKeys() {
+        Map<String, Set<String>> storedShapes = new HashMap<>();
+        for (AnnotatedOperation annotated : OPERATIONS) {
+            if (annotated.operation() instanceof CacheableOperation || annotated.operation() instanceof CachePutOperation) {
+                for (String cacheName : annotated.operation().getCacheNames()) {
+                    storedShapes.computeIfAbsent(cacheName, name -> new HashSet<>()).add(annotated.keyShape());
+                }
+            }
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (AnnotatedOperation annotated : OPERATIONS) {
+            if (!(annotated.operation() instanceof CacheEvictOperation evict) || evict.isCacheWide()) {
+                continue;
+            }
+
+            for (String cacheName : evict.getCacheNames()) {
+                Set<String> shapes = storedShapes.get(cacheName);
+                if (shapes != null && !shapes.contains(annotated.keyShape())) {
+                    mismatches.add(annotated + " en " + cacheName + ": " + annotated.keyShape()
+                            + " no coincide con " + shapes);
+                }
+            }
+        }
+
+        assertThat(mismatches).as("@CacheEvict con claves que la caché nunca guarda").isEmpty();
+    }
+
+    @Test
+    void refreshAheadCachesUseRefreshAheadKeys() throws IOException {
+        Set<String> refreshCaches = refreshAfterWriteCaches();
+        List<String> plainKeys = new ArrayList<>();
+
+        for (AnnotatedOperation annotated : OPERATIONS) {
+            CacheOperation operation = annotated.operation();
+            if (!(operation instanceof CacheableOperation) && !(operation instanceof CachePutOperation)) {
+                continue;
+            }
+            for (String cacheName : operation.getCacheNames()) {
+                if (refreshCaches.contains(cacheName)
+                        && !RefreshAheadKeyGenerator.NAME.equals(operation.getKeyGenerator())) {
+                    plainKeys.add(annotated + " en " + cacheName);
+                }
+            }
+        }
+
+        assertThat(plainKeys).as("cachés con refresh-after-write sin RefreshAheadKeyGenerator").isEmpty();
+    }
+
+    private static List<String> missingArguments(Method method, CacheOperation operation) {
+        String key = operation.getKey();
+        if (key.isEmpty() || !operation.getKeyGenerator().isEmpty() || method.getParameterCount() == 0) {
+            return List.of();
+        }
+        if (Pattern.compile("#root\\.args" + WHOLE_REFERENCE).matcher(key).find()) {
+            return List.of();
+        }
+
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        List<String> missing = new ArrayList<>();
+
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            String name = names != null ? names[i] : "p" + i;
+            if (!Pattern.compile(references(name, i) + WHOLE_REFERENCE).matcher(key).find()) {
+                missing.add(name);
+            }
+        }
+
+        return missing;
+    }
+
+    private static String references(String name, int index) {
+        return "(#(" + Pattern.quote(name) + "|p" + index + "|a" + index + ")|#root\\.args\\[" + index + "])";
+    }
+
+    /**
+     * cache.shipping-extras.refresh-after-write → shippingExtras
+     */
+    private static Set<String> refreshAfterWriteCaches() throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        Pattern refreshProperty = Pattern.compile("cache\\.([a-z0-9-]+)\\.refresh-after-write");
+        Set<String> caches = new HashSet<>();
+
+        for (String name : properties.stringPropertyNames()) {
+            Matcher matcher = refreshProperty.matcher(name);
+            if (matcher.matches()) {
+                caches.add(toCamelCase(matcher.group(1)));
+            }
+        }
+
+        return caches;
+    }
+
+    private static String toCamelCase(String kebab) {
+        StringBuilder name = new StringBuilder(kebab.length());
+        boolean upperNext = false;
+        for (char c : kebab.toCharArray()) {
+            if (c == '-') {
+                upperNext = true;
+            } else {
+                name.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return name.toString();
+    }
+
+    private record AnnotatedOperation(Class<?> type, Method method, CacheOperation operation) {
+
+        /**
+         * Forma de la clave: la expresión con cada argumento reemplazado por su tipo,
+         * el generador si se indica uno, o los tipos de todos los argumentos (generador por defecto)
+         */
+        String keyShape() {
+            if (!operation.getKeyGenerator().isEmpty()) {
+                return "generator:" + operation.getKeyGenerator();
+            }
+
+            Class<?>[] types = method.getParameterTypes();
+            if (operation.getKey().isEmpty()) {
+                List<String> typeNames = new ArrayList<>(types.length);
+                for (Class<?> type : types) {
+                    typeNames.add(type.getSimpleName());
+                }
+                return "default" + typeNames;
+            }
+
+            String[] names = PARAMETER_NAMES.getParameterNames(method);
+            String shape = operation.getKey();
+            for (int i = 0; i < types.length; i++) {
+                String name = names != null ? names[i] : "p" + i;
+                shape = shape.replaceAll(references(name, i) + WHOLE_REFERENCE,
+                        Matcher.quoteReplacement("{" + types[i].getSimpleName() + "}"));
+            }
+            return shape;
+        }
+
+        @Override
+        public String toString() {
+            return type.getSimpleName() + "." + method.getName() + " (key=\"" + operation.getKey() + "\")";
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package co.edu.unbosque.quickcourier.factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput del generador de números de pedido con 1 y 8 hilos compitiendo por el CAS
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=co.edu.unbosque.quickcourier.factory.SnowflakeOrderNumberGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowflakeOrderNumberGeneratorBenchmark {
+
+    private SnowflakeOrderNumberGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new SnowflakeOrderNumberGenerator(1, Clock.systemDefaultZone());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String singleThread() {
+        return generator.nextOrderNumber();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String eightThreads() {
+        return generator.nextOrderNumber();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SnowflakeOrderNumberGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
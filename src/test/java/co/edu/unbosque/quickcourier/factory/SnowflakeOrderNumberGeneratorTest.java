@@ -0,0 +1,119 @@
+package co.edu.unbosque.quickcourier.factory;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final ZoneId BOGOTA = ZoneId.of("America/Bogota");
+
+    @Test
+    void numbersAreUniqueAcrossThreadsAndNodes() throws Exception {
+        int nodes = 4;
+        int threadsPerNode = 8;
+        int numbersPerThread = 20_000;
+
+        // Reloj detenido: todos los nodos en el mismo milisegundo, el peor caso para colisiones
+        Clock frozen = Clock.fixed(Instant.parse("2026-03-01T15:00:00Z"), BOGOTA);
+        List<SnowflakeOrderNumberGenerator> generators = new ArrayList<>();
+        for (int node = 0; node < nodes; node++) {
+            generators.add(new SnowflakeOrderNumberGenerator(node, frozen));
+        }
+
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nodes * threadsPerNode);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (SnowflakeOrderNumberGenerator generator : generators) {
+                for (int t = 0; t < threadsPerNode; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < numbersPerThread; i++) {
+                            issued.add(generator.nextOrderNumber());
+                        }
+                        return null;
+                    }));
+                }
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(issued).hasSize(nodes * threadsPerNode * numbersPerThread);
+    }
+
+    @Test
+    void numbersFromOneNodeAreIncreasingEvenIfClockGoesBack() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-03-01T15:00:00Z"), BOGOTA);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, clock);
+
+        String first = generator.nextOrderNumber();
+        clock.instant = clock.instant.minusSeconds(5);
+        String second = generator.nextOrderNumber();
+
+        assertThat(first).startsWith("QC-20260301-").hasSize(25);
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void nodeIdIsRequired() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator((Long) null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("order-number.node-id");
+    }
+
+    @Test
+    void nodeIdMustFitInTenBits() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(1024, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(-1, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+        private final ZoneId zone;
+
+        private MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package co.edu.unbosque.quickcourier.pricing;
+
+import co.edu.unbosque.quickcourier.model.Order;
+import co.edu.unbosque.quickcourier.model.OrderExtra;
+import co.edu.unbosque.quickcourier.model.OrderItem;
+import co.edu.unbosque.quickcourier.model.PriceType;
+import co.edu.unbosque.quickcourier.model.ShippingExtra;
+import co.edu.unbosque.quickcourier.model.ShippingRule;
+import co.edu.unbosque.quickcourier.strategy.CompiledShippingRule;
+import co.edu.unbosque.quickcourier.strategy.ShippingContext;
+import co.edu.unbosque.quickcourier.strategy.ShippingStrategy;
+import co.edu.unbosque.quickcourier.strategy.WeekendPromoStrategy;
+import co.edu.unbosque.quickcourier.strategy.WeightBasedStrategy;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los cálculos en centavos/gramos deben dar exactamente lo mismo que el código BigDecimal
+ * que reemplazan: mismo valor y misma escala (BigDecimal.equals), y las mismas descripciones
+ *
+ * Los métodos legacy* son copia del cálculo anterior y no deben cambiar
+ */
+class MinorUnitPricingPropertyTest {
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    private final WeekendPromoStrategy weekendPromo = new WeekendPromoStrategy();
+    private final WeightBasedStrategy weightBased = new WeightBasedStrategy();
+
+    @Property(tries = 2000)
+    void weekendPromoMatchesBigDecimal(@ForAll("weights") BigDecimal weight,
+                                       @ForAll("percentages") double discountPercentage) {
+        ShippingRule rule = rule("WEEKEND_PROMO", Map.of("discount_percentage", discountPercentage));
+        CompiledShippingRule compiled = compile(weekendPromo, rule);
+
+        BigDecimal actual = weekendPromo.calculateShippingCost(context(weight), compiled);
+
+        assertThat(actual).isEqualTo(legacyWeekendPromoCost(weight, discountPercentage));
+    }
+
+    @Property(tries = 2000)
+    void weightBasedMatchesBigDecimal(@ForAll("weights") BigDecimal weight,
+                                      @ForAll("rates") Double baseRate,
+                                      @ForAll("rates") Double ratePerKg,
+                                      @ForAll("thresholds") Double threshold) {
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put("base_rate", baseRate);
+        configuration.put("rate_per_kg", ratePerKg);
+        if (threshold != null) {
+            configuration.put("free_shipping_threshold_kg", threshold);
+        }
+        CompiledShippingRule compiled = compile(weightBased, rule("WEIGHT_BASED", configuration));
+        ShippingContext context = context(weight);
+
+        assertThat(weightBased.calculateShippingCost(context, compiled))
+                .isEqualTo(legacyWeightBasedCost(weight, baseRate, ratePerKg, threshold));
+        assertThat(weightBased.getCalculationDescription(context, compiled))
+                .isEqualTo(legacyWeightBasedDescription(weight, baseRate, ratePerKg, threshold));
+    }
+
+    @Property(tries = 1000)
+    void orderTotalsMatchBigDecimal(@ForAll("orderLines") List<OrderLine> lines,
+                                    @ForAll("extraPrices") List<BigDecimal> extraPrices,
+                                    @ForAll("shippingCosts") BigDecimal shippingCost) {
+        Order order = new Order();
+        order.setShippingCost(shippingCost);
+        for (OrderLine line : lines) {
+            OrderItem item = new OrderItem();
+            item.setUnitPrice(line.unitPrice());
+            item.setQuantity(line.quantity());
+            item.setWeightKg(line.weightKg());
+            item.calculateSubtotal();
+            order.addItem(item);
+        }
+        for (BigDecimal price : extraPrices) {
+            OrderExtra extra = new OrderExtra();
+            extra.setAppliedPrice(price);
+            order.addExtra(extra);
+        }
+
+        order.calculateTotals();
+
+        LegacyTotals expected = legacyTotals(lines, extraPrices, shippingCost, order.getTaxRate());
+        assertThat(order.getSubtotal()).isEqualTo(expected.subtotal());
+        assertThat(order.getTotalWeightKg()).isEqualTo(expected.totalWeightKg());
+        assertThat(order.getExtrasCost()).isEqualTo(expected.extrasCost());
+        assertThat(order.getTaxAmount()).isEqualTo(expected.taxAmount());
+        assertThat(order.getTotalAmount()).isEqualTo(expected.totalAmount());
+    }
+
+    @Property(tries = 2000)
+    void percentageExtraMatchesBigDecimal(@ForAll("subtotals") BigDecimal orderSubtotal,
+                                          @ForAll("extraPercentages") BigDecimal percentage) {
+        ShippingExtra extra = new ShippingExtra("PROP_PCT", "Porcentaje", BigDecimal.ZERO, PriceType.PERCENTAGE);
+        extra.setPercentageValue(percentage);
+
+        assertThat(extra.calculatePrice(orderSubtotal)).isEqualTo(legacyPercentagePrice(orderSubtotal, percentage));
+    }
+
+    // ===== Generadores =====
+
+    /** Pesos con 0 a 5 decimales: los de más de 3 decimales ejercitan el camino BigDecimal */
+    @Provide
+    Arbitrary<BigDecimal> weights() {
+        return Arbitraries.integers().between(0, 5).flatMap(scale ->
+                Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("200")).ofScale(scale));
+    }
+
+    @Provide
+    Arbitrary<Double> percentages() {
+        return Arbitraries.integers().between(0, 4).flatMap(scale ->
+                Arbitraries.doubles().between(0, 120).ofScale(scale));
+    }
+
+    @Provide
+    Arbitrary<Double> rates() {
+        return Arbitraries.integers().between(0, 3).flatMap(scale ->
+                Arbitraries.doubles().between(0, 20_000).ofScale(scale));
+    }
+
+    @Provide
+    Arbitrary<Double> thresholds() {
+        return Arbitraries.doubles().between(0, 50).ofScale(2).injectNull(0.25);
+    }
+
+    /** Subtotales con 0 a 4 decimales: los de 3 o más decimales no exactos en centavos van por BigDecimal */
+    @Provide
+    Arbitrary<BigDecimal> subtotals() {
+        return Arbitraries.integers().between(0, 4).flatMap(scale ->
+                Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("50000000")).ofScale(scale));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> extraPercentages() {
+        return Arbitraries.integers().between(0, 4).flatMap(scale ->
+                Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("100")).ofScale(scale))
+                .injectNull(0.05);
+    }
+
+    @Provide
+    Arbitrary<List<OrderLine>> orderLines() {
+        Arbitrary<BigDecimal> prices = Arbitraries.bigDecimals()
+                .between(new BigDecimal("0.01"), new BigDecimal("2000000")).ofScale(2);
+        Arbitrary<Integer> quantities = Arbitraries.integers().between(1, 50);
+        // El mínimo es la menor unidad de cada escala: jqwik no acepta un mínimo que la escala no pueda representar
+        Arbitrary<BigDecimal> weights = Arbitraries.integers().between(0, 4).flatMap(scale ->
+                Arbitraries.bigDecimals().between(BigDecimal.ONE.movePointLeft(scale), new BigDecimal("30")).ofScale(scale));
+
+        return Combinators.combine(prices, quantities, weights).as(OrderLine::new).list().ofMaxSize(8);
+    }
+
+    @Provide
+    Arbitrary<List<BigDecimal>> extraPrices() {
+        return Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("50000")).ofScale(2)
+                .list().ofMaxSize(3);
+    }
+
+    /** Costos de envío como los producen las estrategias: escala 0 (ZERO), 2 o hasta 5 (promo por peso) */
+    @Provide
+    Arbitrary<BigDecimal> shippingCosts() {
+        return Arbitraries.oneOf(
+                Arbitraries.just(BigDecimal.ZERO),
+                Arbitraries.integers().between(2, 5).flatMap(scale ->
+                        Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("100000")).ofScale(scale)));
+    }
+
+    // ===== Cálculo anterior (BigDecimal) =====
+
+    private static BigDecimal legacyWeekendPromoCost(BigDecimal weight, double discountPercentage) {
+        BigDecimal baseCost = new BigDecimal("10000.00").add(weight.multiply(new BigDecimal("2000.00")));
+        BigDecimal discount = baseCost.multiply(BigDecimal.valueOf(discountPercentage))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        BigDecimal finalCost = baseCost.subtract(discount);
+        return finalCost.max(BigDecimal.ZERO);
+    }
+
+    private static BigDecimal legacyWeightBasedCost(BigDecimal totalWeight, Double baseRate,
+                                                    Double ratePerKg, Double freeShippingThreshold) {
+        BigDecimal baseRateValue = baseRate != null ? BigDecimal.valueOf(baseRate) : new BigDecimal("5000.00");
+        BigDecimal ratePerKgValue = ratePerKg != null ? BigDecimal.valueOf(ratePerKg) : new BigDecimal("2000.00");
+        BigDecimal freeShippingThresholdValue = freeShippingThreshold != null
+                ? BigDecimal.valueOf(freeShippingThreshold)
+                : new BigDecimal("10.0");
+
+        if (totalWeight.compareTo(freeShippingThresholdValue) >= 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal weightCost = totalWeight.multiply(ratePerKgValue);
+        BigDecimal totalCost = baseRateValue.add(weightCost);
+        return totalCost.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String legacyWeightBasedDescription(BigDecimal totalWeight, Double baseRate,
+                                                       Double ratePerKg, Double freeShippingThreshold) {
+        if (freeShippingThreshold != null &&
+                totalWeight.compareTo(BigDecimal.valueOf(freeShippingThreshold)) >= 0) {
+            return String.format("¡Envío GRATIS! Peso supera %.2f kg", freeShippingThreshold);
+        }
+
+        return String.format("Cálculo por peso: Base $%.0f + $%.0f por kg (Total: %.2f kg)",
+                baseRate != null ? baseRate : 5000.00,
+                ratePerKg != null ? ratePerKg : 2000.00,
+                totalWeight.doubleValue());
+    }
+
+    private static BigDecimal legacyPercentagePrice(BigDecimal orderSubtotal, BigDecimal percentageValue) {
+        if (percentageValue == null) {
+            return BigDecimal.ZERO;
+        }
+        return orderSubtotal.multiply(percentageValue)
+                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+    }
+
+    private static LegacyTotals legacyTotals(List<OrderLine> lines, List<BigDecimal> extraPrices,
+                                             BigDecimal shippingCost, BigDecimal taxRate) {
+        BigDecimal subtotal = lines.stream()
+                .map(line -> line.unitPrice().multiply(new BigDecimal(line.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal totalWeightKg = lines.stream()
+                .map(line -> line.weightKg().multiply(new BigDecimal(line.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal extrasCost = extraPrices.stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal baseForTax = subtotal.add(shippingCost).add(extrasCost);
+        BigDecimal taxAmount = baseForTax.multiply(taxRate).divide(ONE_HUNDRED, 2, RoundingMode.HALF_UP);
+
+        return new LegacyTotals(subtotal, totalWeightKg, extrasCost, taxAmount, baseForTax.add(taxAmount));
+    }
+
+    // ===== Utilidades =====
+
+    private static ShippingRule rule(String ruleType, Map<String, Object> configuration) {
+        ShippingRule rule = new ShippingRule("PROP_" + ruleType, ruleType, ruleType, 1);
+        rule.setConfiguration(configuration);
+        return rule;
+    }
+
+    private static CompiledShippingRule compile(ShippingStrategy strategy, ShippingRule rule) {
+        return new CompiledShippingRule(1L, rule.getCode(), rule.getName(), rule.getRuleType(), 1,
+                null, null, strategy, strategy.compile(rule));
+    }
+
+    private static ShippingContext context(BigDecimal weight) {
+        return new ShippingContext("PROP", "Norte", weight, new BigDecimal("50000.00"),
+                1L, Boolean.FALSE, LocalDateTime.now(), false);
+    }
+
+    record OrderLine(BigDecimal unitPrice, int quantity, BigDecimal weightKg) {
+    }
+
+    private record LegacyTotals(BigDecimal subtotal, BigDecimal totalWeightKg, BigDecimal extrasCost,
+                                BigDecimal taxAmount, BigDecimal totalAmount) {
+    }
+}
@@ -0,0 +1,194 @@
+package co.edu.unbosque.quickcourier.pricing;
+
+import co.edu.unbosque.quickcourier.model.Order;
+import co.edu.unbosque.quickcourier.model.OrderExtra;
+import co.edu.unbosque.quickcourier.model.OrderItem;
+import co.edu.unbosque.quickcourier.model.PriceType;
+import co.edu.unbosque.quickcourier.model.ShippingExtra;
+import co.edu.unbosque.quickcourier.model.ShippingRule;
+import co.edu.unbosque.quickcourier.strategy.CompiledShippingRule;
+import co.edu.unbosque.quickcourier.strategy.ShippingContext;
+import co.edu.unbosque.quickcourier.strategy.ShippingStrategy;
+import co.edu.unbosque.quickcourier.strategy.WeekendPromoStrategy;
+import co.edu.unbosque.quickcourier.strategy.WeightBasedStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculos de precio en centavos/gramos frente al código BigDecimal que reemplazan
+ * (los métodos *BigDecimal son copia del cálculo anterior, como en MinorUnitPricingPropertyTest)
+ *
+ * main() agrega el profiler gc: la diferencia que importa en el checkout es gc.alloc.rate.norm
+ * (bytes asignados por operación), no solo el tiempo
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=co.edu.unbosque.quickcourier.pricing.PricingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final double DISCOUNT_PERCENTAGE = 20.0;
+    private static final double BASE_RATE = 5000.0;
+    private static final double RATE_PER_KG = 2000.0;
+    private static final double FREE_THRESHOLD_KG = 50.0;
+
+    private final WeekendPromoStrategy weekendPromo = new WeekendPromoStrategy();
+    private final WeightBasedStrategy weightBased = new WeightBasedStrategy();
+
+    private Order order;
+    private CompiledShippingRule weekendRule;
+    private CompiledShippingRule weightRule;
+    private ShippingContext context;
+    private ShippingExtra percentageExtra;
+
+    @Setup
+    public void setUp() {
+        // Un carrito típico: 5 líneas y 2 extras
+        order = new Order();
+        order.setShippingCost(new BigDecimal("12500.00"));
+        String[][] lines = {
+                {"45900.00", "2", "0.750"}, {"129000.00", "1", "2.300"}, {"8900.00", "6", "0.120"},
+                {"350000.00", "1", "4.800"}, {"15500.00", "3", "0.400"}
+        };
+        for (String[] line : lines) {
+            OrderItem item = new OrderItem();
+            item.setUnitPrice(new BigDecimal(line[0]));
+            item.setQuantity(Integer.parseInt(line[1]));
+            item.setWeightKg(new BigDecimal(line[2]));
+            item.calculateSubtotal();
+            order.addItem(item);
+        }
+        for (String price : List.of("3000.00", "7450.00")) {
+            OrderExtra extra = new OrderExtra();
+            extra.setAppliedPrice(new BigDecimal(price));
+            order.addExtra(extra);
+        }
+
+        weekendRule = compile(weekendPromo, rule("WEEKEND_PROMO", Map.of("discount_percentage", DISCOUNT_PERCENTAGE)));
+        weightRule = compile(weightBased, rule("WEIGHT_BASED", Map.of(
+                "base_rate", BASE_RATE, "rate_per_kg", RATE_PER_KG, "free_shipping_threshold_kg", FREE_THRESHOLD_KG)));
+        context = new ShippingContext("BENCH", "Norte", new BigDecimal("12.340"), new BigDecimal("950000.00"),
+                1L, Boolean.FALSE, LocalDateTime.now(), false);
+
+        percentageExtra = new ShippingExtra("BENCH_PCT", "Seguro", BigDecimal.ZERO, PriceType.PERCENTAGE);
+        percentageExtra.setPercentageValue(new BigDecimal("1.50"));
+    }
+
+    // ===== Order.calculateTotals =====
+
+    @Benchmark
+    public BigDecimal orderTotalsMinorUnits() {
+        order.calculateTotals();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public void orderTotalsBigDecimal(Blackhole blackhole) {
+        BigDecimal subtotal = order.getItems().stream()
+                .map(OrderItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal totalWeightKg = order.getItems().stream()
+                .map(item -> item.getWeightKg().multiply(new BigDecimal(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal extrasCost = order.getExtras().stream()
+                .map(OrderExtra::getAppliedPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal baseForTax = subtotal.add(order.getShippingCost()).add(extrasCost);
+        BigDecimal taxAmount = baseForTax.multiply(order.getTaxRate())
+                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+
+        blackhole.consume(totalWeightKg);
+        blackhole.consume(baseForTax.add(taxAmount));
+    }
+
+    // ===== WeekendPromoStrategy =====
+
+    @Benchmark
+    public BigDecimal weekendPromoMinorUnits() {
+        return weekendPromo.calculateShippingCost(context, weekendRule);
+    }
+
+    @Benchmark
+    public BigDecimal weekendPromoBigDecimal() {
+        BigDecimal baseCost = new BigDecimal("10000.00")
+                .add(context.totalWeightKg().multiply(new BigDecimal("2000.00")));
+        BigDecimal discount = baseCost.multiply(BigDecimal.valueOf(DISCOUNT_PERCENTAGE))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return baseCost.subtract(discount).max(BigDecimal.ZERO);
+    }
+
+    // ===== WeightBasedStrategy =====
+
+    @Benchmark
+    public BigDecimal weightBasedMinorUnits() {
+        return weightBased.calculateShippingCost(context, weightRule);
+    }
+
+    @Benchmark
+    public BigDecimal weightBasedBigDecimal() {
+        BigDecimal totalWeight = context.totalWeightKg();
+        if (totalWeight.compareTo(BigDecimal.valueOf(FREE_THRESHOLD_KG)) >= 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal weightCost = totalWeight.multiply(BigDecimal.valueOf(RATE_PER_KG));
+        return BigDecimal.valueOf(BASE_RATE).add(weightCost).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // ===== ShippingExtra.calculatePrice (PERCENTAGE) =====
+
+    @Benchmark
+    public BigDecimal percentageExtraMinorUnits() {
+        return percentageExtra.calculatePrice(context.subtotal());
+    }
+
+    @Benchmark
+    public BigDecimal percentageExtraBigDecimal() {
+        return context.subtotal().multiply(percentageExtra.getPercentageValue())
+                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+    }
+
+    private static ShippingRule rule(String ruleType, Map<String, Object> configuration) {
+        ShippingRule rule = new ShippingRule("BENCH_" + ruleType, ruleType, ruleType, 1);
+        rule.setConfiguration(configuration);
+        return rule;
+    }
+
+    private static CompiledShippingRule compile(ShippingStrategy strategy, ShippingRule rule) {
+        return new CompiledShippingRule(1L, rule.getCode(), rule.getName(), rule.getRuleType(), 1,
+                null, null, strategy, strategy.compile(rule));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,171 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import co.edu.unbosque.quickcourier.QuickcourierApplication;
+import co.edu.unbosque.quickcourier.security.RateLimitingFilter;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos contextos de la aplicación sobre la misma base de datos, como dos nodos detrás de un balanceador
+ * El contexto de la prueba es el nodo A; el nodo B se levanta aparte con la misma conexión
+ */
+@TestPropertySource(properties = {
+        "rate-limit.cluster.enabled=true",
+        "rate-limit.trusted-proxies=10.0.0.0/8"
+})
+class ClusterRateLimiterMultiContextTest extends PostgresIntegrationTest {
+
+    private static final int LIMIT = 500;
+    private static final int ATTEMPTS_PER_NODE = 1_000;
+    private static final int THREADS_PER_NODE = 8;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private ClusterRateLimiter nodeA;
+
+    @Autowired
+    private MeterRegistry nodeAMeters;
+
+    @Autowired
+    private RateLimitingFilter rateLimitingFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void startNodeB() {
+        // Después del contexto de la prueba, que crea el esquema
+        if (nodeB == null) {
+            nodeB = new SpringApplicationBuilder(QuickcourierApplication.class)
+                    .profiles("test")
+                    .run("--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                            "--spring.datasource.username=" + POSTGRES.getUsername(),
+                            "--spring.datasource.password=" + POSTGRES.getPassword(),
+                            "--spring.jpa.hibernate.ddl-auto=none",
+                            "--server.port=0",
+                            "--order-number.node-id=2",
+                            "--rate-limit.cluster.enabled=true");
+        }
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+            nodeB = null;
+        }
+    }
+
+    @Test
+    void nodesShareOneLimitWithinErrorBound() throws Exception {
+        ClusterRateLimiter nodeBLimiter = nodeB.getBean(ClusterRateLimiter.class);
+        MeterRegistry nodeBMeters = nodeB.getBean(MeterRegistry.class);
+
+        RateLimitRule rule = new RateLimitRule("cluster-test", RateLimitTier.USER, LIMIT, LIMIT, Duration.ofDays(1));
+        String key = "user:" + UUID.randomUUID();
+        double leasesBefore = grantedLeases(nodeAMeters) + grantedLeases(nodeBMeters);
+
+        AtomicInteger grantedByA = new AtomicInteger();
+        AtomicInteger grantedByB = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2 * THREADS_PER_NODE);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS_PER_NODE; i++) {
+                futures.add(executor.submit(() -> hammer(nodeA, rule, key, grantedByA, start)));
+                futures.add(executor.submit(() -> hammer(nodeBLimiter, rule, key, grantedByB, start)));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int granted = grantedByA.get() + grantedByB.get();
+        int errorBound = 2 * nodeA.leaseSize(rule);
+
+        // Nunca más que el límite; lo que falta es a lo sumo un lote sin usar por nodo
+        assertThat(granted).isLessThanOrEqualTo(LIMIT).isGreaterThanOrEqualTo(LIMIT - errorBound);
+
+        // Una fila por clave y ventana, y una sentencia por lote (no por request)
+        Integer consumed = jdbcTemplate.queryForObject(
+                "SELECT consumed FROM rate_limit_counter WHERE limit_key = ?", Integer.class, "cluster-test|" + key);
+        assertThat(consumed).isEqualTo(LIMIT);
+
+        double leases = grantedLeases(nodeAMeters) + grantedLeases(nodeBMeters) - leasesBefore;
+        assertThat(leases).isLessThanOrEqualTo(Math.ceil((double) LIMIT / nodeA.leaseSize(rule)) + 2);
+    }
+
+    @Test
+    void spoofedForwardedForDoesNotOpenNewKeys() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            // Cliente directo: X-Forwarded-For inventado en cada request
+            filter("198.51.100.23", "172.16." + i + ".1");
+            // Detrás de un proxy propio: solo vale el salto que agregó el proxy
+            filter("10.0.0.5", "172.17." + i + ".1, 203.0.113.50");
+        }
+
+        List<String> keys = jdbcTemplate.queryForList(
+                "SELECT DISTINCT limit_key FROM rate_limit_counter WHERE limit_key LIKE '%|ip:%'", String.class);
+
+        assertThat(keys).noneMatch(limitKey -> limitKey.contains("ip:172."));
+        assertThat(keys).anyMatch(limitKey -> limitKey.endsWith("|ip:198.51.100.23"));
+        assertThat(keys).anyMatch(limitKey -> limitKey.endsWith("|ip:203.0.113.50"));
+    }
+
+    private void filter(String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+
+        rateLimitingFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+    }
+
+    private static void hammer(ClusterRateLimiter limiter, RateLimitRule rule, String key,
+                               AtomicInteger granted, CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        for (int i = 0; i < ATTEMPTS_PER_NODE / THREADS_PER_NODE; i++) {
+            if (limiter.tryAcquire(key, rule)) {
+                granted.incrementAndGet();
+            }
+        }
+    }
+
+    private static double grantedLeases(MeterRegistry meterRegistry) {
+        return meterRegistry.get("rate.limit.cluster.leases").tag("result", "granted").counter().count();
+    }
+}
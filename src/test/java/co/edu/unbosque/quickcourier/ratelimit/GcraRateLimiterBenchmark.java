@@ -0,0 +1,86 @@
+package co.edu.unbosque.quickcourier.ratelimit;
+
+import co.edu.unbosque.quickcourier.cache.StandaloneCacheRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput de GcraRateLimiter.tryAcquire con 64 hilos
+ *
+ * - hotKey: los 64 hilos compiten por el CAS de la misma clave (un cliente abusivo o un NAT grande)
+ * - keyPerThread: cada hilo tiene su clave; mide el costo de la caché de buckets compartida
+ * - singleThread: referencia sin contención
+ *
+ * La regla admite ~37M requests por segundo, así que se ejercitan tanto las aceptadas como las rechazadas
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=co.edu.unbosque.quickcourier.ratelimit.GcraRateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GcraRateLimiterBenchmark {
+
+    private GcraRateLimiter limiter;
+    private RateLimitRule rule;
+
+    @Setup
+    public void setUp() {
+        RateLimitPolicies policies = new RateLimitPolicies(new StandardEnvironment(), 100);
+        limiter = new GcraRateLimiter(new StandaloneCacheRegistry(new SimpleMeterRegistry()), policies, 100_000);
+        rule = new RateLimitRule("benchmark", RateLimitTier.API_KEY, Integer.MAX_VALUE, 1_000, Duration.ofMinutes(1));
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        final String key = "apikey:" + NEXT.getAndIncrement();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public RateLimitDecision hotKey() {
+        return limiter.tryAcquire("ip:203.0.113.7", rule);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public RateLimitDecision keyPerThread(ThreadKey thread) {
+        return limiter.tryAcquire(thread.key, rule);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RateLimitDecision singleThread() {
+        return limiter.tryAcquire("ip:203.0.113.7", rule);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GcraRateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
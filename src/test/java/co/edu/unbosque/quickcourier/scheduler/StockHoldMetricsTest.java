@@ -0,0 +1,104 @@
+package co.edu.unbosque.quickcourier.scheduler;
+
+import co.edu.unbosque.quickcourier.repository.OrderRepository;
+import co.edu.unbosque.quickcourier.service.StockHoldService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Gauges de unidades retenidas y comprometidas, totales y por producto (top N)
+ */
+class StockHoldMetricsTest {
+
+    private final StockHoldService stockHoldService = mock(StockHoldService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(stockHoldService.countStockUnits()).thenReturn(new Units(null, null, 12L, 30L));
+    }
+
+    @Test
+    void publishesTotalsAndTopProducts() {
+        when(stockHoldService.countStockUnitsByProduct(2)).thenReturn(List.of(
+                new Units(7L, "SKU-7", 10L, 20L),
+                new Units(3L, "SKU-3", 2L, 5L)));
+
+        new StockHoldMetrics(stockHoldService, meterRegistry, 2).refresh();
+
+        assertThat(meterRegistry.get("inventory.units.held").gauge().value()).isEqualTo(12);
+        assertThat(meterRegistry.get("inventory.units.committed").gauge().value()).isEqualTo(30);
+        assertThat(productGauge("inventory.product.units.held", "7")).isEqualTo(10);
+        assertThat(productGauge("inventory.product.units.committed", "7")).isEqualTo(20);
+        assertThat(meterRegistry.get("inventory.product.units.held").tag("sku", "SKU-3").gauge().value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void productsLeavingTheTopAreUnregistered() {
+        StockHoldMetrics metrics = new StockHoldMetrics(stockHoldService, meterRegistry, 1);
+
+        when(stockHoldService.countStockUnitsByProduct(1)).thenReturn(List.of(new Units(7L, "SKU-7", 10L, 20L)));
+        metrics.refresh();
+        when(stockHoldService.countStockUnitsByProduct(1)).thenReturn(List.of(new Units(3L, "SKU-3", 40L, 0L)));
+        metrics.refresh();
+
+        assertThat(meterRegistry.find("inventory.product.units.held").tag("product_id", "7").gauge()).isNull();
+        assertThat(productGauge("inventory.product.units.held", "3")).isEqualTo(40);
+        assertThat(meterRegistry.find("inventory.product.units.held").gauges()).hasSize(1);
+    }
+
+    @Test
+    void zeroTopProductsPublishesOnlyTotals() {
+        new StockHoldMetrics(stockHoldService, meterRegistry, 0).refresh();
+
+        verify(stockHoldService, never()).countStockUnitsByProduct(anyInt());
+        assertThat(meterRegistry.find("inventory.product.units.held").gauges()).isEmpty();
+        assertThat(meterRegistry.get("inventory.units.held").gauge().value()).isEqualTo(12);
+    }
+
+    @Test
+    void rejectsNegativeTopProducts() {
+        assertThatThrownBy(() -> new StockHoldMetrics(stockHoldService, meterRegistry, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private double productGauge(String name, String productId) {
+        return meterRegistry.get(name).tag("product_id", productId).gauge().value();
+    }
+
+    private record Units(Long productId, String sku, Long heldUnits, Long committedUnits)
+            implements OrderRepository.ProductStockUnits {
+
+        @Override
+        public Long getProductId() {
+            return productId;
+        }
+
+        @Override
+        public String getSku() {
+            return sku;
+        }
+
+        @Override
+        public Long getHeldUnits() {
+            return heldUnits;
+        }
+
+        @Override
+        public Long getCommittedUnits() {
+            return committedUnits;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package co.edu.unbosque.quickcourier.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Catálogo sintético para medir el índice de búsqueda
+ * Nombres en español con tildes (sustantivo + adjetivo + marca + modelo), SKU, categoría y descripción
+ */
+final class ProductCatalogFixtures {
+
+    static final String[] NOUNS = {
+            "Cámara", "Teléfono", "Portátil", "Audífonos", "Cargador", "Batería", "Cable", "Teclado",
+            "Monitor", "Impresora", "Parlante", "Reloj", "Tableta", "Micrófono", "Lámpara", "Ventilador",
+            "Licuadora", "Cafetera", "Plancha", "Aspiradora", "Router", "Disco", "Memoria", "Adaptador",
+            "Control", "Consola", "Proyector", "Escáner", "Termo", "Mochila", "Maleta", "Cuaderno",
+            "Bolígrafo", "Silla", "Escritorio", "Colchón", "Almohada", "Sartén", "Olla", "Botella"
+    };
+
+    static final String[] ADJECTIVES = {
+            "inalámbrico", "portátil", "compacto", "recargable", "ergonómico", "digital", "térmico",
+            "plegable", "profesional", "básico", "económico", "resistente", "ligero", "magnético",
+            "automático", "eléctrico", "clásico", "moderno", "híbrido", "solar", "táctil", "óptico",
+            "metálico", "acústico", "deportivo"
+    };
+
+    static final String[] CATEGORIES = {
+            "Electrónica", "Hogar", "Cocina", "Oficina", "Deportes", "Viaje", "Computación",
+            "Audio", "Iluminación", "Papelería"
+    };
+
+    static final int BRANDS = 300;
+
+    private ProductCatalogFixtures() {
+    }
+
+    static List<ProductSearchDocument> catalogue(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<ProductSearchDocument> documents = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            String brand = brand(random.nextInt(BRANDS));
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+
+            documents.add(new ProductSearchDocument(
+                    (long) i + 1,
+                    noun + " " + adjective + " " + brand + " " + (100 + random.nextInt(900)),
+                    String.format("SKU-%07d", i),
+                    category,
+                    "Producto de " + category.toLowerCase() + " con garantía de "
+                            + (6 + random.nextInt(30)) + " meses y envío nacional"));
+        }
+
+        return documents;
+    }
+
+    /**
+     * Consultas variadas: sustantivo solo (~1/40 del catálogo), marca, combinaciones,
+     * subcadenas sin tilde, fragmentos de SKU y palabras de la descripción
+     */
+    static String[] queries() {
+        return new String[]{
+                "cámara", "telef", "portatil", "audifonos inalambrico", brand(17), brand(230) + " cargador",
+                "bateria recargable", "sku-00123", "monitor profesional", "garantia 12", "licuadora",
+                "escaner optico", "control " + brand(5), "lampara solar", "termo", "silla ergonomica"
+        };
+    }
+
+    /**
+     * Marca sintética pronunciable (ka, ze, ...) determinada por el número
+     */
+    static String brand(int number) {
+        String[] syllables = {"ka", "ze", "tro", "mi", "lu", "vex", "no", "ra", "qui", "do", "sal", "ven"};
+        return syllables[number % syllables.length]
+                + syllables[(number / syllables.length) % syllables.length]
+                + syllables[(number / (syllables.length * syllables.length)) % syllables.length]
+                + "x";
+    }
+}
@@ -0,0 +1,97 @@
+package co.edu.unbosque.quickcourier.search;
+
+import co.edu.unbosque.quickcourier.cache.CacheInvalidationBus;
+import co.edu.unbosque.quickcourier.repository.OrderItemRepository;
+import co.edu.unbosque.quickcourier.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cambios de otros nodos: sincronización por updated_at y reconstrucción ante un clear remoto de categorías
+ */
+class ProductIndexerTest {
+
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    private ProductIndexer indexer;
+
+    @BeforeEach
+    void buildIndex() {
+        when(productRepository.findAllActiveSearchDocuments()).thenReturn(List.of(
+                product(1L, "Cable alfa"), product(2L, "Cable gamma")));
+
+        indexer = new ProductIndexer(searchIndex,
+                new ProductSuggestIndex(new ConcurrentMapCacheManager(ProductSuggestIndex.CACHE_NAME),
+                new SimpleMeterRegistry(), 20, Duration.ofMillis(2)),
+                productRepository, mock(OrderItemRepository.class), cacheInvalidationBus,
+                true, 2000, OVERLAP);
+        indexer.buildIndex();
+    }
+
+    @AfterEach
+    void shutdown() {
+        indexer.shutdown();
+    }
+
+    @Test
+    void syncAppliesChangesAndDeactivationsFromTheDatabase() {
+        when(productRepository.findActiveSearchDocumentsUpdatedSince(any()))
+                .thenReturn(List.of(product(3L, "Cable beta")));
+        when(productRepository.findInactiveIdsUpdatedSince(any())).thenReturn(List.of(2L));
+
+        indexer.syncChanges();
+
+        assertThat(searchIndex.search("cable", 0, 10).orElseThrow().productIds()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void eachSyncRereadsTheOverlapBeforeThePreviousOne() {
+        LocalDateTime beforeFirstSync = LocalDateTime.now();
+        indexer.syncChanges();
+        indexer.syncChanges();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository, times(2)).findActiveSearchDocumentsUpdatedSince(since.capture());
+
+        // La segunda parte del inicio de la primera, menos el margen
+        LocalDateTime second = since.getAllValues().get(1);
+        assertThat(second).isAfterOrEqualTo(beforeFirstSync.minus(OVERLAP));
+        assertThat(second).isAfter(since.getAllValues().get(0));
+    }
+
+    @Test
+    void remoteCategoryClearRebuildsFromTheDatabase() {
+        ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+        verify(cacheInvalidationBus).onRemoteClear(eq("categories"), listener.capture());
+
+        when(productRepository.findAllActiveSearchDocuments()).thenReturn(List.of(product(1L, "Cable alfa")));
+        listener.getValue().run();
+
+        verify(productRepository, timeout(5000).times(2)).findAllActiveSearchDocuments();
+    }
+
+    private static ProductSearchDocument product(Long id, String name) {
+        return new ProductSearchDocument(id, name, "SKU-" + id, "Hogar", null);
+    }
+}
@@ -0,0 +1,60 @@
+package co.edu.unbosque.quickcourier.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Página de 20 resultados del índice de búsqueda con un catálogo de 200 000 productos,
+ * por tipo de consulta
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=co.edu.unbosque.quickcourier.search.ProductSearchIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchIndexBenchmark {
+
+    @Param({"cámara", "telef", "audifonos inalambrico", "sku-00123", "garantia 12"})
+    public String query;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuildFrom(() -> ProductCatalogFixtures.catalogue(200_000));
+    }
+
+    @Benchmark
+    public Optional<ProductSearchResult> firstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    @Benchmark
+    public Optional<ProductSearchResult> fifthPage() {
+        return index.search(query, 80, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductSearchIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package co.edu.unbosque.quickcourier.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latencia de una página de búsqueda sobre un catálogo de 200 000 productos
+ * Objetivo: la mediana muy por debajo de 1 ms (la medición detallada está en ProductSearchIndexBenchmark)
+ */
+class ProductSearchIndexLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexLatencyTest.class);
+
+    private static final int CATALOGUE_SIZE = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 200;
+
+    private static final ProductSearchIndex index = new ProductSearchIndex();
+    private static List<ProductSearchDocument> catalogue;
+
+    @BeforeAll
+    static void buildIndex() {
+        catalogue = ProductCatalogFixtures.catalogue(CATALOGUE_SIZE);
+        index.rebuildFrom(() -> catalogue);
+    }
+
+    @Test
+    void pageOfResultsUnderOneMillisecond() {
+        String[] queries = ProductCatalogFixtures.queries();
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String query : queries) {
+                index.search(query, 0, PAGE_SIZE);
+            }
+        }
+
+        long[] samples = new long[MEASURED_ROUNDS * queries.length];
+        int sample = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (String query : queries) {
+                long start = System.nanoTime();
+                assertThat(index.search(query, 0, PAGE_SIZE)).as(query).isPresent();
+                samples[sample++] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(samples);
+        long p50 = samples[samples.length / 2];
+        long p99 = samples[(int) (samples.length * 0.99)];
+
+        logger.info("Product search over {} products: p50={} us, p99={} us", CATALOGUE_SIZE,
+                TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99));
+
+        assertThat(p50).isLessThan(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Mismos resultados que recorrer el catálogo completo con la semántica del índice
+     * (subcadena en nombre, SKU y categoría; palabra completa en la descripción)
+     */
+    @Test
+    void matchesFullScan() {
+        for (String query : ProductCatalogFixtures.queries()) {
+            List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchText.tokens(query)));
+            List<ProductSearchDocument> expected = catalogue.stream()
+                    .filter(document -> matches(document, terms))
+                    .sorted(Comparator.comparing((ProductSearchDocument document) -> SearchText.fold(document.name()))
+                            .thenComparing(ProductSearchDocument::id))
+                    .toList();
+
+            ProductSearchResult result = index.search(query, 0, PAGE_SIZE).orElseThrow();
+
+            assertThat(result.total()).as(query).isEqualTo(expected.size());
+            assertThat(result.productIds()).as(query).containsExactlyElementsOf(
+                    expected.stream().limit(PAGE_SIZE).map(ProductSearchDocument::id).toList());
+        }
+    }
+
+    @Test
+    void findsProductsWithoutAccents() {
+        ProductSearchResult result = index.search("camara", 0, PAGE_SIZE).orElseThrow();
+
+        assertThat(result.total()).isGreaterThan(0);
+        assertThat(result.productIds()).hasSize(PAGE_SIZE);
+    }
+
+    private static boolean matches(ProductSearchDocument document, List<String> terms) {
+        List<String> textTokens = new ArrayList<>(SearchText.tokens(document.name()));
+        textTokens.addAll(SearchText.tokens(document.sku()));
+        textTokens.addAll(SearchText.tokens(document.categoryName()));
+        List<String> descriptionWords = SearchText.tokens(document.description());
+
+        return terms.stream().allMatch(term ->
+                textTokens.stream().anyMatch(token -> token.contains(term)) || descriptionWords.contains(term));
+    }
+}
@@ -0,0 +1,109 @@
+package co.edu.unbosque.quickcourier.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Capa de cambios sobre el segmento: altas, modificaciones y bajas, compactación
+ * y cambios recibidos mientras se reconstruye
+ */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new ProductSearchIndex();
+        index.rebuildFrom(() -> List.of(
+                product(1L, "Cable alfa"),
+                product(2L, "Cable gamma"),
+                product(3L, "Lámpara de escritorio")));
+    }
+
+    @Test
+    void notReadyBeforeFirstBuild() {
+        assertThat(new ProductSearchIndex().search("cable", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void upsertedProductIsMergedInNameOrder() {
+        index.upsert(product(4L, "Cable beta"));
+
+        assertThat(ids("cable", 0, 10)).containsExactly(1L, 4L, 2L);
+        assertThat(index.search("cable", 0, 10).orElseThrow().total()).isEqualTo(3);
+        // La página se arma mezclando segmento y capa de cambios
+        assertThat(ids("cable", 1, 1)).containsExactly(4L);
+        assertThat(ids("cable", 2, 5)).containsExactly(2L);
+    }
+
+    @Test
+    void upsertReplacesTheSegmentVersion() {
+        index.upsert(product(1L, "Lámpara colgante"));
+
+        assertThat(ids("cable", 0, 10)).containsExactly(2L);
+        assertThat(ids("lampara", 0, 10)).containsExactly(1L, 3L);
+        assertThat(index.pendingChanges()).isEqualTo(2);
+    }
+
+    @Test
+    void upsertWithSameTextKeepsTheSegment() {
+        index.upsert(product(1L, "Cable alfa"));
+
+        assertThat(index.pendingChanges()).isZero();
+        assertThat(ids("cable", 0, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void removeHidesSegmentAndOverlayProducts() {
+        index.upsert(product(4L, "Cable beta"));
+        index.remove(4L);
+        index.remove(2L);
+
+        assertThat(ids("cable", 0, 10)).containsExactly(1L);
+        assertThat(index.search("cable", 0, 10).orElseThrow().total()).isEqualTo(1);
+    }
+
+    @Test
+    void compactAbsorbsPendingChanges() {
+        index.upsert(product(4L, "Cable beta"));
+        index.upsert(product(3L, "Cable delta"));
+        index.remove(1L);
+        assertThat(index.pendingChanges()).isEqualTo(4);
+
+        index.compact();
+
+        assertThat(index.pendingChanges()).isZero();
+        assertThat(ids("cable", 0, 10)).containsExactly(4L, 3L, 2L);
+        assertThat(ids("lampara", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void rebuildReplaysChangesReceivedWhileLoading() {
+        index.rebuildFrom(() -> {
+            // Confirmados después de la lectura: el cargador devuelve el estado anterior
+            index.upsert(product(5L, "Cable epsilon"));
+            index.remove(2L);
+            return List.of(product(1L, "Cable alfa"), product(2L, "Cable gamma"));
+        });
+
+        assertThat(ids("cable", 0, 10)).containsExactly(1L, 5L);
+        assertThat(index.pendingChanges()).isEqualTo(2);
+    }
+
+    @Test
+    void termsShorterThanATrigramAreLeftToTheDatabase() {
+        assertThat(index.search("ca", 0, 10)).isEmpty();
+    }
+
+    private List<Long> ids(String query, long offset, int limit) {
+        return index.search(query, offset, limit).orElseThrow().productIds();
+    }
+
+    private static ProductSearchDocument product(Long id, String name) {
+        return new ProductSearchDocument(id, name, "SKU-" + id, "Hogar", null);
+    }
+}
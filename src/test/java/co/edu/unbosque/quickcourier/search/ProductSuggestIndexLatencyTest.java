@@ -0,0 +1,135 @@
+package co.edu.unbosque.quickcourier.search;
+
+import co.edu.unbosque.quickcourier.dto.response.ProductSuggestionResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latencia del autocompletado sobre un catálogo de 200 000 productos, sin la caché de respuestas
+ * Objetivo: p99 dentro del presupuesto de search.suggest.latency-budget (2 ms) incluso para
+ * prefijos de una letra, que abarcan decenas de miles de productos
+ */
+class ProductSuggestIndexLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestIndexLatencyTest.class);
+
+    private static final int CATALOGUE_SIZE = 200_000;
+    private static final int LIMIT = 10;
+    private static final int WARMUP_ROUNDS = 500;
+    private static final int MEASURED_ROUNDS = 500;
+    private static final Duration BUDGET = Duration.ofMillis(2);
+
+    private static final ProductSuggestIndex index = new ProductSuggestIndex(
+            new NoOpCacheManager(), new SimpleMeterRegistry(), 20, BUDGET);
+    private static List<ProductSearchDocument> catalogue;
+    private static Map<Long, Long> sales;
+
+    @BeforeAll
+    static void buildIndex() {
+        catalogue = ProductCatalogFixtures.catalogue(CATALOGUE_SIZE);
+        index.load(() -> catalogue);
+
+        SplittableRandom random = new SplittableRandom(11);
+        sales = new HashMap<>();
+        for (ProductSearchDocument document : catalogue) {
+            if (random.nextInt(4) == 0) {
+                sales.put(document.id(), (long) random.nextInt(10_000));
+            }
+        }
+        index.updatePopularity(sales);
+    }
+
+    @Test
+    void suggestionsWithinLatencyBudget() {
+        String[] prefixes = prefixes();
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String prefix : prefixes) {
+                index.suggest(prefix, LIMIT);
+            }
+        }
+
+        long[] samples = new long[MEASURED_ROUNDS * prefixes.length];
+        int sample = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (String prefix : prefixes) {
+                long start = System.nanoTime();
+                index.suggest(prefix, LIMIT);
+                samples[sample++] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(samples);
+        long p50 = samples[samples.length / 2];
+        long p99 = samples[(int) (samples.length * 0.99)];
+
+        logger.info("Product suggest over {} products: p50={} us, p99={} us", CATALOGUE_SIZE,
+                TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99));
+
+        assertThat(p99).isLessThan(BUDGET.toNanos());
+    }
+
+    /**
+     * Mismos resultados que recorrer el catálogo completo y ordenarlo por popularidad
+     */
+    @Test
+    void matchesFullScan() {
+        for (String prefix : prefixes()) {
+            String normalized = String.join(" ", SearchText.tokens(prefix));
+            List<Long> expected = catalogue.stream()
+                    .filter(document -> hasKeyStartingWith(document, normalized))
+                    .sorted(Comparator.comparing((ProductSearchDocument document) ->
+                                    sales.getOrDefault(document.id(), 0L), Comparator.reverseOrder())
+                            .thenComparing(ProductSearchDocument::name, String.CASE_INSENSITIVE_ORDER)
+                            .thenComparing(ProductSearchDocument::id))
+                    .limit(LIMIT)
+                    .map(ProductSearchDocument::id)
+                    .toList();
+
+            assertThat(index.suggest(prefix, LIMIT)).as(prefix)
+                    .extracting(ProductSuggestionResponseDTO::id)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    private static boolean hasKeyStartingWith(ProductSearchDocument document, String prefix) {
+        List<String> tokens = SearchText.tokens(document.name());
+        for (int i = 0; i < tokens.size(); i++) {
+            if (String.join(" ", tokens.subList(i, tokens.size())).startsWith(prefix)) {
+                return true;
+            }
+        }
+        return String.join(" ", SearchText.tokens(document.sku())).startsWith(prefix);
+    }
+
+    /**
+     * Lo que se teclea letra a letra: prefijos de una a seis letras de nombres, marcas y SKU
+     */
+    private static String[] prefixes() {
+        List<String> words = List.of("cámara", "audifonos inalambrico", ProductCatalogFixtures.brand(17),
+                "sku-00123", "licuadora portatil", "sol", "9");
+        List<String> prefixes = new ArrayList<>();
+        for (String word : words) {
+            for (int length = 1; length <= Math.min(6, word.length()); length++) {
+                prefixes.add(word.substring(0, length));
+            }
+        }
+        return prefixes.toArray(String[]::new);
+    }
+}
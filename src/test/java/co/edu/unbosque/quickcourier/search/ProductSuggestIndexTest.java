@@ -0,0 +1,155 @@
+package co.edu.unbosque.quickcourier.search;
+
+import co.edu.unbosque.quickcourier.dto.response.ProductSuggestionResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El orden por popularidad debe considerar todo el rango del prefijo, no solo los primeros ids;
+ * los cambios de productos se ven de inmediato e invalidan solo los prefijos afectados
+ */
+class ProductSuggestIndexTest {
+
+    private static final int PRODUCTS = 5000;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void loadProducts() {
+        cacheManager = new ConcurrentMapCacheManager(ProductSuggestIndex.CACHE_NAME);
+        index = new ProductSuggestIndex(cacheManager,
+                new SimpleMeterRegistry(), 20, Duration.ofMillis(2));
+
+        List<ProductSearchDocument> documents = new ArrayList<>(PRODUCTS);
+        for (int i = 1; i <= PRODUCTS; i++) {
+            documents.add(new ProductSearchDocument((long) i, String.format("Cable %04d", i),
+                    String.format("SKU-%05d", i), "Electrónica", null));
+        }
+        index.load(() -> documents);
+    }
+
+    @Test
+    void ranksBestSellersAnywhereInTheRange() {
+        // Los más vendidos quedan al final del orden de claves
+        Map<Long, Long> sales = new HashMap<>();
+        sales.put((long) PRODUCTS, 500L);
+        sales.put((long) PRODUCTS - 1, 400L);
+        sales.put(1L, 300L);
+        index.updatePopularity(sales);
+
+        List<ProductSuggestionResponseDTO> suggestions = index.suggest("ca", 3);
+
+        assertThat(suggestions).extracting(ProductSuggestionResponseDTO::id)
+                .containsExactly((long) PRODUCTS, (long) PRODUCTS - 1, 1L);
+    }
+
+    @Test
+    void listsEachProductOnceWhenSeveralKeysMatch() {
+        index.upsert(new ProductSearchDocument(9999L, "USB cable USB", "USB-1", "Electrónica", null));
+        index.updatePopularity(Map.of(9999L, 10L));
+
+        List<ProductSuggestionResponseDTO> suggestions = index.suggest("usb", 5);
+
+        assertThat(suggestions).extracting(ProductSuggestionResponseDTO::id).containsExactly(9999L);
+    }
+
+    @Test
+    void resultsFollowPopularityChanges() {
+        index.updatePopularity(Map.of(42L, 1L));
+        assertThat(index.suggest("cable", 1)).extracting(ProductSuggestionResponseDTO::id).containsExactly(42L);
+
+        index.updatePopularity(Map.of(4242L, 1L));
+        assertThat(index.suggest("cable", 1)).extracting(ProductSuggestionResponseDTO::id).containsExactly(4242L);
+    }
+
+    @Test
+    void changesAreVisibleBeforeCompaction() {
+        index.updatePopularity(Map.of(42L, 5L));
+        index.upsert(new ProductSearchDocument(42L, "Lámpara 0042", "SKU-00042", "Hogar", null));
+        index.upsert(new ProductSearchDocument(9000L, "Cable nuevo", "NEW-1", "Electrónica", null));
+        index.remove(1L);
+
+        assertThat(index.suggest("cable", 2)).extracting(ProductSuggestionResponseDTO::id)
+                .containsExactly(2L, 3L);
+        assertThat(index.suggest("cable 0001", 20)).extracting(ProductSuggestionResponseDTO::id)
+                .doesNotContain(1L);
+        assertThat(index.suggest("cable n", 5)).extracting(ProductSuggestionResponseDTO::id)
+                .containsExactly(9000L);
+        assertThat(index.suggest("lamp", 5)).extracting(ProductSuggestionResponseDTO::id)
+                .containsExactly(42L);
+        assertThat(index.pendingChanges()).isEqualTo(4);
+
+        index.compact();
+
+        assertThat(index.pendingChanges()).isZero();
+        assertThat(index.suggest("cable n", 5)).extracting(ProductSuggestionResponseDTO::id)
+                .containsExactly(9000L);
+        assertThat(index.suggest("lamp", 5)).extracting(ProductSuggestionResponseDTO::unitsSold)
+                .containsExactly(5L);
+    }
+
+    @Test
+    void productChangeEvictsOnlyItsPrefixes() {
+        index.suggest("cable", 5);
+        index.suggest("sku", 5);
+        index.suggest("usb", 5);
+        Cache cache = cacheManager.getCache(ProductSuggestIndex.CACHE_NAME);
+
+        index.upsert(new ProductSearchDocument(9000L, "USB hub", "HUB-1", "Electrónica", null));
+
+        assertThat(cache.get("usb")).isNull();
+        assertThat(cache.get("cable")).isNotNull();
+        assertThat(cache.get("sku")).isNotNull();
+    }
+
+    @Test
+    void upsertWithSameNameAndSkuKeepsCachedResults() {
+        index.suggest("cable", 5);
+        Cache cache = cacheManager.getCache(ProductSuggestIndex.CACHE_NAME);
+
+        index.upsert(new ProductSearchDocument(7L, "Cable 0007", "SKU-00007", "Otra categoría", "Nueva descripción"));
+
+        assertThat(cache.get("cable")).isNotNull();
+        assertThat(index.pendingChanges()).isZero();
+    }
+
+    @Test
+    void matchesFullScanForEveryPrefixLength() {
+        Map<Long, Long> sales = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            sales.put(id, (long) random.nextInt(50));
+        }
+        index.updatePopularity(sales);
+
+        for (String prefix : List.of("c", "cable 0", "cable 12", "cable 4999", "sku 0", "sku 03", "0", "12", "x")) {
+            List<Long> expected = LongStream.rangeClosed(1, PRODUCTS).boxed()
+                    .filter(id -> String.format("cable %04d", id).startsWith(prefix)
+                            || String.format("%04d", id).startsWith(prefix)
+                            || String.format("sku %05d", id).startsWith(prefix))
+                    .sorted(Comparator.comparing((Long id) -> sales.get(id), Comparator.reverseOrder())
+                            .thenComparing(id -> String.format("Cable %04d", id), String.CASE_INSENSITIVE_ORDER)
+                            .thenComparing(id -> id))
+                    .limit(10)
+                    .toList();
+
+            assertThat(index.suggest(prefix, 10)).as(prefix).extracting(ProductSuggestionResponseDTO::id)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package co.edu.unbosque.quickcourier.security;
+
+import co.edu.unbosque.quickcourier.cache.StandaloneCacheRegistry;
+import co.edu.unbosque.quickcourier.repository.TokenBlackListRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por request de JwtAuthenticationFilter antes y después de verificar el token una sola vez
+ *
+ * - legacyFilter: el filtro anterior, que construía un parser y verificaba la firma seis veces por request
+ * - filterCacheMiss: una verificación HMAC por request (caché de verificados deshabilitada)
+ * - filterCacheHit: el token ya está en la caché de verificados; solo se calcula su SHA-256
+ *
+ * token_blacklist es un mock que responde al instante, así que se mide solo el costo de CPU:
+ * en producción legacyFilter además consultaba la base de datos en cada request
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=co.edu.unbosque.quickcourier.security.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET =
+            "2s+7kPnM7Fj7tkK8kC4cYcK9HdRRa8TRlfJ2DJ7vVxYdM8bQeOZwXrZzSdc5p5R7f1Mb1k8nYzKq8aJwZqkQFQ==";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private OncePerRequestFilter legacyFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TokenBlackListRepository repository = Mockito.mock(TokenBlackListRepository.class);
+        TokenRevocationRegistry revocations = new TokenRevocationRegistry(
+                repository, Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                100_000, 0.001, Duration.ofSeconds(30));
+        revocations.load();
+
+        JwtTokenProvider uncached = provider(0);
+        JwtTokenProvider cached = provider(10_000);
+        token = cached.generateAccessToken("cliente@quickcourier.co", 42L, "CUSTOMER");
+
+        legacyFilter = new LegacyJwtAuthenticationFilter(
+                Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), repository);
+        uncachedFilter = new JwtAuthenticationFilter(uncached, revocations);
+        cachedFilter = new JwtAuthenticationFilter(cached, revocations);
+    }
+
+    @Benchmark
+    public Object legacyFilter() throws ServletException, IOException {
+        return authenticate(legacyFilter);
+    }
+
+    @Benchmark
+    public Object filterCacheMiss() throws ServletException, IOException {
+        return authenticate(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object filterCacheHit() throws ServletException, IOException {
+        return authenticate(cachedFilter);
+    }
+
+    private Object authenticate(OncePerRequestFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JwtTokenProvider provider(long verifiedCacheSize) {
+        return new JwtTokenProvider(SECRET, 900_000, 2_592_000_000L, verifiedCacheSize,
+                new StandaloneCacheRegistry(new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Copia del filtro anterior: isTokenValid, dos extracciones para la blacklist y tres para la
+     * autenticación, cada una con su propio parser
+     */
+    private static final class LegacyJwtAuthenticationFilter extends OncePerRequestFilter {
+
+        private final SecretKey secretKey;
+        private final TokenBlackListRepository tokenBlacklistRepository;
+
+        private LegacyJwtAuthenticationFilter(SecretKey secretKey, TokenBlackListRepository tokenBlacklistRepository) {
+            this.secretKey = secretKey;
+            this.tokenBlacklistRepository = tokenBlacklistRepository;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String token = request.getHeader(HttpHeaders.AUTHORIZATION).substring(7);
+
+            if (!parse(token).getExpiration().before(new Date())) {
+                parse(token).getSubject();
+                boolean blacklisted = tokenBlacklistRepository.existsByJtiAndUserId(
+                        token.substring(0, Math.min(token.length(), 50)),
+                        parse(token).get("userId", Long.class));
+
+                if (!blacklisted) {
+                    String email = parse(token).getSubject();
+                    Long userId = parse(token).get("userId", Long.class);
+                    String role = parse(token).get("role", String.class);
+
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            email, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute("userId", userId);
+                }
+            }
+
+            filterChain.doFilter(request, response);
+        }
+
+        private Claims parse(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(secretKey)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package co.edu.unbosque.quickcourier.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Sin falsos negativos y con la tasa de falsos positivos para la que se dimensionó el filtro
+ */
+class RevokedJtiBloomFilterTest {
+
+    private static final int EXPECTED = 100_000;
+    private static final double PROBABILITY = 0.001;
+
+    @Test
+    void neverReportsARevokedJtiAsMissing() {
+        RevokedJtiBloomFilter filter = new RevokedJtiBloomFilter(EXPECTED, PROBABILITY);
+        List<String> revoked = randomJtis(EXPECTED);
+        revoked.forEach(filter::put);
+
+        assertThat(revoked).allMatch(filter::mightContain);
+        assertThat(filter.insertions()).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void falsePositiveRateStaysWithinConfiguredProbability() {
+        RevokedJtiBloomFilter filter = new RevokedJtiBloomFilter(EXPECTED, PROBABILITY);
+        randomJtis(EXPECTED).forEach(filter::put);
+
+        int probes = 200_000;
+        long falsePositives = randomJtis(probes).stream().filter(filter::mightContain).count();
+
+        // Con 200k pruebas el error estándar es ~7% de p: el doble deja margen de sobra
+        assertThat((double) falsePositives / probes).isLessThan(2 * PROBABILITY);
+        assertThat(filter.expectedFalsePositiveProbability()).isCloseTo(PROBABILITY, within(PROBABILITY / 10));
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        RevokedJtiBloomFilter filter = new RevokedJtiBloomFilter(EXPECTED, PROBABILITY);
+
+        assertThat(randomJtis(1_000)).noneMatch(filter::mightContain);
+    }
+
+    @Test
+    void concurrentPutsLoseNoBits() throws Exception {
+        RevokedJtiBloomFilter filter = new RevokedJtiBloomFilter(EXPECTED, PROBABILITY);
+        List<List<String>> perThread = IntStream.range(0, 8).mapToObj(i -> randomJtis(EXPECTED / 8)).toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(perThread.size());
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (List<String> jtis : perThread) {
+                puts.add(executor.submit(() -> jtis.forEach(filter::put)));
+            }
+            for (Future<?> put : puts) {
+                put.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(perThread).allSatisfy(jtis -> assertThat(jtis).allMatch(filter::mightContain));
+        assertThat(filter.insertions()).isEqualTo(EXPECTED);
+    }
+
+    private static List<String> randomJtis(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID().toString()).toList();
+    }
+}
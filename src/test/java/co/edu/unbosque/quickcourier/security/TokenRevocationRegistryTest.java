@@ -0,0 +1,121 @@
+package co.edu.unbosque.quickcourier.security;
+
+import co.edu.unbosque.quickcourier.repository.TokenBlackListRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Qué consultas de revocación llegan a token_blacklist y cuáles resuelve el filtro en memoria
+ */
+class TokenRevocationRegistryTest {
+
+    private TokenBlackListRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenBlackListRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new TokenRevocationRegistry(repository, mock(PlatformTransactionManager.class),
+                meterRegistry, 1_000, 0.001, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void queriesDatabaseUntilFilterIsLoaded() {
+        when(repository.existsByJti("jti-1")).thenReturn(true);
+
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+        verify(repository).existsByJti("jti-1");
+    }
+
+    @Test
+    void unknownJtiIsResolvedWithoutDatabase() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of("revoked"));
+        registry.load();
+
+        assertThat(registry.isRevoked("active")).isFalse();
+        verify(repository, never()).existsByJti("active");
+    }
+
+    @Test
+    void possiblePositiveIsConfirmedAgainstDatabase() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of("revoked"));
+        when(repository.existsByJti("revoked")).thenReturn(true);
+        registry.load();
+
+        assertThat(registry.isRevoked("revoked")).isTrue();
+        verify(repository).existsByJti("revoked");
+        assertThat(meterRegistry.get("security.revocation.checks").tag("result", "revoked").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void logoutIsVisibleLocallyBeforeNextSync() {
+        registry.load();
+
+        registry.markRevoked("logged-out");
+        when(repository.existsByJti("logged-out")).thenReturn(true);
+
+        assertThat(registry.isRevoked("logged-out")).isTrue();
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherNodes() {
+        registry.load();
+        when(repository.findJtisRevokedSince(any(), any())).thenReturn(List.of("remote"));
+        when(repository.existsByJti("remote")).thenReturn(true);
+
+        registry.syncFromDatabase();
+
+        assertThat(registry.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void rebuildDropsExpiredRevocations() {
+        when(repository.findActiveJtis(any())).thenReturn(List.of("expiring"));
+        registry.load();
+
+        when(repository.findActiveJtis(any())).thenReturn(List.of());
+        registry.rebuild();
+
+        verify(repository, times(2)).deleteExpiredTokens(any(LocalDateTime.class));
+        assertThat(registry.isRevoked("expiring")).isFalse();
+        verify(repository, never()).existsByJti("expiring");
+    }
+
+    @Test
+    void revocationDuringRebuildIsNotLost() {
+        registry.load();
+        when(repository.findActiveJtis(any())).thenAnswer(invocation -> {
+            // Logout mientras se lee la tabla: la fila aún no está en la lista que se carga
+            registry.markRevoked("concurrent");
+            return List.of();
+        });
+        when(repository.existsByJti("concurrent")).thenReturn(true);
+
+        registry.rebuild();
+
+        assertThat(registry.isRevoked("concurrent")).isTrue();
+    }
+
+    @Test
+    void tokensWithoutJtiAreNeverRevoked() {
+        assertThat(registry.isRevoked(null)).isFalse();
+        verify(repository, never()).existsByJti(any());
+    }
+}
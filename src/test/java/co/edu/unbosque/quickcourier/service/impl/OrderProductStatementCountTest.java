@@ -0,0 +1,53 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.dto.request.CreateOrderRequestDTO;
+import co.edu.unbosque.quickcourier.dto.request.OrderItemRequestDTO;
+import co.edu.unbosque.quickcourier.model.Address;
+import co.edu.unbosque.quickcourier.model.User;
+import co.edu.unbosque.quickcourier.service.OrderService;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import co.edu.unbosque.quickcourier.support.SqlStatementRecorder;
+import co.edu.unbosque.quickcourier.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Crear un pedido consulta y actualiza la tabla product con un número fijo de statements,
+ * sin importar cuántas líneas tenga (carga bloqueada en una consulta + un UPDATE de stock)
+ */
+class OrderProductStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void productStatementsDoNotGrowWithBasketSize() {
+        long small = productStatementsForBasket(5);
+        long large = productStatementsForBasket(40);
+
+        assertThat(small).isLessThanOrEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long productStatementsForBasket(int lines) {
+        User user = testData.user();
+        Address address = testData.address(user);
+
+        List<OrderItemRequestDTO> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItemRequestDTO(testData.product(100).getId(), 2));
+        }
+
+        SqlStatementRecorder.reset();
+        orderService.createOrder(new CreateOrderRequestDTO(address.getId(), items, null), user.getId());
+        return SqlStatementRecorder.countTouching("product");
+    }
+}
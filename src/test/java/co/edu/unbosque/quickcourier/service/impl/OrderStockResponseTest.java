@@ -0,0 +1,57 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.dto.request.CreateOrderRequestDTO;
+import co.edu.unbosque.quickcourier.dto.request.OrderItemRequestDTO;
+import co.edu.unbosque.quickcourier.dto.response.OrderItemResponseDTO;
+import co.edu.unbosque.quickcourier.dto.response.OrderResponseDTO;
+import co.edu.unbosque.quickcourier.model.Address;
+import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.model.User;
+import co.edu.unbosque.quickcourier.repository.ProductRepository;
+import co.edu.unbosque.quickcourier.service.OrderService;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import co.edu.unbosque.quickcourier.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las respuestas de crear y cancelar un pedido muestran el stock que quedó en la base de datos,
+ * y la reserva no vuelve a escribir las filas de producto
+ */
+class OrderStockResponseTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void responsesShowStockAfterReservationAndRelease() {
+        User user = testData.user();
+        Address address = testData.address(user);
+        Product product = testData.product(50);
+
+        // Dos líneas del mismo producto: la reserva agrupa las cantidades
+        OrderResponseDTO created = orderService.createOrder(new CreateOrderRequestDTO(address.getId(),
+                List.of(new OrderItemRequestDTO(product.getId(), 3),
+                        new OrderItemRequestDTO(product.getId(), 4)), null), user.getId());
+
+        assertThat(created.items()).extracting(OrderItemResponseDTO::product)
+                .allSatisfy(summary -> assertThat(summary.stockQuantity()).isEqualTo(43));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(43);
+
+        OrderResponseDTO cancelled = orderService.cancelOrder(created.id(), user.getId());
+
+        assertThat(cancelled.items()).extracting(OrderItemResponseDTO::product)
+                .allSatisfy(summary -> assertThat(summary.stockQuantity()).isEqualTo(50));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,57 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.model.RateLimitTracking;
+import co.edu.unbosque.quickcourier.model.User;
+import co.edu.unbosque.quickcourier.ratelimit.RateLimitTrackingDelta;
+import co.edu.unbosque.quickcourier.repository.RateLimitTrackingRepository;
+import co.edu.unbosque.quickcourier.service.RateLimitTrackingService;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import co.edu.unbosque.quickcourier.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El upsert en lote crea las ventanas nuevas, acumula sobre las existentes
+ * y une las filas repetidas dentro de un mismo lote
+ */
+class RateLimitTrackingUpsertTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private RateLimitTrackingService trackingService;
+
+    @Autowired
+    private RateLimitTrackingRepository trackingRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void batchesAreAccumulatedPerWindow() {
+        User user = testData.user();
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime end = start.plusMinutes(1);
+
+        trackingService.recordRequests(List.of(
+                new RateLimitTrackingDelta(user.getId(), "/api/orders", start, end, 3),
+                new RateLimitTrackingDelta(user.getId(), "/api/orders", start, end, 2),
+                new RateLimitTrackingDelta(user.getId(), "/api/products", start, end, 1)));
+        trackingService.recordRequests(List.of(
+                new RateLimitTrackingDelta(user.getId(), "/api/orders", start, end, 4)));
+
+        List<RateLimitTracking> windows = trackingRepository.findByUserId(user.getId(), PageRequest.of(0, 10))
+                .getContent();
+
+        assertThat(windows).hasSize(2);
+        assertThat(windows).filteredOn(window -> window.getEndpoint().equals("/api/orders"))
+                .singleElement().extracting(RateLimitTracking::getRequestCount).isEqualTo(9);
+        assertThat(windows).filteredOn(window -> window.getEndpoint().equals("/api/products"))
+                .singleElement().extracting(RateLimitTracking::getRequestCount).isEqualTo(1);
+    }
+}
@@ -0,0 +1,108 @@
+package co.edu.unbosque.quickcourier.service.impl;
+
+import co.edu.unbosque.quickcourier.dto.request.CreateOrderRequestDTO;
+import co.edu.unbosque.quickcourier.dto.request.OrderItemRequestDTO;
+import co.edu.unbosque.quickcourier.exception.ConflictException;
+import co.edu.unbosque.quickcourier.model.Address;
+import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.model.User;
+import co.edu.unbosque.quickcourier.repository.ProductRepository;
+import co.edu.unbosque.quickcourier.service.OrderService;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import co.edu.unbosque.quickcourier.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de estrés de la reserva de stock: muchos pedidos en paralelo sobre el mismo SKU
+ * nunca pueden vender más unidades de las que hay
+ */
+class StockReservationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int STOCK = 300;
+    private static final int ATTEMPTS = 1_000;
+    private static final int THREADS = 16;
+    private static final int USERS = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void parallelOrdersNeverOversell() throws Exception {
+        Product product = testData.product(STOCK);
+        // Un segundo producto en cada pedido: la reserva de varias líneas también es todo o nada
+        Product companion = testData.product(ATTEMPTS);
+
+        List<User> users = new ArrayList<>();
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = testData.user();
+            users.add(user);
+            addresses.add(testData.address(user));
+        }
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int slot = i % USERS;
+                CreateOrderRequestDTO request = new CreateOrderRequestDTO(
+                        addresses.get(slot).getId(),
+                        List.of(new OrderItemRequestDTO(product.getId(), 1),
+                                new OrderItemRequestDTO(companion.getId(), 1)),
+                        null);
+
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(request, users.get(slot).getId());
+                        succeeded.incrementAndGet();
+                    } catch (ConflictException | IllegalStateException e) {
+                        // Sin stock: OrderFactory (filas bloqueadas) o el UPDATE condicional
+                        rejected.incrementAndGet();
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - STOCK);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isZero();
+        assertThat(productRepository.findById(companion.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(ATTEMPTS - STOCK);
+    }
+}
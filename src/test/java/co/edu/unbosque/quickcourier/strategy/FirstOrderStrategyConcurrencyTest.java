@@ -0,0 +1,125 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import co.edu.unbosque.quickcourier.dto.request.CreateOrderRequestDTO;
+import co.edu.unbosque.quickcourier.dto.request.OrderItemRequestDTO;
+import co.edu.unbosque.quickcourier.dto.response.OrderResponseDTO;
+import co.edu.unbosque.quickcourier.model.Address;
+import co.edu.unbosque.quickcourier.model.Order;
+import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.model.ShippingRule;
+import co.edu.unbosque.quickcourier.model.User;
+import co.edu.unbosque.quickcourier.repository.ShippingRuleRepository;
+import co.edu.unbosque.quickcourier.service.OrderService;
+import co.edu.unbosque.quickcourier.support.PostgresIntegrationTest;
+import co.edu.unbosque.quickcourier.support.SqlStatementRecorder;
+import co.edu.unbosque.quickcourier.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Envío gratis por primera compra bajo concurrencia: pedidos simultáneos del mismo usuario
+ * nuevo obtienen el beneficio una sola vez, y las consultas de solo lectura no bloquean al usuario
+ */
+class FirstOrderStrategyConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int CONCURRENT_ORDERS = 8;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ShippingStrategyFactory shippingStrategyFactory;
+
+    @Autowired
+    private ShippingRuleEngine shippingRuleEngine;
+
+    @Autowired
+    private ShippingRuleRepository shippingRuleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private ShippingRule firstOrderRule;
+
+    @BeforeEach
+    void createFirstOrderRule() {
+        ShippingRule rule = new ShippingRule("FIRST_ORDER_TEST", "Primera compra", "FIRST_ORDER", -1000);
+        rule.setConfiguration(Map.of("conditions", Map.of("is_first_order", true)));
+        firstOrderRule = shippingRuleRepository.save(rule);
+        shippingRuleEngine.reload();
+    }
+
+    @AfterEach
+    void deleteFirstOrderRule() {
+        shippingRuleRepository.delete(firstOrderRule);
+        shippingRuleEngine.reload();
+    }
+
+    @Test
+    void concurrentFirstOrdersGetFreeShippingOnce() throws Exception {
+        User user = testData.user();
+        Address address = testData.address(user);
+        Product product = testData.product(100);
+
+        CreateOrderRequestDTO request = new CreateOrderRequestDTO(
+                address.getId(), List.of(new OrderItemRequestDTO(product.getId(), 1)), null);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_ORDERS);
+        List<OrderResponseDTO> orders = new ArrayList<>();
+        try {
+            List<Future<OrderResponseDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_ORDERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrder(request, user.getId());
+                }));
+            }
+
+            start.countDown();
+            for (Future<OrderResponseDTO> future : futures) {
+                orders.add(future.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(orders)
+                .filteredOn(order -> order.shippingCost().signum() == 0)
+                .singleElement()
+                .extracting(OrderResponseDTO::appliedShippingRuleCode)
+                .isEqualTo("FIRST_ORDER_TEST");
+    }
+
+    @Test
+    void readOnlyCalculationDoesNotLockUser() {
+        User user = testData.user();
+        Address address = testData.address(user);
+        Order draft = new Order("QC-DRAFT", user, address);
+
+        SqlStatementRecorder.reset();
+        BigDecimal cost = transactionTemplate.execute(status ->
+                shippingStrategyFactory.calculateShipping(draft).shippingCost());
+
+        assertThat(cost).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(SqlStatementRecorder.countContaining("for update")).isZero();
+    }
+}
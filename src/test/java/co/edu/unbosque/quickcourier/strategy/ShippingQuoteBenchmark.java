@@ -0,0 +1,120 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import co.edu.unbosque.quickcourier.model.ShippingRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de cotización: snapshot compilado frente al recorrido anterior sobre entidades
+ * ShippingRule (getConfigValue y conversiones en cada pedido)
+ *
+ * El camino anterior además consultaba shipping_rule en cada pedido; ese viaje a la base
+ * no se mide aquí, así que la diferencia real es mayor que la que reporta el benchmark
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=co.edu.unbosque.quickcourier.strategy.ShippingQuoteBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShippingQuoteBenchmark {
+
+    private static final BigDecimal DEFAULT_SHIPPING_COST = new BigDecimal("10000.00");
+
+    /** Cantidad de reglas de zona en producción */
+    @Param({"300"})
+    public int zoneRules;
+
+    private List<ShippingRule> rules;
+    private ShippingRuleSnapshot snapshot;
+    private ShippingStrategyFactory factory;
+    private ShippingContext[] contexts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rules = ShippingRuleFixtures.rules(zoneRules);
+        snapshot = ShippingRuleFixtures.snapshot(rules);
+        factory = new ShippingStrategyFactory(null, null);
+
+        // Zonas repartidas sobre todas las reglas más una sin regla propia (cae en WEIGHT_BASED)
+        contexts = new ShippingContext[64];
+        for (int i = 0; i < contexts.length; i++) {
+            String zone = i == 0 ? "Sin-regla" : ShippingRuleFixtures.zone((int) ((long) i * zoneRules / contexts.length));
+            contexts[i] = ShippingRuleFixtures.context(zone);
+        }
+    }
+
+    private ShippingContext nextContext() {
+        ShippingContext context = contexts[next];
+        next = (next + 1) & (contexts.length - 1);
+        return context;
+    }
+
+    @Benchmark
+    public BigDecimal compiledSnapshot() {
+        return factory.calculateShipping(nextContext(), snapshot).shippingCost();
+    }
+
+    @Benchmark
+    public BigDecimal entityScan() {
+        ShippingContext context = nextContext();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ShippingRule rule : rules) {
+            if (!rule.isValidAt(now)) {
+                continue;
+            }
+
+            if ("FLAT_RATE_ZONE".equals(rule.getRuleType())) {
+                String configuredZone = rule.getConfigValue("zone", String.class);
+                if (configuredZone != null && configuredZone.equalsIgnoreCase(context.zone())) {
+                    Object flatRate = rule.getConfiguration().get("flat_rate");
+                    return flatRate instanceof Number number
+                            ? BigDecimal.valueOf(number.doubleValue())
+                            : new BigDecimal(flatRate.toString());
+                }
+            } else {
+                Double baseRate = rule.getConfigValue("base_rate", Double.class);
+                Double ratePerKg = rule.getConfigValue("rate_per_kg", Double.class);
+                Double threshold = rule.getConfigValue("free_shipping_threshold_kg", Double.class);
+
+                if (context.totalWeightKg().compareTo(BigDecimal.valueOf(threshold)) >= 0) {
+                    return BigDecimal.ZERO;
+                }
+                return BigDecimal.valueOf(baseRate)
+                        .add(context.totalWeightKg().multiply(BigDecimal.valueOf(ratePerKg)))
+                        .setScale(2, RoundingMode.HALF_UP);
+            }
+        }
+
+        return DEFAULT_SHIPPING_COST;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShippingQuoteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import co.edu.unbosque.quickcourier.model.ShippingRule;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reglas de envío sintéticas para benchmarks: N reglas FLAT_RATE_ZONE (una por zona)
+ * más una regla WEIGHT_BASED sin zona con la menor prioridad, como en producción
+ */
+final class ShippingRuleFixtures {
+
+    static final FlatRateZoneStrategy FLAT_RATE_ZONE = new FlatRateZoneStrategy();
+    static final WeightBasedStrategy WEIGHT_BASED = new WeightBasedStrategy();
+
+    private ShippingRuleFixtures() {
+    }
+
+    static String zone(int index) {
+        return "Zona-" + index;
+    }
+
+    /**
+     * Reglas como las guarda la base, ordenadas por prioridad (menor = mayor prioridad)
+     */
+    static List<ShippingRule> rules(int zoneRules) {
+        List<ShippingRule> rules = new ArrayList<>(zoneRules + 1);
+
+        for (int i = 0; i < zoneRules; i++) {
+            ShippingRule rule = new ShippingRule("ZONE_" + i, "Tarifa " + zone(i), "FLAT_RATE_ZONE", 10 + i);
+            rule.setId((long) i + 1);
+            rule.setIsActive(true);
+            rule.setConfiguration(Map.of("zone", zone(i), "flat_rate", 6000 + i));
+            rules.add(rule);
+        }
+
+        ShippingRule weight = new ShippingRule("WEIGHT", "Por peso", "WEIGHT_BASED", 10_000);
+        weight.setId((long) zoneRules + 1);
+        weight.setIsActive(true);
+        weight.setConfiguration(Map.of("base_rate", 5000, "rate_per_kg", 2000, "free_shipping_threshold_kg", 10));
+        rules.add(weight);
+
+        return rules;
+    }
+
+    /**
+     * Snapshot compilado equivalente al que arma ShippingRuleEngine para las mismas reglas
+     */
+    static ShippingRuleSnapshot snapshot(List<ShippingRule> rules) {
+        List<CompiledShippingRule> compiled = new ArrayList<>(rules.size());
+
+        for (ShippingRule rule : rules) {
+            ShippingStrategy strategy = "FLAT_RATE_ZONE".equals(rule.getRuleType()) ? FLAT_RATE_ZONE : WEIGHT_BASED;
+            compiled.add(new CompiledShippingRule(
+                    rule.getId(), rule.getCode(), rule.getName(), rule.getRuleType(),
+                    Objects.requireNonNullElse(rule.getPriority(), 0),
+                    rule.getValidFrom(), rule.getValidUntil(), strategy, strategy.compile(rule)));
+        }
+        compiled.sort(Comparator.comparingInt(CompiledShippingRule::priority));
+
+        return new ShippingRuleSnapshot(1, LocalDateTime.now(), compiled);
+    }
+
+    static ShippingContext context(String zone) {
+        return new ShippingContext("BENCH", zone, new BigDecimal("2.500"), new BigDecimal("50000.00"),
+                1L, Boolean.FALSE, LocalDateTime.now(), false);
+    }
+}
@@ -0,0 +1,93 @@
+package co.edu.unbosque.quickcourier.strategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selección de regla con índice por zona frente al recorrido lineal de todo el snapshot,
+ * con 10, 100 y 1000 reglas de zona
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=co.edu.unbosque.quickcourier.strategy.ZoneRuleDispatchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZoneRuleDispatchBenchmark {
+
+    private static final BigDecimal DEFAULT_SHIPPING_COST = new BigDecimal("10000.00");
+
+    @Param({"10", "100", "1000"})
+    public int zoneRules;
+
+    private ShippingRuleSnapshot snapshot;
+    private CompiledShippingRule[] allRules;
+    private ShippingStrategyFactory factory;
+    private ShippingContext[] contexts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        snapshot = ShippingRuleFixtures.snapshot(ShippingRuleFixtures.rules(zoneRules));
+        allRules = snapshot.getRules().toArray(new CompiledShippingRule[0]);
+        factory = new ShippingStrategyFactory(null, null);
+
+        // Zonas repartidas uniformemente: en promedio el recorrido lineal revisa la mitad de las reglas
+        contexts = new ShippingContext[64];
+        for (int i = 0; i < contexts.length; i++) {
+            String zone = ShippingRuleFixtures.zone((int) ((long) i * zoneRules / contexts.length));
+            contexts[i] = ShippingRuleFixtures.context(zone);
+        }
+    }
+
+    private ShippingContext nextContext() {
+        ShippingContext context = contexts[next];
+        next = (next + 1) & (contexts.length - 1);
+        return context;
+    }
+
+    @Benchmark
+    public BigDecimal zoneIndex() {
+        return factory.calculateShipping(nextContext(), snapshot).shippingCost();
+    }
+
+    /**
+     * Mismo criterio que calculateShipping antes del índice: todas las reglas en orden de prioridad
+     */
+    @Benchmark
+    public BigDecimal linearScan() {
+        ShippingContext context = nextContext();
+
+        for (CompiledShippingRule rule : allRules) {
+            if (rule.isValidAt(context.evaluatedAt()) && rule.strategy().isApplicable(context, rule)) {
+                return rule.strategy().calculateShippingCost(context, rule);
+            }
+        }
+
+        return DEFAULT_SHIPPING_COST;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ZoneRuleDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,31 @@
+package co.edu.unbosque.quickcourier.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base de las pruebas de integración contra PostgreSQL real (Testcontainers)
+ * Los UPDATE condicionales, unnest y FOR UPDATE no se pueden probar con una base en memoria
+ *
+ * El contenedor se comparte entre todas las clases; sin Docker las pruebas se omiten
+ */
+@SpringBootTest
+@Import(TestData.class)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            POSTGRES.start();
+        }
+    }
+}
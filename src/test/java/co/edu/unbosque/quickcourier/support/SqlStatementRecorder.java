@@ -0,0 +1,48 @@
+package co.edu.unbosque.quickcourier.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Registra el SQL que Hibernate envía a la base, para contar statements en las pruebas
+ * Se activa con spring.jpa.properties.hibernate.session_factory.statement_inspector
+ * (Hibernate crea la instancia, por eso el registro es estático)
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Statements que contienen el fragmento indicado (sin distinguir mayúsculas)
+     */
+    public static long countContaining(String fragment) {
+        String lower = fragment.toLowerCase();
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().contains(lower))
+                .count();
+    }
+
+    /**
+     * Statements que leen o modifican la tabla indicada (FROM/UPDATE/INTO tabla)
+     */
+    public static long countTouching(String table) {
+        Pattern pattern = Pattern.compile("\\b(from|update|into)\\s+" + Pattern.quote(table) + "\\b",
+                Pattern.CASE_INSENSITIVE);
+        return STATEMENTS.stream()
+                .filter(sql -> pattern.matcher(sql).find())
+                .count();
+    }
+}
@@ -0,0 +1,50 @@
+package co.edu.unbosque.quickcourier.support;
+
+import co.edu.unbosque.quickcourier.model.Address;
+import co.edu.unbosque.quickcourier.model.Product;
+import co.edu.unbosque.quickcourier.model.User;
+import co.edu.unbosque.quickcourier.repository.AddressRepository;
+import co.edu.unbosque.quickcourier.repository.ProductRepository;
+import co.edu.unbosque.quickcourier.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Datos mínimos para las pruebas de integración (usuarios, direcciones y productos)
+ * Cada llamada genera valores únicos, así las clases no dependen de limpiar la base
+ */
+public class TestData {
+
+    private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final ProductRepository productRepository;
+
+    public TestData(UserRepository userRepository,
+                    AddressRepository addressRepository,
+                    ProductRepository productRepository) {
+        this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.productRepository = productRepository;
+    }
+
+    public User user() {
+        User user = new User();
+        user.setEmail("test-" + UUID.randomUUID() + "@quickcourier.test");
+        user.setPasswordHash("{noop}secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        return userRepository.save(user);
+    }
+
+    public Address address(User user) {
+        return addressRepository.save(new Address(user, "Calle 1 # 2-3", "Bogota", "NORTE"));
+    }
+
+    public Product product(int stock) {
+        String sku = "SKU-" + UUID.randomUUID().toString().substring(0, 12);
+        Product product = new Product(sku, "Producto " + sku, new BigDecimal("10000.00"), new BigDecimal("1.000"));
+        product.setStockQuantity(stock);
+        return productRepository.save(product);
+    }
+}